@@ -42,6 +42,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Queue;
+import java.util.Random;
 import java.util.RandomAccess;
 import java.util.Set;
 import java.util.SortedSet;
@@ -1395,6 +1396,37 @@ public class IterablesTest extends TestCase {
     verifyMergeSorted(iterables, allIntegers);
   }
 
+  public void testMergeSorted_stable() {
+    // Compares only the first character, so that ties show which iterable an element came from.
+    Ordering<String> byFirstChar = Ordering.natural().onResultOf((String s) -> s.charAt(0));
+    Iterable<Iterable<String>> iterables =
+        ImmutableList.<Iterable<String>>of(
+            ImmutableList.of("1a", "2a", "2a", "4a"),
+            ImmutableList.of("2b", "3b"),
+            ImmutableList.<String>of(),
+            ImmutableList.of("1d", "2d", "4d"));
+    assertEquals(
+        ImmutableList.of("1a", "1d", "2a", "2a", "2b", "2d", "3b", "4a", "4d"),
+        ImmutableList.copyOf(Iterables.mergeSorted(iterables, byFirstChar)));
+  }
+
+  public void testMergeSorted_random() {
+    Random random = new Random(0);
+    for (int k : new int[] {2, 3, 7, 16, 33}) {
+      List<Iterable<Integer>> iterables = Lists.newArrayList();
+      List<Integer> allIntegers = Lists.newArrayList();
+      for (int i = 0; i < k; i++) {
+        List<Integer> list = Lists.newArrayList();
+        for (int j = random.nextInt(50); j > 0; j--) {
+          list.add(random.nextInt(100));
+        }
+        allIntegers.addAll(list);
+        iterables.add(Ordering.natural().sortedCopy(list));
+      }
+      verifyMergeSorted(iterables, allIntegers);
+    }
+  }
+
   @GwtIncompatible // reflection
   public void testIterables_nullCheck() throws Exception {
     new ClassSanityTester()
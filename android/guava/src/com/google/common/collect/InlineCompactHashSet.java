@@ -0,0 +1,260 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.common.collect;
+
+import static com.google.common.collect.CollectPreconditions.checkNonnegative;
+import static com.google.common.collect.CollectPreconditions.checkRemove;
+
+import com.google.common.annotations.GwtIncompatible;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Objects;
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import java.io.Serializable;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import javax.annotation.CheckForNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A set for the value collections of memory-compact multimaps. Up to {@value #MAX_INLINE_SIZE}
+ * elements are stored inline, in one array that is searched linearly, which costs a single small
+ * array per set. Past that, the elements move into a {@link CompactHashSet} (or a {@link
+ * CompactLinkedHashSet}, if insertion order must be kept), which stores each element in a few
+ * parallel arrays rather than in a node of its own. The set never moves back inline.
+ *
+ * <p>While the elements are inline, iteration is in insertion order, even after removals.
+ *
+ * @see MultimapBuilder.MultimapBuilderWithKeys#compactHashSetValues()
+ */
+@GwtIncompatible // not worth using in GWT for now
+@ElementTypesAreNonnullByDefault
+final class InlineCompactHashSet<E extends @Nullable Object> extends AbstractSet<E>
+    implements Serializable {
+  /**
+   * The most elements to store inline. Up to this size, scanning an array is about as fast as
+   * hashing into a table, and takes much less memory.
+   */
+  @VisibleForTesting static final int MAX_INLINE_SIZE = 8;
+
+  /**
+   * Creates an empty set that is ready for {@code expectedSize} elements. The set keeps insertion
+   * order if {@code linked} is true.
+   */
+  static <E extends @Nullable Object> InlineCompactHashSet<E> createWithExpectedSize(
+      int expectedSize, boolean linked) {
+    checkNonnegative(expectedSize, "expectedSize");
+    return new InlineCompactHashSet<>(expectedSize, linked);
+  }
+
+  private final boolean linked;
+
+  /*
+   * Either an array holding the elements in its first `size` slots, or, once the set has grown past
+   * MAX_INLINE_SIZE, the CompactHashSet that holds them. In the latter case, `size` is unused.
+   */
+  private Object storage;
+  private int size;
+
+  private InlineCompactHashSet(int expectedSize, boolean linked) {
+    this.linked = linked;
+    this.storage =
+        (expectedSize <= MAX_INLINE_SIZE)
+            ? new @Nullable Object[Math.max(expectedSize, 1)]
+            : newDelegate(expectedSize);
+  }
+
+  private CompactHashSet<E> newDelegate(int expectedSize) {
+    return linked
+        ? CompactLinkedHashSet.<E>createWithExpectedSize(expectedSize)
+        : CompactHashSet.<E>createWithExpectedSize(expectedSize);
+  }
+
+  @SuppressWarnings("unchecked") // storage is only ever an Object[] or a CompactHashSet<E>
+  @CheckForNull
+  private Set<E> delegateOrNull() {
+    return (storage instanceof CompactHashSet) ? (Set<E>) storage : null;
+  }
+
+  @VisibleForTesting
+  boolean isInline() {
+    return delegateOrNull() == null;
+  }
+
+  private @Nullable Object[] elements() {
+    return (@Nullable Object[]) storage;
+  }
+
+  @SuppressWarnings("unchecked") // known to be an E while the set is inline
+  @ParametricNullness
+  private E element(int i) {
+    return (E) elements()[i];
+  }
+
+  private int indexOf(@CheckForNull Object object) {
+    @Nullable Object[] elements = elements();
+    for (int i = 0; i < size; i++) {
+      if (Objects.equal(elements[i], object)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  @CanIgnoreReturnValue
+  @Override
+  public boolean add(@ParametricNullness E element) {
+    Set<E> delegate = delegateOrNull();
+    if (delegate != null) {
+      return delegate.add(element);
+    }
+    if (indexOf(element) >= 0) {
+      return false;
+    }
+    @Nullable Object[] elements = elements();
+    if (size == elements.length) {
+      if (size == MAX_INLINE_SIZE) {
+        delegate = newDelegate(2 * MAX_INLINE_SIZE);
+        for (int i = 0; i < size; i++) {
+          delegate.add(element(i));
+        }
+        delegate.add(element);
+        storage = delegate;
+        size = 0;
+        return true;
+      }
+      elements = Arrays.copyOf(elements, Math.min(2 * size, MAX_INLINE_SIZE));
+      storage = elements;
+    }
+    elements[size++] = element;
+    return true;
+  }
+
+  @Override
+  public boolean contains(@CheckForNull Object object) {
+    Set<E> delegate = delegateOrNull();
+    return (delegate != null) ? delegate.contains(object) : indexOf(object) >= 0;
+  }
+
+  @CanIgnoreReturnValue
+  @Override
+  public boolean remove(@CheckForNull Object object) {
+    Set<E> delegate = delegateOrNull();
+    if (delegate != null) {
+      return delegate.remove(object);
+    }
+    int index = indexOf(object);
+    if (index < 0) {
+      return false;
+    }
+    removeAt(index);
+    return true;
+  }
+
+  private void removeAt(int index) {
+    @Nullable Object[] elements = elements();
+    System.arraycopy(elements, index + 1, elements, index, size - index - 1);
+    elements[--size] = null;
+  }
+
+  @Override
+  public int size() {
+    Set<E> delegate = delegateOrNull();
+    return (delegate != null) ? delegate.size() : size;
+  }
+
+  @Override
+  public void clear() {
+    Set<E> delegate = delegateOrNull();
+    if (delegate != null) {
+      delegate.clear();
+    } else {
+      Arrays.fill(elements(), 0, size, null);
+      size = 0;
+    }
+  }
+
+  @Override
+  public Iterator<E> iterator() {
+    Set<E> delegate = delegateOrNull();
+    if (delegate != null) {
+      return delegate.iterator();
+    }
+    return new Iterator<E>() {
+      /*
+       * Without a modification count, changes made through the set are detected by the array being
+       * replaced or the size changing. That misses an add followed by a remove, but keeps the set
+       * one field smaller.
+       */
+      final Object expectedStorage = storage;
+      int expectedSize = size;
+      int nextIndex = 0;
+      int indexToRemove = -1;
+
+      @Override
+      public boolean hasNext() {
+        return nextIndex < expectedSize;
+      }
+
+      @Override
+      @ParametricNullness
+      public E next() {
+        checkForConcurrentModification();
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        indexToRemove = nextIndex;
+        return element(nextIndex++);
+      }
+
+      @Override
+      public void remove() {
+        checkForConcurrentModification();
+        checkRemove(indexToRemove >= 0);
+        removeAt(indexToRemove);
+        expectedSize--;
+        nextIndex = indexToRemove;
+        indexToRemove = -1;
+      }
+
+      private void checkForConcurrentModification() {
+        if (storage != expectedStorage || size != expectedSize) {
+          throw new ConcurrentModificationException();
+        }
+      }
+    };
+  }
+
+  @Override
+  public @Nullable Object[] toArray() {
+    Set<E> delegate = delegateOrNull();
+    return (delegate != null) ? delegate.toArray() : Arrays.copyOf(elements(), size);
+  }
+
+  @CanIgnoreReturnValue
+  @Override
+  @SuppressWarnings("nullness") // b/192354773 in our checker affects toArray declarations
+  public <T extends @Nullable Object> T[] toArray(T[] a) {
+    Set<E> delegate = delegateOrNull();
+    return (delegate != null)
+        ? delegate.toArray(a)
+        : ObjectArrays.toArrayImpl(elements(), 0, size, a);
+  }
+
+  private static final long serialVersionUID = 0;
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.common.cache;
+
+import com.google.caliper.AfterExperiment;
+import com.google.caliper.BeforeExperiment;
+import com.google.caliper.Benchmark;
+import com.google.caliper.Param;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Multi-threaded benchmark of writes to a {@link Cache}, comparing the default concurrency level
+ * with {@link CacheBuilder#autoConcurrencyLevel}. Each rep is one write by each thread, so the time
+ * per rep stays flat as threads are added only while writes scale.
+ */
+public class CacheConcurrentWriteBenchmark {
+  enum ConcurrencyLevel {
+    DEFAULT {
+      @Override
+      CacheBuilder<Object, Object> configure(CacheBuilder<Object, Object> builder) {
+        return builder;
+      }
+    },
+    AUTO {
+      @Override
+      CacheBuilder<Object, Object> configure(CacheBuilder<Object, Object> builder) {
+        return builder.autoConcurrencyLevel();
+      }
+    };
+
+    abstract CacheBuilder<Object, Object> configure(CacheBuilder<Object, Object> builder);
+  }
+
+  @Param({"1", "4", "16", "64"})
+  int threads;
+
+  @Param ConcurrencyLevel concurrencyLevel;
+
+  @Param({"100000"})
+  int maximumSize;
+
+  @Param({"1000000"})
+  int distinctKeys;
+
+  private Cache<Integer, Integer> cache;
+  private ExecutorService threadPool;
+
+  @BeforeExperiment
+  void setUp() {
+    cache = concurrencyLevel.configure(CacheBuilder.newBuilder()).maximumSize(maximumSize).build();
+    threadPool =
+        Executors.newFixedThreadPool(threads, new ThreadFactoryBuilder().setDaemon(true).build());
+  }
+
+  @AfterExperiment
+  void tearDown() {
+    threadPool.shutdownNow();
+  }
+
+  @Benchmark
+  long put(final int reps) throws ExecutionException, InterruptedException {
+    return doMultithreadedLoop(
+        new Callable<Long>() {
+          @Override
+          public Long call() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long sum = 0;
+            for (int i = 0; i < reps; i++) {
+              int key = random.nextInt(distinctKeys);
+              cache.put(key, i);
+              sum += key;
+            }
+            return sum;
+          }
+        });
+  }
+
+  @Benchmark
+  long getWithMisses(final int reps) throws ExecutionException, InterruptedException {
+    return doMultithreadedLoop(
+        new Callable<Long>() {
+          @Override
+          public Long call() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long sum = 0;
+            for (int i = 0; i < reps; i++) {
+              int key = random.nextInt(distinctKeys);
+              Integer value = cache.getIfPresent(key);
+              if (value == null) {
+                cache.put(key, key);
+              } else {
+                sum += value;
+              }
+            }
+            return sum;
+          }
+        });
+  }
+
+  private long doMultithreadedLoop(Callable<Long> task)
+      throws InterruptedException, ExecutionException {
+    List<Future<Long>> futures = Lists.newArrayListWithCapacity(threads);
+    for (int i = 0; i < threads; i++) {
+      futures.add(threadPool.submit(task));
+    }
+    long total = 0;
+    for (Future<Long> future : futures) {
+      total += future.get();
+    }
+    return total;
+  }
+}
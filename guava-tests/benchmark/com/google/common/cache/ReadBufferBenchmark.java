@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.common.cache;
+
+import com.google.caliper.AfterExperiment;
+import com.google.caliper.BeforeExperiment;
+import com.google.caliper.Benchmark;
+import com.google.caliper.Param;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Multithreaded benchmark for the buffer that records cache reads in {@code LocalCache.Segment}.
+ * Each thread records {@code reps} reads into one shared buffer, which is drained under a lock
+ * every {@link LocalCache#DRAIN_THRESHOLD} + 1 reads, the same way a segment drains its recency
+ * queue. Throughput as the number of threads grows shows how much the buffer contends.
+ */
+public class ReadBufferBenchmark {
+  @Param({"1", "2", "4", "8", "16", "32", "64"})
+  int threads;
+
+  @Param BufferType bufferType;
+
+  private final Object element = new Object();
+  private final ReentrantLock lock = new ReentrantLock();
+  private final AtomicInteger readCount = new AtomicInteger();
+  private Queue<Object> buffer;
+  private ExecutorService threadPool;
+
+  @BeforeExperiment
+  void setUp() {
+    buffer = bufferType.create();
+    threadPool =
+        Executors.newFixedThreadPool(threads, new ThreadFactoryBuilder().setDaemon(true).build());
+  }
+
+  @AfterExperiment
+  void tearDown() {
+    threadPool.shutdown();
+  }
+
+  @Benchmark
+  long recordRead(final int reps) throws ExecutionException, InterruptedException {
+    List<Future<Long>> futures = Lists.newArrayListWithCapacity(threads);
+    for (int i = 0; i < threads; i++) {
+      futures.add(
+          threadPool.submit(
+              new Callable<Long>() {
+                @Override
+                public Long call() {
+                  return recordReads(reps);
+                }
+              }));
+    }
+    long total = 0;
+    for (Future<Long> future : futures) {
+      total += future.get();
+    }
+    return total;
+  }
+
+  private long recordReads(int reps) {
+    long recorded = 0;
+    for (int i = 0; i < reps; i++) {
+      if (buffer.offer(element)) {
+        recorded++;
+      }
+      if ((readCount.incrementAndGet() & LocalCache.DRAIN_THRESHOLD) == 0) {
+        drain();
+      }
+    }
+    return recorded;
+  }
+
+  private void drain() {
+    if (lock.tryLock()) {
+      try {
+        while (buffer.poll() != null) {}
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
+  enum BufferType {
+    /** The unbounded queue that segments used before recording reads in a striped buffer. */
+    CONCURRENT_LINKED_QUEUE {
+      @Override
+      Queue<Object> create() {
+        return new ConcurrentLinkedQueue<>();
+      }
+    },
+    STRIPED_READ_BUFFER {
+      @Override
+      Queue<Object> create() {
+        return new StripedReadBuffer<>(LocalCache.READ_BUFFER_STRIPE_CAPACITY);
+      }
+    };
+
+    abstract Queue<Object> create();
+  }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.common.collect;
+
+import com.google.caliper.BeforeExperiment;
+import com.google.caliper.Benchmark;
+import com.google.caliper.Param;
+import java.util.Random;
+
+/** Compares the iteration and lookup speed of {@link BTreeMultiset} and {@link TreeMultiset}. */
+public class BTreeMultisetBenchmark {
+  enum Impl {
+    TREE {
+      @Override
+      SortedMultiset<Integer> create() {
+        return TreeMultiset.create();
+      }
+    },
+    BTREE {
+      @Override
+      SortedMultiset<Integer> create() {
+        return BTreeMultiset.create();
+      }
+    };
+
+    abstract SortedMultiset<Integer> create();
+  }
+
+  @Param({"16", "1024", "65536", "1048576"})
+  int size;
+
+  @Param Impl impl;
+
+  private SortedMultiset<Integer> multiset;
+  private Integer[] queries;
+
+  @BeforeExperiment
+  void setUp() {
+    Random random = new Random(0);
+    multiset = impl.create();
+    for (int i = 0; i < size; i++) {
+      // every other value, so that half of the queries below miss
+      multiset.add(2 * random.nextInt(size), 1 + random.nextInt(3));
+    }
+    queries = new Integer[1024];
+    for (int i = 0; i < queries.length; i++) {
+      queries[i] = random.nextInt(2 * size);
+    }
+  }
+
+  @Benchmark
+  int iterateEntries(int reps) {
+    int sum = 0;
+    for (int i = 0; i < reps; i++) {
+      for (Multiset.Entry<Integer> entry : multiset.entrySet()) {
+        sum += entry.getElement() + entry.getCount();
+      }
+    }
+    return sum;
+  }
+
+  @Benchmark
+  int forEachEntry(int reps) {
+    int[] sum = {0};
+    for (int i = 0; i < reps; i++) {
+      multiset.forEachEntry((element, count) -> sum[0] += element + count);
+    }
+    return sum[0];
+  }
+
+  @Benchmark
+  int count(int reps) {
+    int sum = 0;
+    Integer[] queries = this.queries;
+    for (int i = 0; i < reps; i++) {
+      sum += multiset.count(queries[i & (queries.length - 1)]);
+    }
+    return sum;
+  }
+
+  @Benchmark
+  int headMultisetSize(int reps) {
+    int sum = 0;
+    Integer[] queries = this.queries;
+    for (int i = 0; i < reps; i++) {
+      sum += multiset.headMultiset(queries[i & (queries.length - 1)], BoundType.OPEN).size();
+    }
+    return sum;
+  }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.common.collect;
+
+import com.google.caliper.BeforeExperiment;
+import com.google.caliper.Benchmark;
+import com.google.caliper.Param;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Compares {@link BitmapSortedSet} with {@link ImmutableSortedSet} and {@link ImmutableRangeSet}
+ * for lookups, unions and intersections of sets of integers.
+ */
+public class BitmapSortedSetBenchmark {
+  enum Distribution {
+    /** Values spread thinly, which are stored as arrays. */
+    SPARSE {
+      @Override
+      int[] values(int size, Random random) {
+        return random.ints(size, 0, 64 * size).toArray();
+      }
+    },
+    /** Half of the values in a range, which are stored as bitmaps. */
+    DENSE {
+      @Override
+      int[] values(int size, Random random) {
+        return random.ints(size, 0, 2 * size).toArray();
+      }
+    },
+    /** Runs of 100 consecutive values, which are stored as runs. */
+    CLUSTERED {
+      @Override
+      int[] values(int size, Random random) {
+        int[] values = new int[size];
+        for (int i = 0; i < size; i += 100) {
+          int start = random.nextInt(4 * size);
+          for (int j = i; j < Math.min(i + 100, size); j++) {
+            values[j] = start + j - i;
+          }
+        }
+        return values;
+      }
+    };
+
+    abstract int[] values(int size, Random random);
+  }
+
+  @Param({"10000", "1000000"})
+  int size;
+
+  @Param Distribution distribution;
+
+  private BitmapSortedSet<Integer> bitmap;
+  private BitmapSortedSet<Integer> otherBitmap;
+  private ImmutableSortedSet<Integer> sortedSet;
+  private ImmutableSortedSet<Integer> otherSortedSet;
+  private ImmutableRangeSet<Integer> rangeSet;
+  private ImmutableRangeSet<Integer> otherRangeSet;
+  private int[] queries;
+
+  @BeforeExperiment
+  void setUp() {
+    Random random = new Random(0);
+    int[] values = distribution.values(size, random);
+    int[] otherValues = distribution.values(size, random);
+    bitmap = BitmapSortedSet.ofInts(values);
+    otherBitmap = BitmapSortedSet.ofInts(otherValues);
+    sortedSet = ImmutableSortedSet.copyOf(bitmap);
+    otherSortedSet = ImmutableSortedSet.copyOf(otherBitmap);
+    rangeSet = bitmap.toRangeSet();
+    otherRangeSet = otherBitmap.toRangeSet();
+    queries = Arrays.copyOf(otherValues, 1024);
+  }
+
+  @Benchmark
+  int containsBitmap(int reps) {
+    int count = 0;
+    for (int i = 0; i < reps; i++) {
+      if (bitmap.contains(queries[i & 1023])) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  @Benchmark
+  int containsSortedSet(int reps) {
+    int count = 0;
+    for (int i = 0; i < reps; i++) {
+      if (sortedSet.contains(queries[i & 1023])) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  @Benchmark
+  int containsRangeSet(int reps) {
+    int count = 0;
+    for (int i = 0; i < reps; i++) {
+      if (rangeSet.contains(queries[i & 1023])) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  @Benchmark
+  long rankBitmap(int reps) {
+    long sum = 0;
+    for (int i = 0; i < reps; i++) {
+      sum += bitmap.rank(queries[i & 1023]);
+    }
+    return sum;
+  }
+
+  @Benchmark
+  int unionBitmap(int reps) {
+    int sum = 0;
+    for (int i = 0; i < reps; i++) {
+      sum += bitmap.union(otherBitmap).size();
+    }
+    return sum;
+  }
+
+  @Benchmark
+  int unionSortedSet(int reps) {
+    int sum = 0;
+    for (int i = 0; i < reps; i++) {
+      sum += ImmutableSortedSet.copyOf(Sets.union(sortedSet, otherSortedSet)).size();
+    }
+    return sum;
+  }
+
+  @Benchmark
+  int unionRangeSet(int reps) {
+    int sum = 0;
+    for (int i = 0; i < reps; i++) {
+      sum += rangeSet.union(otherRangeSet).asRanges().size();
+    }
+    return sum;
+  }
+
+  @Benchmark
+  int intersectionBitmap(int reps) {
+    int sum = 0;
+    for (int i = 0; i < reps; i++) {
+      sum += bitmap.intersection(otherBitmap).size();
+    }
+    return sum;
+  }
+
+  @Benchmark
+  int intersectionSortedSet(int reps) {
+    int sum = 0;
+    for (int i = 0; i < reps; i++) {
+      sum += ImmutableSortedSet.copyOf(Sets.intersection(sortedSet, otherSortedSet)).size();
+    }
+    return sum;
+  }
+
+  @Benchmark
+  int intersectionRangeSet(int reps) {
+    int sum = 0;
+    for (int i = 0; i < reps; i++) {
+      sum += rangeSet.intersection(otherRangeSet).asRanges().size();
+    }
+    return sum;
+  }
+}
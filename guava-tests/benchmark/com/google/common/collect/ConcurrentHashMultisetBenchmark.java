@@ -144,6 +144,12 @@ public class ConcurrentHashMultisetBenchmark {
         return ConcurrentHashMultiset.create();
       }
     },
+    STRIPED_CONCURRENT_HASH_MULTISET() {
+      @Override
+      Multiset<Integer> get() {
+        return StripedConcurrentHashMultiset.create();
+      }
+    },
     BOXED_ATOMIC_REPLACE() {
       @Override
       Multiset<Integer> get() {
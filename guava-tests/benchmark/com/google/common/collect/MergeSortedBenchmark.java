@@ -0,0 +1,156 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.common.collect;
+
+import com.google.caliper.BeforeExperiment;
+import com.google.caliper.Benchmark;
+import com.google.caliper.Param;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Compares the loser tree behind {@link Iterators#mergeSorted} and {@link Streams#mergeSorted}
+ * with the binary heap it replaced, and measures {@link Streams#mergeSortedLists} run sequentially
+ * and in parallel.
+ */
+public class MergeSortedBenchmark {
+  /** The total number of elements, spread across all the inputs. */
+  @Param({"10000", "1000000"})
+  private int size;
+
+  /** The number of sorted inputs. */
+  @Param({"2", "16", "256"})
+  private int k;
+
+  private List<List<Integer>> lists;
+
+  @BeforeExperiment
+  void setUp() {
+    Random random = new Random(0);
+    lists = new ArrayList<>();
+    for (int i = 0; i < k; i++) {
+      lists.add(new ArrayList<Integer>());
+    }
+    for (int i = 0; i < size; i++) {
+      lists.get(random.nextInt(k)).add(random.nextInt());
+    }
+    for (List<Integer> list : lists) {
+      list.sort(Ordering.natural());
+    }
+  }
+
+  private List<Iterator<Integer>> iterators() {
+    List<Iterator<Integer>> iterators = new ArrayList<>(k);
+    for (List<Integer> list : lists) {
+      iterators.add(list.iterator());
+    }
+    return iterators;
+  }
+
+  @Benchmark
+  int heap(int reps) {
+    int result = 0;
+    for (int i = 0; i < reps; i++) {
+      Iterator<Integer> merged = new HeapMergingIterator<>(iterators(), Ordering.natural());
+      while (merged.hasNext()) {
+        result += merged.next();
+      }
+    }
+    return result;
+  }
+
+  @Benchmark
+  int loserTree(int reps) {
+    int result = 0;
+    for (int i = 0; i < reps; i++) {
+      Iterator<Integer> merged = Iterators.mergeSorted(iterators(), Ordering.natural());
+      while (merged.hasNext()) {
+        result += merged.next();
+      }
+    }
+    return result;
+  }
+
+  @Benchmark
+  int streamsMergeSorted(int reps) {
+    int result = 0;
+    for (int i = 0; i < reps; i++) {
+      List<Stream<Integer>> streams = new ArrayList<>(k);
+      for (List<Integer> list : lists) {
+        streams.add(list.stream());
+      }
+      result += Streams.mergeSorted(streams, Ordering.natural()).mapToInt(x -> x).sum();
+    }
+    return result;
+  }
+
+  @Benchmark
+  int mergeSortedLists(int reps) {
+    int result = 0;
+    for (int i = 0; i < reps; i++) {
+      result += Streams.mergeSortedLists(lists, Ordering.natural()).mapToInt(x -> x).sum();
+    }
+    return result;
+  }
+
+  @Benchmark
+  int mergeSortedListsParallel(int reps) {
+    int result = 0;
+    for (int i = 0; i < reps; i++) {
+      result +=
+          Streams.mergeSortedLists(lists, Ordering.natural()).parallel().mapToInt(x -> x).sum();
+    }
+    return result;
+  }
+
+  /** The heap-based merge that {@link Iterators#mergeSorted} used before. */
+  private static final class HeapMergingIterator<T> extends UnmodifiableIterator<T> {
+    final PriorityQueue<PeekingIterator<T>> queue;
+
+    HeapMergingIterator(
+        Iterable<? extends Iterator<? extends T>> iterators, Comparator<? super T> itemComparator) {
+      queue =
+          new PriorityQueue<>(
+              2,
+              (PeekingIterator<T> o1, PeekingIterator<T> o2) ->
+                  itemComparator.compare(o1.peek(), o2.peek()));
+      for (Iterator<? extends T> iterator : iterators) {
+        if (iterator.hasNext()) {
+          queue.add(Iterators.peekingIterator(iterator));
+        }
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      return !queue.isEmpty();
+    }
+
+    @Override
+    public T next() {
+      PeekingIterator<T> nextIter = queue.remove();
+      T next = nextIter.next();
+      if (nextIter.hasNext()) {
+        queue.add(nextIter);
+      }
+      return next;
+    }
+  }
+}
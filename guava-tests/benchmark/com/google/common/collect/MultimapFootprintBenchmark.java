@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.common.collect;
+
+import com.google.caliper.BeforeExperiment;
+import com.google.caliper.Param;
+import com.google.caliper.api.Footprint;
+
+/**
+ * Measures the memory used by hash-based set multimaps, excluding the keys and values themselves,
+ * for different numbers of values per key.
+ */
+public class MultimapFootprintBenchmark {
+
+  enum Impl {
+    HASH {
+      @Override
+      SetMultimap<Integer, Integer> create() {
+        return HashMultimap.create();
+      }
+    },
+    LINKED_HASH {
+      @Override
+      SetMultimap<Integer, Integer> create() {
+        return LinkedHashMultimap.create();
+      }
+    },
+    BUILDER_HASH {
+      @Override
+      SetMultimap<Integer, Integer> create() {
+        return MultimapBuilder.hashKeys().hashSetValues().build();
+      }
+    },
+    COMPACT_HASH {
+      @Override
+      SetMultimap<Integer, Integer> create() {
+        return MultimapBuilder.compactHashKeys().compactHashSetValues().build();
+      }
+    },
+    COMPACT_LINKED_HASH {
+      @Override
+      SetMultimap<Integer, Integer> create() {
+        return MultimapBuilder.compactLinkedHashKeys().compactLinkedHashSetValues().build();
+      }
+    };
+
+    abstract SetMultimap<Integer, Integer> create();
+  }
+
+  @Param Impl impl;
+
+  /** The total number of values. */
+  @Param({"1000", "100000"})
+  int size;
+
+  @Param({"1", "4", "32"})
+  int valuesPerKey;
+
+  private Integer[] keys;
+  private Integer[] values;
+
+  @BeforeExperiment
+  void setUp() {
+    keys = new Integer[size];
+    values = new Integer[size];
+    for (int i = 0; i < size; i++) {
+      keys[i] = i / valuesPerKey;
+      values[i] = i;
+    }
+  }
+
+  @Footprint(exclude = Integer.class)
+  public SetMultimap<Integer, Integer> measureSize() {
+    SetMultimap<Integer, Integer> multimap = impl.create();
+    for (int i = 0; i < size; i++) {
+      multimap.put(keys[i], values[i]);
+    }
+    return multimap;
+  }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.common.collect;
+
+import com.google.caliper.BeforeExperiment;
+import com.google.caliper.Benchmark;
+import com.google.caliper.Param;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+
+/**
+ * Measures the speedup of parallel streams over Guava collections and through {@link Streams#zip}
+ * and {@link Streams#mapWithIndex}, compared with the same operations run sequentially.
+ */
+public class ParallelStreamsBenchmark {
+  @Param({"1000", "100000", "1000000"})
+  private int size;
+
+  enum CollectionType {
+    IMMUTABLE_LIST(size -> ImmutableList.copyOf(ContiguousSet.closedOpen(0, size))),
+    CONTIGUOUS_SET(size -> ContiguousSet.closedOpen(0, size)),
+    CARTESIAN_PRODUCT(
+        size ->
+            Lists.transform(
+                Lists.cartesianProduct(
+                    ContiguousSet.closedOpen(0, size / 1000).asList(),
+                    ContiguousSet.closedOpen(0, 1000).asList()),
+                pair -> pair.get(0) * 1000 + pair.get(1))),
+    ARRAY_LIST(size -> new ArrayList<>(ContiguousSet.closedOpen(0, size))),
+    LINKED_HASH_SET(size -> new LinkedHashSet<>(ContiguousSet.closedOpen(0, size)));
+
+    final IntFunction<Collection<Integer>> factory;
+
+    CollectionType(IntFunction<Collection<Integer>> factory) {
+      this.factory = factory;
+    }
+  }
+
+  @Param private CollectionType source;
+
+  @Param({"false", "true"})
+  private boolean parallel;
+
+  private Collection<Integer> collection;
+
+  @BeforeExperiment
+  void setUp() {
+    collection = source.factory.apply(size);
+  }
+
+  private Stream<Integer> stream() {
+    return parallel ? collection.parallelStream() : collection.stream();
+  }
+
+  /** Stands in for work that is worth running in parallel. */
+  private static long work(long value) {
+    for (int i = 0; i < 16; i++) {
+      value = value * 6364136223846793005L + 1442695040888963407L;
+    }
+    return value;
+  }
+
+  @Benchmark
+  long map(int reps) {
+    long result = 0;
+    for (int i = 0; i < reps; i++) {
+      result += stream().mapToLong(ParallelStreamsBenchmark::work).sum();
+    }
+    return result;
+  }
+
+  @Benchmark
+  long zip(int reps) {
+    long result = 0;
+    for (int i = 0; i < reps; i++) {
+      result +=
+          Streams.zip(stream(), collection.stream(), (a, b) -> work(a ^ b))
+              .mapToLong(Long::longValue)
+              .sum();
+    }
+    return result;
+  }
+
+  @Benchmark
+  long mapWithIndex(int reps) {
+    long result = 0;
+    for (int i = 0; i < reps; i++) {
+      result +=
+          Streams.mapWithIndex(stream(), (e, index) -> work(e + index))
+              .mapToLong(Long::longValue)
+              .sum();
+    }
+    return result;
+  }
+}
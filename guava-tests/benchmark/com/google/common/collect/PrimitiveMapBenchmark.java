@@ -0,0 +1,174 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.common.collect;
+
+import com.google.caliper.BeforeExperiment;
+import com.google.caliper.Benchmark;
+import com.google.caliper.Param;
+import com.google.common.primitives.IntIntMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Benchmarks {@link IntIntMap} against boxed {@link java.util.HashMap} and {@link CompactHashMap}
+ * maps, used as {@code int} counters. It lives in this package so that it can use {@link
+ * CompactHashMap}.
+ */
+public class PrimitiveMapBenchmark {
+  @Param({"Hash", "Compact", "Primitive"})
+  private Impl impl;
+
+  @Param({"100", "10000", "1000000"})
+  private int size;
+
+  /** The ratio of lookups that find a key. */
+  @Param({"0.5"})
+  private double hitRate;
+
+  public enum Impl {
+    Hash {
+      @Override
+      IntCounter create(int expectedSize) {
+        return new MapCounter(Maps.<Integer, Integer>newHashMapWithExpectedSize(expectedSize));
+      }
+    },
+    Compact {
+      @Override
+      IntCounter create(int expectedSize) {
+        return new MapCounter(
+            CompactHashMap.<Integer, Integer>createWithExpectedSize(expectedSize));
+      }
+    },
+    Primitive {
+      @Override
+      IntCounter create(int expectedSize) {
+        IntIntMap map = IntIntMap.createWithExpectedSize(expectedSize);
+        return new IntCounter() {
+          @Override
+          public void add(int key, int delta) {
+            map.addAndGet(key, delta);
+          }
+
+          @Override
+          public int get(int key) {
+            return map.get(key);
+          }
+
+          @Override
+          public int sum() {
+            int sum = 0;
+            for (IntIntMap.Cursor cursor = map.cursor(); cursor.advance(); ) {
+              sum += cursor.value();
+            }
+            return sum;
+          }
+        };
+      }
+    };
+
+    abstract IntCounter create(int expectedSize);
+  }
+
+  /** The operations that each implementation is measured on. */
+  interface IntCounter {
+    void add(int key, int delta);
+
+    int get(int key);
+
+    int sum();
+  }
+
+  private static final class MapCounter implements IntCounter {
+    final Map<Integer, Integer> map;
+
+    MapCounter(Map<Integer, Integer> map) {
+      this.map = map;
+    }
+
+    @Override
+    public void add(int key, int delta) {
+      map.merge(key, delta, Integer::sum);
+    }
+
+    @Override
+    public int get(int key) {
+      Integer value = map.get(key);
+      return (value == null) ? 0 : value;
+    }
+
+    @Override
+    public int sum() {
+      int sum = 0;
+      for (int value : map.values()) {
+        sum += value;
+      }
+      return sum;
+    }
+  }
+
+  private int[] keys;
+  private int[] queries;
+  private IntCounter counter;
+
+  @BeforeExperiment
+  void setUp() {
+    Random random = new Random(0);
+    keys = new int[size];
+    for (int i = 0; i < size; i++) {
+      keys[i] = random.nextInt();
+    }
+    queries = new int[size];
+    for (int i = 0; i < size; i++) {
+      queries[i] = (random.nextDouble() < hitRate) ? keys[random.nextInt(size)] : random.nextInt();
+    }
+    counter = impl.create(size);
+    for (int key : keys) {
+      counter.add(key, 1);
+    }
+  }
+
+  @Benchmark
+  int count(int reps) {
+    int dummy = 0;
+    for (int i = 0; i < reps; i++) {
+      IntCounter counter = impl.create(0);
+      for (int key : keys) {
+        counter.add(key, 1);
+      }
+      dummy += counter.get(keys[0]);
+    }
+    return dummy;
+  }
+
+  @Benchmark
+  int get(int reps) {
+    IntCounter counter = this.counter;
+    int[] queries = this.queries;
+    int dummy = 0;
+    for (int i = 0; i < reps; i++) {
+      dummy += counter.get(queries[i % queries.length]);
+    }
+    return dummy;
+  }
+
+  @Benchmark
+  int iterate(int reps) {
+    int dummy = 0;
+    for (int i = 0; i < reps; i++) {
+      dummy += counter.sum();
+    }
+    return dummy;
+  }
+}
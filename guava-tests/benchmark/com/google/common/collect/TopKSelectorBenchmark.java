@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.common.collect;
+
+import com.google.caliper.BeforeExperiment;
+import com.google.caliper.Benchmark;
+import com.google.caliper.Param;
+import com.google.common.primitives.DoubleTopKSelector;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+/**
+ * Compares selecting the greatest k of many {@code double} scores with {@link
+ * Comparators#greatest}, which boxes them, and with {@link DoubleTopKSelector}, sequentially and
+ * over parallel streams.
+ */
+public class TopKSelectorBenchmark {
+  @Param({"1000000"})
+  private int size;
+
+  @Param({"10", "1000", "100000"})
+  private int k;
+
+  @Param({"false", "true"})
+  private boolean parallel;
+
+  private double[] scores;
+
+  @BeforeExperiment
+  void setUp() {
+    scores = new Random(0).doubles(size).toArray();
+  }
+
+  @Benchmark
+  double boxedCollector(int reps) {
+    double result = 0;
+    for (int i = 0; i < reps; i++) {
+      result +=
+          (parallel ? Arrays.stream(scores).parallel() : Arrays.stream(scores))
+              .boxed()
+              .collect(Comparators.greatest(k, Comparator.<Double>naturalOrder()))
+              .get(0);
+    }
+    return result;
+  }
+
+  @Benchmark
+  double doubleSelector(int reps) {
+    double result = 0;
+    for (int i = 0; i < reps; i++) {
+      result +=
+          (parallel ? Arrays.stream(scores).parallel() : Arrays.stream(scores))
+              .collect(
+                  () -> DoubleTopKSelector.greatest(k),
+                  DoubleTopKSelector::offer,
+                  DoubleTopKSelector::combine)
+              .topK()
+              .get(0);
+    }
+    return result;
+  }
+}
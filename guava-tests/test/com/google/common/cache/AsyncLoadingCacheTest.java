@@ -0,0 +1,391 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.common.cache;
+
+import static com.google.common.cache.TestingCacheLoaders.identityLoader;
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+
+import com.google.common.cache.CacheLoader.InvalidCacheLoadException;
+import com.google.common.cache.TestingCacheLoaders.IdentityLoader;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.ListenableFuture;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import junit.framework.TestCase;
+
+/**
+ * Tests for {@link AsyncLoadingCache}. Loads run on an executor that queues tasks until the test
+ * runs them, so that in-flight loads can be observed deterministically.
+ */
+public class AsyncLoadingCacheTest extends TestCase {
+
+  private final QueueingExecutor executor = new QueueingExecutor();
+
+  public void testGet_loadsOnExecutor() throws Exception {
+    IdentityLoader<Integer> loader = identityLoader();
+    AsyncLoadingCache<Integer, Integer> cache =
+        CacheBuilder.newBuilder().recordStats().buildAsync(loader, executor);
+
+    ListenableFuture<Integer> future = cache.get(1);
+    assertFalse(future.isDone());
+    assertNull(cache.synchronous().getIfPresent(1));
+
+    executor.runAll();
+    assertEquals(Integer.valueOf(1), future.get());
+    assertEquals(Integer.valueOf(1), cache.synchronous().getIfPresent(1));
+
+    ListenableFuture<Integer> hit = cache.get(1);
+    assertTrue(hit.isDone());
+    assertEquals(Integer.valueOf(1), hit.get());
+    assertEquals(0, executor.size());
+
+    CacheStats stats = cache.synchronous().stats();
+    assertEquals(2, stats.missCount());
+    assertEquals(1, stats.loadSuccessCount());
+    assertEquals(2, stats.hitCount());
+  }
+
+  public void testGet_sharesInFlightLoad() throws Exception {
+    CountingLoader loader = new CountingLoader();
+    AsyncLoadingCache<Integer, Integer> cache =
+        CacheBuilder.newBuilder().buildAsync(loader, executor);
+
+    ListenableFuture<Integer> first = cache.get(1);
+    ListenableFuture<Integer> second = cache.get(1);
+    ListenableFuture<Integer> present = cache.getIfPresent(1);
+    assertNotNull(present);
+    assertEquals(1, executor.size());
+
+    executor.runAll();
+    assertEquals(1, loader.loads.get());
+    assertEquals(Integer.valueOf(1), first.get());
+    assertEquals(Integer.valueOf(1), second.get());
+    assertEquals(Integer.valueOf(1), present.get());
+  }
+
+  public void testGet_sharedWithSynchronousView() throws Exception {
+    CountingLoader loader = new CountingLoader();
+    AsyncLoadingCache<Integer, Integer> cache =
+        CacheBuilder.newBuilder().buildAsync(loader, directExecutor());
+
+    assertEquals(Integer.valueOf(1), cache.synchronous().get(1));
+    assertEquals(Integer.valueOf(1), cache.get(1).get());
+    assertEquals(1, loader.loads.get());
+
+    cache.synchronous().invalidate(1);
+    assertNull(cache.getIfPresent(1));
+  }
+
+  public void testGet_cancelDoesNotCancelSharedLoad() throws Exception {
+    IdentityLoader<Integer> loader = identityLoader();
+    AsyncLoadingCache<Integer, Integer> cache =
+        CacheBuilder.newBuilder().buildAsync(loader, executor);
+
+    ListenableFuture<Integer> first = cache.get(1);
+    ListenableFuture<Integer> second = cache.get(1);
+    assertTrue(second.cancel(true));
+
+    executor.runAll();
+    assertEquals(Integer.valueOf(1), first.get());
+    assertEquals(Integer.valueOf(1), cache.synchronous().getIfPresent(1));
+  }
+
+  public void testGet_failureIsNotCached() throws Exception {
+    final Exception failure = new Exception();
+    final AtomicInteger calls = new AtomicInteger();
+    CacheLoader<Integer, Integer> loader =
+        new CacheLoader<Integer, Integer>() {
+          @Override
+          public Integer load(Integer key) throws Exception {
+            if (calls.getAndIncrement() == 0) {
+              throw failure;
+            }
+            return key;
+          }
+        };
+    AsyncLoadingCache<Integer, Integer> cache =
+        CacheBuilder.newBuilder().recordStats().buildAsync(loader, executor);
+
+    ListenableFuture<Integer> failed = cache.get(1);
+    ListenableFuture<Integer> waiting = cache.get(1);
+    executor.runAll();
+    assertFailsWith(failed, failure);
+    assertFailsWith(waiting, failure);
+    assertNull(cache.getIfPresent(1));
+    assertEquals(1, cache.synchronous().stats().loadExceptionCount());
+
+    ListenableFuture<Integer> retried = cache.get(1);
+    executor.runAll();
+    assertEquals(Integer.valueOf(1), retried.get());
+    assertEquals(2, calls.get());
+  }
+
+  public void testGet_nullValue() throws Exception {
+    AsyncLoadingCache<Integer, Integer> cache =
+        CacheBuilder.newBuilder()
+            .buildAsync(TestingCacheLoaders.<Integer, Integer>constantLoader(null), executor);
+
+    ListenableFuture<Integer> future = cache.get(1);
+    ListenableFuture<Integer> waiting = cache.get(1);
+    executor.runAll();
+    try {
+      future.get();
+      fail();
+    } catch (ExecutionException expected) {
+      assertThat(expected.getCause()).isInstanceOf(InvalidCacheLoadException.class);
+    }
+    try {
+      waiting.get();
+      fail();
+    } catch (ExecutionException expected) {
+      assertThat(expected.getCause()).isInstanceOf(InvalidCacheLoadException.class);
+    }
+    assertNull(cache.getIfPresent(1));
+  }
+
+  public void testGet_rejectedExecution() throws Exception {
+    Executor rejecting =
+        new Executor() {
+          @Override
+          public void execute(Runnable command) {
+            throw new RejectedExecutionException();
+          }
+        };
+    IdentityLoader<Integer> loader = identityLoader();
+    AsyncLoadingCache<Integer, Integer> cache =
+        CacheBuilder.newBuilder().buildAsync(loader, rejecting);
+
+    ListenableFuture<Integer> future = cache.get(1);
+    try {
+      future.get();
+      fail();
+    } catch (ExecutionException expected) {
+      assertThat(expected.getCause()).isInstanceOf(RejectedExecutionException.class);
+    }
+    assertNull(cache.getIfPresent(1));
+  }
+
+  public void testGetIfPresent_absent() {
+    IdentityLoader<Integer> loader = identityLoader();
+    AsyncLoadingCache<Integer, Integer> cache =
+        CacheBuilder.newBuilder().buildAsync(loader, executor);
+    assertNull(cache.getIfPresent(1));
+    assertEquals(0, executor.size());
+  }
+
+  public void testGetAll_singleBulkLoad() throws Exception {
+    BulkLoader loader = new BulkLoader();
+    AsyncLoadingCache<Integer, Integer> cache =
+        CacheBuilder.newBuilder().buildAsync(loader, executor);
+
+    ListenableFuture<Integer> present = cache.get(2);
+    executor.runAll();
+    assertEquals(Integer.valueOf(2), present.get());
+
+    ListenableFuture<ImmutableMap<Integer, Integer>> all = cache.getAll(asList(3, 2, 1, 3));
+    ListenableFuture<Integer> waiting = cache.get(1);
+    assertEquals(1, executor.size());
+
+    executor.runAll();
+    assertThat(all.get()).containsExactly(3, 3, 2, 2, 1, 1).inOrder();
+    assertEquals(Integer.valueOf(1), waiting.get());
+    assertThat(loader.requests).containsExactly(ImmutableList.of(3, 1));
+    assertEquals(1, loader.loads.get());
+
+    // loadAll may return extra entries, which are cached too
+    assertEquals(Integer.valueOf(-3), cache.synchronous().getIfPresent(-3));
+  }
+
+  public void testGetAll_allPresent() throws Exception {
+    BulkLoader loader = new BulkLoader();
+    AsyncLoadingCache<Integer, Integer> cache =
+        CacheBuilder.newBuilder().buildAsync(loader, directExecutor());
+    cache.synchronous().put(1, 1);
+
+    ListenableFuture<ImmutableMap<Integer, Integer>> all = cache.getAll(asList(1));
+    assertTrue(all.isDone());
+    assertThat(all.get()).containsExactly(1, 1);
+    assertThat(loader.requests).isEmpty();
+  }
+
+  public void testGetAll_loadAllUnsupported() throws Exception {
+    CountingLoader loader = new CountingLoader();
+    AsyncLoadingCache<Integer, Integer> cache =
+        CacheBuilder.newBuilder().buildAsync(loader, executor);
+
+    ListenableFuture<ImmutableMap<Integer, Integer>> all = cache.getAll(asList(1, 2));
+    executor.runAll();
+    assertThat(all.get()).containsExactly(1, 1, 2, 2).inOrder();
+    assertEquals(2, loader.loads.get());
+  }
+
+  public void testGetAll_missingValue() throws Exception {
+    BulkLoader loader = new BulkLoader();
+    loader.omit = 2;
+    AsyncLoadingCache<Integer, Integer> cache =
+        CacheBuilder.newBuilder().buildAsync(loader, executor);
+
+    ListenableFuture<ImmutableMap<Integer, Integer>> all = cache.getAll(asList(1, 2));
+    executor.runAll();
+    try {
+      all.get();
+      fail();
+    } catch (ExecutionException expected) {
+      assertThat(expected.getCause()).isInstanceOf(InvalidCacheLoadException.class);
+    }
+    assertEquals(Integer.valueOf(1), cache.synchronous().getIfPresent(1));
+    assertNull(cache.getIfPresent(2));
+  }
+
+  public void testGetAll_failure() throws Exception {
+    final Exception failure = new Exception();
+    CacheLoader<Integer, Integer> loader =
+        new CacheLoader<Integer, Integer>() {
+          @Override
+          public Integer load(Integer key) {
+            throw new AssertionError();
+          }
+
+          @Override
+          public Map<Integer, Integer> loadAll(Iterable<? extends Integer> keys) throws Exception {
+            throw failure;
+          }
+        };
+    AsyncLoadingCache<Integer, Integer> cache =
+        CacheBuilder.newBuilder().recordStats().buildAsync(loader, executor);
+
+    ListenableFuture<ImmutableMap<Integer, Integer>> all = cache.getAll(asList(1, 2));
+    ListenableFuture<Integer> waiting = cache.get(2);
+    executor.runAll();
+    assertFailsWith(all, failure);
+    assertFailsWith(waiting, failure);
+    assertNull(cache.getIfPresent(1));
+    assertNull(cache.getIfPresent(2));
+    assertEquals(1, cache.synchronous().stats().loadExceptionCount());
+  }
+
+  public void testNullParameters() {
+    IdentityLoader<Integer> loader = identityLoader();
+    AsyncLoadingCache<Integer, Integer> cache =
+        CacheBuilder.newBuilder().buildAsync(loader, executor);
+    try {
+      cache.get(null);
+      fail();
+    } catch (NullPointerException expected) {
+    }
+    try {
+      cache.getIfPresent(null);
+      fail();
+    } catch (NullPointerException expected) {
+    }
+    try {
+      cache.getAll(asList(1, null));
+      fail();
+    } catch (NullPointerException expected) {
+    }
+  }
+
+  public void testGetAll_nullKeyReservesNothing() throws Exception {
+    CountingLoader loader = new CountingLoader();
+    AsyncLoadingCache<Integer, Integer> cache =
+        CacheBuilder.newBuilder().buildAsync(loader, executor);
+    try {
+      cache.getAll(asList(1, 2, null));
+      fail();
+    } catch (NullPointerException expected) {
+    }
+    assertEquals(0, executor.size());
+    assertNull(cache.getIfPresent(1));
+
+    ListenableFuture<Integer> future = cache.get(1);
+    executor.runAll();
+    assertEquals(Integer.valueOf(1), future.get());
+    assertEquals(1, loader.loads.get());
+  }
+
+  private static void assertFailsWith(ListenableFuture<?> future, Throwable cause)
+      throws InterruptedException {
+    try {
+      future.get();
+      fail();
+    } catch (ExecutionException expected) {
+      assertSame(cause, expected.getCause());
+    }
+  }
+
+  private static List<Integer> asList(Integer... keys) {
+    return Lists.newArrayList(keys);
+  }
+
+  /** An executor that queues its tasks until {@link #runAll} is called. */
+  private static final class QueueingExecutor implements Executor {
+    private final Queue<Runnable> tasks = new ArrayDeque<>();
+
+    @Override
+    public void execute(Runnable command) {
+      tasks.add(command);
+    }
+
+    int size() {
+      return tasks.size();
+    }
+
+    void runAll() {
+      Runnable task;
+      while ((task = tasks.poll()) != null) {
+        task.run();
+      }
+    }
+  }
+
+  private static class CountingLoader extends CacheLoader<Integer, Integer> {
+    final AtomicInteger loads = new AtomicInteger();
+
+    @Override
+    public Integer load(Integer key) {
+      loads.incrementAndGet();
+      return key;
+    }
+  }
+
+  /** Loads each key as itself, and also returns the negation of each key from loadAll. */
+  private static final class BulkLoader extends CountingLoader {
+    final List<List<Integer>> requests = Lists.newArrayList();
+    Integer omit;
+
+    @Override
+    public Map<Integer, Integer> loadAll(Iterable<? extends Integer> keys) {
+      requests.add(ImmutableList.copyOf(keys));
+      Map<Integer, Integer> result = Maps.newLinkedHashMap();
+      for (Integer key : keys) {
+        if (!key.equals(omit)) {
+          result.put(key, key);
+        }
+        result.put(-key, -key);
+      }
+      return result;
+    }
+  }
+}
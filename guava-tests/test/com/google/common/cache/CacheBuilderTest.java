@@ -34,6 +34,7 @@ import com.google.common.cache.TestingRemovalListeners.CountingRemovalListener;
 import com.google.common.cache.TestingRemovalListeners.QueuingRemovalListener;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
+import com.google.common.io.ByteSource;
 import com.google.common.testing.NullPointerTester;
 import java.util.Map;
 import java.util.Random;
@@ -42,6 +43,7 @@ import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import junit.framework.TestCase;
@@ -142,6 +144,30 @@ public class CacheBuilderTest extends TestCase {
     // don't actually build this beast
   }
 
+  @GwtIncompatible // Runtime.availableProcessors
+  public void testAutoConcurrencyLevel() {
+    CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder().autoConcurrencyLevel();
+    assertEquals(
+        Runtime.getRuntime().availableProcessors() * CacheBuilder.SEGMENTS_PER_PROCESSOR,
+        builder.getConcurrencyLevel());
+    try {
+      builder.concurrencyLevel(16);
+      fail();
+    } catch (IllegalStateException expected) {
+    }
+    assertEquals(384, CacheBuilder.autoConcurrencyLevel(96));
+    assertEquals(Integer.MAX_VALUE, CacheBuilder.autoConcurrencyLevel(Integer.MAX_VALUE));
+  }
+
+  @GwtIncompatible // CacheTesting
+  public void testAutoConcurrencyLevel_boundedBySize() {
+    LoadingCache<?, ?> cache =
+        CacheBuilder.newBuilder().autoConcurrencyLevel().maximumSize(40).build(identityLoader());
+    LocalCache<?, ?> map = CacheTesting.toLocalCache(cache);
+    // each segment still holds at least 10 entries
+    assertThat(map.segments.length).isAtMost(4);
+  }
+
   public void testMaximumSize_negative() {
     CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder();
     try {
@@ -239,6 +265,34 @@ public class CacheBuilderTest extends TestCase {
     }
   }
 
+  @GwtIncompatible // evictionPolicy
+  public void testEvictionPolicy_setTwice() {
+    CacheBuilder<Object, Object> builder =
+        CacheBuilder.newBuilder().evictionPolicy(EvictionPolicy.WINDOW_TINY_LFU);
+    try {
+      // even to the same value is not allowed
+      builder.evictionPolicy(EvictionPolicy.WINDOW_TINY_LFU);
+      fail();
+    } catch (IllegalStateException expected) {
+    }
+  }
+
+  @GwtIncompatible // evictionPolicy
+  public void testEvictionPolicy_withoutMaximum() {
+    CacheBuilder<Object, Object> builder =
+        CacheBuilder.newBuilder().evictionPolicy(EvictionPolicy.WINDOW_TINY_LFU);
+    try {
+      builder.build(identityLoader());
+      fail();
+    } catch (IllegalStateException expected) {
+    }
+    try {
+      builder.build();
+      fail();
+    } catch (IllegalStateException expected) {
+    }
+  }
+
   @GwtIncompatible // weakKeys
   public void testKeyStrengthSetTwice() {
     CacheBuilder<Object, Object> builder1 = CacheBuilder.newBuilder().weakKeys();
@@ -391,6 +445,170 @@ public class CacheBuilderTest extends TestCase {
     // well, it didn't blow up.
   }
 
+  @GwtIncompatible // maintenanceExecutor
+  public void testCoalesceRefreshes_setTwice() {
+    CacheBuilder<Object, Object> builder =
+        CacheBuilder.newBuilder().coalesceRefreshes(1, MILLISECONDS, 10);
+    try {
+      // even to the same value is not allowed
+      builder.coalesceRefreshes(1, MILLISECONDS, 10);
+      fail();
+    } catch (IllegalStateException expected) {
+    }
+  }
+
+  public void testCoalesceRefreshes_nonPositive() {
+    CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder();
+    try {
+      builder.coalesceRefreshes(0, MILLISECONDS, 10);
+      fail();
+    } catch (IllegalArgumentException expected) {
+    }
+    try {
+      builder.coalesceRefreshes(1, MILLISECONDS, 0);
+      fail();
+    } catch (IllegalArgumentException expected) {
+    }
+  }
+
+  public void testCoalesceRefreshes_requiresRefreshAfterWrite() {
+    CacheBuilder<Object, Object> builder =
+        CacheBuilder.newBuilder().coalesceRefreshes(1, MILLISECONDS, 10);
+    try {
+      builder.build(identityLoader());
+      fail();
+    } catch (IllegalStateException expected) {
+    }
+  }
+
+  public void testOffHeapValues_setTwice() {
+    ValueCodec<Object> codec = new NullCodec();
+    CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder().offHeapValues(codec);
+    try {
+      // even to the same value is not allowed
+      builder.offHeapValues(codec);
+      fail();
+    } catch (IllegalStateException expected) {
+    }
+  }
+
+  public void testOffHeapValues_requiresMaximumWeight() {
+    CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder().offHeapValues(new NullCodec());
+    try {
+      builder.build();
+      fail();
+    } catch (IllegalStateException expected) {
+    }
+    builder.maximumSize(10);
+    try {
+      builder.build();
+      fail();
+    } catch (IllegalStateException expected) {
+    }
+  }
+
+  public void testOffHeapValues_withWeigher() {
+    CacheBuilder<Object, Object> builder =
+        CacheBuilder.newBuilder()
+            .maximumWeight(10)
+            .weigher(constantWeigher(1))
+            .offHeapValues(new NullCodec());
+    try {
+      builder.build();
+      fail();
+    } catch (IllegalStateException expected) {
+    }
+  }
+
+  public void testOffHeapValues_withWeakValues() {
+    CacheBuilder<Object, Object> builder =
+        CacheBuilder.newBuilder().maximumWeight(10).weakValues().offHeapValues(new NullCodec());
+    try {
+      builder.build();
+      fail();
+    } catch (IllegalStateException expected) {
+    }
+  }
+
+  private static final class NullCodec implements ValueCodec<Object> {
+    @Override
+    public byte[] encode(Object value) {
+      return new byte[0];
+    }
+
+    @Override
+    public Object decode(byte[] bytes) {
+      return new Object();
+    }
+  }
+
+  @GwtIncompatible // ByteSource
+  public void testWarmStart_setTwice() {
+    ValueCodec<Object> codec = new NullCodec();
+    ByteSource snapshot = ByteSource.empty();
+    CacheBuilder<Object, Object> builder =
+        CacheBuilder.newBuilder().warmStart(snapshot, codec, codec);
+    try {
+      // even to the same value is not allowed
+      builder.warmStart(snapshot, codec, codec);
+      fail();
+    } catch (IllegalStateException expected) {
+    }
+  }
+
+  public void testMaintenanceExecutor_setTwice() {
+    ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+    try {
+      CacheBuilder<Object, Object> builder =
+          CacheBuilder.newBuilder().maintenanceExecutor(executor);
+      try {
+        // even to the same value is not allowed
+        builder.maintenanceExecutor(executor);
+        fail();
+      } catch (IllegalStateException expected) {
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @GwtIncompatible // expireAfter
+  public void testExpireAfter_setTwice() {
+    Expiry<Object, Object> expiry = (Object key, Object value, long now) -> 1;
+    CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder().expireAfter(expiry);
+    try {
+      // even to the same value is not allowed
+      builder.expireAfter(expiry);
+      fail();
+    } catch (IllegalStateException expected) {
+    }
+  }
+
+  @GwtIncompatible // expireAfter
+  public void testExpireAfter_withFixedExpiration() {
+    Expiry<Object, Object> expiry = (Object key, Object value, long now) -> 1;
+    try {
+      CacheBuilder.newBuilder().expireAfterWrite(1, SECONDS).expireAfter(expiry);
+      fail();
+    } catch (IllegalStateException expected) {
+    }
+    try {
+      CacheBuilder.newBuilder().expireAfterAccess(1, SECONDS).expireAfter(expiry);
+      fail();
+    } catch (IllegalStateException expected) {
+    }
+    try {
+      CacheBuilder.newBuilder().expireAfter(expiry).expireAfterWrite(1, SECONDS);
+      fail();
+    } catch (IllegalStateException expected) {
+    }
+    try {
+      CacheBuilder.newBuilder().expireAfter(expiry).expireAfterAccess(1, SECONDS);
+      fail();
+    } catch (IllegalStateException expected) {
+    }
+  }
+
   @GwtIncompatible // refreshAfterWrite
   public void testRefresh_zero() {
     CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder();
@@ -710,7 +928,8 @@ public class CacheBuilderTest extends TestCase {
 
   @GwtIncompatible // NullPointerTester
   public void testNullParameters() throws Exception {
-    NullPointerTester tester = new NullPointerTester();
+    NullPointerTester tester =
+        new NullPointerTester().setDefault(CacheLoader.class, identityLoader());
     CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder();
     tester.testAllPublicInstanceMethods(builder);
   }
@@ -21,10 +21,13 @@ import static com.google.common.cache.TestingWeighers.intKeyWeigher;
 import static com.google.common.cache.TestingWeighers.intValueWeigher;
 import static com.google.common.truth.Truth.assertThat;
 import static java.util.Arrays.asList;
+import static java.util.concurrent.TimeUnit.HOURS;
+import static java.util.concurrent.TimeUnit.MINUTES;
 
 import com.google.common.cache.CacheTesting.Receiver;
 import com.google.common.cache.TestingCacheLoaders.IdentityLoader;
 import com.google.common.cache.TestingRemovalListeners.CountingRemovalListener;
+import com.google.common.testing.FakeTicker;
 import java.util.List;
 import java.util.Set;
 import junit.framework.TestCase;
@@ -409,6 +412,148 @@ public class CacheEvictionTest extends TestCase {
     assertThat(keySet).containsExactly(5, 6, 7, 8, 9, 10, 11, 12);
   }
 
+  public void testEviction_tinyLfuMaxSizeOneSegment() {
+    IdentityLoader<Integer> loader = identityLoader();
+    LoadingCache<Integer, Integer> cache =
+        CacheBuilder.newBuilder()
+            .concurrencyLevel(1)
+            .maximumSize(MAX_SIZE)
+            .evictionPolicy(EvictionPolicy.WINDOW_TINY_LFU)
+            .build(loader);
+    for (int i = 0; i < 2 * MAX_SIZE; i++) {
+      cache.getUnchecked(i);
+      assertEquals(Math.min(i + 1, MAX_SIZE), cache.size());
+    }
+
+    assertEquals(MAX_SIZE, cache.size());
+    CacheTesting.checkValidState(cache);
+  }
+
+  public void testEviction_tinyLfuMaxWeightOneSegment() {
+    IdentityLoader<Integer> loader = identityLoader();
+    LoadingCache<Integer, Integer> cache =
+        CacheBuilder.newBuilder()
+            .concurrencyLevel(1)
+            .maximumWeight(2 * MAX_SIZE)
+            .weigher(constantWeigher(2))
+            .evictionPolicy(EvictionPolicy.WINDOW_TINY_LFU)
+            .build(loader);
+    for (int i = 0; i < 2 * MAX_SIZE; i++) {
+      cache.getUnchecked(i);
+      assertEquals(Math.min(i + 1, MAX_SIZE), cache.size());
+    }
+
+    assertEquals(MAX_SIZE, cache.size());
+    CacheTesting.checkValidState(cache);
+  }
+
+  public void testEviction_tinyLfuMaxSize() {
+    CountingRemovalListener<Integer, Integer> removalListener = countingRemovalListener();
+    IdentityLoader<Integer> loader = identityLoader();
+    LoadingCache<Integer, Integer> cache =
+        CacheBuilder.newBuilder()
+            .maximumSize(MAX_SIZE)
+            .evictionPolicy(EvictionPolicy.WINDOW_TINY_LFU)
+            .removalListener(removalListener)
+            .build(loader);
+    for (int i = 0; i < 2 * MAX_SIZE; i++) {
+      cache.getUnchecked(i);
+      assertThat(cache.size()).isAtMost(MAX_SIZE);
+    }
+
+    assertEquals(MAX_SIZE, CacheTesting.accessQueueSize(cache));
+    assertEquals(MAX_SIZE, cache.size());
+    CacheTesting.processPendingNotifications(cache);
+    assertEquals(MAX_SIZE, removalListener.getCount());
+    CacheTesting.checkValidState(cache);
+  }
+
+  public void testEviction_tinyLfuScanResistance() {
+    IdentityLoader<Integer> loader = identityLoader();
+    LoadingCache<Integer, Integer> cache =
+        CacheBuilder.newBuilder()
+            .concurrencyLevel(1)
+            .maximumSize(MAX_SIZE)
+            .evictionPolicy(EvictionPolicy.WINDOW_TINY_LFU)
+            .recordStats()
+            .build(loader);
+    scanWithHotKeys(cache);
+
+    CacheTesting.drainRecencyQueues(cache);
+    for (int i = 0; i < MAX_SIZE / 2; i++) {
+      assertEquals(Integer.valueOf(i), cache.getIfPresent(i));
+    }
+    assertThat(cache.stats().admissionRejectionCount()).isGreaterThan(0L);
+    CacheTesting.checkValidState(cache);
+  }
+
+  public void testEviction_tinyLfuWithExpireAfter() {
+    FakeTicker ticker = new FakeTicker();
+    IdentityLoader<Integer> loader = identityLoader();
+    // the hot keys expire first, which must not make them the first to be evicted by size
+    LoadingCache<Integer, Integer> cache =
+        CacheBuilder.newBuilder()
+            .concurrencyLevel(1)
+            .maximumSize(MAX_SIZE)
+            .evictionPolicy(EvictionPolicy.WINDOW_TINY_LFU)
+            .expireAfter(
+                (Integer key, Integer value, long now) ->
+                    (key < MAX_SIZE / 2) ? HOURS.toNanos(1) : HOURS.toNanos(2))
+            .ticker(ticker)
+            .build(loader);
+    scanWithHotKeys(cache);
+
+    CacheTesting.drainRecencyQueues(cache);
+    for (int i = 0; i < MAX_SIZE / 2; i++) {
+      assertEquals(Integer.valueOf(i), cache.getIfPresent(i));
+    }
+    CacheTesting.checkValidState(cache);
+
+    ticker.advance(90, MINUTES);
+    cache.cleanUp();
+    for (int i = 0; i < MAX_SIZE / 2; i++) {
+      assertNull(cache.getIfPresent(i));
+    }
+    assertEquals(MAX_SIZE / 2, cache.size());
+    CacheTesting.checkValidState(cache);
+
+    ticker.advance(1, HOURS);
+    cache.cleanUp();
+    assertEquals(0, cache.size());
+  }
+
+  public void testEviction_lruScanFlushesHotKeys() {
+    IdentityLoader<Integer> loader = identityLoader();
+    LoadingCache<Integer, Integer> cache =
+        CacheBuilder.newBuilder()
+            .concurrencyLevel(1)
+            .maximumSize(MAX_SIZE)
+            .recordStats()
+            .build(loader);
+    scanWithHotKeys(cache);
+
+    for (int i = 0; i < MAX_SIZE / 2; i++) {
+      assertNull(cache.getIfPresent(i));
+    }
+    assertEquals(0, cache.stats().admissionRejectionCount());
+  }
+
+  /**
+   * Reads a hot set of half the cache's capacity, then interleaves it with scans of cold keys that
+   * are each as large as the cache, ending with a scan.
+   */
+  private static void scanWithHotKeys(LoadingCache<Integer, Integer> cache) {
+    int coldKey = MAX_SIZE;
+    for (int round = 0; round < 20; round++) {
+      for (int i = 0; i < MAX_SIZE / 2; i++) {
+        cache.getUnchecked(i);
+      }
+      for (int i = 0; i < MAX_SIZE; i++) {
+        cache.getUnchecked(coldKey++);
+      }
+    }
+  }
+
   private static void getAll(LoadingCache<Integer, Integer> cache, List<Integer> keys) {
     for (int i : keys) {
       cache.getUnchecked(i);
@@ -19,6 +19,7 @@ import static com.google.common.cache.TestingRemovalListeners.countingRemovalLis
 import static com.google.common.truth.Truth.assertThat;
 import static java.util.Arrays.asList;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 
 import com.google.common.cache.TestingCacheLoaders.IdentityLoader;
 import com.google.common.cache.TestingRemovalListeners.CountingRemovalListener;
@@ -26,7 +27,10 @@ import com.google.common.cache.TestingRemovalListeners.QueuingRemovalListener;
 import com.google.common.collect.Iterators;
 import com.google.common.testing.FakeTicker;
 import com.google.common.util.concurrent.Callables;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
@@ -72,6 +76,19 @@ public class CacheExpirationTest extends TestCase {
     checkExpiration(cache, loader, ticker, removalListener);
   }
 
+  public void testExpiration_expireAfter() {
+    FakeTicker ticker = new FakeTicker();
+    CountingRemovalListener<String, Integer> removalListener = countingRemovalListener();
+    WatchedCreatorLoader loader = new WatchedCreatorLoader();
+    LoadingCache<String, Integer> cache =
+        CacheBuilder.newBuilder()
+            .expireAfter(fixedExpiry(EXPIRING_TIME))
+            .removalListener(removalListener)
+            .ticker(ticker)
+            .build(loader);
+    checkExpiration(cache, loader, ticker, removalListener);
+  }
+
   private void checkExpiration(
       LoadingCache<String, Integer> cache,
       WatchedCreatorLoader loader,
@@ -124,6 +141,19 @@ public class CacheExpirationTest extends TestCase {
     runExpirationTest(cache, loader, ticker, removalListener);
   }
 
+  public void testExpiringGet_expireAfter() {
+    FakeTicker ticker = new FakeTicker();
+    CountingRemovalListener<String, Integer> removalListener = countingRemovalListener();
+    WatchedCreatorLoader loader = new WatchedCreatorLoader();
+    LoadingCache<String, Integer> cache =
+        CacheBuilder.newBuilder()
+            .expireAfter(fixedExpiry(EXPIRING_TIME))
+            .removalListener(removalListener)
+            .ticker(ticker)
+            .build(loader);
+    runExpirationTest(cache, loader, ticker, removalListener);
+  }
+
   private void runExpirationTest(
       LoadingCache<String, Integer> cache,
       WatchedCreatorLoader loader,
@@ -258,6 +288,19 @@ public class CacheExpirationTest extends TestCase {
     runRemovalScheduler(cache, removalListener, loader, ticker, KEY_PREFIX, EXPIRING_TIME);
   }
 
+  public void testRemovalScheduler_expireAfter() {
+    FakeTicker ticker = new FakeTicker();
+    CountingRemovalListener<String, Integer> removalListener = countingRemovalListener();
+    WatchedCreatorLoader loader = new WatchedCreatorLoader();
+    LoadingCache<String, Integer> cache =
+        CacheBuilder.newBuilder()
+            .expireAfter(fixedExpiry(EXPIRING_TIME))
+            .removalListener(removalListener)
+            .ticker(ticker)
+            .build(loader);
+    runRemovalScheduler(cache, removalListener, loader, ticker, KEY_PREFIX, EXPIRING_TIME);
+  }
+
   public void testExpirationOrder_access() {
     // test lru within a single segment
     FakeTicker ticker = new FakeTicker();
@@ -426,6 +469,187 @@ public class CacheExpirationTest extends TestCase {
     assertThat(listener.poll().getCause()).isEqualTo(RemovalCause.EXPIRED);
   }
 
+  public void testExpireAfter_perEntry() {
+    FakeTicker ticker = new FakeTicker();
+    CountingRemovalListener<Integer, Integer> removalListener = countingRemovalListener();
+    // key i lives for 2^i ms, which spans every level of the timer wheel
+    Cache<Integer, Integer> cache =
+        CacheBuilder.newBuilder()
+            .expireAfter((Integer key, Integer value, long now) -> MILLISECONDS.toNanos(1L << key))
+            .removalListener(removalListener)
+            .ticker(ticker)
+            .build();
+    for (int i = 0; i < 40; i++) {
+      cache.put(i, i);
+    }
+
+    long elapsed = 0;
+    for (int i = 0; i < 40; i++) {
+      ticker.advance((1L << i) - 1 - elapsed, MILLISECONDS);
+      cache.cleanUp();
+      assertEquals(i, removalListener.getCount());
+      assertEquals(Integer.valueOf(i), cache.getIfPresent(i));
+      CacheTesting.checkExpiration(cache);
+
+      ticker.advance(1, MILLISECONDS);
+      elapsed = 1L << i;
+      assertNull(cache.getIfPresent(i));
+      cache.cleanUp();
+      assertEquals(i + 1, removalListener.getCount());
+      assertEquals(40 - i - 1, cache.size());
+      CacheTesting.checkExpiration(cache);
+    }
+  }
+
+  public void testExpireAfter_update() {
+    FakeTicker ticker = new FakeTicker();
+    Cache<Integer, Integer> cache =
+        CacheBuilder.newBuilder()
+            .expireAfter(
+                new Expiry<Integer, Integer>() {
+                  @Override
+                  public long expireAfterCreate(Integer key, Integer value, long currentTime) {
+                    return MILLISECONDS.toNanos(Math.abs(value));
+                  }
+
+                  @Override
+                  public long expireAfterUpdate(
+                      Integer key, Integer value, long currentTime, long currentDuration) {
+                    return (value < 0) ? currentDuration : MILLISECONDS.toNanos(value);
+                  }
+                })
+            .ticker(ticker)
+            .build();
+
+    cache.put(1, 10);
+    ticker.advance(5, MILLISECONDS);
+    cache.put(1, 100);
+    ticker.advance(50, MILLISECONDS);
+    assertEquals(Integer.valueOf(100), cache.getIfPresent(1));
+    cache.put(1, -1); // keeps the remaining 50ms
+    ticker.advance(49, MILLISECONDS);
+    assertEquals(Integer.valueOf(-1), cache.getIfPresent(1));
+    ticker.advance(1, MILLISECONDS);
+    assertNull(cache.getIfPresent(1));
+
+    // replacing an expired value creates a new entry
+    cache.put(1, -1);
+    assertEquals(Integer.valueOf(-1), cache.getIfPresent(1));
+    ticker.advance(1, MILLISECONDS);
+    assertNull(cache.getIfPresent(1));
+  }
+
+  public void testExpireAfter_read() {
+    FakeTicker ticker = new FakeTicker();
+    CountingRemovalListener<Integer, Integer> removalListener = countingRemovalListener();
+    LoadingCache<Integer, Integer> cache =
+        CacheBuilder.newBuilder()
+            .expireAfter(
+                new Expiry<Integer, Integer>() {
+                  @Override
+                  public long expireAfterCreate(Integer key, Integer value, long currentTime) {
+                    return MILLISECONDS.toNanos(EXPIRING_TIME);
+                  }
+
+                  @Override
+                  public long expireAfterRead(
+                      Integer key, Integer value, long currentTime, long currentDuration) {
+                    return MILLISECONDS.toNanos(EXPIRING_TIME * 2);
+                  }
+                })
+            .removalListener(removalListener)
+            .ticker(ticker)
+            .build(identityLoader());
+
+    cache.getUnchecked(1);
+    cache.put(2, 2);
+    ticker.advance(EXPIRING_TIME - 1, MILLISECONDS);
+    assertEquals(Integer.valueOf(1), cache.getIfPresent(1));
+    ticker.advance(1, MILLISECONDS);
+    cache.cleanUp();
+    assertEquals(1, removalListener.getCount());
+    assertNull(cache.getIfPresent(2));
+
+    ticker.advance(EXPIRING_TIME * 2 - 2, MILLISECONDS);
+    assertEquals(Integer.valueOf(1), cache.asMap().get(1));
+    ticker.advance(EXPIRING_TIME * 2 - 1, MILLISECONDS);
+    cache.cleanUp();
+    assertEquals(1, cache.size());
+    ticker.advance(1, MILLISECONDS);
+    cache.cleanUp();
+    assertEquals(0, cache.size());
+    assertEquals(2, removalListener.getCount());
+  }
+
+  public void testExpireAfter_random() {
+    FakeTicker ticker = new FakeTicker();
+    Random random = new Random(42);
+    Map<Integer, Long> expirationTimes = new HashMap<>();
+    Cache<Integer, Long> cache =
+        CacheBuilder.newBuilder()
+            .concurrencyLevel(1)
+            .expireAfter((Integer key, Long value, long now) -> value - now)
+            .removalListener(
+                (RemovalNotification<Integer, Long> notification) -> {
+                  assertEquals(RemovalCause.EXPIRED, notification.getCause());
+                  assertThat(ticker.read()).isAtLeast(notification.getValue());
+                  expirationTimes.remove(notification.getKey());
+                })
+            .ticker(ticker)
+            .build();
+
+    for (int round = 0; round < 2000; round++) {
+      int key = random.nextInt(500);
+      if (!expirationTimes.containsKey(key)) {
+        // lifetimes from a millisecond to about a month
+        long lifetime = (long) Math.pow(2, 20 + random.nextDouble() * 32);
+        long expirationTime = ticker.read() + lifetime;
+        cache.put(key, expirationTime);
+        expirationTimes.put(key, expirationTime);
+      }
+      ticker.advance((long) Math.pow(2, random.nextDouble() * 40), NANOSECONDS);
+      cache.cleanUp();
+
+      long now = ticker.read();
+      for (long expirationTime : expirationTimes.values()) {
+        assertThat(expirationTime).isGreaterThan(now);
+      }
+      assertEquals(expirationTimes.size(), cache.size());
+    }
+    CacheTesting.checkExpiration(cache);
+  }
+
+  public void testExpireAfter_withMaximumSize() {
+    FakeTicker ticker = new FakeTicker();
+    CountingRemovalListener<Integer, Integer> removalListener = countingRemovalListener();
+    Cache<Integer, Integer> cache =
+        CacheBuilder.newBuilder()
+            .concurrencyLevel(1)
+            .maximumSize(10)
+            .expireAfter((Integer key, Integer value, long now) -> MILLISECONDS.toNanos(key))
+            .removalListener(removalListener)
+            .ticker(ticker)
+            .build();
+    for (int i = 1; i <= 20; i++) {
+      cache.put(i, i);
+    }
+    assertEquals(10, cache.size());
+    assertEquals(10, removalListener.getCount());
+    CacheTesting.checkValidState(cache);
+    CacheTesting.checkExpiration(cache);
+
+    ticker.advance(15, MILLISECONDS);
+    cache.cleanUp();
+    assertEquals(5, cache.size());
+    assertEquals(15, removalListener.getCount());
+    CacheTesting.checkValidState(cache);
+    CacheTesting.checkExpiration(cache);
+  }
+
+  private static <K, V> Expiry<K, V> fixedExpiry(long millis) {
+    return (K key, V value, long now) -> MILLISECONDS.toNanos(millis);
+  }
+
   private void runRemovalScheduler(
       LoadingCache<String, Integer> cache,
       CountingRemovalListener<String, Integer> removalListener,
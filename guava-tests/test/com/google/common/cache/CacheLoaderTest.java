@@ -101,5 +101,14 @@ public class CacheLoaderTest extends TestCase {
     assertEquals(2, loadCount.get());
     assertEquals(2, reloadCount.get());
     assertEquals(2, loadAllCount.get());
+
+    // reloadAll delegates to loadAll, and is executed on the executor by the async reloader
+    Future<Map<Object, Object>> reloaded =
+        asyncReloader.reloadAll(ImmutableMap.of(new Object(), new Object()));
+    assertFalse(reloaded.isDone());
+    assertEquals(2, loadAllCount.get());
+    executor.runNext();
+    assertEquals(3, loadAllCount.get());
+    assertTrue(reloaded.isDone());
   }
 }
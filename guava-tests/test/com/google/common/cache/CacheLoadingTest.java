@@ -603,6 +603,48 @@ public class CacheLoadingTest extends TestCase {
     assertSame(extraValue, cache.asMap().get(extraKey));
   }
 
+  public void testRecordLatencies() throws ExecutionException {
+    FakeTicker ticker = new FakeTicker().setAutoIncrementStep(1, TimeUnit.MICROSECONDS);
+    LoadingCache<Object, Object> cache =
+        CacheBuilder.newBuilder().ticker(ticker).recordLatencies().build(identityLoader());
+    Object key = new Object();
+    cache.get(key);
+    cache.getUnchecked(new Object());
+    cache.get(key);
+    assertNull(cache.getIfPresent(new Object()));
+
+    CacheStats stats = cache.stats();
+    assertEquals(2, stats.loadLatencies().count());
+    assertThat(stats.loadLatencies().quantile(1.0)).isAtLeast(1000);
+    assertEquals(LatencyHistogram.empty(), stats.hitLatencies());
+  }
+
+  public void testRecordHitLatencies() throws ExecutionException {
+    FakeTicker ticker = new FakeTicker().setAutoIncrementStep(1, TimeUnit.MICROSECONDS);
+    LoadingCache<Object, Object> cache =
+        CacheBuilder.newBuilder().ticker(ticker).recordHitLatencies().build(identityLoader());
+    Object key = new Object();
+    cache.get(key);
+    CacheStats stats = cache.stats();
+    assertEquals(1, stats.loadLatencies().count());
+    assertEquals(0, stats.hitLatencies().count());
+
+    // a hit reads the ticker before looking up the entry, while checking whether the entry has
+    // expired, and once more to record its latency
+    cache.get(key);
+    cache.getUnchecked(key);
+    cache.getIfPresent(key);
+    stats = cache.stats();
+    assertEquals(3, stats.hitCount());
+    assertEquals(3, stats.hitLatencies().count());
+    assertEquals(2047, stats.hitLatencies().quantile(0.0));
+    assertEquals(2047, stats.hitLatencies().quantile(1.0));
+
+    CacheStats later = cache.stats();
+    cache.get(key);
+    assertEquals(1, cache.stats().minus(later).hitLatencies().count());
+  }
+
   public void testLoadNull() throws ExecutionException {
     LoadingCache<Object, Object> cache =
         CacheBuilder.newBuilder().recordStats().build(constantLoader(null));
@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.common.cache;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import com.google.common.testing.FakeTicker;
+import com.google.common.testing.GcFinalization;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import junit.framework.TestCase;
+
+/** Tests for {@link CacheBuilder#maintenanceExecutor}. */
+public class CacheMaintenanceTest extends TestCase {
+
+  private ScheduledThreadPoolExecutor executor;
+  private final List<Thread> notifiedThreads = new CopyOnWriteArrayList<>();
+
+  @Override
+  protected void setUp() {
+    executor = new ScheduledThreadPoolExecutor(1);
+    executor.setRemoveOnCancelPolicy(true);
+  }
+
+  @Override
+  protected void tearDown() {
+    executor.shutdownNow();
+  }
+
+  public void testNotificationsDeliveredOnExecutor() throws InterruptedException {
+    CountDownLatch removed = new CountDownLatch(2);
+    Cache<Integer, Integer> cache =
+        CacheBuilder.newBuilder()
+            .maximumSize(1)
+            .maintenanceExecutor(executor)
+            .removalListener(
+                notification -> {
+                  notifiedThreads.add(Thread.currentThread());
+                  removed.countDown();
+                })
+            .build();
+
+    cache.put(1, 1);
+    cache.put(2, 2);
+    cache.put(2, 3);
+    assertTrue(removed.await(10, SECONDS));
+    assertThat(notifiedThreads).doesNotContain(Thread.currentThread());
+  }
+
+  public void testIdleCacheIsCleanedUp() throws InterruptedException {
+    FakeTicker ticker = new FakeTicker();
+    CountDownLatch removed = new CountDownLatch(10);
+    Cache<Integer, Integer> cache =
+        CacheBuilder.newBuilder()
+            .expireAfterWrite(1, MILLISECONDS)
+            .ticker(ticker)
+            .maintenanceExecutor(executor)
+            .removalListener(
+                notification -> {
+                  notifiedThreads.add(Thread.currentThread());
+                  removed.countDown();
+                })
+            .build();
+    for (int i = 0; i < 10; i++) {
+      cache.put(i, i);
+    }
+    assertEquals(10, cache.size());
+
+    // the cache is not accessed again until the periodic maintenance has removed every entry
+    ticker.advance(1, MILLISECONDS);
+    assertTrue(removed.await(10, SECONDS));
+    assertEquals(0, cache.size());
+    assertThat(notifiedThreads).doesNotContain(Thread.currentThread());
+  }
+
+  public void testCleanUp_deliversNotificationsInline() {
+    Cache<Integer, Integer> cache =
+        CacheBuilder.newBuilder()
+            .maintenanceExecutor(executor)
+            .removalListener(notification -> notifiedThreads.add(Thread.currentThread()))
+            .build();
+    // hold the executor's thread so that it can't deliver the notification first
+    CountDownLatch release = new CountDownLatch(1);
+    executor.execute(
+        () -> {
+          try {
+            release.await();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        });
+
+    cache.put(1, 1);
+    cache.put(1, 2);
+    assertThat(notifiedThreads).isEmpty();
+    cache.cleanUp();
+    assertThat(notifiedThreads).containsExactly(Thread.currentThread());
+    release.countDown();
+  }
+
+  public void testRejectedExecution_deliversNotificationsInline() {
+    Cache<Integer, Integer> cache =
+        CacheBuilder.newBuilder()
+            .maintenanceExecutor(executor)
+            .removalListener(notification -> notifiedThreads.add(Thread.currentThread()))
+            .build();
+    executor.shutdown();
+
+    cache.put(1, 1);
+    cache.put(1, 2);
+    assertThat(notifiedThreads).containsExactly(Thread.currentThread());
+  }
+
+  public void testMaintenanceTaskCancelledWhenCacheCollected() {
+    CacheBuilder.newBuilder().maintenanceExecutor(executor).build().put(1, 1);
+    assertThat(executor.getQueue()).hasSize(1);
+
+    // the task notices that the cache was collected the next time it runs
+    GcFinalization.awaitDone(() -> executor.getQueue().isEmpty());
+  }
+}
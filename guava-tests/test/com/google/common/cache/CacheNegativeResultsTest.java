@@ -0,0 +1,454 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.common.cache;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import com.google.common.cache.CacheLoader.InvalidCacheLoadException;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.testing.FakeTicker;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import junit.framework.TestCase;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/** Tests for {@link CacheBuilder#cacheNegativeResults}. */
+public class CacheNegativeResultsTest extends TestCase {
+
+  private final FakeTicker ticker = new FakeTicker();
+  private final AtomicInteger loads = new AtomicInteger();
+
+  /** Loads the decimal representation of even keys, and finds no value for odd keys. */
+  private final CacheLoader<Integer, String> loader =
+      new CacheLoader<Integer, String>() {
+        @Override
+        public @Nullable String load(Integer key) {
+          loads.incrementAndGet();
+          return (key % 2 == 0) ? String.valueOf(key) : null;
+        }
+
+        @Override
+        public Map<Integer, String> loadAll(Iterable<? extends Integer> keys) {
+          Map<Integer, String> result = new HashMap<>();
+          for (Integer key : keys) {
+            loads.incrementAndGet();
+            if (key % 2 == 0) {
+              result.put(key, String.valueOf(key));
+            }
+          }
+          return result;
+        }
+      };
+
+  private LoadingCache<Integer, String> newCache() {
+    return CacheBuilder.newBuilder()
+        .recordStats()
+        .ticker(ticker)
+        .cacheNegativeResults(10, NANOSECONDS, 100)
+        .build(loader);
+  }
+
+  public void testNegativeResultIsCached() {
+    LoadingCache<Integer, String> cache = newCache();
+    assertEquals("2", cache.getUnchecked(2));
+    for (int i = 0; i < 3; i++) {
+      try {
+        cache.getUnchecked(1);
+        fail();
+      } catch (InvalidCacheLoadException expected) {
+      }
+    }
+    assertEquals(2, loads.get());
+    assertTrue(cache.hasNegativeResult(1));
+    assertFalse(cache.hasNegativeResult(2));
+    assertFalse(cache.hasNegativeResult(3));
+    assertEquals(1, cache.size());
+
+    CacheStats stats = cache.stats();
+    assertEquals(2, stats.missCount());
+    assertEquals(2, stats.negativeHitCount());
+    assertEquals(1, stats.negativeLoadCount());
+    assertEquals(1, stats.loadExceptionCount());
+  }
+
+  public void testGetIfPresent() {
+    LoadingCache<Integer, String> cache = newCache();
+    assertNull(cache.getIfPresent(1));
+    try {
+      cache.getUnchecked(1);
+      fail();
+    } catch (InvalidCacheLoadException expected) {
+    }
+    assertNull(cache.getIfPresent(1));
+    assertNull(cache.getIfPresent(1));
+
+    CacheStats stats = cache.stats();
+    assertEquals(2, stats.missCount());
+    assertEquals(2, stats.negativeHitCount());
+    assertEquals(0, stats.hitCount());
+  }
+
+  public void testLoaderThrowsInvalidCacheLoadException() {
+    LoadingCache<Integer, String> cache =
+        CacheBuilder.newBuilder()
+            .ticker(ticker)
+            .cacheNegativeResults(10, NANOSECONDS, 100)
+            .build(
+                new CacheLoader<Integer, String>() {
+                  @Override
+                  public String load(Integer key) {
+                    loads.incrementAndGet();
+                    throw new InvalidCacheLoadException("not found");
+                  }
+                });
+    for (int i = 0; i < 2; i++) {
+      try {
+        cache.getUnchecked(1);
+        fail();
+      } catch (RuntimeException expected) {
+      }
+    }
+    assertEquals(1, loads.get());
+    assertTrue(cache.hasNegativeResult(1));
+  }
+
+  public void testOtherExceptionsAreNotCached() {
+    LoadingCache<Integer, String> cache =
+        CacheBuilder.newBuilder()
+            .cacheNegativeResults(10, NANOSECONDS, 100)
+            .build(
+                new CacheLoader<Integer, String>() {
+                  @Override
+                  public String load(Integer key) {
+                    loads.incrementAndGet();
+                    throw new IllegalStateException();
+                  }
+                });
+    for (int i = 0; i < 2; i++) {
+      try {
+        cache.getUnchecked(1);
+        fail();
+      } catch (RuntimeException expected) {
+      }
+    }
+    assertEquals(2, loads.get());
+    assertFalse(cache.hasNegativeResult(1));
+  }
+
+  public void testExpiry() {
+    LoadingCache<Integer, String> cache = newCache();
+    assertThrowsInvalidCacheLoad(cache, 1);
+    ticker.advance(9);
+    assertTrue(cache.hasNegativeResult(1));
+    ticker.advance(1);
+    assertFalse(cache.hasNegativeResult(1));
+    assertThrowsInvalidCacheLoad(cache, 1);
+    assertEquals(2, loads.get());
+  }
+
+  public void testMaximumSize() {
+    LoadingCache<Integer, String> cache =
+        CacheBuilder.newBuilder()
+            .concurrencyLevel(1)
+            .maximumSize(1)
+            .ticker(ticker)
+            .cacheNegativeResults(10, NANOSECONDS, 2)
+            .build(loader);
+    cache.getUnchecked(2);
+    cache.getUnchecked(4);
+    for (int key = 1; key < 8; key += 2) {
+      assertThrowsInvalidCacheLoad(cache, key);
+    }
+    // negative results neither count towards, nor are evicted by, the cache's maximum size
+    assertEquals(1, cache.size());
+    assertTrue(cache.hasNegativeResult(7));
+    assertTrue(cache.hasNegativeResult(5));
+    assertFalse(cache.hasNegativeResult(1));
+  }
+
+  public void testWriteDiscardsNegativeResult() {
+    LoadingCache<Integer, String> cache = newCache();
+    assertThrowsInvalidCacheLoad(cache, 1);
+    cache.put(1, "one");
+    assertFalse(cache.hasNegativeResult(1));
+    assertEquals("one", cache.getUnchecked(1));
+    cache.invalidate(1);
+    assertThrowsInvalidCacheLoad(cache, 1);
+    assertEquals(2, loads.get());
+  }
+
+  public void testInvalidateDiscardsNegativeResult() {
+    LoadingCache<Integer, String> cache = newCache();
+    assertThrowsInvalidCacheLoad(cache, 1);
+    assertThrowsInvalidCacheLoad(cache, 3);
+    cache.invalidate(1);
+    assertFalse(cache.hasNegativeResult(1));
+    assertTrue(cache.hasNegativeResult(3));
+    cache.invalidateAll();
+    assertFalse(cache.hasNegativeResult(3));
+  }
+
+  public void testGetAll() throws Exception {
+    LoadingCache<Integer, String> cache = newCache();
+    try {
+      cache.getAll(ImmutableList.of(2, 3));
+      fail();
+    } catch (InvalidCacheLoadException expected) {
+    }
+    assertTrue(cache.hasNegativeResult(3));
+    assertEquals(2, loads.get());
+
+    try {
+      cache.getAll(ImmutableList.of(2, 3));
+      fail();
+    } catch (InvalidCacheLoadException expected) {
+    }
+    assertEquals(2, loads.get());
+    assertEquals(ImmutableMap.of(2, "2", 4, "4"), cache.getAll(ImmutableList.of(2, 4)));
+    assertThat(cache.stats().negativeHitCount()).isEqualTo(1);
+    assertThat(cache.getAllPresent(ImmutableList.of(2, 3))).containsExactly(2, "2");
+    assertThat(cache.stats().negativeHitCount()).isEqualTo(2);
+  }
+
+  public void testAsyncGet() throws Exception {
+    AsyncLoadingCache<Integer, String> cache =
+        CacheBuilder.newBuilder()
+            .recordStats()
+            .ticker(ticker)
+            .cacheNegativeResults(10, NANOSECONDS, 100)
+            .buildAsync(loader, directExecutor());
+    for (int i = 0; i < 3; i++) {
+      assertFailsWithInvalidCacheLoad(cache.get(1));
+    }
+    assertEquals(1, loads.get());
+    assertTrue(cache.synchronous().hasNegativeResult(1));
+
+    CacheStats stats = cache.synchronous().stats();
+    assertEquals(1, stats.missCount());
+    assertEquals(2, stats.negativeHitCount());
+    assertEquals(1, stats.negativeLoadCount());
+
+    ticker.advance(10);
+    assertFailsWithInvalidCacheLoad(cache.get(1));
+    assertEquals(2, loads.get());
+  }
+
+  public void testAsyncGetAll() throws Exception {
+    AsyncLoadingCache<Integer, String> cache =
+        CacheBuilder.newBuilder()
+            .ticker(ticker)
+            .cacheNegativeResults(10, NANOSECONDS, 100)
+            .buildAsync(loader, directExecutor());
+    assertFailsWithInvalidCacheLoad(cache.getAll(ImmutableList.of(2, 3)));
+    assertTrue(cache.synchronous().hasNegativeResult(3));
+    assertEquals(2, loads.get());
+
+    assertFailsWithInvalidCacheLoad(cache.getAll(ImmutableList.of(2, 3)));
+    assertFailsWithInvalidCacheLoad(cache.get(3));
+    assertEquals(2, loads.get());
+    assertEquals(ImmutableMap.of(2, "2", 4, "4"), cache.getAll(ImmutableList.of(2, 4)).get());
+  }
+
+  public void testRefreshFindingNoValue_keepsOldValue() {
+    AtomicBoolean found = new AtomicBoolean(true);
+    LoadingCache<Integer, String> cache =
+        CacheBuilder.newBuilder()
+            .recordStats()
+            .cacheNegativeResults(10, NANOSECONDS, 100)
+            .build(foundWhile(found));
+    assertEquals("1", cache.getUnchecked(1));
+    found.set(false);
+    cache.refresh(1);
+
+    assertFalse(cache.hasNegativeResult(1));
+    assertEquals("1", cache.getUnchecked(1));
+    assertEquals(0, cache.stats().negativeLoadCount());
+  }
+
+  public void testAsyncRefreshFindingNoValue_keepsOldValue() throws Exception {
+    AtomicBoolean found = new AtomicBoolean(true);
+    AsyncLoadingCache<Integer, String> cache =
+        CacheBuilder.newBuilder()
+            .recordStats()
+            .ticker(ticker)
+            .refreshAfterWrite(1, NANOSECONDS)
+            .cacheNegativeResults(10, NANOSECONDS, 100)
+            .buildAsync(foundWhile(found), directExecutor());
+    assertEquals("1", cache.get(1).get());
+    found.set(false);
+    ticker.advance(2);
+    // the stale value is returned while the refresh finds no value
+    assertEquals("1", cache.get(1).get());
+    assertEquals(2, loads.get());
+
+    assertFalse(cache.synchronous().hasNegativeResult(1));
+    assertEquals("1", cache.get(1).get());
+    assertEquals(0, cache.synchronous().stats().negativeLoadCount());
+  }
+
+  public void testWriteDuringLoad_notShadowedByNegativeResult() throws Exception {
+    CountDownLatch loadStarted = new CountDownLatch(1);
+    CountDownLatch written = new CountDownLatch(1);
+    LoadingCache<Integer, String> cache =
+        CacheBuilder.newBuilder()
+            .ticker(ticker)
+            .cacheNegativeResults(10, NANOSECONDS, 100)
+            .build(
+                new CacheLoader<Integer, String>() {
+                  @Override
+                  public @Nullable String load(Integer key) throws InterruptedException {
+                    loadStarted.countDown();
+                    written.await();
+                    return null;
+                  }
+                });
+    Thread loader =
+        new Thread(
+            () -> {
+              try {
+                cache.getUnchecked(1);
+              } catch (InvalidCacheLoadException expected) {
+              }
+            });
+    loader.start();
+    loadStarted.await();
+    cache.put(1, "one");
+    written.countDown();
+    loader.join();
+
+    assertFalse(cache.hasNegativeResult(1));
+    assertEquals("one", cache.getUnchecked(1));
+  }
+
+  public void testWriteDuringGetAll_notShadowedByNegativeResult() throws Exception {
+    CountDownLatch loadStarted = new CountDownLatch(1);
+    CountDownLatch written = new CountDownLatch(1);
+    LoadingCache<Integer, String> cache =
+        CacheBuilder.newBuilder()
+            .ticker(ticker)
+            .cacheNegativeResults(10, NANOSECONDS, 100)
+            .build(
+                new CacheLoader<Integer, String>() {
+                  @Override
+                  public String load(Integer key) {
+                    throw new AssertionError();
+                  }
+
+                  @Override
+                  public Map<Integer, String> loadAll(Iterable<? extends Integer> keys)
+                      throws InterruptedException {
+                    loadStarted.countDown();
+                    written.await();
+                    return ImmutableMap.of(2, "2");
+                  }
+                });
+    Thread loader =
+        new Thread(
+            () -> {
+              try {
+                cache.getAll(ImmutableList.of(1, 2));
+              } catch (ExecutionException | InvalidCacheLoadException expected) {
+              }
+            });
+    loader.start();
+    loadStarted.await();
+    cache.put(1, "one");
+    written.countDown();
+    loader.join();
+
+    assertFalse(cache.hasNegativeResult(1));
+    assertEquals("one", cache.getUnchecked(1));
+  }
+
+  public void testManualCacheWithCallable() throws Exception {
+    Cache<Integer, String> cache =
+        CacheBuilder.newBuilder().ticker(ticker).cacheNegativeResults(10, NANOSECONDS, 100).build();
+    for (int i = 0; i < 2; i++) {
+      try {
+        cache.get(1, () -> null);
+        fail();
+      } catch (InvalidCacheLoadException expected) {
+      }
+    }
+    assertTrue(cache.hasNegativeResult(1));
+    assertEquals("one", cache.asMap().computeIfAbsent(1, key -> "one"));
+    assertFalse(cache.hasNegativeResult(1));
+  }
+
+  public void testDisabledByDefault() {
+    LoadingCache<Integer, String> cache = CacheBuilder.newBuilder().build(loader);
+    assertThrowsInvalidCacheLoad(cache, 1);
+    assertThrowsInvalidCacheLoad(cache, 1);
+    assertEquals(2, loads.get());
+    assertFalse(cache.hasNegativeResult(1));
+  }
+
+  public void testBuilderChecks() {
+    CacheBuilder<Object, Object> builder =
+        CacheBuilder.newBuilder().cacheNegativeResults(java.time.Duration.ofSeconds(1), 10);
+    try {
+      builder.cacheNegativeResults(1, NANOSECONDS, 10);
+      fail();
+    } catch (IllegalStateException expected) {
+    }
+    try {
+      CacheBuilder.newBuilder().cacheNegativeResults(-1, NANOSECONDS, 10);
+      fail();
+    } catch (IllegalArgumentException expected) {
+    }
+    try {
+      CacheBuilder.newBuilder().cacheNegativeResults(1, NANOSECONDS, -1);
+      fail();
+    } catch (IllegalArgumentException expected) {
+    }
+    assertThat(builder.toString()).contains("cacheNegativeResults=1000000000ns");
+  }
+
+  /** Returns a loader that loads the decimal representation of keys while {@code found} is set. */
+  private CacheLoader<Integer, String> foundWhile(AtomicBoolean found) {
+    return new CacheLoader<Integer, String>() {
+      @Override
+      public @Nullable String load(Integer key) {
+        loads.incrementAndGet();
+        return found.get() ? String.valueOf(key) : null;
+      }
+    };
+  }
+
+  private static void assertFailsWithInvalidCacheLoad(Future<?> future) throws Exception {
+    try {
+      future.get();
+      fail();
+    } catch (ExecutionException expected) {
+      assertThat(expected).hasCauseThat().isInstanceOf(InvalidCacheLoadException.class);
+    }
+  }
+
+  private static void assertThrowsInvalidCacheLoad(LoadingCache<Integer, String> cache, int key) {
+    try {
+      cache.getUnchecked(key);
+      fail();
+    } catch (InvalidCacheLoadException expected) {
+    }
+  }
+}
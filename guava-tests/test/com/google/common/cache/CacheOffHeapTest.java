@@ -0,0 +1,221 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.common.cache;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.base.Strings;
+import com.google.common.cache.LocalCache.LocalManualCache;
+import com.google.common.cache.LocalCache.ValueReference;
+import com.google.common.io.MoreFiles;
+import com.google.common.io.RecursiveDeleteOption;
+import com.google.common.testing.SerializableTester;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import junit.framework.TestCase;
+
+/** Tests for {@link CacheBuilder#offHeapValues}. */
+public class CacheOffHeapTest extends TestCase {
+
+  private static final class StringCodec implements ValueCodec<String>, Serializable {
+    @Override
+    public byte[] encode(String value) {
+      return value.getBytes(UTF_8);
+    }
+
+    @Override
+    public String decode(byte[] bytes) {
+      return new String(bytes, UTF_8);
+    }
+
+    private static final long serialVersionUID = 0;
+  }
+
+  private final List<RemovalNotification<Integer, String>> notifications =
+      new CopyOnWriteArrayList<>();
+
+  private Cache<Integer, String> newCache(long maximumBytes) {
+    RemovalListener<Integer, String> listener = notifications::add;
+    return CacheBuilder.newBuilder()
+        .concurrencyLevel(1)
+        .maximumWeight(maximumBytes)
+        .recordStats()
+        .removalListener(listener)
+        .offHeapValues(new StringCodec())
+        .build();
+  }
+
+  private static LocalCache<Integer, String> toLocalCache(Cache<Integer, String> cache) {
+    return ((LocalManualCache<Integer, String>) cache).localCache;
+  }
+
+  private static OffHeapStore<String> store(Cache<Integer, String> cache) {
+    return toLocalCache(cache).offHeapStore;
+  }
+
+  public void testRoundTrip() {
+    Cache<Integer, String> cache = newCache(1 << 20);
+    cache.put(1, "one");
+    cache.put(2, "");
+    cache.put(3, Strings.repeat("x", 1000));
+
+    assertEquals("one", cache.getIfPresent(1));
+    assertEquals("", cache.getIfPresent(2));
+    assertEquals(Strings.repeat("x", 1000), cache.getIfPresent(3));
+    assertThat(cache.asMap()).containsEntry(1, "one");
+    assertTrue(cache.asMap().containsValue("one"));
+    // every read decodes a new instance
+    assertNotSame(cache.getIfPresent(1), cache.getIfPresent(1));
+  }
+
+  public void testWeightIsAllocatedSize() {
+    Cache<Integer, String> cache = newCache(1 << 20);
+    cache.put(1, "abc");
+    cache.put(2, Strings.repeat("y", 100));
+    assertEquals(64 + 128, toLocalCache(cache).segments[0].totalWeight);
+    assertEquals(64 + 128, store(cache).reservedBytes());
+  }
+
+  public void testReadAfterReplace_followsEntry() {
+    Cache<Integer, String> cache = newCache(1 << 20);
+    cache.put(1, "a");
+    LocalCache<Integer, String> localCache = toLocalCache(cache);
+    int hash = localCache.hash(1);
+    ValueReference<Integer, String> reference =
+        localCache.segmentFor(hash).getEntry(1, hash).getValueReference();
+
+    // a reader that loaded the reference before the replacement sees the new value
+    cache.put(1, Strings.repeat("b", 100));
+    assertEquals(Strings.repeat("b", 100), reference.get());
+    cache.put(1, "c");
+    assertEquals("c", reference.get());
+
+    cache.invalidate(1);
+    assertNull(reference.get());
+  }
+
+  public void testEmptySlabs_released() {
+    Cache<Integer, String> cache = newCache(Long.MAX_VALUE);
+    OffHeapStore<String> store = store(cache);
+    int perSlab = OffHeapStore.SLAB_SIZE / 64;
+    for (int i = 0; i < 3 * perSlab; i++) {
+      cache.put(i, "v");
+    }
+    assertEquals(3 * OffHeapStore.SLAB_SIZE, store.slabBytes());
+
+    cache.invalidateAll();
+    assertEquals(0, store.reservedBytes());
+    // the last empty slab of the size class is kept
+    assertEquals(OffHeapStore.SLAB_SIZE, store.slabBytes());
+  }
+
+  public void testReplaceAndRemove_reuseStorage() {
+    Cache<Integer, String> cache = newCache(1 << 20);
+    OffHeapStore<String> store = store(cache);
+    cache.put(1, "a");
+    assertEquals(64, store.reservedBytes());
+    cache.put(1, Strings.repeat("b", 100));
+    assertEquals(128, store.reservedBytes());
+    assertEquals("a", notifications.get(0).getValue());
+    assertEquals(RemovalCause.REPLACED, notifications.get(0).getCause());
+
+    long slabBytes = store.slabBytes();
+    for (int i = 0; i < 1000; i++) {
+      cache.put(1, Strings.repeat("c", 100 + (i % 2)));
+    }
+    assertEquals(slabBytes, store.slabBytes());
+
+    cache.invalidate(1);
+    assertEquals(0, store.reservedBytes());
+    cache.put(2, "d");
+    cache.put(3, "e");
+    cache.invalidateAll();
+    assertEquals(0, store.reservedBytes());
+    assertEquals(0, cache.size());
+  }
+
+  public void testEvictionBySize() {
+    Cache<Integer, String> cache = newCache(10 * 128 + 100);
+    for (int i = 0; i < 20; i++) {
+      cache.put(i, Strings.repeat("z", 100));
+    }
+    assertEquals(10, cache.size());
+    assertEquals(10, cache.stats().evictionCount());
+    assertEquals(10 * 128, store(cache).reservedBytes());
+    for (RemovalNotification<Integer, String> notification : notifications) {
+      assertEquals(RemovalCause.SIZE, notification.getCause());
+      assertEquals(Strings.repeat("z", 100), notification.getValue());
+    }
+  }
+
+  public void testLargeValue() {
+    Cache<Integer, String> cache = newCache(Long.MAX_VALUE);
+    String large = Strings.repeat("L", OffHeapStore.SLAB_SIZE + 1);
+    cache.put(1, large);
+    assertEquals(large, cache.getIfPresent(1));
+    assertEquals(OffHeapStore.SLAB_SIZE + 1, store(cache).reservedBytes());
+
+    cache.invalidate(1);
+    assertEquals(0, store(cache).reservedBytes());
+    assertEquals(0, store(cache).slabBytes());
+  }
+
+  public void testLoadingCache() throws Exception {
+    LoadingCache<Integer, String> cache =
+        CacheBuilder.newBuilder()
+            .maximumWeight(1 << 20)
+            .offHeapValues(new StringCodec())
+            .build(CacheLoader.from(String::valueOf));
+    assertEquals("42", cache.get(42));
+    assertEquals("42", cache.getIfPresent(42));
+    cache.refresh(42);
+    assertEquals("42", cache.get(42));
+    assertEquals(64, toLocalCache(cache).offHeapStore.reservedBytes());
+  }
+
+  public void testMappedFiles() throws IOException {
+    Path directory = Files.createTempDirectory("cache");
+    try {
+      Cache<Integer, String> cache =
+          CacheBuilder.newBuilder()
+              .maximumWeight(1 << 20)
+              .offHeapValues(new StringCodec(), directory)
+              .build();
+      cache.put(1, "mapped");
+      assertEquals("mapped", cache.getIfPresent(1));
+      // the file backing the slab is deleted as soon as it is mapped
+      try (java.util.stream.Stream<Path> files = Files.list(directory)) {
+        assertEquals(0, files.count());
+      }
+    } finally {
+      MoreFiles.deleteRecursively(directory, RecursiveDeleteOption.ALLOW_INSECURE);
+    }
+  }
+
+  public void testSerialization() {
+    Cache<Integer, String> cache =
+        CacheBuilder.newBuilder().maximumWeight(1000).offHeapValues(new StringCodec()).build();
+    Cache<Integer, String> copy = SerializableTester.reserialize(cache);
+    copy.put(1, "copy");
+    assertEquals("copy", copy.getIfPresent(1));
+    assertEquals(1000, toLocalCache(copy).maxWeight);
+    assertNotNull(toLocalCache(copy).offHeapStore);
+  }
+}
@@ -15,11 +15,21 @@
 package com.google.common.cache;
 
 import static com.google.common.cache.TestingCacheLoaders.incrementingLoader;
+import static com.google.common.truth.Truth.assertThat;
+import static java.util.concurrent.TimeUnit.HOURS;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 import com.google.common.cache.TestingCacheLoaders.IncrementingLoader;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
 import com.google.common.testing.FakeTicker;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 import junit.framework.TestCase;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 /**
  * Tests relating to automatic cache refreshing.
@@ -97,4 +107,163 @@ public class CacheRefreshTest extends TestCase {
     assertEquals(expectedLoads, loader.getLoadCount());
     assertEquals(expectedReloads, loader.getReloadCount());
   }
+
+  public void testCoalescedRefresh_fullBatch() {
+    FakeTicker ticker = new FakeTicker();
+    BulkReloader loader = new BulkReloader();
+    LoadingCache<Integer, Integer> cache =
+        CacheBuilder.newBuilder()
+            .refreshAfterWrite(1, MILLISECONDS)
+            .coalesceRefreshes(1, HOURS, 3)
+            .ticker(ticker)
+            .recordStats()
+            .build(loader);
+    for (int i = 0; i < 5; i++) {
+      assertEquals(Integer.valueOf(i), cache.getUnchecked(i));
+    }
+
+    ticker.advance(2, MILLISECONDS);
+    // stale entries return their old values while the batch fills
+    assertEquals(Integer.valueOf(0), cache.getUnchecked(0));
+    assertEquals(Integer.valueOf(1), cache.getUnchecked(1));
+    assertEquals(Integer.valueOf(0), cache.getUnchecked(0));
+    assertThat(loader.batches).isEmpty();
+    assertEquals(Integer.valueOf(2), cache.getUnchecked(2));
+    assertThat(loader.batches).containsExactly(ImmutableList.of(0, 1, 2));
+
+    assertEquals(Integer.valueOf(100), cache.getUnchecked(0));
+    assertEquals(Integer.valueOf(101), cache.getUnchecked(1));
+    assertEquals(Integer.valueOf(102), cache.getUnchecked(2));
+    assertEquals(Integer.valueOf(3), cache.getUnchecked(3));
+    assertEquals(0, loader.reloadCount);
+    assertEquals(6, cache.stats().loadCount());
+  }
+
+  public void testCoalescedRefresh_windowElapsed() {
+    FakeTicker ticker = new FakeTicker();
+    BulkReloader loader = new BulkReloader();
+    LoadingCache<Integer, Integer> cache =
+        CacheBuilder.newBuilder()
+            .refreshAfterWrite(1, MILLISECONDS)
+            .coalesceRefreshes(10, MILLISECONDS, 100)
+            .ticker(ticker)
+            .build(loader);
+    cache.getUnchecked(0);
+    cache.getUnchecked(1);
+    ticker.advance(2, MILLISECONDS);
+    cache.getUnchecked(1);
+    cache.getUnchecked(0);
+
+    ticker.advance(9, MILLISECONDS);
+    cache.cleanUp();
+    assertThat(loader.batches).isEmpty();
+    ticker.advance(1, MILLISECONDS);
+    cache.cleanUp();
+    assertThat(loader.batches).containsExactly(ImmutableList.of(1, 0));
+    assertEquals(Integer.valueOf(100), cache.getUnchecked(0));
+    assertEquals(Integer.valueOf(101), cache.getUnchecked(1));
+  }
+
+  public void testCoalescedRefresh_missingValueKeepsOldValue() {
+    FakeTicker ticker = new FakeTicker();
+    BulkReloader loader = new BulkReloader();
+    loader.omittedKey = 1;
+    LoadingCache<Integer, Integer> cache =
+        CacheBuilder.newBuilder()
+            .refreshAfterWrite(1, MILLISECONDS)
+            .coalesceRefreshes(1, HOURS, 2)
+            .recordStats()
+            .ticker(ticker)
+            .build(loader);
+    cache.getUnchecked(0);
+    cache.getUnchecked(1);
+    ticker.advance(2, MILLISECONDS);
+    cache.getUnchecked(0);
+    cache.getUnchecked(1);
+    assertThat(loader.batches).hasSize(1);
+
+    assertEquals(Integer.valueOf(100), cache.getUnchecked(0));
+    assertEquals(Integer.valueOf(1), cache.getUnchecked(1));
+    // a missing value is not a failed load
+    assertEquals(0, cache.stats().loadExceptionCount());
+    assertEquals(3, cache.stats().loadSuccessCount());
+    // the omitted entry is still stale, and joins the next batch
+    cache.getUnchecked(1);
+    ticker.advance(2, MILLISECONDS);
+    cache.getUnchecked(0);
+    assertThat(loader.batches).containsExactly(ImmutableList.of(0, 1), ImmutableList.of(1, 0));
+  }
+
+  public void testCoalescedRefresh_invalidatedWhileWaiting() {
+    FakeTicker ticker = new FakeTicker();
+    BulkReloader loader = new BulkReloader();
+    LoadingCache<Integer, Integer> cache =
+        CacheBuilder.newBuilder()
+            .refreshAfterWrite(1, MILLISECONDS)
+            .coalesceRefreshes(1, HOURS, 2)
+            .ticker(ticker)
+            .build(loader);
+    cache.getUnchecked(0);
+    cache.getUnchecked(1);
+    cache.getUnchecked(2);
+    ticker.advance(2, MILLISECONDS);
+    cache.getUnchecked(0);
+    cache.invalidate(0);
+    cache.getUnchecked(1);
+
+    assertThat(loader.batches).containsExactly(ImmutableList.of(1));
+    assertNull(cache.getIfPresent(0));
+    assertEquals(Integer.valueOf(101), cache.getIfPresent(1));
+  }
+
+  public void testCoalescedRefresh_withoutBulkLoad() {
+    FakeTicker ticker = new FakeTicker();
+    IncrementingLoader loader = incrementingLoader();
+    LoadingCache<Integer, Integer> cache =
+        CacheBuilder.newBuilder()
+            .refreshAfterWrite(1, MILLISECONDS)
+            .coalesceRefreshes(1, HOURS, 2)
+            .ticker(ticker)
+            .build(loader);
+    cache.getUnchecked(0);
+    cache.getUnchecked(1);
+    ticker.advance(2, MILLISECONDS);
+    cache.getUnchecked(0);
+    assertEquals(0, loader.getReloadCount());
+    cache.getUnchecked(1);
+    // each key of the batch is reloaded on its own
+    assertEquals(2, loader.getReloadCount());
+    assertEquals(Integer.valueOf(1), cache.getUnchecked(0));
+    assertEquals(Integer.valueOf(2), cache.getUnchecked(1));
+  }
+
+  /** Reloads a key by adding 100 to it, recording the keys of each call to {@code reloadAll}. */
+  private static final class BulkReloader extends CacheLoader<Integer, Integer> {
+    final List<List<Integer>> batches = new CopyOnWriteArrayList<>();
+    int reloadCount;
+    @Nullable Integer omittedKey;
+
+    @Override
+    public Integer load(Integer key) {
+      return key;
+    }
+
+    @Override
+    public ListenableFuture<Integer> reload(Integer key, Integer oldValue) {
+      reloadCount++;
+      return Futures.immediateFuture(key + 100);
+    }
+
+    @Override
+    public Map<Integer, Integer> loadAll(Iterable<? extends Integer> keys) {
+      batches.add(ImmutableList.copyOf(keys));
+      Map<Integer, Integer> result = Maps.newHashMap();
+      for (Integer key : keys) {
+        if (!key.equals(omittedKey)) {
+          result.put(key, key + 100);
+        }
+      }
+      return result;
+    }
+  }
 }
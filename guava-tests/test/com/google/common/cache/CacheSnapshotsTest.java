@@ -0,0 +1,276 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.common.cache;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.cache.LocalCache.LocalManualCache;
+import com.google.common.cache.TestingRemovalListeners.CountingRemovalListener;
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.ByteSink;
+import com.google.common.io.ByteSource;
+import com.google.common.primitives.Ints;
+import com.google.common.testing.TestLogHandler;
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.LogRecord;
+import junit.framework.TestCase;
+
+/** Tests for {@link CacheSnapshots} and {@link CacheBuilder#warmStart}. */
+public class CacheSnapshotsTest extends TestCase {
+
+  private static final ValueCodec<Integer> INTEGER_CODEC =
+      new ValueCodec<Integer>() {
+        @Override
+        public byte[] encode(Integer value) {
+          return Ints.toByteArray(value);
+        }
+
+        @Override
+        public Integer decode(byte[] bytes) {
+          return Ints.fromByteArray(bytes);
+        }
+      };
+
+  private static final ValueCodec<String> STRING_CODEC =
+      new ValueCodec<String>() {
+        @Override
+        public byte[] encode(String value) {
+          return value.getBytes(UTF_8);
+        }
+
+        @Override
+        public String decode(byte[] bytes) {
+          return new String(bytes, UTF_8);
+        }
+      };
+
+  private TestLogHandler logHandler;
+
+  @Override
+  public void setUp() throws Exception {
+    super.setUp();
+    logHandler = new TestLogHandler();
+    LocalCache.logger.addHandler(logHandler);
+  }
+
+  @Override
+  public void tearDown() throws Exception {
+    super.tearDown();
+    LocalCache.logger.removeHandler(logHandler);
+  }
+
+  /** Returns a cache holding the keys 1 through {@code size}, with 3 accessed most recently. */
+  private static Cache<Integer, String> populatedCache(int size) {
+    Cache<Integer, String> cache =
+        CacheBuilder.newBuilder().concurrencyLevel(1).maximumSize(10_000).build();
+    for (int i = 1; i <= size; i++) {
+      cache.put(i, "v" + i);
+    }
+    cache.getIfPresent(3);
+    return cache;
+  }
+
+  private static byte[] snapshot(Cache<Integer, String> cache, long maximumWeight)
+      throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    CacheSnapshots.write(cache, INTEGER_CODEC, STRING_CODEC, maximumWeight, out);
+    return out.toByteArray();
+  }
+
+  private static CacheBuilder<Integer, String> warmStart(byte[] snapshot) {
+    return CacheBuilder.newBuilder()
+        .concurrencyLevel(1)
+        .warmStart(ByteSource.wrap(snapshot), INTEGER_CODEC, STRING_CODEC);
+  }
+
+  private static LocalCache<Integer, String> toLocalCache(Cache<Integer, String> cache) {
+    return ((LocalManualCache<Integer, String>) cache).localCache;
+  }
+
+  /** Returns the keys of a single-segment cache, least recently accessed first. */
+  private static List<Integer> keysByAccess(Cache<Integer, String> cache) {
+    ImmutableList.Builder<Integer> keys = ImmutableList.builder();
+    for (ReferenceEntry<Integer, String> e : toLocalCache(cache).segments[0].accessQueue) {
+      keys.add(e.getKey());
+    }
+    return keys.build();
+  }
+
+  public void testRoundTrip() throws IOException {
+    Cache<Integer, String> cache = CacheBuilder.newBuilder().build();
+    for (int i = 1; i <= 100; i++) {
+      cache.put(i, "v" + i);
+    }
+    assertEquals(100, CacheSnapshots.write(cache, INTEGER_CODEC, STRING_CODEC, 1000, new Sink()));
+
+    Cache<Integer, String> warm = warmStart(snapshot(cache, Long.MAX_VALUE)).build();
+    assertEquals(cache.asMap(), warm.asMap());
+    checkNothingLogged();
+  }
+
+  public void testWrite_hottestFirst() throws IOException {
+    Cache<Integer, String> cache = populatedCache(10);
+    assertEquals(3, CacheSnapshots.write(cache, INTEGER_CODEC, STRING_CODEC, 3, new Sink()));
+
+    Cache<Integer, String> warm = warmStart(snapshot(cache, 3)).maximumSize(1000).build();
+    // the access order is restored
+    assertEquals(Arrays.asList(9, 10, 3), keysByAccess(warm));
+  }
+
+  public void testWrite_weighted() throws IOException {
+    Cache<Integer, String> cache =
+        CacheBuilder.newBuilder()
+            .concurrencyLevel(1)
+            .maximumWeight(1000)
+            .weigher((Integer k, String v) -> v.length())
+            .build();
+    cache.put(1, "a");
+    cache.put(2, "bbb");
+    cache.put(3, "cc");
+    assertEquals(2, CacheSnapshots.write(cache, INTEGER_CODEC, STRING_CODEC, 5, new Sink()));
+    assertEquals(1, CacheSnapshots.write(cache, INTEGER_CODEC, STRING_CODEC, 4, new Sink()));
+    assertEquals(0, CacheSnapshots.write(cache, INTEGER_CODEC, STRING_CODEC, 0, new Sink()));
+  }
+
+  public void testWrite_unsupportedCache() throws IOException {
+    Cache<Integer, String> cache = populatedCache(1);
+    Cache<Integer, String> forwarding =
+        new ForwardingCache<Integer, String>() {
+          @Override
+          protected Cache<Integer, String> delegate() {
+            return cache;
+          }
+        };
+    try {
+      CacheSnapshots.write(forwarding, INTEGER_CODEC, STRING_CODEC, 1, new Sink());
+      fail();
+    } catch (IllegalArgumentException expected) {
+    }
+    try {
+      CacheSnapshots.write(cache, INTEGER_CODEC, STRING_CODEC, -1, new Sink());
+      fail();
+    } catch (IllegalArgumentException expected) {
+    }
+  }
+
+  public void testWarmStart_keepsHottestThatFit() throws IOException {
+    Cache<Integer, String> cache = populatedCache(10);
+    CountingRemovalListener<Integer, String> listener =
+        TestingRemovalListeners.countingRemovalListener();
+    Cache<Integer, String> warm =
+        warmStart(snapshot(cache, Long.MAX_VALUE))
+            .maximumSize(4)
+            .removalListener(listener)
+            .recordStats()
+            .build();
+    assertEquals(Arrays.asList(8, 9, 10, 3), keysByAccess(warm));
+    assertEquals(0, listener.getCount());
+    assertEquals(0, warm.stats().evictionCount());
+    assertEquals(4, toLocalCache(warm).segments[0].totalWeight);
+
+    // eviction resumes from the least recently accessed entry of the snapshot
+    warm.put(11, "v11");
+    assertEquals(1, listener.getCount());
+    assertEquals(Integer.valueOf(8), listener.getLastEvictedKey());
+  }
+
+  public void testWarmStart_presizesTable() throws IOException {
+    Cache<Integer, String> cache = populatedCache(1000);
+    Cache<Integer, String> warm = warmStart(snapshot(cache, Long.MAX_VALUE)).build();
+    LocalCache.Segment<Integer, String> segment = toLocalCache(warm).segments[0];
+    assertEquals(1000, segment.count);
+    assertEquals(2048, segment.table.length());
+  }
+
+  public void testWarmStart_duplicateKeys() throws IOException {
+    Cache<Integer, String> first = CacheBuilder.newBuilder().build();
+    first.put(1, "hot");
+    Cache<Integer, String> second = CacheBuilder.newBuilder().build();
+    second.put(1, "cold");
+    second.put(2, "two");
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    out.write(snapshot(first, 1), 0, snapshot(first, 1).length - 4);
+    byte[] rest = snapshot(second, 2);
+    out.write(rest, 8, rest.length - 8);
+
+    Cache<Integer, String> warm = warmStart(out.toByteArray()).build();
+    assertEquals("hot", warm.getIfPresent(1));
+    assertEquals("two", warm.getIfPresent(2));
+    assertEquals(2, warm.size());
+  }
+
+  public void testWarmStart_truncated() throws IOException {
+    byte[] snapshot = snapshot(populatedCache(10), Long.MAX_VALUE);
+    Cache<Integer, String> warm =
+        warmStart(Arrays.copyOf(snapshot, snapshot.length - 10)).build();
+    // the last entry and the end marker are missing
+    assertEquals(9, warm.size());
+    checkLogged(IOException.class);
+  }
+
+  public void testWarmStart_missing() {
+    ByteSource missing =
+        new ByteSource() {
+          @Override
+          public InputStream openStream() throws IOException {
+            throw new FileNotFoundException();
+          }
+        };
+    Cache<Integer, String> warm =
+        CacheBuilder.newBuilder().warmStart(missing, INTEGER_CODEC, STRING_CODEC).build();
+    assertEquals(0, warm.size());
+    checkLogged(FileNotFoundException.class);
+  }
+
+  public void testWarmStart_notASnapshot() {
+    Cache<Integer, String> warm = warmStart(new byte[] {1, 2, 3, 4, 5, 6, 7, 8}).build();
+    assertEquals(0, warm.size());
+    checkLogged(IOException.class);
+  }
+
+  public void testWarmStart_loadingCache() throws Exception {
+    byte[] snapshot = snapshot(populatedCache(10), Long.MAX_VALUE);
+    LoadingCache<Integer, String> warm =
+        warmStart(snapshot).recordStats().build(CacheLoader.from(k -> "loaded"));
+    assertEquals("v5", warm.get(5));
+    assertEquals("loaded", warm.get(11));
+    assertEquals(1, warm.stats().hitCount());
+    assertEquals(1, warm.stats().loadCount());
+  }
+
+  private void checkNothingLogged() {
+    assertThat(logHandler.getStoredLogRecords()).isEmpty();
+  }
+
+  private void checkLogged(Class<? extends Throwable> type) {
+    List<LogRecord> records = logHandler.getStoredLogRecords();
+    assertEquals(1, records.size());
+    assertThat(records.get(0).getThrown()).isInstanceOf(type);
+  }
+
+  private static final class Sink extends ByteSink {
+    @Override
+    public OutputStream openStream() {
+      return new ByteArrayOutputStream();
+    }
+  }
+}
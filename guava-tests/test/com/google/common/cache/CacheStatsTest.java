@@ -16,6 +16,7 @@
 
 package com.google.common.cache;
 
+import com.google.common.cache.AbstractCache.SimpleStatsCounter;
 import junit.framework.TestCase;
 
 /**
@@ -99,6 +100,61 @@ public class CacheStatsTest extends TestCase {
     assertEquals(sum, one.plus(two));
   }
 
+  public void testAdmissionRejectionCount() {
+    CacheStats one = new CacheStats(11, 13, 17, 19, 23, 27, 29);
+    CacheStats two = new CacheStats(53, 47, 43, 41, 37, 31, 61);
+    assertEquals(0, new CacheStats(11, 13, 17, 19, 23, 27).admissionRejectionCount());
+    assertEquals(29, one.admissionRejectionCount());
+    assertEquals(32, two.minus(one).admissionRejectionCount());
+    assertEquals(0, one.minus(two).admissionRejectionCount());
+    assertEquals(90, two.plus(one).admissionRejectionCount());
+    assertFalse(one.equals(new CacheStats(11, 13, 17, 19, 23, 27)));
+    assertEquals(one, new CacheStats(11, 13, 17, 19, 23, 27, 29));
+  }
+
+  public void testNegativeCounts() {
+    SimpleStatsCounter counter = new SimpleStatsCounter();
+    counter.recordNegativeHits(3);
+    counter.recordNegativeLoad();
+    CacheStats one = counter.snapshot();
+    assertEquals(3, one.negativeHitCount());
+    assertEquals(1, one.negativeLoadCount());
+    assertEquals(0, one.requestCount());
+
+    counter.recordNegativeHits(2);
+    CacheStats two = counter.snapshot();
+    assertEquals(2, two.minus(one).negativeHitCount());
+    assertEquals(0, two.minus(one).negativeLoadCount());
+    assertEquals(8, two.plus(one).negativeHitCount());
+    assertFalse(one.equals(two));
+    assertEquals(0, new CacheStats(11, 13, 17, 19, 23, 27).negativeHitCount());
+  }
+
+  public void testFullConstructor() {
+    SimpleStatsCounter counter = SimpleStatsCounter.withLatencyHistograms();
+    counter.recordLoadSuccess(5);
+    counter.recordHitLatency(3);
+    CacheStats snapshot = counter.snapshot();
+    CacheStats stats =
+        new CacheStats(
+            11, 13, 17, 19, 23, 27, 29, 31, 37, snapshot.loadLatencies(), snapshot.hitLatencies());
+    assertEquals(29, stats.admissionRejectionCount());
+    assertEquals(31, stats.negativeHitCount());
+    assertEquals(37, stats.negativeLoadCount());
+    assertEquals(1, stats.loadLatencies().count());
+    assertEquals(1, stats.hitLatencies().count());
+    assertEquals(
+        new CacheStats(11, 13, 17, 19, 23, 27, 29),
+        new CacheStats(
+            11, 13, 17, 19, 23, 27, 29, 0, 0, LatencyHistogram.empty(), LatencyHistogram.empty()));
+    try {
+      new CacheStats(
+          0, 0, 0, 0, 0, 0, 0, -1, 0, LatencyHistogram.empty(), LatencyHistogram.empty());
+      fail();
+    } catch (IllegalArgumentException expected) {
+    }
+  }
+
   public void testPlusLarge() {
     CacheStats maxCacheStats =
         new CacheStats(
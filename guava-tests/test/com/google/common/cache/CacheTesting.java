@@ -27,6 +27,8 @@ import static junit.framework.Assert.assertTrue;
 import com.google.common.base.Preconditions;
 import com.google.common.cache.LocalCache.LocalLoadingCache;
 import com.google.common.cache.LocalCache.Segment;
+import com.google.common.cache.LocalCache.TimerWheel;
+import com.google.common.cache.LocalCache.TinyLfuAccessQueue;
 import com.google.common.cache.LocalCache.ValueReference;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
@@ -224,21 +226,26 @@ class CacheTesting {
       if (cchm.usesWriteQueue()) {
         Set<ReferenceEntry<?, ?>> entries = Sets.newIdentityHashSet();
 
-        ReferenceEntry<?, ?> prev = null;
-        for (ReferenceEntry<?, ?> current : segment.writeQueue) {
-          assertTrue(entries.add(current));
-          if (prev != null) {
-            assertSame(prev, current.getPreviousInWriteQueue());
-            assertSame(prev.getNextInWriteQueue(), current);
-            assertThat(prev.getWriteTime()).isAtMost(current.getWriteTime());
+        for (Iterable<? extends ReferenceEntry<?, ?>> bucket : writeQueueBuckets(segment)) {
+          ReferenceEntry<?, ?> prev = null;
+          for (ReferenceEntry<?, ?> current : bucket) {
+            assertTrue(entries.add(current));
+            if (prev != null) {
+              assertSame(prev, current.getPreviousInWriteQueue());
+              assertSame(prev.getNextInWriteQueue(), current);
+              if (!cchm.expiresVariably()) {
+                assertThat(prev.getWriteTime()).isAtMost(current.getWriteTime());
+              }
+            }
+            Object key = current.getKey();
+            if (key != null) {
+              assertSame(current, segment.getEntry(key, current.getHash()));
+            }
+            prev = current;
           }
-          Object key = current.getKey();
-          if (key != null) {
-            assertSame(current, segment.getEntry(key, current.getHash()));
-          }
-          prev = current;
         }
         assertEquals(segment.count, entries.size());
+        assertEquals(segment.count, segment.writeQueue.size());
       } else {
         assertTrue(segment.writeQueue.isEmpty());
       }
@@ -246,22 +253,25 @@ class CacheTesting {
       if (cchm.usesAccessQueue()) {
         Set<ReferenceEntry<?, ?>> entries = Sets.newIdentityHashSet();
 
-        ReferenceEntry<?, ?> prev = null;
-        for (ReferenceEntry<?, ?> current : segment.accessQueue) {
-          assertTrue(entries.add(current));
-          if (prev != null) {
-            assertSame(prev, current.getPreviousInAccessQueue());
-            assertSame(prev.getNextInAccessQueue(), current);
-            // read accesses may be slightly misordered
-            assertTrue(
-                prev.getAccessTime() <= current.getAccessTime()
-                    || prev.getAccessTime() - current.getAccessTime() < 1000);
-          }
-          Object key = current.getKey();
-          if (key != null) {
-            assertSame(current, segment.getEntry(key, current.getHash()));
+        for (Iterable<? extends ReferenceEntry<?, ?>> region : accessQueueRegions(segment)) {
+          ReferenceEntry<?, ?> prev = null;
+          for (ReferenceEntry<?, ?> current : region) {
+            assertTrue(entries.add(current));
+            if (prev != null) {
+              assertSame(prev, current.getPreviousInAccessQueue());
+              assertSame(prev.getNextInAccessQueue(), current);
+              // read accesses may be slightly misordered, and an expiry repurposes the access time
+              assertTrue(
+                  cchm.expiresVariably()
+                      || prev.getAccessTime() <= current.getAccessTime()
+                      || prev.getAccessTime() - current.getAccessTime() < 1000);
+            }
+            Object key = current.getKey();
+            if (key != null) {
+              assertSame(current, segment.getEntry(key, current.getHash()));
+            }
+            prev = current;
           }
-          prev = current;
         }
         assertEquals(segment.count, entries.size());
       } else {
@@ -270,6 +280,31 @@ class CacheTesting {
     }
   }
 
+  /** Returns the buckets of a segment's write queue, or the queue itself if it has none. */
+  private static <K, V> ImmutableList<Iterable<? extends ReferenceEntry<?, ?>>> writeQueueBuckets(
+      Segment<K, V> segment) {
+    if (segment.writeQueue instanceof TimerWheel) {
+      TimerWheel<K, V> wheel = (TimerWheel<K, V>) segment.writeQueue;
+      return ImmutableList.<Iterable<? extends ReferenceEntry<?, ?>>>copyOf(wheel.queues());
+    }
+    return ImmutableList.<Iterable<? extends ReferenceEntry<?, ?>>>of(segment.writeQueue);
+  }
+
+  /**
+   * Returns the independently linked lists that make up a segment's access queue. A queue that is
+   * partitioned by {@link EvictionPolicy#WINDOW_TINY_LFU} has one list per region, and entries are
+   * only linked to their neighbors within the same region.
+   */
+  private static <K, V> ImmutableList<Iterable<? extends ReferenceEntry<?, ?>>> accessQueueRegions(
+      Segment<K, V> segment) {
+    if (segment.accessQueue instanceof TinyLfuAccessQueue) {
+      TinyLfuAccessQueue<K, V> queue = (TinyLfuAccessQueue<K, V>) segment.accessQueue;
+      return ImmutableList.<Iterable<? extends ReferenceEntry<?, ?>>>of(
+          queue.window, queue.probation, queue.protectedRegion);
+    }
+    return ImmutableList.<Iterable<? extends ReferenceEntry<?, ?>>>of(segment.accessQueue);
+  }
+
   /**
    * Peeks into the cache's internals to verify that its eviction queue is consistent. Verifies that
    * the prev/next links are correct, and that all items in each segment are also in that segment's
@@ -288,17 +323,19 @@ class CacheTesting {
         assertEquals(0, segment.recencyQueue.size());
         assertEquals(0, segment.readCount.get());
 
-        ReferenceEntry<?, ?> prev = null;
-        for (ReferenceEntry<?, ?> current : segment.accessQueue) {
-          if (prev != null) {
-            assertSame(prev, current.getPreviousInAccessQueue());
-            assertSame(prev.getNextInAccessQueue(), current);
-          }
-          Object key = current.getKey();
-          if (key != null) {
-            assertSame(current, segment.getEntry(key, current.getHash()));
+        for (Iterable<? extends ReferenceEntry<?, ?>> region : accessQueueRegions(segment)) {
+          ReferenceEntry<?, ?> prev = null;
+          for (ReferenceEntry<?, ?> current : region) {
+            if (prev != null) {
+              assertSame(prev, current.getPreviousInAccessQueue());
+              assertSame(prev.getNextInAccessQueue(), current);
+            }
+            Object key = current.getKey();
+            if (key != null) {
+              assertSame(current, segment.getEntry(key, current.getHash()));
+            }
+            prev = current;
           }
-          prev = current;
         }
       }
     } else {
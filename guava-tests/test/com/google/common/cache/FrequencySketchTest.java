@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.common.cache;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import junit.framework.TestCase;
+
+/** Unit test for {@link FrequencySketch}. */
+public class FrequencySketchTest extends TestCase {
+
+  public void testIncrement() {
+    FrequencySketch sketch = newSketch(512);
+    assertEquals(0, sketch.frequency(42));
+    sketch.increment(42);
+    assertEquals(1, sketch.frequency(42));
+    sketch.increment(42);
+    assertEquals(2, sketch.frequency(42));
+  }
+
+  public void testIncrement_max() {
+    FrequencySketch sketch = newSketch(512);
+    for (int i = 0; i < 20; i++) {
+      sketch.increment(42);
+    }
+    assertEquals(FrequencySketch.MAX_FREQUENCY, sketch.frequency(42));
+  }
+
+  public void testIncrement_distinct() {
+    FrequencySketch sketch = newSketch(512);
+    sketch.increment(42);
+    sketch.increment(43);
+    assertEquals(1, sketch.frequency(42));
+    assertEquals(1, sketch.frequency(43));
+    assertEquals(0, sketch.frequency(44));
+  }
+
+  public void testReset() {
+    FrequencySketch sketch = newSketch(64);
+    for (int i = 0; i < 8; i++) {
+      sketch.increment(42);
+    }
+    sketch.reset();
+    assertEquals(4, sketch.frequency(42));
+  }
+
+  public void testReset_automatic() {
+    FrequencySketch sketch = newSketch(64);
+    boolean reset = false;
+    for (int i = 1; i < 20 * 64; i++) {
+      sketch.increment(i);
+      if (sketch.sampleCount() != i) {
+        reset = true;
+        break;
+      }
+    }
+    assertTrue(reset);
+    assertThat(sketch.sampleCount()).isAtMost(sketch.sampleSize() / 2);
+  }
+
+  public void testEnsureCapacity_preservesFrequencies() {
+    FrequencySketch sketch = newSketch(16);
+    for (int i = 0; i < 5; i++) {
+      sketch.increment(42);
+    }
+    sketch.ensureCapacity(1024);
+    assertEquals(5, sketch.frequency(42));
+    assertEquals(10 * 1024, sketch.sampleSize());
+  }
+
+  public void testEnsureCapacity_negative() {
+    FrequencySketch sketch = new FrequencySketch();
+    try {
+      sketch.ensureCapacity(-1);
+      fail();
+    } catch (IllegalArgumentException expected) {
+    }
+  }
+
+  private static FrequencySketch newSketch(long maximumSize) {
+    FrequencySketch sketch = new FrequencySketch();
+    sketch.ensureCapacity(maximumSize);
+    return sketch;
+  }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.common.cache;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.testing.EqualsTester;
+import java.util.Random;
+import junit.framework.TestCase;
+
+/** Unit test for {@link LatencyHistogram} and {@link LatencyRecorder}. */
+public class LatencyHistogramTest extends TestCase {
+
+  public void testBucketIndex_small() {
+    for (int i = 0; i < LatencyHistogram.SUB_BUCKETS; i++) {
+      assertEquals(i, LatencyHistogram.bucketIndex(i));
+      assertEquals(i, LatencyHistogram.bucketUpperBound(i));
+    }
+    assertEquals(0, LatencyHistogram.bucketIndex(-1));
+    assertEquals(0, LatencyHistogram.bucketIndex(Long.MIN_VALUE));
+  }
+
+  public void testBucketIndex_boundaries() {
+    assertEquals(LatencyHistogram.BUCKETS - 1, LatencyHistogram.bucketIndex(Long.MAX_VALUE));
+    assertEquals(Long.MAX_VALUE, LatencyHistogram.bucketUpperBound(LatencyHistogram.BUCKETS - 1));
+    for (int i = 0; i < LatencyHistogram.BUCKETS - 1; i++) {
+      long upperBound = LatencyHistogram.bucketUpperBound(i);
+      assertEquals(i, LatencyHistogram.bucketIndex(upperBound));
+      assertEquals(i + 1, LatencyHistogram.bucketIndex(upperBound + 1));
+    }
+  }
+
+  public void testBucketIndex_relativeError() {
+    Random random = new Random(0);
+    for (int i = 0; i < 10000; i++) {
+      long nanos = (random.nextLong() >>> 1) >>> random.nextInt(63);
+      long upperBound = LatencyHistogram.bucketUpperBound(LatencyHistogram.bucketIndex(nanos));
+      assertThat(upperBound).isAtLeast(nanos);
+      assertThat((double) (upperBound - nanos)).isLessThan(nanos / 16.0 + 1);
+    }
+  }
+
+  public void testEmpty() {
+    LatencyHistogram empty = LatencyHistogram.empty();
+    assertEquals(0, empty.count());
+    assertEquals(0, empty.quantile(0.5));
+    assertEquals(0, empty.quantile(1.0));
+    assertEquals(empty, new LatencyRecorder().snapshot());
+    assertEquals(empty, LatencyHistogram.of(new long[LatencyHistogram.BUCKETS]));
+  }
+
+  public void testQuantile() {
+    LatencyRecorder recorder = new LatencyRecorder();
+    for (int i = 1; i <= 100; i++) {
+      recorder.record(i * 1000L);
+    }
+    LatencyHistogram histogram = recorder.snapshot();
+    assertEquals(100, histogram.count());
+    assertQuantile(histogram, 0.0, 1000);
+    assertQuantile(histogram, 0.5, 50_000);
+    assertQuantile(histogram, 0.99, 99_000);
+    assertQuantile(histogram, 1.0, 100_000);
+  }
+
+  public void testQuantile_invalid() {
+    try {
+      LatencyHistogram.empty().quantile(-0.1);
+      fail();
+    } catch (IllegalArgumentException expected) {
+    }
+    try {
+      LatencyHistogram.empty().quantile(1.1);
+      fail();
+    } catch (IllegalArgumentException expected) {
+    }
+    try {
+      LatencyHistogram.empty().quantile(Double.NaN);
+      fail();
+    } catch (IllegalArgumentException expected) {
+    }
+  }
+
+  public void testPlusMinus() {
+    LatencyRecorder one = new LatencyRecorder();
+    LatencyRecorder two = new LatencyRecorder();
+    LatencyRecorder both = new LatencyRecorder();
+    for (int i = 0; i < 100; i++) {
+      one.record(i);
+      both.record(i);
+    }
+    for (int i = 0; i < 50; i++) {
+      two.record(1_000_000L * i);
+      both.record(1_000_000L * i);
+    }
+    LatencyHistogram sum = one.snapshot().plus(two.snapshot());
+    assertEquals(150, sum.count());
+    assertEquals(both.snapshot(), sum);
+    assertEquals(sum, two.snapshot().plus(one.snapshot()));
+    assertEquals(one.snapshot(), sum.minus(two.snapshot()));
+    assertEquals(two.snapshot(), sum.minus(one.snapshot()));
+    assertEquals(LatencyHistogram.empty(), one.snapshot().minus(sum));
+
+    LatencyRecorder merged = new LatencyRecorder();
+    merged.add(one.snapshot());
+    merged.add(two.snapshot());
+    assertEquals(sum, merged.snapshot());
+  }
+
+  public void testPlus_saturates() {
+    long[] counts = {Long.MAX_VALUE};
+    LatencyHistogram max = LatencyHistogram.of(counts);
+    LatencyHistogram sum = max.plus(max);
+    assertEquals(Long.MAX_VALUE, sum.count());
+    assertEquals(Long.MAX_VALUE, sum.bucketCount(0));
+  }
+
+  public void testEquals() {
+    LatencyRecorder recorder = new LatencyRecorder();
+    recorder.record(100);
+    LatencyHistogram hundred = recorder.snapshot();
+    recorder.record(100);
+    new EqualsTester()
+        .addEqualityGroup(LatencyHistogram.empty(), new LatencyRecorder().snapshot())
+        .addEqualityGroup(hundred, LatencyHistogram.of(new long[] {0, 0, 0}).plus(hundred))
+        .addEqualityGroup(recorder.snapshot())
+        .testEquals();
+  }
+
+  private static void assertQuantile(LatencyHistogram histogram, double quantile, long expected) {
+    long actual = histogram.quantile(quantile);
+    assertThat(actual).isAtLeast(expected);
+    assertThat(actual).isAtMost(expected + expected / 16);
+  }
+}
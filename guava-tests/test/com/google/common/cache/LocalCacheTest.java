@@ -40,6 +40,7 @@ import com.google.common.cache.LocalCache.LocalLoadingCache;
 import com.google.common.cache.LocalCache.LocalManualCache;
 import com.google.common.cache.LocalCache.Segment;
 import com.google.common.cache.LocalCache.Strength;
+import com.google.common.cache.LocalCache.TimerWheel;
 import com.google.common.cache.LocalCache.ValueReference;
 import com.google.common.cache.TestingCacheLoaders.CountingLoader;
 import com.google.common.cache.TestingRemovalListeners.CountingRemovalListener;
@@ -72,6 +73,7 @@ import java.util.Set;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.logging.LogRecord;
 import junit.framework.Test;
@@ -2405,6 +2407,56 @@ public class LocalCacheTest extends TestCase {
     assertTrue(segment.accessQueue.isEmpty());
   }
 
+  public void testTimerWheel_advancingWithinBucketIsLinear() {
+    AtomicInteger expirationReads = new AtomicInteger();
+    TimerWheel<Object, Object> wheel = new TimerWheel<>(0);
+    int count = 100_000;
+    // every entry expires within the first bucket, and the wheel advances before each write
+    long expirationTime = TimerWheel.SPANS[0] / 2;
+    for (int i = 0; i < count; i++) {
+      wheel.advance(i + 1);
+      DummyEntry<Object, Object> entry =
+          new DummyEntry<Object, Object>(i, i, null) {
+            @Override
+            public long getAccessTime() {
+              expirationReads.incrementAndGet();
+              return super.getAccessTime();
+            }
+          };
+      entry.setAccessTime(expirationTime);
+      wheel.offer(entry);
+    }
+    // each entry was scheduled once, rather than once for every later write
+    assertEquals(count, expirationReads.get());
+    assertNull(wheel.peek());
+
+    wheel.advance(TimerWheel.SPANS[0]);
+    assertEquals(2 * count, expirationReads.get());
+    assertEquals(count, wheel.size());
+    for (int i = 0; i < count; i++) {
+      assertNotNull(wheel.poll());
+    }
+    assertTrue(wheel.isEmpty());
+  }
+
+  public void testTimerWheel_sweep() {
+    TimerWheel<Object, Object> wheel = new TimerWheel<>(0);
+    DummyEntry<Object, Object> expired = DummyEntry.create(1, 1, null);
+    expired.setAccessTime(10);
+    DummyEntry<Object, Object> live = DummyEntry.create(2, 2, null);
+    live.setAccessTime(30);
+    wheel.offer(expired);
+    wheel.offer(live);
+
+    wheel.advance(20);
+    // both entries are still in the bucket holding the current time
+    assertNull(wheel.peek());
+    wheel.sweep();
+    assertSame(expired, wheel.poll());
+    assertNull(wheel.peek());
+    assertEquals(1, wheel.size());
+  }
+
   public void testEvictEntries() {
     int maxSize = 10;
     LocalCache<Object, Object> map =
@@ -2833,6 +2885,18 @@ public class LocalCacheTest extends TestCase {
       this.previousAccess = previous;
     }
 
+    private int accessRegion;
+
+    @Override
+    public int getAccessRegion() {
+      return accessRegion;
+    }
+
+    @Override
+    public void setAccessRegion(int region) {
+      this.accessRegion = region;
+    }
+
     private long writeTime = Long.MAX_VALUE;
 
     @Override
@@ -0,0 +1,417 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.common.cache;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import com.google.common.cache.CacheLoader.InvalidCacheLoadException;
+import com.google.common.cache.PrimitiveKeyCache.LocalLongKeyCache;
+import com.google.common.testing.FakeTicker;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import junit.framework.TestCase;
+
+/** Tests for {@link CacheBuilder#buildLongKeyed} and {@link CacheBuilder#buildIntKeyed}. */
+public class PrimitiveKeyCacheTest extends TestCase {
+
+  private final AtomicInteger loads = new AtomicInteger();
+  private final List<RemovalNotification<Object, String>> notifications =
+      new CopyOnWriteArrayList<>();
+
+  private final CacheLoader<Long, String> loader =
+      new CacheLoader<Long, String>() {
+        @Override
+        public String load(Long key) {
+          loads.incrementAndGet();
+          return "v" + key;
+        }
+      };
+
+  private CacheBuilder<Object, String> newBuilder() {
+    RemovalListener<Object, String> listener = notifications::add;
+    return CacheBuilder.newBuilder().recordStats().removalListener(listener);
+  }
+
+  private static PrimitiveKeyCache<?> unwrap(LongKeyLoadingCache<?> cache) {
+    return ((LocalLongKeyCache<?>) cache).cache;
+  }
+
+  public void testLoadAndHit() throws ExecutionException {
+    LongKeyLoadingCache<String> cache = newBuilder().buildLongKeyed(loader);
+    assertNull(cache.getIfPresent(1L << 40));
+    assertEquals("v1099511627776", cache.get(1L << 40));
+    assertEquals("v1099511627776", cache.get(1L << 40));
+    assertEquals("v1099511627776", cache.getIfPresent(1L << 40));
+    assertEquals("v-1", cache.getUnchecked(-1));
+    assertEquals(2, loads.get());
+    assertEquals(2, cache.size());
+
+    CacheStats stats = cache.stats();
+    assertEquals(2, stats.hitCount());
+    assertEquals(3, stats.missCount());
+    assertEquals(2, stats.loadSuccessCount());
+  }
+
+  public void testIntKeys() {
+    List<Object> keys = new ArrayList<>();
+    IntKeyLoadingCache<String> cache =
+        newBuilder()
+            .buildIntKeyed(
+                new CacheLoader<Integer, String>() {
+                  @Override
+                  public String load(Integer key) {
+                    keys.add(key);
+                    return "v" + key;
+                  }
+                });
+    assertEquals("v-5", cache.getUnchecked(-5));
+    assertEquals("v" + Integer.MAX_VALUE, cache.getUnchecked(Integer.MAX_VALUE));
+    assertEquals("v-5", cache.getIfPresent(-5));
+    assertThat(keys).containsExactly(-5, Integer.MAX_VALUE).inOrder();
+
+    cache.invalidate(-5);
+    assertNull(cache.getIfPresent(-5));
+    assertEquals(Integer.valueOf(-5), notifications.get(0).getKey());
+    assertEquals(RemovalCause.EXPLICIT, notifications.get(0).getCause());
+  }
+
+  public void testPutAndInvalidate() {
+    LongKeyLoadingCache<String> cache = newBuilder().buildLongKeyed(loader);
+    cache.put(1, "a");
+    cache.put(1, "b");
+    assertEquals("b", cache.getUnchecked(1));
+    assertEquals(0, loads.get());
+    assertEquals(RemovalCause.REPLACED, notifications.get(0).getCause());
+    assertEquals("a", notifications.get(0).getValue());
+    assertEquals(1L, notifications.get(0).getKey());
+
+    cache.put(2, "c");
+    cache.invalidate(1);
+    cache.invalidate(3);
+    assertEquals(1, cache.size());
+    cache.invalidateAll();
+    assertEquals(0, cache.size());
+    assertNull(cache.getIfPresent(2));
+    assertEquals(3, notifications.size());
+    assertEquals(RemovalCause.EXPLICIT, notifications.get(2).getCause());
+  }
+
+  public void testManyKeys_growAndRemove() {
+    LongKeyLoadingCache<String> cache =
+        newBuilder().concurrencyLevel(1).initialCapacity(1).buildLongKeyed(loader);
+    for (long key = 0; key < 10_000; key++) {
+      cache.put(key * 31, "v" + key);
+    }
+    assertEquals(10_000, cache.size());
+    for (long key = 0; key < 10_000; key += 2) {
+      cache.invalidate(key * 31);
+    }
+    assertEquals(5_000, cache.size());
+    for (long key = 0; key < 10_000; key++) {
+      String expected = (key % 2 == 0) ? null : "v" + key;
+      assertEquals(expected, cache.getIfPresent(key * 31));
+    }
+  }
+
+  public void testManyKeys_growByLoading() throws ExecutionException {
+    LongKeyLoadingCache<String> cache =
+        newBuilder().concurrencyLevel(1).initialCapacity(1).buildLongKeyed(loader);
+    for (long key = 0; key < 5_000; key++) {
+      assertEquals("v" + key * 31, cache.get(key * 31));
+    }
+    for (long key = 5_000; key < 10_000; key++) {
+      assertEquals("v" + key * 31, cache.getUnchecked(key * 31));
+    }
+    assertEquals(10_000, cache.size());
+    assertEquals(10_000, loads.get());
+    for (long key = 0; key < 10_000; key++) {
+      assertEquals("v" + key * 31, cache.getIfPresent(key * 31));
+    }
+    assertEquals(10_000, loads.get());
+  }
+
+  public void testLoadException() {
+    LongKeyLoadingCache<String> cache =
+        newBuilder()
+            .buildLongKeyed(
+                new CacheLoader<Long, String>() {
+                  @Override
+                  public String load(Long key) throws IOException {
+                    throw new IOException("no " + key);
+                  }
+                });
+    try {
+      cache.get(7);
+      fail();
+    } catch (ExecutionException expected) {
+      assertThat(expected).hasCauseThat().isInstanceOf(IOException.class);
+    }
+    try {
+      cache.getUnchecked(7);
+      fail();
+    } catch (UncheckedExecutionException expected) {
+      assertThat(expected).hasCauseThat().isInstanceOf(IOException.class);
+    }
+    assertEquals(0, cache.size());
+    assertEquals(2, cache.stats().loadExceptionCount());
+  }
+
+  public void testLoadNull() {
+    LongKeyLoadingCache<String> cache =
+        newBuilder().buildLongKeyed(CacheLoader.from(key -> (String) null));
+    try {
+      cache.getUnchecked(7);
+      fail();
+    } catch (InvalidCacheLoadException expected) {
+    }
+    assertNull(cache.getIfPresent(7));
+    assertEquals(0, cache.size());
+  }
+
+  public void testConcurrentLoadsOfSameKey() throws Exception {
+    CountDownLatch loading = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    LongKeyLoadingCache<String> cache =
+        newBuilder()
+            .buildLongKeyed(
+                new CacheLoader<Long, String>() {
+                  @Override
+                  public String load(Long key) throws InterruptedException {
+                    loads.incrementAndGet();
+                    loading.countDown();
+                    release.await();
+                    return "slow";
+                  }
+                });
+    List<Thread> threads = new ArrayList<>();
+    List<String> results = new CopyOnWriteArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      Thread thread = new Thread(() -> results.add(cache.getUnchecked(9)));
+      threads.add(thread);
+      thread.start();
+    }
+    loading.await();
+    // a value being loaded isn't present
+    assertNull(cache.getIfPresent(9));
+    release.countDown();
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertThat(results).containsExactly("slow", "slow", "slow", "slow");
+    assertEquals(1, loads.get());
+    assertEquals(1, cache.size());
+  }
+
+  public void testPutWhileLoading() throws Exception {
+    CountDownLatch loading = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    LongKeyLoadingCache<String> cache =
+        newBuilder()
+            .buildLongKeyed(
+                new CacheLoader<Long, String>() {
+                  @Override
+                  public String load(Long key) throws InterruptedException {
+                    loading.countDown();
+                    release.await();
+                    return "loaded";
+                  }
+                });
+    Thread thread = new Thread(() -> cache.getUnchecked(3));
+    thread.start();
+    loading.await();
+    cache.put(3, "put");
+    release.countDown();
+    thread.join();
+
+    assertEquals("put", cache.getIfPresent(3));
+    assertEquals(1, cache.size());
+    assertEquals("loaded", notifications.get(0).getValue());
+    assertEquals(RemovalCause.REPLACED, notifications.get(0).getCause());
+  }
+
+  public void testExpireAfterWrite() {
+    FakeTicker ticker = new FakeTicker();
+    LongKeyLoadingCache<String> cache =
+        newBuilder().ticker(ticker).expireAfterWrite(10, NANOSECONDS).buildLongKeyed(loader);
+    cache.getUnchecked(1);
+    ticker.advance(9);
+    assertEquals("v1", cache.getIfPresent(1));
+    ticker.advance(1);
+    assertNull(cache.getIfPresent(1));
+
+    cache.cleanUp();
+    assertEquals(0, cache.size());
+    assertEquals(RemovalCause.EXPIRED, notifications.get(0).getCause());
+    assertEquals("v1", cache.getUnchecked(1));
+    assertEquals(2, loads.get());
+  }
+
+  public void testExpireAfterAccess() {
+    FakeTicker ticker = new FakeTicker();
+    LongKeyLoadingCache<String> cache =
+        newBuilder().ticker(ticker).expireAfterAccess(10, NANOSECONDS).buildLongKeyed(loader);
+    cache.getUnchecked(1);
+    cache.getUnchecked(2);
+    for (int i = 0; i < 5; i++) {
+      ticker.advance(5);
+      assertEquals("v1", cache.getIfPresent(1));
+    }
+    assertNull(cache.getIfPresent(2));
+    cache.cleanUp();
+    assertEquals(1, cache.size());
+  }
+
+  public void testExpiredEntriesSweptByWrites() {
+    FakeTicker ticker = new FakeTicker();
+    LongKeyLoadingCache<String> cache =
+        newBuilder()
+            .concurrencyLevel(1)
+            .ticker(ticker)
+            .expireAfterWrite(10, NANOSECONDS)
+            .buildLongKeyed(loader);
+    for (long key = 0; key < 100; key++) {
+      cache.put(key, "old");
+    }
+    ticker.advance(10);
+    for (long key = 100; key < 200; key++) {
+      cache.put(key, "new");
+    }
+    assertThat(cache.size()).isLessThan(200L);
+  }
+
+  public void testMaximumSize() {
+    LongKeyLoadingCache<String> cache =
+        newBuilder().concurrencyLevel(1).maximumSize(10).buildLongKeyed(loader);
+    for (long key = 0; key < 10; key++) {
+      cache.getUnchecked(key);
+    }
+    // clear the reference bits that the loads set, then reference the even keys again
+    for (long key = 10; key < 15; key++) {
+      cache.getUnchecked(key);
+    }
+    for (long key = 0; key < 15; key++) {
+      cache.getIfPresent(key);
+    }
+    assertEquals(10, cache.size());
+    assertEquals(5, cache.stats().evictionCount());
+    for (RemovalNotification<Object, String> notification : notifications) {
+      assertEquals(RemovalCause.SIZE, notification.getCause());
+    }
+  }
+
+  public void testMaximumSize_recentlyUsedSurvive() {
+    LongKeyLoadingCache<String> cache =
+        newBuilder().concurrencyLevel(1).maximumSize(10).buildLongKeyed(loader);
+    for (long key = 0; key < 10; key++) {
+      cache.put(key, "v" + key);
+    }
+    // the first insertion past the maximum clears every reference bit
+    cache.put(10, "v10");
+    cache.getIfPresent(5);
+    for (long key = 11; key < 20; key++) {
+      cache.put(key, "v" + key);
+    }
+    assertEquals("v5", cache.getIfPresent(5));
+    assertEquals(10, cache.size());
+  }
+
+  public void testMaximumWeight() {
+    LongKeyLoadingCache<String> cache =
+        newBuilder()
+            .concurrencyLevel(1)
+            .maximumWeight(100)
+            .weigher((Object key, String value) -> value.length())
+            .buildLongKeyed(loader);
+    cache.put(1, "0123456789");
+    cache.put(2, "01234567890123456789012345678901234567890123456789");
+    assertEquals(2, cache.size());
+    // a single value heavier than the maximum is evicted first
+    cache.put(3, new String(new char[101]));
+    assertEquals(2, cache.size());
+    assertNull(cache.getIfPresent(3));
+    assertEquals(60, unwrap(cache).segments[0].totalWeight);
+  }
+
+  public void testInvalidateAllKeepsLoads() throws Exception {
+    CountDownLatch loading = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    LongKeyLoadingCache<String> cache =
+        newBuilder()
+            .buildLongKeyed(
+                new CacheLoader<Long, String>() {
+                  @Override
+                  public String load(Long key) throws InterruptedException {
+                    loading.countDown();
+                    release.await();
+                    return "loaded";
+                  }
+                });
+    cache.put(1, "one");
+    Thread thread = new Thread(() -> cache.getUnchecked(2));
+    thread.start();
+    loading.await();
+    cache.invalidateAll();
+    release.countDown();
+    thread.join();
+    assertNull(cache.getIfPresent(1));
+    assertEquals("loaded", cache.getIfPresent(2));
+  }
+
+  public void testRemovalListenerException() {
+    LongKeyLoadingCache<String> cache =
+        CacheBuilder.newBuilder()
+            .removalListener(
+                notification -> {
+                  throw new IllegalStateException();
+                })
+            .buildLongKeyed(loader);
+    cache.put(1, "a");
+    cache.invalidate(1);
+    assertEquals(0, cache.size());
+  }
+
+  public void testUnsupportedFeatures() {
+    assertBuildFails(CacheBuilder.newBuilder().weakValues());
+    assertBuildFails(CacheBuilder.newBuilder().softValues());
+    assertBuildFails(CacheBuilder.newBuilder().weakKeys());
+    assertBuildFails(CacheBuilder.newBuilder().refreshAfterWrite(1, NANOSECONDS));
+    assertBuildFails(
+        CacheBuilder.newBuilder()
+            .maximumSize(10)
+            .evictionPolicy(EvictionPolicy.WINDOW_TINY_LFU));
+    assertBuildFails(CacheBuilder.newBuilder().maximumWeight(10));
+    assertBuildFails(CacheBuilder.newBuilder().cacheNegativeResults(1, NANOSECONDS, 10));
+  }
+
+  private void assertBuildFails(CacheBuilder<Object, Object> builder) {
+    try {
+      builder.buildLongKeyed(loader);
+      fail();
+    } catch (IllegalStateException expected) {
+    }
+    try {
+      builder.buildIntKeyed(CacheLoader.from(String::valueOf));
+      fail();
+    } catch (IllegalStateException expected) {
+    }
+  }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.common.cache;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import junit.framework.TestCase;
+
+/** Unit test for {@link StripedReadBuffer}. */
+public class StripedReadBufferTest extends TestCase {
+
+  public void testOfferPoll_singleThread() {
+    StripedReadBuffer<Integer> buffer = new StripedReadBuffer<>(16);
+    assertTrue(buffer.isEmpty());
+    assertNull(buffer.peek());
+    assertNull(buffer.poll());
+
+    for (int i = 0; i < 10; i++) {
+      assertTrue(buffer.offer(i));
+    }
+    assertEquals(10, buffer.size());
+    assertThat(ImmutableList.copyOf(buffer))
+        .containsExactly(0, 1, 2, 3, 4, 5, 6, 7, 8, 9)
+        .inOrder();
+    assertEquals(Integer.valueOf(0), buffer.peek());
+
+    for (int i = 0; i < 10; i++) {
+      assertEquals(Integer.valueOf(i), buffer.poll());
+    }
+    assertTrue(buffer.isEmpty());
+    assertNull(buffer.poll());
+  }
+
+  public void testOffer_full() {
+    StripedReadBuffer<Integer> buffer = new StripedReadBuffer<>(4);
+    for (int i = 0; i < 4; i++) {
+      assertTrue(buffer.offer(i));
+    }
+    assertFalse(buffer.offer(4));
+    assertEquals(4, buffer.size());
+
+    assertEquals(Integer.valueOf(0), buffer.poll());
+    assertTrue(buffer.offer(5));
+    assertThat(ImmutableList.copyOf(buffer)).containsExactly(1, 2, 3, 5).inOrder();
+  }
+
+  public void testWrapAround() {
+    StripedReadBuffer<Integer> buffer = new StripedReadBuffer<>(4);
+    for (int i = 0; i < 100; i++) {
+      assertTrue(buffer.offer(i));
+      assertEquals(Integer.valueOf(i), buffer.poll());
+    }
+    assertTrue(buffer.isEmpty());
+  }
+
+  public void testClear() {
+    StripedReadBuffer<Integer> buffer = new StripedReadBuffer<>(8);
+    buffer.offer(1);
+    buffer.offer(2);
+    buffer.clear();
+    assertTrue(buffer.isEmpty());
+    assertTrue(buffer.offer(3));
+    assertEquals(Integer.valueOf(3), buffer.poll());
+  }
+
+  public void testConstructor_notPowerOfTwo() {
+    try {
+      new StripedReadBuffer<Integer>(3);
+      fail();
+    } catch (IllegalArgumentException expected) {
+    }
+  }
+
+  public void testOffer_null() {
+    StripedReadBuffer<Integer> buffer = new StripedReadBuffer<>(8);
+    try {
+      buffer.offer(null);
+      fail();
+    } catch (NullPointerException expected) {
+    }
+  }
+
+  public void testConcurrentOffers() throws InterruptedException {
+    final StripedReadBuffer<Integer> buffer = new StripedReadBuffer<>(1024);
+    final int threadCount = 8;
+    final int perThread = 100;
+    final CountDownLatch start = new CountDownLatch(1);
+    final AtomicInteger accepted = new AtomicInteger();
+    List<Thread> threads = new ArrayList<>();
+    for (int t = 0; t < threadCount; t++) {
+      Thread thread =
+          new Thread() {
+            @Override
+            public void run() {
+              try {
+                start.await();
+              } catch (InterruptedException e) {
+                throw new AssertionError(e);
+              }
+              for (int i = 0; i < perThread; i++) {
+                if (buffer.offer(i)) {
+                  accepted.incrementAndGet();
+                }
+              }
+            }
+          };
+      thread.start();
+      threads.add(thread);
+    }
+    start.countDown();
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    // Offers may be dropped under contention, but every accepted offer is drained exactly once
+    int drained = 0;
+    while (buffer.poll() != null) {
+      drained++;
+    }
+    assertEquals(accepted.get(), drained);
+    assertThat(drained).isAtMost(threadCount * perThread);
+    assertTrue(buffer.isEmpty());
+  }
+}
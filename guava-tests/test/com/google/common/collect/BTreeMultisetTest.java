@@ -0,0 +1,285 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.common.collect;
+
+import static com.google.common.collect.BoundType.CLOSED;
+import static com.google.common.collect.BoundType.OPEN;
+import static com.google.common.truth.Truth.assertThat;
+import static java.util.Collections.sort;
+
+import com.google.common.collect.testing.Helpers.NullsBeforeB;
+import com.google.common.collect.testing.NavigableSetTestSuiteBuilder;
+import com.google.common.collect.testing.TestStringSetGenerator;
+import com.google.common.collect.testing.features.CollectionFeature;
+import com.google.common.collect.testing.features.CollectionSize;
+import com.google.common.collect.testing.google.MultisetFeature;
+import com.google.common.collect.testing.google.SortedMultisetTestSuiteBuilder;
+import com.google.common.collect.testing.google.TestStringMultisetGenerator;
+import com.google.common.testing.SerializableTester;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+/** Unit test for {@link BTreeMultiset}. */
+public class BTreeMultisetTest extends TestCase {
+
+  public static Test suite() {
+    TestSuite suite = new TestSuite();
+    suite.addTest(
+        SortedMultisetTestSuiteBuilder.using(
+                new TestStringMultisetGenerator() {
+                  @Override
+                  protected Multiset<String> create(String[] elements) {
+                    return BTreeMultiset.create(Arrays.asList(elements));
+                  }
+
+                  @Override
+                  public List<String> order(List<String> insertionOrder) {
+                    return Ordering.natural().sortedCopy(insertionOrder);
+                  }
+                })
+            .withFeatures(
+                CollectionSize.ANY,
+                CollectionFeature.KNOWN_ORDER,
+                CollectionFeature.GENERAL_PURPOSE,
+                CollectionFeature.SERIALIZABLE,
+                CollectionFeature.ALLOWS_NULL_QUERIES,
+                MultisetFeature.ENTRIES_ARE_VIEWS)
+            .named("BTreeMultiset, Ordering.natural")
+            .createTestSuite());
+    suite.addTest(
+        SortedMultisetTestSuiteBuilder.using(
+                new TestStringMultisetGenerator() {
+                  @Override
+                  protected Multiset<String> create(String[] elements) {
+                    Multiset<String> result = BTreeMultiset.create(NullsBeforeB.INSTANCE);
+                    Collections.addAll(result, elements);
+                    return result;
+                  }
+
+                  @Override
+                  public List<String> order(List<String> insertionOrder) {
+                    sort(insertionOrder, NullsBeforeB.INSTANCE);
+                    return insertionOrder;
+                  }
+                })
+            .withFeatures(
+                CollectionSize.ANY,
+                CollectionFeature.KNOWN_ORDER,
+                CollectionFeature.GENERAL_PURPOSE,
+                CollectionFeature.SERIALIZABLE,
+                CollectionFeature.ALLOWS_NULL_VALUES,
+                MultisetFeature.ENTRIES_ARE_VIEWS)
+            .named("BTreeMultiset, NullsBeforeB")
+            .createTestSuite());
+    suite.addTest(
+        NavigableSetTestSuiteBuilder.using(
+                new TestStringSetGenerator() {
+                  @Override
+                  protected Set<String> create(String[] elements) {
+                    return BTreeMultiset.create(Arrays.asList(elements)).elementSet();
+                  }
+
+                  @Override
+                  public List<String> order(List<String> insertionOrder) {
+                    return Lists.newArrayList(Sets.newTreeSet(insertionOrder));
+                  }
+                })
+            .named("BTreeMultiset[Ordering.natural].elementSet")
+            .withFeatures(
+                CollectionSize.ANY,
+                CollectionFeature.REMOVE_OPERATIONS,
+                CollectionFeature.ALLOWS_NULL_QUERIES)
+            .createTestSuite());
+    suite.addTestSuite(BTreeMultisetTest.class);
+    return suite;
+  }
+
+  public void testCreate() {
+    BTreeMultiset<String> multiset = BTreeMultiset.create();
+    multiset.add("foo", 2);
+    multiset.add("bar");
+    assertEquals(3, multiset.size());
+    assertEquals(2, multiset.count("foo"));
+    assertEquals(Ordering.natural(), multiset.comparator());
+    assertEquals("[bar, foo x 2]", multiset.toString());
+  }
+
+  public void testCreateWithComparator() {
+    Multiset<String> multiset = BTreeMultiset.create(Collections.reverseOrder());
+    multiset.add("foo", 2);
+    multiset.add("bar");
+    assertEquals(3, multiset.size());
+    assertEquals(2, multiset.count("foo"));
+    assertEquals("[foo x 2, bar]", multiset.toString());
+  }
+
+  public void testRandomOperationsMatchTreeMultiset() {
+    Random random = new Random(0);
+    BTreeMultiset<Integer> multiset = BTreeMultiset.create();
+    TreeMultiset<Integer> expected = TreeMultiset.create();
+    for (int round = 0; round < 4; round++) {
+      // grow well past a few levels of splits, then shrink so that nodes merge
+      for (int i = 0; i < 20000; i++) {
+        int element = random.nextInt(10000);
+        int occurrences = random.nextInt(3);
+        assertEquals(expected.add(element, occurrences), multiset.add(element, occurrences));
+      }
+      assertMatches(expected, multiset);
+      for (int i = 0; i < 30000; i++) {
+        int element = random.nextInt(10000);
+        int occurrences = random.nextInt(3);
+        assertEquals(
+            expected.remove(element, occurrences), multiset.remove(element, occurrences));
+      }
+      assertMatches(expected, multiset);
+    }
+    multiset.clear();
+    assertTrue(multiset.isEmpty());
+    multiset.add(5);
+    assertThat(multiset).containsExactly(5);
+  }
+
+  public void testRangeViewsMatchTreeMultiset() {
+    Random random = new Random(1);
+    BTreeMultiset<Integer> multiset = BTreeMultiset.create();
+    TreeMultiset<Integer> expected = TreeMultiset.create();
+    for (int i = 0; i < 10000; i++) {
+      int element = random.nextInt(5000);
+      multiset.add(element, 1 + random.nextInt(3));
+      expected.setCount(element, multiset.count(element));
+    }
+    for (int i = 0; i < 50; i++) {
+      int low = random.nextInt(5000);
+      int high = low + random.nextInt(1000);
+      BoundType lowType = random.nextBoolean() ? OPEN : CLOSED;
+      BoundType highType = random.nextBoolean() ? OPEN : CLOSED;
+      if (low == high && lowType == OPEN && highType == OPEN) {
+        continue;
+      }
+      assertMatches(
+          expected.subMultiset(low, lowType, high, highType),
+          multiset.subMultiset(low, lowType, high, highType));
+    }
+  }
+
+  public void testIteratorRemove_acrossMerges() {
+    BTreeMultiset<Integer> multiset = BTreeMultiset.create();
+    for (int i = 0; i < 10000; i++) {
+      multiset.add(i, 1 + i % 3);
+    }
+    Iterator<Multiset.Entry<Integer>> iterator = multiset.entrySet().iterator();
+    while (iterator.hasNext()) {
+      if (iterator.next().getElement() % 7 != 0) {
+        iterator.remove();
+      }
+    }
+    assertEquals(1429, multiset.elementSet().size());
+    for (int i = 0; i < 10000; i += 7) {
+      assertEquals(1 + i % 3, multiset.count(i));
+    }
+  }
+
+  public void testIterator_continuesAfterModification() {
+    BTreeMultiset<Integer> multiset = BTreeMultiset.create();
+    for (int i = 0; i < 1000; i++) {
+      multiset.add(2 * i);
+    }
+    Iterator<Integer> iterator = multiset.elementSet().iterator();
+    assertEquals(0, (int) iterator.next());
+    multiset.add(1);
+    multiset.remove(2);
+    assertEquals(1, (int) iterator.next());
+    assertEquals(4, (int) iterator.next());
+
+    Iterator<Integer> descending = multiset.descendingMultiset().elementSet().iterator();
+    assertEquals(1998, (int) descending.next());
+    multiset.remove(1996);
+    assertEquals(1994, (int) descending.next());
+  }
+
+  public void testRankAndSelect() {
+    BTreeMultiset<Integer> multiset = BTreeMultiset.create();
+    for (int i = 0; i < 5000; i++) {
+      multiset.add(2 * i, 1 + i % 4);
+    }
+    long index = 0;
+    for (Multiset.Entry<Integer> entry : multiset.entrySet()) {
+      int element = entry.getElement();
+      assertEquals(index, multiset.rank(element));
+      assertEquals(index + entry.getCount(), multiset.rank(element + 1));
+      for (int i = 0; i < entry.getCount(); i++) {
+        assertEquals(element, (int) multiset.select(index + i));
+      }
+      index += entry.getCount();
+    }
+    assertEquals(index, multiset.size());
+    assertEquals(index, multiset.rank(Integer.MAX_VALUE));
+    assertEquals(0, multiset.rank(-1));
+  }
+
+  public void testRankAndSelect_rangeView() {
+    BTreeMultiset<Integer> multiset = BTreeMultiset.create();
+    for (int i = 0; i < 1000; i++) {
+      multiset.add(i, 2);
+    }
+    BTreeMultiset<Integer> view =
+        (BTreeMultiset<Integer>) multiset.subMultiset(100, OPEN, 200, CLOSED);
+    assertEquals(200, view.size());
+    assertEquals(0, view.rank(50));
+    assertEquals(0, view.rank(101));
+    assertEquals(2, view.rank(102));
+    assertEquals(200, view.rank(500));
+    assertEquals(101, (int) view.select(0));
+    assertEquals(200, (int) view.select(199));
+    try {
+      view.select(200);
+      fail();
+    } catch (IndexOutOfBoundsException expected) {
+    }
+    try {
+      view.select(-1);
+      fail();
+    } catch (IndexOutOfBoundsException expected) {
+    }
+  }
+
+  public void testSerialization_largeView() {
+    BTreeMultiset<Integer> multiset = BTreeMultiset.create();
+    for (int i = 0; i < 1000; i++) {
+      multiset.add(i, 1 + i % 2);
+    }
+    SortedMultiset<Integer> view = multiset.headMultiset(500, OPEN);
+    assertEquals(view, SerializableTester.reserialize(view));
+  }
+
+  private static void assertMatches(
+      SortedMultiset<Integer> expected, SortedMultiset<Integer> actual) {
+    assertEquals(expected.size(), actual.size());
+    assertEquals(expected.elementSet().size(), actual.elementSet().size());
+    assertThat(actual.entrySet()).containsExactlyElementsIn(expected.entrySet()).inOrder();
+    assertThat(actual.descendingMultiset().entrySet())
+        .containsExactlyElementsIn(expected.descendingMultiset().entrySet())
+        .inOrder();
+    assertEquals(expected.firstEntry(), actual.firstEntry());
+    assertEquals(expected.lastEntry(), actual.lastEntry());
+  }
+}
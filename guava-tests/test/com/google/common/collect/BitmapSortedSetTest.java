@@ -0,0 +1,359 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.common.collect;
+
+import static com.google.common.collect.testing.features.CollectionFeature.ALLOWS_NULL_QUERIES;
+import static com.google.common.collect.testing.features.CollectionFeature.KNOWN_ORDER;
+import static com.google.common.collect.testing.features.CollectionFeature.SERIALIZABLE;
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.annotations.GwtIncompatible;
+import com.google.common.collect.testing.NavigableSetTestSuiteBuilder;
+import com.google.common.collect.testing.TestIntegerSortedSetGenerator;
+import com.google.common.collect.testing.features.CollectionSize;
+import com.google.common.primitives.Ints;
+import com.google.common.testing.EqualsTester;
+import com.google.common.testing.SerializableTester;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+/** Tests for {@link BitmapSortedSet}. */
+@GwtIncompatible
+public class BitmapSortedSetTest extends TestCase {
+  public static Test suite() {
+    TestSuite suite = new TestSuite();
+    suite.addTestSuite(BitmapSortedSetTest.class);
+    suite.addTest(
+        NavigableSetTestSuiteBuilder.using(
+                new TestIntegerSortedSetGenerator() {
+                  @Override
+                  protected SortedSet<Integer> create(Integer[] elements) {
+                    return BitmapSortedSet.ofInts(Ints.toArray(Arrays.asList(elements)));
+                  }
+                })
+            .named("BitmapSortedSet")
+            .withFeatures(CollectionSize.ANY, KNOWN_ORDER, ALLOWS_NULL_QUERIES, SERIALIZABLE)
+            .createTestSuite());
+    suite.addTest(
+        NavigableSetTestSuiteBuilder.using(
+                new TestIntegerSortedSetGenerator() {
+                  @Override
+                  protected SortedSet<Integer> create(Integer[] elements) {
+                    TreeSet<Integer> set = new TreeSet<>(Arrays.asList(elements));
+                    // values on either side, in other chunks, for the subset to exclude
+                    set.add(-1 << 16);
+                    set.add(3 << 16);
+                    return BitmapSortedSet.ofInts(Ints.toArray(set))
+                        .subSet(-1 << 16, false, 3 << 16, false);
+                  }
+                })
+            .named("BitmapSortedSet.subSet")
+            .withFeatures(CollectionSize.ANY, KNOWN_ORDER, ALLOWS_NULL_QUERIES, SERIALIZABLE)
+            .createTestSuite());
+    suite.addTest(
+        NavigableSetTestSuiteBuilder.using(
+                new TestIntegerSortedSetGenerator() {
+                  @Override
+                  protected SortedSet<Integer> create(Integer[] elements) {
+                    return BitmapSortedSet.ofInts(Ints.toArray(Arrays.asList(elements)))
+                        .descendingSet();
+                  }
+
+                  @Override
+                  public List<Integer> order(List<Integer> insertionOrder) {
+                    Collections.sort(insertionOrder, Ordering.natural().reverse());
+                    return insertionOrder;
+                  }
+                })
+            .named("BitmapSortedSet.descendingSet")
+            .withFeatures(CollectionSize.ANY, KNOWN_ORDER, ALLOWS_NULL_QUERIES, SERIALIZABLE)
+            .createTestSuite());
+    return suite;
+  }
+
+  public void testOfInts() {
+    BitmapSortedSet<Integer> set = BitmapSortedSet.ofInts(5, -3, 5, 70000, Integer.MIN_VALUE, 0);
+    assertThat(set).containsExactly(Integer.MIN_VALUE, -3, 0, 5, 70000).inOrder();
+    assertEquals(5, set.size());
+    assertTrue(set.contains(70000));
+    assertFalse(set.contains(70001));
+    assertFalse(set.contains(5L));
+    assertFalse(set.contains(null));
+  }
+
+  public void testOfLongs() {
+    BitmapSortedSet<Long> set =
+        BitmapSortedSet.ofLongs(Long.MAX_VALUE, 1L << 40, -1, Long.MIN_VALUE);
+    assertThat(set).containsExactly(Long.MIN_VALUE, -1L, 1L << 40, Long.MAX_VALUE).inOrder();
+    assertEquals(3, set.rank(Long.MAX_VALUE));
+    assertEquals(Long.MIN_VALUE, (long) set.first());
+    assertEquals(Long.MAX_VALUE, (long) set.last());
+    assertNull(set.lower(Long.MIN_VALUE));
+    assertNull(set.higher(Long.MAX_VALUE));
+    assertThat(set.headSet(Long.MIN_VALUE)).isEmpty();
+    assertThat(set.tailSet(Long.MAX_VALUE, false)).isEmpty();
+    assertThat(set.subSet(-1L, false, Long.MAX_VALUE, false)).containsExactly(1L << 40);
+    assertFalse(set.contains(-1));
+  }
+
+  public void testEmpty() {
+    BitmapSortedSet<Integer> set = BitmapSortedSet.ofInts();
+    assertThat(set).isEmpty();
+    assertEquals(0, set.rank(42));
+    assertNull(set.ceiling(0));
+    try {
+      set.first();
+      fail();
+    } catch (NoSuchElementException expected) {
+    }
+    assertEquals(BitmapSortedSet.ofLongs(), set);
+  }
+
+  public void testCreate() {
+    ImmutableRangeSet<Integer> rangeSet =
+        ImmutableRangeSet.<Integer>builder()
+            .add(Range.lessThan(Integer.MIN_VALUE + 3))
+            .add(Range.closed(-5, 4))
+            .add(Range.closedOpen(5, 7)) // adjacent to the previous range
+            .add(Range.open(65530, 200000)) // spans two whole chunks
+            .add(Range.atLeast(Integer.MAX_VALUE - 1))
+            .build();
+    BitmapSortedSet<Integer> set = BitmapSortedSet.create(rangeSet, DiscreteDomain.integers());
+    ContiguousSet<Integer> expected =
+        ContiguousSet.create(Range.open(65530, 200000), DiscreteDomain.integers());
+    assertEquals(3 + 12 + expected.size() + 2, set.size());
+    assertTrue(set.containsAll(expected));
+    assertEquals(Range.closed(65531, 199999), Range.closed(set.ceiling(7), set.lower(200000)));
+    assertEquals(Integer.MIN_VALUE, (int) set.first());
+    assertEquals(Integer.MAX_VALUE, (int) set.last());
+    assertEquals(
+        ImmutableRangeSet.<Integer>builder()
+            .add(Range.closed(Integer.MIN_VALUE, Integer.MIN_VALUE + 2))
+            .add(Range.closed(-5, 6))
+            .add(Range.closed(65531, 199999))
+            .add(Range.closed(Integer.MAX_VALUE - 1, Integer.MAX_VALUE))
+            .build(),
+        set.toRangeSet());
+    assertEquals(set, BitmapSortedSet.ofInts(Ints.toArray(set)));
+  }
+
+  public void testCreate_unsupportedDomain() {
+    try {
+      BitmapSortedSet.create(ImmutableRangeSet.of(Range.closed(1, 2)), new TestIntegerDomain());
+      fail();
+    } catch (IllegalArgumentException expected) {
+    }
+  }
+
+  public void testCreate_tooManyChunks() {
+    try {
+      BitmapSortedSet.create(ImmutableRangeSet.of(Range.<Long>all()), DiscreteDomain.longs());
+      fail();
+    } catch (IllegalArgumentException expected) {
+    }
+  }
+
+  public void testSize_saturates() {
+    BitmapSortedSet<Long> set =
+        BitmapSortedSet.create(
+            ImmutableRangeSet.of(Range.closed(0L, 1L << 32)), DiscreteDomain.longs());
+    assertEquals(Integer.MAX_VALUE, set.size());
+    assertEquals(1L << 32, set.rank(1L << 32));
+    assertEquals(1L << 32, (long) set.last());
+    assertEquals(3L, (long) set.asList().get(3));
+  }
+
+  public void testCombine_mixedTypes() {
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    BitmapSortedSet<Integer> longs = (BitmapSortedSet) BitmapSortedSet.ofLongs(1);
+    try {
+      BitmapSortedSet.ofInts(1).union(longs);
+      fail();
+    } catch (IllegalArgumentException expected) {
+    }
+  }
+
+  public void testEquals() {
+    new EqualsTester()
+        .addEqualityGroup(
+            BitmapSortedSet.ofInts(1, 2, 3),
+            BitmapSortedSet.create(
+                ImmutableRangeSet.of(Range.closed(1, 3)), DiscreteDomain.integers()),
+            BitmapSortedSet.ofInts(1, 2, 3, 4).headSet(4),
+            ImmutableSortedSet.of(1, 2, 3),
+            Sets.newHashSet(1, 2, 3))
+        .addEqualityGroup(BitmapSortedSet.ofLongs(1, 2, 3), ImmutableSet.of(1L, 2L, 3L))
+        .addEqualityGroup(BitmapSortedSet.ofInts(), BitmapSortedSet.ofLongs(), ImmutableSet.of())
+        .testEquals();
+  }
+
+  public void testSerialization() {
+    Random random = new Random(0);
+    for (int i = 0; i < 5; i++) {
+      SerializableTester.reserializeAndAssert(
+          BitmapSortedSet.ofInts(Ints.toArray(randomValues(random))));
+    }
+    SerializableTester.reserializeAndAssert(
+        BitmapSortedSet.ofLongs(Long.MIN_VALUE, 0, Long.MAX_VALUE));
+  }
+
+  public void testRandom() {
+    Random random = new Random(0);
+    for (int round = 0; round < 30; round++) {
+      TreeSet<Integer> expected = randomValues(random);
+      BitmapSortedSet<Integer> set = BitmapSortedSet.ofInts(Ints.toArray(expected));
+      assertEquals(expected, set);
+      assertEquals(expected.hashCode(), set.hashCode());
+      assertEquals(ImmutableList.copyOf(expected), ImmutableList.copyOf(set));
+      assertEquals(
+          ImmutableList.copyOf(expected.descendingSet()),
+          ImmutableList.copyOf(set.descendingIterator()));
+      assertEquals(set, BitmapSortedSet.create(toRangeSet(expected), DiscreteDomain.integers()));
+      assertEquals(toRangeSet(expected), set.toRangeSet());
+
+      List<Integer> list = ImmutableList.copyOf(expected);
+      for (int i = 0; i < 200; i++) {
+        int index = random.nextInt(list.size());
+        assertEquals(list.get(index), set.asList().get(index));
+        assertEquals(index, set.asList().indexOf(list.get(index)));
+
+        int probe = randomValue(random);
+        assertEquals(expected.contains(probe), set.contains(probe));
+        int insertionPoint = Collections.binarySearch(list, probe);
+        assertEquals((insertionPoint >= 0) ? insertionPoint : -insertionPoint - 1, set.rank(probe));
+        assertEquals(expected.lower(probe), set.lower(probe));
+        assertEquals(expected.floor(probe), set.floor(probe));
+        assertEquals(expected.ceiling(probe), set.ceiling(probe));
+        assertEquals(expected.higher(probe), set.higher(probe));
+      }
+
+      for (int i = 0; i < 5; i++) {
+        int from = randomValue(random);
+        int to = randomValue(random);
+        if (from > to) {
+          int swap = from;
+          from = to;
+          to = swap;
+        }
+        assertSubsetsEqual(expected.headSet(to, true), set.headSet(to, true));
+        assertSubsetsEqual(expected.tailSet(from, false), set.tailSet(from, false));
+        assertSubsetsEqual(
+            expected.subSet(from, true, to, false), set.subSet(from, true, to, false));
+      }
+
+      TreeSet<Integer> other = randomValues(random);
+      BitmapSortedSet<Integer> otherSet = BitmapSortedSet.ofInts(Ints.toArray(other));
+      assertSubsetsEqual(Sets.union(expected, other), set.union(otherSet));
+      assertSubsetsEqual(Sets.intersection(expected, other), set.intersection(otherSet));
+      assertSame(set, set.union(BitmapSortedSet.ofInts()));
+      assertEquals(set, set.intersection(set));
+    }
+  }
+
+  /** Checks a set computed from others, including that its chunks are stored as if built anew. */
+  private static void assertSubsetsEqual(
+      Set<Integer> expected, BitmapSortedSet<Integer> actual) {
+    assertEquals(expected, actual);
+    assertEquals(expected.size(), actual.size());
+    assertEquals(BitmapSortedSet.ofInts(Ints.toArray(expected)), actual);
+  }
+
+  /** Returns values from a few chunks, some sparse, some dense, and some in runs. */
+  private static TreeSet<Integer> randomValues(Random random) {
+    TreeSet<Integer> values = new TreeSet<>();
+    int chunks = 1 + random.nextInt(4);
+    for (int c = 0; c < chunks; c++) {
+      int base = (random.nextInt(8) - 4) << 16;
+      switch (random.nextInt(4)) {
+        case 0:
+          for (int i = 0; i < 100; i++) {
+            values.add(base + random.nextInt(1 << 16));
+          }
+          break;
+        case 1:
+          for (int i = 0; i < 10000; i++) {
+            values.add(base + random.nextInt(1 << 16));
+          }
+          break;
+        case 2:
+          for (int i = 0; i < 1 << 16; i++) {
+            values.add(base + i);
+          }
+          break;
+        default:
+          for (int i = 0; i < 5; i++) {
+            int start = base + random.nextInt(1 << 16);
+            int length = random.nextInt(5000);
+            for (int j = 0; j < length; j++) {
+              values.add(start + j);
+            }
+          }
+      }
+    }
+    return values;
+  }
+
+  private static int randomValue(Random random) {
+    return random.nextInt(10 << 16) - (5 << 16);
+  }
+
+  private static ImmutableRangeSet<Integer> toRangeSet(NavigableSet<Integer> values) {
+    ImmutableRangeSet.Builder<Integer> builder = ImmutableRangeSet.builder();
+    Integer start = null;
+    int end = 0;
+    for (int value : values) {
+      if (start != null && value == end + 1) {
+        end = value;
+        continue;
+      }
+      if (start != null) {
+        builder.add(Range.closed(start, end));
+      }
+      start = end = value;
+    }
+    if (start != null) {
+      builder.add(Range.closed(start, end));
+    }
+    return builder.build();
+  }
+
+  /** A domain of {@code Integer}s that is not {@link DiscreteDomain#integers()}. */
+  private static final class TestIntegerDomain extends DiscreteDomain<Integer> {
+    @Override
+    public Integer next(Integer value) {
+      return value + 1;
+    }
+
+    @Override
+    public Integer previous(Integer value) {
+      return value - 1;
+    }
+
+    @Override
+    public long distance(Integer start, Integer end) {
+      return (long) end - start;
+    }
+  }
+}
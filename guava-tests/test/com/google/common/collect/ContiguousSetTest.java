@@ -31,6 +31,7 @@ import static com.google.common.truth.Truth.assertThat;
 import com.google.common.annotations.GwtCompatible;
 import com.google.common.annotations.GwtIncompatible;
 import com.google.common.collect.testing.NavigableSetTestSuiteBuilder;
+import com.google.common.collect.testing.SpliteratorTester;
 import com.google.common.collect.testing.features.CollectionSize;
 import com.google.common.collect.testing.google.SetGenerators.ContiguousSetDescendingGenerator;
 import com.google.common.collect.testing.google.SetGenerators.ContiguousSetGenerator;
@@ -40,6 +41,7 @@ import com.google.common.collect.testing.google.SetGenerators.ContiguousSetTails
 import com.google.common.testing.EqualsTester;
 import java.util.Collection;
 import java.util.Set;
+import java.util.Spliterator;
 import junit.framework.Test;
 import junit.framework.TestCase;
 import junit.framework.TestSuite;
@@ -388,6 +390,18 @@ public class ContiguousSetTest extends TestCase {
     assertEquals(ImmutableList.of(1, 2, 3), ImmutableList.copyOf(list.toArray(new Integer[0])));
   }
 
+  public void testSpliterator() {
+    ContiguousSet<Integer> set = ContiguousSet.create(Range.closed(1, 5), integers());
+    assertTrue(set.spliterator().hasCharacteristics(Spliterator.SUBSIZED));
+    assertEquals(Ordering.natural(), set.spliterator().getComparator());
+    SpliteratorTester.of(set::spliterator).expect(1, 2, 3, 4, 5).inOrder();
+  }
+
+  public void testSpliterator_tooLargeToIndex() {
+    ContiguousSet<Long> set = ContiguousSet.create(Range.<Long>all(), DiscreteDomain.longs());
+    assertEquals(Long.MIN_VALUE, (long) set.stream().findFirst().get());
+  }
+
   @GwtIncompatible // suite
   public static class BuiltTests extends TestCase {
     public static Test suite() {
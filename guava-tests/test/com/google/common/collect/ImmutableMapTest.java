@@ -111,6 +111,27 @@ public class ImmutableMapTest extends TestCase {
             .named("ImmutableMap [JDK backed]")
             .createTestSuite());
 
+    suite.addTest(
+        MapTestSuiteBuilder.using(
+                new TestStringMapGenerator() {
+                  @Override
+                  protected Map<String, String> create(Entry<String, String>[] entries) {
+                    try {
+                      return CompactImmutableMap.create(entries.length, entries, true);
+                    } catch (RegularImmutableMap.BucketOverflowException e) {
+                      throw new AssertionError(e);
+                    }
+                  }
+                })
+            .withFeatures(
+                CollectionSize.ANY,
+                CollectionFeature.SERIALIZABLE_INCLUDING_VIEWS,
+                CollectionFeature.KNOWN_ORDER,
+                MapFeature.REJECTS_DUPLICATES_AT_CREATION,
+                CollectionFeature.ALLOWS_NULL_QUERIES)
+            .named("ImmutableMap [compact]")
+            .createTestSuite());
+
     suite.addTest(
         MapTestSuiteBuilder.using(new ImmutableMapCopyOfGenerator())
             .withFeatures(
@@ -589,6 +610,64 @@ public class ImmutableMapTest extends TestCase {
     assertThat(map).isInstanceOf(JdkBackedImmutableMap.class);
   }
 
+  @GwtIncompatible // CompactImmutableMap
+  public void testBuilder_large_isCompact() {
+    int size = CompactImmutableMap.MIN_SIZE;
+    Builder<Integer, String> builder = ImmutableMap.builder();
+    for (int i = 0; i < size; i++) {
+      builder.put(i, Integer.toString(i));
+    }
+    ImmutableMap<Integer, String> map = builder.buildOrThrow();
+    assertThat(map).isInstanceOf(CompactImmutableMap.class);
+    assertEquals(size, map.size());
+    for (int i = 0; i < size; i++) {
+      assertEquals(Integer.toString(i), map.get(i));
+    }
+    assertNull(map.get(size));
+    assertEquals(ContiguousSet.closedOpen(0, size).asList(), map.keySet().asList());
+    assertEquals(
+        mapEntry(size - 1, Integer.toString(size - 1)), map.entrySet().asList().get(size - 1));
+    assertEquals(map, reserialize(map));
+
+    ImmutableMap<Integer, String> small =
+        ImmutableMap.copyOf(Maps.filterKeys(map, key -> key < size - 1));
+    assertThat(small).isInstanceOf(RegularImmutableMap.class);
+  }
+
+  @GwtIncompatible // CompactImmutableMap
+  public void testBuildKeepingLast_large() {
+    int size = CompactImmutableMap.MIN_SIZE + 10;
+    Map<Integer, Integer> expected = new LinkedHashMap<>();
+    Builder<Integer, Integer> builder = ImmutableMap.builder();
+    for (int i = 0; i < size; i++) {
+      builder.put(i, i);
+      expected.put(i, i);
+    }
+    for (int i = 0; i < size; i += 7) {
+      builder.put(i, -i);
+      expected.put(i, -i);
+    }
+    ImmutableMap<Integer, Integer> map = builder.buildKeepingLast();
+    assertThat(map).isInstanceOf(CompactImmutableMap.class);
+    assertThat(map).containsExactlyEntriesIn(expected).inOrder();
+    try {
+      builder.buildOrThrow();
+      fail();
+    } catch (IllegalArgumentException expectedException) {
+    }
+  }
+
+  @GwtIncompatible // CompactImmutableMap
+  public void testBuild_large_collisions() {
+    Builder<ClassWithTerribleHashCode, Integer> builder = new Builder<>();
+    for (int i = 0; i < CompactImmutableMap.MIN_SIZE; i++) {
+      builder.put(new ClassWithTerribleHashCode(i), i);
+    }
+    ImmutableMap<ClassWithTerribleHashCode, Integer> map = builder.buildOrThrow();
+    assertThat(map).isInstanceOf(JdkBackedImmutableMap.class);
+    assertEquals(Integer.valueOf(17), map.get(new ClassWithTerribleHashCode(17)));
+  }
+
   @GwtIncompatible // Pattern, Matcher
   public void testBuilder_keepingLast_thenOrThrow() {
     ImmutableMap.Builder<String, Integer> builder =
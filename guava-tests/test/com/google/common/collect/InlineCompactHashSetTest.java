@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.common.collect;
+
+import static com.google.common.collect.InlineCompactHashSet.MAX_INLINE_SIZE;
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.annotations.GwtIncompatible;
+import com.google.common.collect.testing.SetTestSuiteBuilder;
+import com.google.common.collect.testing.TestStringSetGenerator;
+import com.google.common.collect.testing.features.CollectionFeature;
+import com.google.common.collect.testing.features.CollectionSize;
+import com.google.common.collect.testing.features.Feature;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+/** Tests for {@link InlineCompactHashSet}. */
+@GwtIncompatible // InlineCompactHashSet
+public class InlineCompactHashSetTest extends TestCase {
+  public static Test suite() {
+    List<Feature<?>> features =
+        Arrays.<Feature<?>>asList(
+            CollectionSize.ANY,
+            CollectionFeature.ALLOWS_NULL_VALUES,
+            CollectionFeature.FAILS_FAST_ON_CONCURRENT_MODIFICATION,
+            CollectionFeature.GENERAL_PURPOSE,
+            CollectionFeature.SERIALIZABLE);
+
+    TestSuite suite = new TestSuite();
+    suite.addTestSuite(InlineCompactHashSetTest.class);
+    for (boolean linked : new boolean[] {false, true}) {
+      suite.addTest(
+          SetTestSuiteBuilder.using(
+                  new TestStringSetGenerator() {
+                    @Override
+                    protected Set<String> create(String[] elements) {
+                      Set<String> set = InlineCompactHashSet.createWithExpectedSize(0, linked);
+                      Collections.addAll(set, elements);
+                      return set;
+                    }
+                  })
+              .named("InlineCompactHashSet, inline, linked=" + linked)
+              .withFeatures(features)
+              .withFeatures(CollectionFeature.KNOWN_ORDER)
+              .createTestSuite());
+      SetTestSuiteBuilder<String> spilled =
+          SetTestSuiteBuilder.using(
+                  new TestStringSetGenerator() {
+                    @Override
+                    protected Set<String> create(String[] elements) {
+                      Set<String> set = InlineCompactHashSet.createWithExpectedSize(0, linked);
+                      // Grow past the inline limit, so that the set uses a CompactHashSet.
+                      for (int i = 0; i <= MAX_INLINE_SIZE; i++) {
+                        set.add("filler" + i);
+                      }
+                      set.clear();
+                      Collections.addAll(set, elements);
+                      return set;
+                    }
+                  })
+              .named("InlineCompactHashSet, spilled, linked=" + linked)
+              .withFeatures(features);
+      if (linked) {
+        spilled.withFeatures(CollectionFeature.KNOWN_ORDER);
+      }
+      suite.addTest(spilled.createTestSuite());
+    }
+    return suite;
+  }
+
+  public void testGrowsPastInlineLimit() {
+    InlineCompactHashSet<Integer> set = InlineCompactHashSet.createWithExpectedSize(2, true);
+    for (int i = 0; i < MAX_INLINE_SIZE; i++) {
+      assertTrue(set.add(i));
+      assertFalse(set.add(i));
+      assertTrue(set.isInline());
+    }
+    assertTrue(set.add(MAX_INLINE_SIZE));
+    assertFalse(set.isInline());
+    assertEquals(MAX_INLINE_SIZE + 1, set.size());
+    assertThat(set).containsExactlyElementsIn(ContiguousSet.closed(0, MAX_INLINE_SIZE)).inOrder();
+  }
+
+  public void testLargeExpectedSize() {
+    InlineCompactHashSet<Integer> set =
+        InlineCompactHashSet.createWithExpectedSize(MAX_INLINE_SIZE + 1, false);
+    assertFalse(set.isInline());
+    set.add(1);
+    assertThat(set).containsExactly(1);
+  }
+
+  public void testRemove_keepsOrder() {
+    InlineCompactHashSet<String> set = InlineCompactHashSet.createWithExpectedSize(0, false);
+    Collections.addAll(set, "a", "b", "c", "d");
+    assertTrue(set.remove("b"));
+    assertFalse(set.remove("b"));
+    set.add("b");
+    assertThat(set).containsExactly("a", "c", "d", "b").inOrder();
+    Iterator<String> iterator = set.iterator();
+    assertEquals("a", iterator.next());
+    iterator.remove();
+    assertEquals("c", iterator.next());
+    assertThat(set).containsExactly("c", "d", "b").inOrder();
+  }
+
+  public void testIterator_failsFastWhenSpilled() {
+    InlineCompactHashSet<Integer> set = InlineCompactHashSet.createWithExpectedSize(0, false);
+    for (int i = 0; i < MAX_INLINE_SIZE; i++) {
+      set.add(i);
+    }
+    Iterator<Integer> iterator = set.iterator();
+    iterator.next();
+    set.add(MAX_INLINE_SIZE);
+    try {
+      iterator.next();
+      fail();
+    } catch (ConcurrentModificationException expected) {
+    }
+  }
+}
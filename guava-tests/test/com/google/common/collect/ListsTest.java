@@ -28,6 +28,7 @@ import com.google.common.base.Function;
 import com.google.common.base.Functions;
 import com.google.common.collect.testing.IteratorTester;
 import com.google.common.collect.testing.ListTestSuiteBuilder;
+import com.google.common.collect.testing.SpliteratorTester;
 import com.google.common.collect.testing.TestStringListGenerator;
 import com.google.common.collect.testing.features.CollectionFeature;
 import com.google.common.collect.testing.features.CollectionSize;
@@ -46,6 +47,7 @@ import java.util.List;
 import java.util.ListIterator;
 import java.util.NoSuchElementException;
 import java.util.RandomAccess;
+import java.util.Spliterator;
 import java.util.concurrent.CopyOnWriteArrayList;
 import junit.framework.Test;
 import junit.framework.TestCase;
@@ -607,6 +609,13 @@ public class ListsTest extends TestCase {
         .inOrder();
   }
 
+  @SuppressWarnings("unchecked") // varargs!
+  public void testCartesianProduct_spliterator() {
+    List<List<Integer>> product = Lists.cartesianProduct(list(0, 1), list(0, 1, 2), list(0, 1));
+    assertTrue(product.spliterator().hasCharacteristics(Spliterator.SUBSIZED));
+    SpliteratorTester.of(product::spliterator).expect(ImmutableList.copyOf(product)).inOrder();
+  }
+
   @SuppressWarnings("unchecked") // varargs!
   public void testCartesianProduct_contains() {
     List<List<Integer>> actual = Lists.cartesianProduct(list(1, 2), list(3, 4));
@@ -19,14 +19,23 @@ package com.google.common.collect;
 import com.google.common.annotations.GwtCompatible;
 import com.google.common.annotations.GwtIncompatible;
 import com.google.common.collect.MultimapBuilder.MultimapBuilderWithKeys;
+import com.google.common.collect.MultimapBuilder.SetMultimapBuilder;
+import com.google.common.collect.testing.features.CollectionFeature;
+import com.google.common.collect.testing.features.CollectionSize;
+import com.google.common.collect.testing.features.MapFeature;
+import com.google.common.collect.testing.google.SetMultimapTestSuiteBuilder;
+import com.google.common.collect.testing.google.TestStringSetMultimapGenerator;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.math.RoundingMode;
+import java.util.Map.Entry;
 import java.util.SortedMap;
 import java.util.SortedSet;
+import junit.framework.Test;
 import junit.framework.TestCase;
+import junit.framework.TestSuite;
 
 /**
  * Tests for {@link MultimapBuilder}.
@@ -36,6 +45,75 @@ import junit.framework.TestCase;
 @GwtCompatible(emulated = true)
 public class MultimapBuilderTest extends TestCase {
 
+  @GwtIncompatible // suite
+  public static Test suite() {
+    TestSuite suite = new TestSuite();
+    suite.addTest(
+        compactMultimapSuite(
+            "compactHashKeys.compactHashSetValues",
+            MultimapBuilder.compactHashKeys().compactHashSetValues()));
+    suite.addTest(
+        compactMultimapSuite(
+            "compactLinkedHashKeys.compactLinkedHashSetValues",
+            MultimapBuilder.compactLinkedHashKeys().compactLinkedHashSetValues()));
+    suite.addTest(
+        compactMultimapSuite(
+            "hashKeys.compactHashSetValues[0]",
+            MultimapBuilder.hashKeys().compactHashSetValues(0)));
+    suite.addTestSuite(MultimapBuilderTest.class);
+    return suite;
+  }
+
+  @GwtIncompatible // suite
+  private static Test compactMultimapSuite(
+      String name, SetMultimapBuilder<Object, Object> builder) {
+    return SetMultimapTestSuiteBuilder.using(
+            new TestStringSetMultimapGenerator() {
+              @Override
+              protected SetMultimap<String, String> create(Entry<String, String>[] entries) {
+                SetMultimap<String, String> multimap = builder.build();
+                for (Entry<String, String> entry : entries) {
+                  multimap.put(entry.getKey(), entry.getValue());
+                }
+                return multimap;
+              }
+            })
+        .named(name)
+        .withFeatures(
+            MapFeature.ALLOWS_NULL_KEYS,
+            MapFeature.ALLOWS_NULL_VALUES,
+            MapFeature.ALLOWS_ANY_NULL_QUERIES,
+            MapFeature.GENERAL_PURPOSE,
+            MapFeature.FAILS_FAST_ON_CONCURRENT_MODIFICATION,
+            CollectionFeature.SUPPORTS_ITERATOR_REMOVE,
+            CollectionFeature.SERIALIZABLE,
+            CollectionSize.ANY)
+        .createTestSuite();
+  }
+
+  @GwtIncompatible // compactHashKeys
+  public void testCompactMultimap_manyValuesPerKey() {
+    SetMultimap<Integer, Integer> multimap =
+        MultimapBuilder.compactLinkedHashKeys().compactLinkedHashSetValues().build();
+    SetMultimap<Integer, Integer> expected = LinkedHashMultimap.create();
+    for (int i = 0; i < 1000; i++) {
+      // key i % 10 gets 100 values, key i % 10 + 10 gets one value
+      multimap.put(i % 10, i);
+      multimap.put(i % 10 + 10, i % 10);
+      expected.put(i % 10, i);
+      expected.put(i % 10 + 10, i % 10);
+    }
+    assertEquals(expected, multimap);
+    assertEquals(1010, multimap.size());
+    for (int key = 0; key < 20; key++) {
+      assertEquals(
+          ImmutableList.copyOf(expected.get(key)), ImmutableList.copyOf(multimap.get(key)));
+    }
+    multimap.get(3).removeIf(value -> value % 2 == 1);
+    expected.get(3).removeIf(value -> value % 2 == 1);
+    assertEquals(expected, multimap);
+  }
+
   @GwtIncompatible // doesn't build without explicit type parameters on build() methods
   public void testGenerics() {
     ListMultimap<String, Integer> a = MultimapBuilder.hashKeys().arrayListValues().build();
@@ -76,13 +154,17 @@ public class MultimapBuilderTest extends TestCase {
             MultimapBuilder.hashKeys(),
             MultimapBuilder.linkedHashKeys(),
             MultimapBuilder.treeKeys(),
-            MultimapBuilder.enumKeys(RoundingMode.class))) {
+            MultimapBuilder.enumKeys(RoundingMode.class),
+            MultimapBuilder.compactHashKeys(),
+            MultimapBuilder.compactLinkedHashKeys())) {
       for (MultimapBuilder<?, ?> builder :
           ImmutableList.of(
               builderWithKeys.arrayListValues(),
               builderWithKeys.linkedListValues(),
               builderWithKeys.hashSetValues(),
               builderWithKeys.linkedHashSetValues(),
+              builderWithKeys.compactHashSetValues(),
+              builderWithKeys.compactLinkedHashSetValues(),
               builderWithKeys.treeSetValues(),
               builderWithKeys.enumSetValues(RoundingMode.class))) {
         /*
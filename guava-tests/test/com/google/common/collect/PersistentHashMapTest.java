@@ -0,0 +1,189 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.common.collect;
+
+import static com.google.common.testing.SerializableTester.reserializeAndAssert;
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.testing.MapTestSuiteBuilder;
+import com.google.common.collect.testing.TestStringMapGenerator;
+import com.google.common.collect.testing.features.CollectionFeature;
+import com.google.common.collect.testing.features.CollectionSize;
+import com.google.common.testing.EqualsTester;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Random;
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+/** Tests for {@link PersistentHashMap}. */
+public class PersistentHashMapTest extends TestCase {
+
+  public static Test suite() {
+    TestSuite suite = new TestSuite();
+    suite.addTest(
+        MapTestSuiteBuilder.using(
+                new TestStringMapGenerator() {
+                  @Override
+                  protected Map<String, String> create(Entry<String, String>[] entries) {
+                    PersistentHashMap<String, String> map = PersistentHashMap.of();
+                    for (Entry<String, String> entry : entries) {
+                      map = map.with(entry.getKey(), entry.getValue());
+                    }
+                    return map;
+                  }
+                })
+            .withFeatures(
+                CollectionSize.ANY,
+                CollectionFeature.SERIALIZABLE,
+                CollectionFeature.ALLOWS_NULL_QUERIES)
+            .named("PersistentHashMap")
+            .createTestSuite());
+    suite.addTestSuite(PersistentHashMapTest.class);
+    return suite;
+  }
+
+  public void testWith_leavesOriginalUnchanged() {
+    PersistentHashMap<String, Integer> empty = PersistentHashMap.of();
+    PersistentHashMap<String, Integer> one = empty.with("a", 1);
+    PersistentHashMap<String, Integer> two = one.with("b", 2);
+    PersistentHashMap<String, Integer> replaced = two.with("a", 10);
+    assertThat(empty).isEmpty();
+    assertEquals(ImmutableMap.of("a", 1), one);
+    assertEquals(ImmutableMap.of("a", 1, "b", 2), two);
+    assertEquals(ImmutableMap.of("a", 10, "b", 2), replaced);
+    assertSame(two, two.with("b", 2));
+  }
+
+  public void testWithout() {
+    PersistentHashMap<String, Integer> map = PersistentHashMap.<String, Integer>of().with("a", 1);
+    assertSame(map, map.without("b"));
+    assertSame(map, map.without(null));
+    assertSame(PersistentHashMap.of(), map.without("a"));
+    assertEquals(ImmutableMap.of("a", 1), map);
+  }
+
+  public void testWith_nulls() {
+    PersistentHashMap<String, Integer> map = PersistentHashMap.of();
+    try {
+      map.with(null, 1);
+      fail();
+    } catch (NullPointerException expected) {
+    }
+    try {
+      map.with("a", null);
+      fail();
+    } catch (NullPointerException expected) {
+    }
+  }
+
+  public void testCollisions() {
+    PersistentHashMap<Colliding, Integer> map = PersistentHashMap.of();
+    for (int i = 0; i < 10; i++) {
+      map = map.with(new Colliding(i), i);
+    }
+    assertEquals(10, map.size());
+    for (int i = 0; i < 10; i++) {
+      assertEquals(Integer.valueOf(i), map.get(new Colliding(i)));
+    }
+    for (int i = 0; i < 9; i++) {
+      map = map.without(new Colliding(i));
+    }
+    assertEquals(ImmutableMap.of(new Colliding(9), 9), map);
+  }
+
+  /** Applies the same random updates to a persistent map and a {@code HashMap}. */
+  public void testRandomUpdates() {
+    Random random = new Random(0);
+    Map<Integer, Integer> expected = new HashMap<>();
+    PersistentHashMap<Integer, Integer> map = PersistentHashMap.of();
+    PersistentHashMap.Builder<Integer, Integer> builder = PersistentHashMap.builder();
+    for (int i = 0; i < 20_000; i++) {
+      Integer key = random.nextInt(2_000);
+      if (random.nextInt(3) == 0) {
+        expected.remove(key);
+        map = map.without(key);
+        builder.remove(key);
+      } else {
+        expected.put(key, i);
+        map = map.with(key, i);
+        builder.put(key, i);
+      }
+    }
+    assertEquals(expected, map);
+    assertEquals(expected.size(), builder.size());
+    assertEquals(expected, builder.build());
+    assertEquals(expected.hashCode(), map.hashCode());
+  }
+
+  public void testBuilder_buildIsUnaffectedByLaterUpdates() {
+    PersistentHashMap.Builder<Integer, String> builder = PersistentHashMap.builder();
+    for (int i = 0; i < 1_000; i++) {
+      builder.put(i, "a");
+    }
+    PersistentHashMap<Integer, String> first = builder.build();
+    for (int i = 0; i < 1_000; i += 2) {
+      builder.put(i, "b");
+      builder.remove(i + 1);
+    }
+    PersistentHashMap<Integer, String> second = builder.build();
+    assertEquals(1_000, first.size());
+    for (int i = 0; i < 1_000; i++) {
+      assertEquals("a", first.get(i));
+    }
+    assertEquals(500, second.size());
+    assertEquals("b", second.get(0));
+    assertNull(second.get(1));
+  }
+
+  public void testToBuilder_leavesOriginalUnchanged() {
+    PersistentHashMap<Integer, Integer> map =
+        PersistentHashMap.copyOf(ImmutableMap.of(1, 1, 2, 2, 3, 3));
+    PersistentHashMap<Integer, Integer> updated = map.toBuilder().put(4, 4).remove(1).build();
+    assertEquals(ImmutableMap.of(1, 1, 2, 2, 3, 3), map);
+    assertEquals(ImmutableMap.of(2, 2, 3, 3, 4, 4), updated);
+    assertSame(updated, PersistentHashMap.copyOf(updated));
+  }
+
+  public void testEqualsAndSerialization() {
+    PersistentHashMap<String, Integer> map = PersistentHashMap.copyOf(ImmutableMap.of("a", 1));
+    new EqualsTester()
+        .addEqualityGroup(map, ImmutableMap.of("a", 1), PersistentHashMap.of().with("a", 1))
+        .addEqualityGroup(PersistentHashMap.of())
+        .testEquals();
+    reserializeAndAssert(map);
+  }
+
+  /** A key whose instances all have the same hash code. */
+  private static final class Colliding {
+    final int value;
+
+    Colliding(int value) {
+      this.value = value;
+    }
+
+    @Override
+    public boolean equals(Object object) {
+      return object instanceof Colliding && ((Colliding) object).value == value;
+    }
+
+    @Override
+    public int hashCode() {
+      return 42;
+    }
+  }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.common.collect;
+
+import static java.util.Arrays.asList;
+
+import com.google.common.collect.testing.SetTestSuiteBuilder;
+import com.google.common.collect.testing.TestStringSetGenerator;
+import com.google.common.collect.testing.features.CollectionFeature;
+import com.google.common.collect.testing.features.CollectionSize;
+import java.util.Set;
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+/** Tests for {@link PersistentHashSet}. */
+public class PersistentHashSetTest extends TestCase {
+
+  public static Test suite() {
+    TestSuite suite = new TestSuite();
+    suite.addTest(
+        SetTestSuiteBuilder.using(
+                new TestStringSetGenerator() {
+                  @Override
+                  protected Set<String> create(String[] elements) {
+                    return PersistentHashSet.copyOf(asList(elements));
+                  }
+                })
+            .withFeatures(
+                CollectionSize.ANY,
+                CollectionFeature.SERIALIZABLE,
+                CollectionFeature.ALLOWS_NULL_QUERIES)
+            .named("PersistentHashSet")
+            .createTestSuite());
+    suite.addTestSuite(PersistentHashSetTest.class);
+    return suite;
+  }
+
+  public void testWithAndWithout() {
+    PersistentHashSet<String> empty = PersistentHashSet.of();
+    PersistentHashSet<String> ab = empty.with("a").with("b");
+    assertSame(ab, ab.with("a"));
+    assertSame(ab, ab.without("c"));
+    assertEquals(ImmutableSet.of("a"), ab.without("b"));
+    assertEquals(ImmutableSet.of("a", "b"), ab);
+    assertSame(PersistentHashSet.of(), ab.without("a").without("b"));
+    assertTrue(empty.isEmpty());
+  }
+
+  public void testBuilder() {
+    PersistentHashSet.Builder<Integer> builder = PersistentHashSet.builder();
+    builder.addAll(ContiguousSet.closedOpen(0, 100));
+    PersistentHashSet<Integer> first = builder.build();
+    builder.remove(0).add(100);
+    assertEquals(ContiguousSet.closedOpen(0, 100), first);
+    assertEquals(ContiguousSet.closedOpen(1, 101), builder.build());
+    PersistentHashSet<Integer> updated = first.toBuilder().remove(5).add(-1).build();
+    assertTrue(first.contains(5));
+    assertFalse(updated.contains(5));
+    assertTrue(updated.contains(-1));
+    assertEquals(100, updated.size());
+  }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.common.collect;
+
+import static com.google.common.testing.SerializableTester.reserializeAndAssert;
+import static java.util.Arrays.asList;
+
+import com.google.common.collect.testing.ListTestSuiteBuilder;
+import com.google.common.collect.testing.TestStringListGenerator;
+import com.google.common.collect.testing.features.CollectionFeature;
+import com.google.common.collect.testing.features.CollectionSize;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+/** Tests for {@link PersistentList}. */
+public class PersistentListTest extends TestCase {
+
+  public static Test suite() {
+    TestSuite suite = new TestSuite();
+    suite.addTest(
+        ListTestSuiteBuilder.using(
+                new TestStringListGenerator() {
+                  @Override
+                  protected List<String> create(String[] elements) {
+                    PersistentList<String> list = PersistentList.of();
+                    for (String element : elements) {
+                      list = list.append(element);
+                    }
+                    return list;
+                  }
+                })
+            .withFeatures(
+                CollectionSize.ANY,
+                CollectionFeature.SERIALIZABLE,
+                CollectionFeature.ALLOWS_NULL_QUERIES)
+            .named("PersistentList")
+            .createTestSuite());
+    suite.addTest(
+        ListTestSuiteBuilder.using(
+                new TestStringListGenerator() {
+                  @Override
+                  protected List<String> create(String[] elements) {
+                    return PersistentList.copyOf(asList(elements)).asImmutableList();
+                  }
+                })
+            .withFeatures(
+                CollectionSize.ANY,
+                CollectionFeature.SERIALIZABLE,
+                CollectionFeature.ALLOWS_NULL_QUERIES)
+            .named("PersistentList.asImmutableList")
+            .createTestSuite());
+    suite.addTestSuite(PersistentListTest.class);
+    return suite;
+  }
+
+  public void testUpdates_leaveOriginalUnchanged() {
+    PersistentList<String> ab = PersistentList.<String>of().append("a").append("b");
+    PersistentList<String> abc = ab.append("c");
+    PersistentList<String> xbc = abc.with(0, "x");
+    assertEquals(asList("a", "b"), ab);
+    assertEquals(asList("a", "b", "c"), abc);
+    assertEquals(asList("x", "b", "c"), xbc);
+    assertEquals(asList("x", "b"), xbc.withoutLast());
+    assertSame(PersistentList.of(), ab.withoutLast().withoutLast());
+    try {
+      PersistentList.of().withoutLast();
+      fail();
+    } catch (NoSuchElementException expected) {
+    }
+    try {
+      ab.with(2, "c");
+      fail();
+    } catch (IndexOutOfBoundsException expected) {
+    }
+  }
+
+  /**
+   * Grows a list to several levels deep and shrinks it again, checking every version against an
+   * {@code ArrayList}.
+   */
+  public void testGrowAndShrink() {
+    int size = 32 * 32 * 32 + 100;
+    List<PersistentList<Integer>> versions = new ArrayList<>();
+    PersistentList<Integer> list = PersistentList.of();
+    for (int i = 0; i < size; i++) {
+      if (i % 997 == 0) {
+        versions.add(list);
+      }
+      list = list.append(i);
+    }
+    assertEquals(ContiguousSet.closedOpen(0, size).asList(), list);
+    for (int i = 0; i < versions.size(); i++) {
+      assertEquals(ContiguousSet.closedOpen(0, i * 997).asList(), versions.get(i));
+    }
+    for (int i = size; i > 0; i--) {
+      assertEquals(i - 1, (int) list.get(i - 1));
+      list = list.withoutLast();
+      assertEquals(i - 1, list.size());
+    }
+    assertSame(PersistentList.of(), list);
+  }
+
+  /** Applies the same random updates to a persistent list, a builder and an {@code ArrayList}. */
+  public void testRandomUpdates() {
+    Random random = new Random(0);
+    List<Integer> expected = new ArrayList<>();
+    PersistentList<Integer> list = PersistentList.of();
+    PersistentList.Builder<Integer> builder = PersistentList.builder();
+    for (int i = 0; i < 50_000; i++) {
+      int op = random.nextInt(10);
+      if (op < 6 || expected.isEmpty()) {
+        expected.add(i);
+        list = list.append(i);
+        builder.add(i);
+      } else if (op < 9) {
+        int index = random.nextInt(expected.size());
+        expected.set(index, -i);
+        list = list.with(index, -i);
+        builder.set(index, -i);
+      } else {
+        expected.remove(expected.size() - 1);
+        list = list.withoutLast();
+        builder = list.toBuilder();
+      }
+    }
+    assertEquals(expected, list);
+    assertEquals(expected, builder.build());
+  }
+
+  public void testBuilder_buildIsUnaffectedByLaterUpdates() {
+    PersistentList.Builder<Integer> builder = PersistentList.builder();
+    builder.addAll(ContiguousSet.closedOpen(0, 2_000));
+    PersistentList<Integer> first = builder.build();
+    builder.set(0, -1).set(1_999, -1).add(2_000);
+    PersistentList<Integer> second = builder.build();
+    assertEquals(ContiguousSet.closedOpen(0, 2_000).asList(), first);
+    assertEquals(2_001, second.size());
+    assertEquals(-1, (int) second.get(0));
+    assertEquals(-1, (int) second.get(1_999));
+
+    PersistentList.Builder<Integer> fromList = first.toBuilder();
+    fromList.set(5, -5);
+    assertEquals(5, (int) first.get(5));
+    assertEquals(-5, (int) fromList.build().get(5));
+  }
+
+  public void testAsImmutableList() {
+    PersistentList<String> list = PersistentList.copyOf(asList("a", "b"));
+    ImmutableList<String> view = list.asImmutableList();
+    assertSame(view, list.asImmutableList());
+    assertSame(view, ImmutableList.copyOf(view));
+    assertEquals(list, view);
+    assertSame(list, PersistentList.copyOf(list));
+  }
+
+  public void testNullsRejected() {
+    try {
+      PersistentList.of().append(null);
+      fail();
+    } catch (NullPointerException expected) {
+    }
+    try {
+      PersistentList.builder().add(null);
+      fail();
+    } catch (NullPointerException expected) {
+    }
+  }
+
+  public void testSerialization() {
+    reserializeAndAssert(PersistentList.copyOf(ContiguousSet.closedOpen(0, 100)));
+  }
+}
@@ -39,6 +39,7 @@ import com.google.common.collect.testing.MinimalIterable;
 import com.google.common.collect.testing.NavigableSetTestSuiteBuilder;
 import com.google.common.collect.testing.SafeTreeSet;
 import com.google.common.collect.testing.SetTestSuiteBuilder;
+import com.google.common.collect.testing.SpliteratorTester;
 import com.google.common.collect.testing.TestEnumSetGenerator;
 import com.google.common.collect.testing.TestStringSetGenerator;
 import com.google.common.collect.testing.features.CollectionFeature;
@@ -71,6 +72,7 @@ import java.util.NavigableSet;
 import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.SortedSet;
+import java.util.Spliterator;
 import java.util.TreeSet;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.function.BiConsumer;
@@ -765,6 +767,13 @@ public class SetsTest extends TestCase {
         .inOrder();
   }
 
+  @SuppressWarnings("unchecked") // varargs!
+  public void testCartesianProduct_spliterator() {
+    Set<List<Integer>> product = Sets.cartesianProduct(set(0, 1), set(0, 1, 2), set(0, 1));
+    assertTrue(product.spliterator().hasCharacteristics(Spliterator.SUBSIZED));
+    SpliteratorTester.of(product::spliterator).expect(ImmutableList.copyOf(product)).inOrder();
+  }
+
   @SuppressWarnings("unchecked") // varargs!
   public void testCartesianProduct_contains() {
     Set<List<Integer>> actual = Sets.cartesianProduct(set(1, 2), set(3, 4));
@@ -927,6 +936,12 @@ public class SetsTest extends TestCase {
     }.test();
   }
 
+  public void testPowerSetSpliterator() {
+    Set<Set<Integer>> powerSet = powerSet(ImmutableSet.of(1, 2, 3));
+    assertTrue(powerSet.spliterator().hasCharacteristics(Spliterator.SUBSIZED));
+    SpliteratorTester.of(powerSet::spliterator).expect(ImmutableList.copyOf(powerSet)).inOrder();
+  }
+
   public void testPowerSetSize() {
     assertPowerSetSize(1);
     assertPowerSetSize(2, 'a');
@@ -14,6 +14,7 @@
 
 package com.google.common.collect;
 
+import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.google.common.collect.Streams.stream;
 
 import com.google.common.annotations.GwtCompatible;
@@ -25,11 +26,14 @@ import com.google.common.truth.Truth;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.LinkedHashSet;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.OptionalDouble;
 import java.util.OptionalInt;
 import java.util.OptionalLong;
+import java.util.Random;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.stream.DoubleStream;
@@ -196,6 +200,80 @@ public class StreamsTest extends TestCase {
         .inOrder();
   }
 
+  public void testMergeSorted() {
+    // Compares only the first character, so that ties show which stream an element came from.
+    Comparator<String> byFirstChar = Comparator.comparing(s -> s.charAt(0));
+    Stream<String> merged =
+        Streams.mergeSorted(
+            ImmutableList.of(
+                Stream.of("1a", "3a", "5a"),
+                Stream.<String>empty(),
+                Stream.of("1b", "2b", "5b", "6b"),
+                Stream.of("3c", "4c")),
+            byFirstChar);
+    assertThat(merged)
+        .containsExactly("1a", "1b", "2b", "3a", "3c", "4c", "5a", "5b", "6b")
+        .inOrder();
+  }
+
+  public void testMergeSorted_unsizedSource() {
+    SpliteratorTester.of(
+            () ->
+                Streams.mergeSorted(
+                        ImmutableList.of(
+                            Stream.of(1, 4, 7).filter(i -> true), Stream.of(2, 5), Stream.of(3)),
+                        Ordering.natural())
+                    .spliterator())
+        .expect(1, 2, 3, 4, 5, 7);
+  }
+
+  public void testMergeSorted_closeIsPropagated() {
+    AtomicInteger closeCountB = new AtomicInteger(0);
+    Stream<String> streamB = Stream.of("b").onClose(closeCountB::incrementAndGet);
+    Stream<String> merged =
+        Streams.mergeSorted(ImmutableList.of(Stream.of("a", "c"), streamB), Ordering.natural());
+    assertThat(merged).containsExactly("a", "b", "c").inOrder();
+    merged.close();
+    Truth.assertThat(closeCountB.get()).isEqualTo(1);
+  }
+
+  public void testMergeSortedLists() {
+    SpliteratorTester.of(
+            () ->
+                Streams.mergeSortedLists(
+                        ImmutableList.of(
+                            ImmutableList.of(1, 4, 4, 7),
+                            ImmutableList.<Integer>of(),
+                            new LinkedList<>(ImmutableList.of(2, 4, 5)),
+                            ImmutableList.of(0)),
+                        Ordering.natural())
+                    .spliterator())
+        .expect(0, 1, 2, 4, 4, 4, 5, 7);
+  }
+
+  @GwtIncompatible // parallel streams
+  public void testMergeSortedLists_parallel() {
+    Random random = new Random(0);
+    Comparator<String> byFirstChar = Comparator.comparing(s -> s.charAt(0));
+    List<List<String>> lists = new ArrayList<>();
+    List<String> expected = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      List<String> list = new ArrayList<>();
+      for (int j = random.nextInt(5000); j > 0; j--) {
+        list.add((char) ('a' + random.nextInt(26)) + "" + i);
+      }
+      list.sort(byFirstChar);
+      lists.add(list);
+      expected.addAll(list);
+    }
+    // A stable sort of the concatenation keeps equivalent elements in the order of their lists.
+    expected.sort(byFirstChar);
+    Truth.assertThat(
+            Streams.mergeSortedLists(lists, byFirstChar).parallel().collect(toImmutableList()))
+        .containsExactlyElementsIn(expected)
+        .inOrder();
+  }
+
   private void testMapWithIndex(Function<Collection<String>, Stream<String>> collectionImpl) {
     SpliteratorTester.of(
             () ->
@@ -220,6 +298,21 @@ public class StreamsTest extends TestCase {
     testMapWithIndex(elems -> new LinkedHashSet<>(elems).stream());
   }
 
+  @GwtIncompatible // parallel streams
+  public void testMapWithIndex_parallelSizedSource() {
+    List<String> expected = new ArrayList<>();
+    LinkedHashSet<String> source = new LinkedHashSet<>();
+    for (int i = 0; i < 20000; i++) {
+      source.add("e" + i);
+      expected.add("e" + i + ":" + i);
+    }
+    Truth.assertThat(
+            Streams.mapWithIndex(source.stream().parallel(), (str, i) -> str + ":" + i)
+                .collect(toImmutableList()))
+        .containsExactlyElementsIn(expected)
+        .inOrder();
+  }
+
   public void testMapWithIndex_unsizedSource() {
     testMapWithIndex(
         elems -> Stream.of((Object) null).flatMap(unused -> ImmutableList.copyOf(elems).stream()));
@@ -371,6 +464,51 @@ public class StreamsTest extends TestCase {
         .inOrder();
   }
 
+  public void testZip_sizedSourcesSplit() {
+    SpliteratorTester.of(
+            () ->
+                Streams.zip(
+                        ImmutableList.of("a", "b", "c", "d", "e").stream(),
+                        ImmutableList.of(1, 2, 3, 4, 5).stream(),
+                        (a, b) -> a + ":" + b)
+                    .spliterator())
+        .expect("a:1", "b:2", "c:3", "d:4", "e:5");
+    SpliteratorTester.of(
+            () ->
+                Streams.zip(
+                        ImmutableList.of("a", "b", "c", "d", "e").stream(),
+                        new LinkedHashSet<>(ImmutableList.of(1, 2, 3)).stream(),
+                        (a, b) -> a + ":" + b)
+                    .spliterator())
+        .expect("a:1", "b:2", "c:3");
+  }
+
+  @GwtIncompatible // parallel streams
+  public void testZip_parallel() {
+    List<Integer> list = ContiguousSet.closedOpen(0, 20000).asList();
+    List<String> expected = new ArrayList<>();
+    for (int i = 0; i < 15000; i++) {
+      expected.add(i + ":" + i);
+    }
+    // The sources split at different positions, so the zip must line them up.
+    Truth.assertThat(
+            Streams.zip(
+                    list.stream().parallel(),
+                    new LinkedHashSet<>(list.subList(0, 15000)).stream(),
+                    (a, b) -> a + ":" + b)
+                .collect(toImmutableList()))
+        .containsExactlyElementsIn(expected)
+        .inOrder();
+    Truth.assertThat(
+            Streams.zip(
+                    list.subList(0, 15000).stream().parallel(),
+                    list.stream().filter(i -> true),
+                    (a, b) -> a + ":" + b)
+                .collect(toImmutableList()))
+        .containsExactlyElementsIn(expected)
+        .inOrder();
+  }
+
   public void testForEachPair() {
     List<String> list = new ArrayList<>();
     Streams.forEachPair(
@@ -0,0 +1,211 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.common.collect;
+
+import static com.google.common.testing.SerializableTester.reserializeAndAssert;
+import static java.util.Arrays.asList;
+
+import com.google.common.collect.testing.features.CollectionFeature;
+import com.google.common.collect.testing.features.CollectionSize;
+import com.google.common.collect.testing.google.MultisetTestSuiteBuilder;
+import com.google.common.collect.testing.google.TestStringMultisetGenerator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+/** Tests for {@link StripedConcurrentHashMultiset}. */
+public class StripedConcurrentHashMultisetTest extends TestCase {
+
+  public static Test suite() {
+    TestSuite suite = new TestSuite();
+    suite.addTest(
+        MultisetTestSuiteBuilder.using(
+                new TestStringMultisetGenerator() {
+                  @Override
+                  protected Multiset<String> create(String[] elements) {
+                    return StripedConcurrentHashMultiset.create(asList(elements));
+                  }
+                })
+            .withFeatures(
+                CollectionSize.ANY,
+                CollectionFeature.GENERAL_PURPOSE,
+                CollectionFeature.SERIALIZABLE,
+                CollectionFeature.ALLOWS_NULL_QUERIES)
+            .named("StripedConcurrentHashMultiset")
+            .createTestSuite());
+    suite.addTestSuite(StripedConcurrentHashMultisetTest.class);
+    return suite;
+  }
+
+  public void testIncrement() {
+    StripedConcurrentHashMultiset<String> multiset = StripedConcurrentHashMultiset.create();
+    multiset.increment("a", 3);
+    multiset.increment("a", 0);
+    multiset.increment("b", 1);
+    assertEquals(3, multiset.count("a"));
+    assertEquals(4, multiset.size());
+    try {
+      multiset.increment("a", -1);
+      fail();
+    } catch (IllegalArgumentException expected) {
+    }
+    try {
+      multiset.increment(null, 1);
+      fail();
+    } catch (NullPointerException expected) {
+    }
+  }
+
+  public void testIncrement_saturates() {
+    StripedConcurrentHashMultiset<String> multiset = StripedConcurrentHashMultiset.create();
+    multiset.increment("a", Integer.MAX_VALUE);
+    multiset.increment("a", 10);
+    assertEquals(Integer.MAX_VALUE, multiset.count("a"));
+    assertEquals(Integer.MAX_VALUE, multiset.remove("a", 20));
+    assertEquals(Integer.MAX_VALUE - 10, multiset.count("a"));
+  }
+
+  public void testAdd_overflowLeavesCountUnchanged() {
+    StripedConcurrentHashMultiset<String> multiset = StripedConcurrentHashMultiset.create();
+    multiset.add("a", Integer.MAX_VALUE - 1);
+    try {
+      multiset.add("a", 2);
+      fail();
+    } catch (IllegalArgumentException expected) {
+    }
+    assertEquals(Integer.MAX_VALUE - 1, multiset.count("a"));
+    assertEquals(Integer.MAX_VALUE - 1, multiset.add("a", 1));
+  }
+
+  public void testRemoveToZeroRemovesElement() {
+    StripedConcurrentHashMultiset<String> multiset = StripedConcurrentHashMultiset.create();
+    multiset.increment("a", 2);
+    assertTrue(multiset.removeExactly("a", 2));
+    assertTrue(multiset.isEmpty());
+    assertFalse(multiset.elementSet().contains("a"));
+    multiset.increment("a", 1);
+    assertEquals(1, multiset.count("a"));
+    assertEquals(1, multiset.elementSet().size());
+  }
+
+  public void testSnapshot() {
+    StripedConcurrentHashMultiset<String> multiset =
+        StripedConcurrentHashMultiset.create(asList("a", "b", "a"));
+    ImmutableMultiset<String> snapshot = multiset.snapshot();
+    multiset.add("c");
+    assertEquals(ImmutableMultiset.of("a", "a", "b"), snapshot);
+    assertEquals(ImmutableMultiset.of("a", "a", "b", "c"), multiset.snapshot());
+  }
+
+  public void testSerialization() {
+    StripedConcurrentHashMultiset<String> multiset =
+        StripedConcurrentHashMultiset.create(asList("a", "b", "a"));
+    reserializeAndAssert(multiset);
+  }
+
+  /**
+   * Has several threads add, remove and set the counts of a few keys, each recording the deltas it
+   * is responsible for, and checks that the final counts match the recorded deltas.
+   */
+  public void testConcurrentModification() throws Exception {
+    StripedConcurrentHashMultiset<String> multiset = StripedConcurrentHashMultiset.create();
+    ImmutableList<String> keys = ImmutableList.of("a", "b", "c");
+    int nThreads = 8;
+    ExecutorService pool = Executors.newFixedThreadPool(nThreads);
+    try {
+      List<Future<long[]>> futures = Lists.newArrayList();
+      for (int i = 0; i < nThreads; i++) {
+        futures.add(pool.submit(new MutateTask(multiset, keys, i)));
+      }
+      long[] deltas = new long[keys.size()];
+      for (Future<long[]> future : futures) {
+        long[] taskDeltas = future.get();
+        for (int i = 0; i < deltas.length; i++) {
+          deltas[i] += taskDeltas[i];
+        }
+      }
+      for (int i = 0; i < keys.size(); i++) {
+        assertEquals(keys.get(i), deltas[i], multiset.count(keys.get(i)));
+        assertEquals(deltas[i] != 0, multiset.elementSet().contains(keys.get(i)));
+      }
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  private static class MutateTask implements Callable<long[]> {
+    private final StripedConcurrentHashMultiset<String> multiset;
+    private final ImmutableList<String> keys;
+    private final Random random;
+
+    MutateTask(
+        StripedConcurrentHashMultiset<String> multiset, ImmutableList<String> keys, int seed) {
+      this.multiset = multiset;
+      this.keys = keys;
+      this.random = new Random(seed);
+    }
+
+    @Override
+    public long[] call() {
+      long[] deltas = new long[keys.size()];
+      for (int i = 0; i < 50_000; i++) {
+        int keyIndex = random.nextInt(keys.size());
+        String key = keys.get(keyIndex);
+        switch (random.nextInt(5)) {
+          case 0:
+            {
+              int delta = random.nextInt(3);
+              multiset.increment(key, delta);
+              deltas[keyIndex] += delta;
+              break;
+            }
+          case 1:
+            {
+              int delta = random.nextInt(3);
+              multiset.add(key, delta);
+              deltas[keyIndex] += delta;
+              break;
+            }
+          case 2:
+            {
+              int delta = random.nextInt(4);
+              deltas[keyIndex] -= Math.min(delta, multiset.remove(key, delta));
+              break;
+            }
+          case 3:
+            {
+              int delta = random.nextInt(3);
+              if (multiset.removeExactly(key, delta)) {
+                deltas[keyIndex] -= delta;
+              }
+              break;
+            }
+          default:
+            {
+              int newCount = random.nextInt(2);
+              deltas[keyIndex] += newCount - multiset.setCount(key, newCount);
+            }
+        }
+      }
+      return deltas;
+    }
+  }
+}
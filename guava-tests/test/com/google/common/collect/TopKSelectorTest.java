@@ -22,9 +22,11 @@ import com.google.common.annotations.GwtCompatible;
 import com.google.common.math.IntMath;
 import com.google.common.primitives.Ints;
 import java.math.RoundingMode;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Random;
 import junit.framework.TestCase;
 
 /**
@@ -130,4 +132,56 @@ public class TopKSelectorTest extends TestCase {
     top.offerAll(Ints.asList(5, 7, 6, 2, 4, 3, 1, 0, 0, 0, 0, 0, 0, 0));
     assertThat(top.topK()).isEqualTo(Ints.asList(0, 0, 0, 0, 0, 0, 0));
   }
+
+  public void testCombine() {
+    TopKSelector<Integer> top = TopKSelector.least(3);
+    top.offerAll(Ints.asList(9, 4, 8, 1, 7));
+    TopKSelector<Integer> other = TopKSelector.least(3);
+    other.offerAll(Ints.asList(6, 2, 5, 0));
+    assertThat(top.combine(other).topK()).containsExactly(0, 1, 2).inOrder();
+    assertThat(other.topK()).containsExactly(0, 2, 5).inOrder();
+  }
+
+  public void testCombine_differentK() {
+    TopKSelector<Integer> other = TopKSelector.least(1);
+    other.offerAll(Ints.asList(5, 6, 7));
+    try {
+      TopKSelector.<Integer>least(3).combine(other);
+      fail();
+    } catch (IllegalArgumentException expected) {
+    }
+  }
+
+  public void testCombine_empty() {
+    TopKSelector<Integer> top = TopKSelector.greatest(2);
+    top.combine(TopKSelector.<Integer>greatest(2));
+    assertThat(top.topK()).isEmpty();
+    TopKSelector<Integer> other = TopKSelector.greatest(2);
+    other.offerAll(Ints.asList(3, 1, 2));
+    top.combine(other);
+    assertThat(top.topK()).containsExactly(3, 2).inOrder();
+  }
+
+  public void testCombine_randomMatchesSort() {
+    Random random = new Random(0);
+    for (int k : new int[] {0, 1, 2, 10, 100}) {
+      TopKSelector<Integer> top = TopKSelector.least(k);
+      List<Integer> all = new ArrayList<>();
+      for (int i = 0; i < 20; i++) {
+        TopKSelector<Integer> part = TopKSelector.least(k);
+        for (int j = random.nextInt(3 * k + 2); j > 0; j--) {
+          int value = random.nextInt(1000);
+          part.offer(value);
+          all.add(value);
+        }
+        top.combine(part);
+        // keep offering after a combine, which may have left a loose threshold
+        int value = random.nextInt(1000);
+        top.offer(value);
+        all.add(value);
+      }
+      Collections.sort(all);
+      assertEquals(all.subList(0, k), top.topK());
+    }
+  }
 }
@@ -355,6 +355,74 @@ public class TreeMultisetTest extends TestCase {
     assertEquals(Integer.MAX_VALUE, ms.tailMultiset("a", CLOSED).size());
   }
 
+  public void testRankAndSelect() {
+    TreeMultiset<String> ms = TreeMultiset.create();
+    ms.add("b", 2);
+    ms.add("d", 3);
+    ms.add("f", 1);
+
+    assertEquals(0, ms.rank("a"));
+    assertEquals(0, ms.rank("b"));
+    assertEquals(2, ms.rank("c"));
+    assertEquals(2, ms.rank("d"));
+    assertEquals(5, ms.rank("f"));
+    assertEquals(6, ms.rank("g"));
+
+    assertEquals("b", ms.select(0));
+    assertEquals("b", ms.select(1));
+    assertEquals("d", ms.select(2));
+    assertEquals("d", ms.select(4));
+    assertEquals("f", ms.select(5));
+    try {
+      ms.select(6);
+      fail();
+    } catch (IndexOutOfBoundsException expected) {
+    }
+    try {
+      ms.select(-1);
+      fail();
+    } catch (IndexOutOfBoundsException expected) {
+    }
+  }
+
+  public void testRankAndSelect_largeCounts() {
+    TreeMultiset<String> ms = TreeMultiset.create();
+    ms.add("a", Integer.MAX_VALUE);
+    ms.add("b", Integer.MAX_VALUE);
+    ms.add("c", 3);
+
+    assertEquals(2L * Integer.MAX_VALUE, ms.rank("c"));
+    assertEquals(2L * Integer.MAX_VALUE + 3, ms.rank("d"));
+    assertEquals("b", ms.select(Integer.MAX_VALUE));
+    assertEquals("c", ms.select(2L * Integer.MAX_VALUE + 2));
+  }
+
+  public void testRankAndSelect_subMultiset() {
+    TreeMultiset<Integer> ms = TreeMultiset.create();
+    for (int i = 0; i < 100; i++) {
+      ms.add(i, 1 + i % 3);
+    }
+    TreeMultiset<Integer> sub =
+        (TreeMultiset<Integer>) ms.subMultiset(10, BoundType.OPEN, 20, CLOSED);
+
+    assertEquals(0, sub.rank(5));
+    assertEquals(0, sub.rank(11));
+    assertEquals(sub.size(), sub.rank(50));
+    long index = 0;
+    for (Multiset.Entry<Integer> entry : sub.entrySet()) {
+      assertEquals(index, sub.rank(entry.getElement()));
+      for (int i = 0; i < entry.getCount(); i++) {
+        assertEquals(entry.getElement(), sub.select(index++));
+      }
+    }
+    assertEquals(sub.size(), index);
+    try {
+      sub.select(index);
+      fail();
+    } catch (IndexOutOfBoundsException expected) {
+    }
+  }
+
   @GwtIncompatible // reflection
   @AndroidIncompatible // Reflection bug, or actual binary compatibility problem?
   public void testElementSetBridgeMethods() {
@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.common.primitives;
+
+import com.google.common.annotations.GwtCompatible;
+import com.google.common.testing.EqualsTester;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.DoubleStream;
+import junit.framework.TestCase;
+
+/** Tests for {@link DoubleArrayList}. */
+@GwtCompatible(emulated = true)
+public class DoubleArrayListTest extends TestCase {
+
+  public void testBasicOperations() {
+    DoubleArrayList list = DoubleArrayList.create();
+    list.add(2.5);
+    list.addAll(new double[] {-1, 7});
+    list.addAll(DoubleStream.of(0.5));
+    list.addAll(ImmutableDoubleArray.of(3));
+    list.insert(1, 1);
+    assertEquals(6, list.size());
+    assertEquals(7.0, list.removeAt(3));
+    assertEquals(2.5, list.set(0, 2));
+    list.sort();
+    assertEquals("[-1.0, 0.5, 1.0, 2.0, 3.0]", list.toString());
+    assertEquals(2, list.binarySearch(1));
+    assertEquals(-3, list.binarySearch(0.75));
+  }
+
+  public void testSpecialValues() {
+    DoubleArrayList list = DoubleArrayList.copyOf(Double.NaN, 0.0, -0.0);
+    assertEquals(0, list.indexOf(Double.NaN));
+    assertEquals(1, list.indexOf(0.0));
+    assertEquals(2, list.lastIndexOf(-0.0));
+    assertTrue(list.asList().contains(Double.NaN));
+    list.sort();
+    assertEquals("[-0.0, 0.0, NaN]", list.toString());
+    assertEquals(DoubleArrayList.copyOf(-0.0, 0.0, Double.NaN), list);
+    assertFalse(list.equals(DoubleArrayList.copyOf(0.0, 0.0, Double.NaN)));
+  }
+
+  public void testToImmutableArray_copyOnWrite() {
+    DoubleArrayList list = DoubleArrayList.copyOf(3, 2, 1);
+    ImmutableDoubleArray snapshot = list.toImmutableArray();
+    list.removeRange(0, 2);
+    list.add(4);
+    assertEquals(ImmutableDoubleArray.of(3, 2, 1), snapshot);
+    assertEquals(ImmutableDoubleArray.of(1, 4), list.toImmutableArray());
+  }
+
+  public void testAsList() {
+    DoubleArrayList list = DoubleArrayList.copyOf(1, 2);
+    List<Double> view = list.asList();
+    view.add(0, 0.5);
+    assertEquals(Arrays.asList(0.5, 1.0, 2.0), view);
+    assertEquals(list.hashCode(), view.hashCode());
+  }
+
+  public void testEquals() {
+    new EqualsTester()
+        .addEqualityGroup(DoubleArrayList.create(), DoubleArrayList.createWithExpectedSize(5))
+        .addEqualityGroup(DoubleArrayList.copyOf(1, 2), DoubleArrayList.copyOf(1, 2))
+        .addEqualityGroup(DoubleArrayList.copyOf(1))
+        .testEquals();
+  }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.common.primitives;
+
+import static java.lang.Double.NEGATIVE_INFINITY;
+import static java.lang.Double.NaN;
+import static java.lang.Double.POSITIVE_INFINITY;
+
+import com.google.common.annotations.GwtCompatible;
+import java.util.Arrays;
+import java.util.Random;
+import junit.framework.TestCase;
+
+/** Tests for {@link DoubleTopKSelector}. */
+@GwtCompatible(emulated = true)
+public class DoubleTopKSelectorTest extends TestCase {
+  private static final double[] SPECIAL_VALUES = {
+    0.0, -0.0, NaN, 1.5, -1.5, POSITIVE_INFINITY, NEGATIVE_INFINITY, Double.MIN_VALUE,
+    -Double.MIN_VALUE, Double.MAX_VALUE, -Double.MAX_VALUE
+  };
+
+  public void testLeast_specialValues() {
+    DoubleTopKSelector top = DoubleTopKSelector.least(SPECIAL_VALUES.length);
+    top.offerAll(SPECIAL_VALUES);
+    double[] expected = SPECIAL_VALUES.clone();
+    Arrays.sort(expected); // sorts as Double.compare does
+    assertEquals(ImmutableDoubleArray.copyOf(expected), top.topK());
+  }
+
+  public void testGreatest_specialValues() {
+    DoubleTopKSelector top = DoubleTopKSelector.greatest(4);
+    top.offerAll(SPECIAL_VALUES);
+    assertEquals(
+        ImmutableDoubleArray.of(NaN, POSITIVE_INFINITY, Double.MAX_VALUE, 1.5), top.topK());
+  }
+
+  public void testZeros() {
+    DoubleTopKSelector top = DoubleTopKSelector.least(1);
+    top.offerAll(0.0, -0.0, 0.0);
+    assertEquals(ImmutableDoubleArray.of(-0.0), top.topK());
+  }
+
+  public void testCombine() {
+    DoubleTopKSelector top = DoubleTopKSelector.greatest(2);
+    top.offerAll(0.5, -3.0);
+    DoubleTopKSelector other = DoubleTopKSelector.greatest(2);
+    other.offerAll(0.25, 2.0, -1.0);
+    assertEquals(ImmutableDoubleArray.of(2.0, 0.5), top.combine(other).topK());
+    try {
+      top.combine(DoubleTopKSelector.greatest(3));
+      fail();
+    } catch (IllegalArgumentException expected) {
+    }
+  }
+
+  public void testRandomMatchesSort() {
+    Random random = new Random(0);
+    DoubleTopKSelector top = DoubleTopKSelector.least(100);
+    double[] values = new double[10000];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = random.nextGaussian();
+      top.offer(values[i]);
+    }
+    Arrays.sort(values);
+    assertEquals(ImmutableDoubleArray.copyOf(Arrays.copyOf(values, 100)), top.topK());
+  }
+}
@@ -0,0 +1,270 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.common.primitives;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.annotations.GwtCompatible;
+import com.google.common.annotations.GwtIncompatible;
+import com.google.common.collect.testing.ListTestSuiteBuilder;
+import com.google.common.collect.testing.features.CollectionFeature;
+import com.google.common.collect.testing.features.CollectionSize;
+import com.google.common.collect.testing.features.ListFeature;
+import com.google.common.primitives.ImmutableIntArrayTest.TestIntegerListGenerator;
+import com.google.common.testing.EqualsTester;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.IntStream;
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+/** Tests for {@link IntArrayList}. */
+@GwtCompatible(emulated = true)
+public class IntArrayListTest extends TestCase {
+
+  public void testEmpty() {
+    IntArrayList list = IntArrayList.create();
+    assertTrue(list.isEmpty());
+    assertEquals(0, list.size());
+    assertEquals(-1, list.indexOf(0));
+    assertEquals("[]", list.toString());
+    assertEquals(0, list.toArray().length);
+    assertSame(ImmutableIntArray.of(), list.toImmutableArray());
+  }
+
+  public void testAddAndGet() {
+    IntArrayList list = IntArrayList.createWithExpectedSize(0);
+    for (int i = 0; i < 100; i++) {
+      list.add(i * 2);
+    }
+    assertEquals(100, list.size());
+    assertEquals(0, list.get(0));
+    assertEquals(198, list.get(99));
+    try {
+      list.get(100);
+      fail();
+    } catch (IndexOutOfBoundsException expected) {
+    }
+    try {
+      list.get(-1);
+      fail();
+    } catch (IndexOutOfBoundsException expected) {
+    }
+  }
+
+  public void testCreateWithExpectedSize_negative() {
+    try {
+      IntArrayList.createWithExpectedSize(-1);
+      fail();
+    } catch (IllegalArgumentException expected) {
+    }
+  }
+
+  public void testSet() {
+    IntArrayList list = IntArrayList.copyOf(1, 2, 3);
+    assertEquals(2, list.set(1, 20));
+    assertEquals("[1, 20, 3]", list.toString());
+    try {
+      list.set(3, 0);
+      fail();
+    } catch (IndexOutOfBoundsException expected) {
+    }
+  }
+
+  public void testInsert() {
+    IntArrayList list = IntArrayList.copyOf(1, 3);
+    list.insert(1, 2);
+    list.insert(0, 0);
+    list.insert(4, 4);
+    assertEquals("[0, 1, 2, 3, 4]", list.toString());
+    try {
+      list.insert(6, 0);
+      fail();
+    } catch (IndexOutOfBoundsException expected) {
+    }
+  }
+
+  public void testRemove() {
+    IntArrayList list = IntArrayList.copyOf(0, 1, 2, 3, 4, 5);
+    assertEquals(2, list.removeAt(2));
+    assertEquals("[0, 1, 3, 4, 5]", list.toString());
+    list.removeRange(1, 3);
+    assertEquals("[0, 4, 5]", list.toString());
+    list.removeRange(1, 1);
+    assertEquals(3, list.size());
+    try {
+      list.removeAt(3);
+      fail();
+    } catch (IndexOutOfBoundsException expected) {
+    }
+    list.clear();
+    assertTrue(list.isEmpty());
+  }
+
+  public void testAddAll() {
+    IntArrayList list = IntArrayList.create();
+    list.addAll(new int[] {1, 2});
+    list.addAll(ImmutableIntArray.of(3, 4).subArray(1, 2));
+    list.addAll(IntStream.range(5, 7));
+    list.addAll(IntStream.range(7, 20).filter(i -> i < 8));
+    list.addAll(list);
+    assertEquals("[1, 2, 4, 5, 6, 7, 1, 2, 4, 5, 6, 7]", list.toString());
+  }
+
+  public void testSearchAndSort() {
+    IntArrayList list = IntArrayList.copyOf(5, 3, 9, 3, 1);
+    assertEquals(1, list.indexOf(3));
+    assertEquals(3, list.lastIndexOf(3));
+    assertTrue(list.contains(9));
+    assertFalse(list.contains(4));
+    list.sort(0, 3);
+    assertEquals("[3, 5, 9, 3, 1]", list.toString());
+    list.sort();
+    assertEquals("[1, 3, 3, 5, 9]", list.toString());
+    assertEquals(3, list.binarySearch(5));
+    assertEquals(-5, list.binarySearch(6));
+  }
+
+  public void testBinarySearch_ignoresSpareCapacity() {
+    IntArrayList list = IntArrayList.createWithExpectedSize(10);
+    list.add(1);
+    list.add(2);
+    assertEquals(-3, list.binarySearch(3));
+    assertEquals(-1, list.binarySearch(0));
+  }
+
+  public void testToImmutableArray_sharesArray() {
+    IntArrayList list = IntArrayList.copyOf(1, 2, 3);
+    ImmutableIntArray snapshot = list.toImmutableArray();
+    assertEquals(ImmutableIntArray.of(1, 2, 3), snapshot);
+
+    // appending doesn't disturb the snapshot
+    list.add(4);
+    assertEquals(ImmutableIntArray.of(1, 2, 3), snapshot);
+    assertEquals(ImmutableIntArray.of(1, 2, 3, 4), list.toImmutableArray());
+  }
+
+  public void testToImmutableArray_copyOnWrite() {
+    IntArrayList list = IntArrayList.copyOf(3, 2, 1);
+    ImmutableIntArray snapshot = list.toImmutableArray();
+    list.set(0, 10);
+    list.sort();
+    list.removeAt(0);
+    list.insert(0, 7);
+    list.clear();
+    list.add(42);
+    assertEquals(ImmutableIntArray.of(3, 2, 1), snapshot);
+    assertEquals("[42]", list.toString());
+  }
+
+  public void testToImmutableArray_copyOnClear() {
+    IntArrayList list = IntArrayList.copyOf(1, 2);
+    ImmutableIntArray snapshot = list.toImmutableArray();
+    list.clear();
+    list.addAll(new int[] {5, 6});
+    assertEquals(ImmutableIntArray.of(1, 2), snapshot);
+    assertEquals(ImmutableIntArray.of(5, 6), list.toImmutableArray());
+  }
+
+  public void testAsList() {
+    IntArrayList list = IntArrayList.copyOf(1, 2, 3);
+    List<Integer> view = list.asList();
+    assertEquals(Arrays.asList(1, 2, 3), view);
+    view.add(4);
+    view.remove(0);
+    view.set(0, 20);
+    assertEquals("[20, 3, 4]", list.toString());
+    list.add(5);
+    assertEquals(Arrays.asList(20, 3, 4, 5), view);
+    for (Iterator<Integer> it = view.iterator(); it.hasNext(); ) {
+      if (it.next() % 2 == 0) {
+        it.remove();
+      }
+    }
+    assertEquals("[3, 5]", list.toString());
+    view.subList(0, 1).clear();
+    assertEquals("[5]", list.toString());
+    assertEquals(list.hashCode(), view.hashCode());
+    try {
+      view.add(null);
+      fail();
+    } catch (NullPointerException expected) {
+    }
+  }
+
+  public void testTrimAndEnsureCapacity() {
+    IntArrayList list = IntArrayList.create();
+    list.ensureCapacity(1000);
+    for (int i = 0; i < 5; i++) {
+      list.add(i);
+    }
+    list.trimToSize();
+    list.add(5);
+    assertEquals("[0, 1, 2, 3, 4, 5]", list.toString());
+  }
+
+  public void testEqualsAndHashCode() {
+    IntArrayList withCapacity = IntArrayList.createWithExpectedSize(100);
+    withCapacity.add(1);
+    withCapacity.add(2);
+    new EqualsTester()
+        .addEqualityGroup(IntArrayList.create(), IntArrayList.copyOf())
+        .addEqualityGroup(IntArrayList.copyOf(1, 2), withCapacity)
+        .addEqualityGroup(IntArrayList.copyOf(2, 1))
+        .testEquals();
+    assertEquals(Arrays.asList(1, 2).hashCode(), withCapacity.hashCode());
+  }
+
+  public void testStream() {
+    IntArrayList list = IntArrayList.copyOf(1, 2, 3);
+    list.add(4);
+    assertEquals(10, list.stream().sum());
+    int[] sum = new int[1];
+    list.forEach(value -> sum[0] += value);
+    assertEquals(10, sum[0]);
+    assertThat(list.toArray()).isEqualTo(new int[] {1, 2, 3, 4});
+  }
+
+  @GwtIncompatible // suite
+  public static Test suite() {
+    TestSuite suite = new TestSuite();
+    suite.addTest(
+        ListTestSuiteBuilder.using(new IntArrayListAsListGenerator())
+            .named("IntArrayList.asList")
+            .withFeatures(
+                CollectionSize.ANY,
+                CollectionFeature.ALLOWS_NULL_QUERIES,
+                CollectionFeature.RESTRICTS_ELEMENTS,
+                CollectionFeature.KNOWN_ORDER,
+                ListFeature.GENERAL_PURPOSE)
+            .createTestSuite());
+    suite.addTestSuite(IntArrayListTest.class);
+    return suite;
+  }
+
+  @GwtIncompatible // used only from suite
+  public static final class IntArrayListAsListGenerator extends TestIntegerListGenerator {
+    @Override
+    protected List<Integer> create(Integer[] elements) {
+      IntArrayList list = IntArrayList.createWithExpectedSize(0);
+      for (Integer element : elements) {
+        list.add(element);
+      }
+      return list.asList();
+    }
+  }
+}
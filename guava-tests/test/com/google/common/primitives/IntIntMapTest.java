@@ -0,0 +1,249 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.common.primitives;
+
+import static com.google.common.primitives.TestPlatform.reduceIterationsIfGwt;
+
+import com.google.common.annotations.GwtCompatible;
+import com.google.common.testing.EqualsTester;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import junit.framework.TestCase;
+
+/** Tests for {@link IntIntMap}. */
+@GwtCompatible(emulated = true)
+public class IntIntMapTest extends TestCase {
+
+  public void testEmpty() {
+    IntIntMap map = IntIntMap.create();
+    assertTrue(map.isEmpty());
+    assertEquals(0, map.size());
+    assertFalse(map.containsKey(0));
+    assertFalse(map.containsKey(1));
+    assertEquals(0, map.get(1));
+    assertEquals(-1, map.getOrDefault(1, -1));
+    assertEquals(0, map.remove(1));
+    assertFalse(map.cursor().advance());
+    assertEquals("{}", map.toString());
+  }
+
+  public void testPutAndGet() {
+    IntIntMap map = IntIntMap.create();
+    assertEquals(0, map.put(1, 10));
+    assertEquals(0, map.put(-1, 20));
+    assertEquals(10, map.put(1, 11));
+    assertEquals(2, map.size());
+    assertEquals(11, map.get(1));
+    assertEquals(20, map.get(-1));
+    assertTrue(map.containsKey(-1));
+    assertFalse(map.containsKey(2));
+  }
+
+  public void testZeroKey() {
+    IntIntMap map = IntIntMap.create();
+    map.put(0, 0);
+    assertTrue(map.containsKey(0));
+    assertEquals(1, map.size());
+    assertEquals(0, map.getOrDefault(0, -1));
+    assertEquals(5, map.addAndGet(0, 5));
+    assertEquals("{0=5}", map.toString());
+    assertEquals(5, map.remove(0));
+    assertFalse(map.containsKey(0));
+    assertTrue(map.isEmpty());
+  }
+
+  public void testZeroKeySurvivesGrowth() {
+    IntIntMap map = IntIntMap.create();
+    map.put(0, 42);
+    for (int i = 1; i <= 1000; i++) {
+      map.put(i, i);
+    }
+    assertEquals(1001, map.size());
+    assertEquals(42, map.get(0));
+  }
+
+  public void testAddAndGet() {
+    IntIntMap map = IntIntMap.create();
+    assertEquals(3, map.addAndGet(7, 3));
+    assertEquals(5, map.addAndGet(7, 2));
+    assertEquals(5, map.getAndAdd(7, -5));
+    assertEquals(0, map.get(7));
+    assertTrue(map.containsKey(7));
+    assertEquals(0, map.getAndAdd(8, 1));
+    assertEquals(1, map.get(8));
+  }
+
+  public void testCreateWithExpectedSize() {
+    IntIntMap map = IntIntMap.createWithExpectedSize(100, 0.25f);
+    for (int i = 1; i <= 100; i++) {
+      map.put(i, -i);
+    }
+    for (int i = 1; i <= 100; i++) {
+      assertEquals(-i, map.get(i));
+    }
+    assertEquals(100, map.size());
+  }
+
+  public void testCreateWithExpectedSize_invalid() {
+    try {
+      IntIntMap.createWithExpectedSize(-1);
+      fail();
+    } catch (IllegalArgumentException expected) {
+    }
+    try {
+      IntIntMap.createWithExpectedSize(10, 0);
+      fail();
+    } catch (IllegalArgumentException expected) {
+    }
+    try {
+      IntIntMap.createWithExpectedSize(10, 1);
+      fail();
+    } catch (IllegalArgumentException expected) {
+    }
+  }
+
+  public void testClear() {
+    IntIntMap map = IntIntMap.create();
+    for (int i = 0; i < 100; i++) {
+      map.put(i, i);
+    }
+    map.clear();
+    assertTrue(map.isEmpty());
+    assertFalse(map.containsKey(0));
+    assertFalse(map.containsKey(50));
+    map.put(50, 1);
+    assertEquals(1, map.get(50));
+  }
+
+  public void testCursor() {
+    IntIntMap map = IntIntMap.create();
+    Map<Integer, Integer> expected = new HashMap<>();
+    for (int i = -10; i <= 10; i++) {
+      map.put(i, i * i);
+      expected.put(i, i * i);
+    }
+    Map<Integer, Integer> actual = new HashMap<>();
+    for (IntIntMap.Cursor cursor = map.cursor(); cursor.advance(); ) {
+      assertNull(actual.put(cursor.key(), cursor.value()));
+      cursor.setValue(cursor.value() + 1);
+    }
+    assertEquals(expected, actual);
+    assertEquals(101, map.get(10));
+    assertEquals(1, map.get(0));
+  }
+
+  public void testCursor_noCurrentEntry() {
+    IntIntMap map = IntIntMap.create();
+    map.put(1, 1);
+    IntIntMap.Cursor cursor = map.cursor();
+    try {
+      cursor.key();
+      fail();
+    } catch (NoSuchElementException expected) {
+    }
+    assertTrue(cursor.advance());
+    assertFalse(cursor.advance());
+    assertFalse(cursor.advance());
+    try {
+      cursor.value();
+      fail();
+    } catch (NoSuchElementException expected) {
+    }
+  }
+
+  public void testCursor_concurrentModification() {
+    IntIntMap map = IntIntMap.create();
+    map.put(1, 1);
+    map.put(2, 2);
+    IntIntMap.Cursor cursor = map.cursor();
+    assertTrue(cursor.advance());
+    map.put(1, 3); // not a structural modification
+    cursor.value();
+    map.put(3, 3);
+    try {
+      cursor.advance();
+      fail();
+    } catch (ConcurrentModificationException expected) {
+    }
+  }
+
+  public void testEqualsAndHashCode() {
+    IntIntMap a = IntIntMap.create();
+    a.put(1, 2);
+    a.put(0, 3);
+    IntIntMap b = IntIntMap.createWithExpectedSize(100);
+    b.put(0, 3);
+    b.put(1, 2);
+    IntIntMap c = IntIntMap.create();
+    c.put(1, 2);
+    c.put(0, 4);
+    new EqualsTester()
+        .addEqualityGroup(IntIntMap.create(), IntIntMap.createWithExpectedSize(10))
+        .addEqualityGroup(a, b)
+        .addEqualityGroup(c)
+        .testEquals();
+
+    Map<Integer, Integer> expected = new HashMap<>();
+    expected.put(1, 2);
+    expected.put(0, 3);
+    assertEquals(expected.hashCode(), a.hashCode());
+  }
+
+  public void testToString() {
+    IntIntMap map = IntIntMap.create();
+    map.put(-5, 7);
+    assertEquals("{-5=7}", map.toString());
+    map.put(3, 1);
+    String string = map.toString();
+    assertTrue(string, string.equals("{-5=7, 3=1}") || string.equals("{3=1, -5=7}"));
+  }
+
+  /** Checks the map against a {@link HashMap} through random operations on a small key range. */
+  public void testRandomOperations() {
+    Random random = new Random(0);
+    for (float loadFactor : new float[] {0.1f, 0.5f, 0.75f, 0.99f}) {
+      IntIntMap map = IntIntMap.createWithExpectedSize(0, loadFactor);
+      Map<Integer, Integer> expected = new HashMap<>();
+      for (int i = 0; i < reduceIterationsIfGwt(20_000); i++) {
+        int key = random.nextInt(200) - 100;
+        int value = random.nextInt();
+        switch (random.nextInt(4)) {
+          case 0:
+          case 1:
+            assertEquals(orZero(expected.put(key, value)), map.put(key, value));
+            break;
+          case 2:
+            assertEquals(orZero(expected.remove(key)), map.remove(key));
+            break;
+          default:
+            assertEquals(expected.containsKey(key), map.containsKey(key));
+            assertEquals(orZero(expected.get(key)), map.get(key));
+        }
+        assertEquals(expected.size(), map.size());
+      }
+      for (Map.Entry<Integer, Integer> entry : expected.entrySet()) {
+        assertEquals((int) entry.getValue(), map.get(entry.getKey()));
+      }
+      assertEquals(expected.hashCode(), map.hashCode());
+    }
+  }
+
+  private static int orZero(Integer value) {
+    return (value == null) ? 0 : value;
+  }
+}
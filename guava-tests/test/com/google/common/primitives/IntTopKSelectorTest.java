@@ -0,0 +1,159 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.common.primitives;
+
+import com.google.common.annotations.GwtCompatible;
+import com.google.common.annotations.GwtIncompatible;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+import junit.framework.TestCase;
+
+/** Tests for {@link IntTopKSelector}. */
+@GwtCompatible(emulated = true)
+public class IntTopKSelectorTest extends TestCase {
+
+  public void testNegativeK() {
+    try {
+      IntTopKSelector.least(-1);
+      fail();
+    } catch (IllegalArgumentException expected) {
+    }
+    try {
+      IntTopKSelector.greatest(-1);
+      fail();
+    } catch (IllegalArgumentException expected) {
+    }
+  }
+
+  public void testZeroK() {
+    IntTopKSelector top = IntTopKSelector.least(0);
+    top.offerAll(3, Integer.MIN_VALUE, 1);
+    assertEquals(ImmutableIntArray.of(), top.topK());
+  }
+
+  public void testOfferedFewerThanK() {
+    IntTopKSelector top = IntTopKSelector.least(10);
+    top.offerAll(3, 5, 2);
+    assertEquals(ImmutableIntArray.of(2, 3, 5), top.topK());
+  }
+
+  public void testLeast() {
+    IntTopKSelector top = IntTopKSelector.least(3);
+    top.offerAll(5, Integer.MAX_VALUE, 2, 8, Integer.MIN_VALUE, 2, 9, 0);
+    assertEquals(ImmutableIntArray.of(Integer.MIN_VALUE, 0, 2), top.topK());
+  }
+
+  public void testGreatest() {
+    IntTopKSelector top = IntTopKSelector.greatest(3);
+    top.offerAll(5, Integer.MIN_VALUE, 2, 8, Integer.MAX_VALUE, 8, 9, 0);
+    assertEquals(ImmutableIntArray.of(Integer.MAX_VALUE, 9, 8), top.topK());
+  }
+
+  public void testTopK_canContinueOffering() {
+    IntTopKSelector top = IntTopKSelector.least(2);
+    top.offerAll(4, 3, 2, 1);
+    assertEquals(ImmutableIntArray.of(1, 2), top.topK());
+    top.offer(0);
+    top.offer(5);
+    assertEquals(ImmutableIntArray.of(0, 1), top.topK());
+  }
+
+  public void testWorstCase() {
+    IntTopKSelector top = IntTopKSelector.least(1000);
+    top.offer(1);
+    for (int i = 1; i < 100000; i++) {
+      top.offer(0);
+    }
+    int[] expected = new int[1000];
+    assertEquals(ImmutableIntArray.copyOf(expected), top.topK());
+  }
+
+  public void testCombine() {
+    IntTopKSelector top = IntTopKSelector.greatest(3);
+    top.offerAll(1, 7, 3, 9);
+    IntTopKSelector other = IntTopKSelector.greatest(3);
+    other.offerAll(8, 2, 10);
+    assertEquals(ImmutableIntArray.of(10, 9, 8), top.combine(other).topK());
+    assertEquals(ImmutableIntArray.of(10, 8, 2), other.topK());
+  }
+
+  public void testCombine_leastWithGreatest() {
+    try {
+      IntTopKSelector.least(3).combine(IntTopKSelector.greatest(3));
+      fail();
+    } catch (IllegalArgumentException expected) {
+    }
+  }
+
+  public void testCombine_differentK() {
+    IntTopKSelector other = IntTopKSelector.least(1);
+    other.offerAll(5, 6, 7);
+    try {
+      IntTopKSelector.least(3).combine(other);
+      fail();
+    } catch (IllegalArgumentException expected) {
+    }
+  }
+
+  public void testRandomMatchesSort() {
+    Random random = new Random(0);
+    for (int k : new int[] {0, 1, 2, 10, 100}) {
+      IntTopKSelector least = IntTopKSelector.least(k);
+      IntTopKSelector greatest = IntTopKSelector.greatest(k);
+      IntArrayList all = IntArrayList.create();
+      for (int i = 0; i < 20; i++) {
+        IntTopKSelector leastPart = IntTopKSelector.least(k);
+        IntTopKSelector greatestPart = IntTopKSelector.greatest(k);
+        for (int j = random.nextInt(3 * k + 2); j > 0; j--) {
+          int value = random.nextInt();
+          leastPart.offer(value);
+          greatestPart.offer(value);
+          all.add(value);
+        }
+        least.combine(leastPart);
+        greatest.combine(greatestPart);
+        int value = random.nextInt();
+        least.offer(value);
+        greatest.offer(value);
+        all.add(value);
+      }
+      int[] sorted = all.toArray();
+      Arrays.sort(sorted);
+      assertEquals(ImmutableIntArray.copyOf(Arrays.copyOf(sorted, k)), least.topK());
+      ImmutableIntArray expectedGreatest =
+          ImmutableIntArray.copyOf(
+              IntStream.range(0, k).map(i -> sorted[sorted.length - 1 - i]).toArray());
+      assertEquals(expectedGreatest, greatest.topK());
+    }
+  }
+
+  @GwtIncompatible // parallel streams
+  public void testParallelStream() {
+    int[] values = new Random(1).ints(100000).toArray();
+    ImmutableIntArray top =
+        IntStream.of(values)
+            .parallel()
+            .collect(
+                () -> IntTopKSelector.greatest(50),
+                IntTopKSelector::offer,
+                IntTopKSelector::combine)
+            .topK();
+    Arrays.sort(values);
+    for (int i = 0; i < 50; i++) {
+      assertEquals(values[values.length - 1 - i], top.get(i));
+    }
+  }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.common.primitives;
+
+import com.google.common.annotations.GwtCompatible;
+import com.google.common.testing.EqualsTester;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.LongStream;
+import junit.framework.TestCase;
+
+/** Tests for {@link LongArrayList}. */
+@GwtCompatible(emulated = true)
+public class LongArrayListTest extends TestCase {
+
+  public void testBasicOperations() {
+    LongArrayList list = LongArrayList.create();
+    list.add(Long.MAX_VALUE);
+    list.addAll(new long[] {3, 1});
+    list.addAll(LongStream.of(2));
+    list.addAll(ImmutableLongArray.of(Long.MIN_VALUE));
+    list.insert(0, 0);
+    assertEquals(6, list.size());
+    assertEquals(Long.MAX_VALUE, list.set(1, 4));
+    assertEquals(3, list.removeAt(2));
+    assertEquals("[0, 4, 1, 2, " + Long.MIN_VALUE + "]", list.toString());
+    list.sort();
+    assertEquals("[" + Long.MIN_VALUE + ", 0, 1, 2, 4]", list.toString());
+    assertEquals(3, list.binarySearch(2));
+    assertEquals(4, list.indexOf(4));
+    assertFalse(list.contains(3));
+  }
+
+  public void testToImmutableArray_copyOnWrite() {
+    LongArrayList list = LongArrayList.copyOf(3, 2, 1);
+    ImmutableLongArray snapshot = list.toImmutableArray();
+    list.add(0);
+    assertEquals(ImmutableLongArray.of(3, 2, 1), snapshot);
+    list.sort();
+    assertEquals(ImmutableLongArray.of(3, 2, 1), snapshot);
+    assertEquals(ImmutableLongArray.of(0, 1, 2, 3), list.toImmutableArray());
+  }
+
+  public void testAsList() {
+    LongArrayList list = LongArrayList.copyOf(1, 2);
+    List<Long> view = list.asList();
+    view.add(3L);
+    view.remove(0);
+    assertEquals(Arrays.asList(2L, 3L), view);
+    assertEquals("[2, 3]", list.toString());
+    assertEquals(list.hashCode(), view.hashCode());
+    assertFalse(view.contains(2));
+  }
+
+  public void testEquals() {
+    new EqualsTester()
+        .addEqualityGroup(LongArrayList.create(), LongArrayList.createWithExpectedSize(5))
+        .addEqualityGroup(LongArrayList.copyOf(1, 2), LongArrayList.copyOf(1, 2))
+        .addEqualityGroup(LongArrayList.copyOf(1))
+        .testEquals();
+  }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.common.primitives;
+
+import static com.google.common.primitives.TestPlatform.reduceIterationsIfGwt;
+
+import com.google.common.annotations.GwtCompatible;
+import com.google.common.testing.EqualsTester;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import junit.framework.TestCase;
+
+/** Tests for {@link LongObjectMap}. */
+@GwtCompatible(emulated = true)
+public class LongObjectMapTest extends TestCase {
+
+  public void testEmpty() {
+    LongObjectMap<String> map = LongObjectMap.create();
+    assertTrue(map.isEmpty());
+    assertFalse(map.containsKey(0));
+    assertNull(map.get(1));
+    assertEquals("x", map.getOrDefault(1, "x"));
+    assertNull(map.remove(0));
+    assertNull(map.remove(1));
+    assertFalse(map.cursor().advance());
+    assertEquals("{}", map.toString());
+  }
+
+  public void testPutAndGet() {
+    LongObjectMap<String> map = LongObjectMap.create();
+    assertNull(map.put(Long.MAX_VALUE, "max"));
+    assertNull(map.put(Long.MIN_VALUE, "min"));
+    assertNull(map.put(0, "zero"));
+    assertEquals("max", map.put(Long.MAX_VALUE, "MAX"));
+    assertEquals(3, map.size());
+    assertEquals("MAX", map.get(Long.MAX_VALUE));
+    assertEquals("min", map.get(Long.MIN_VALUE));
+    assertEquals("zero", map.get(0));
+    assertTrue(map.containsKey(0));
+    assertEquals("zero", map.remove(0));
+    assertFalse(map.containsKey(0));
+    assertEquals(2, map.size());
+  }
+
+  public void testPut_nullValue() {
+    LongObjectMap<String> map = LongObjectMap.create();
+    try {
+      map.put(1, null);
+      fail();
+    } catch (NullPointerException expected) {
+    }
+    assertTrue(map.isEmpty());
+  }
+
+  public void testComputeIfAbsent() {
+    LongObjectMap<String> map = LongObjectMap.create();
+    assertEquals("5", map.computeIfAbsent(5, Long::toString));
+    assertEquals("5", map.computeIfAbsent(5, key -> "other"));
+    assertEquals(1, map.size());
+    try {
+      map.computeIfAbsent(6, key -> null);
+      fail();
+    } catch (NullPointerException expected) {
+    }
+    assertFalse(map.containsKey(6));
+  }
+
+  public void testComputeIfAbsent_functionModifiesMap() {
+    LongObjectMap<String> map = LongObjectMap.createWithExpectedSize(1);
+    assertEquals(
+        "outer",
+        map.computeIfAbsent(
+            1,
+            key -> {
+              for (long i = 2; i < 100; i++) {
+                map.put(i, "inner");
+              }
+              return "outer";
+            }));
+    assertEquals("outer", map.get(1));
+    assertEquals(99, map.size());
+  }
+
+  public void testCursor() {
+    LongObjectMap<String> map = LongObjectMap.create();
+    Map<Long, String> expected = new HashMap<>();
+    for (long i = -10; i <= 10; i++) {
+      map.put(i << 40, "v" + i);
+      expected.put(i << 40, "v" + i);
+    }
+    Map<Long, String> actual = new HashMap<>();
+    for (LongObjectMap<String>.Cursor cursor = map.cursor(); cursor.advance(); ) {
+      assertNull(actual.put(cursor.key(), cursor.value()));
+      cursor.setValue(cursor.value() + "!");
+    }
+    assertEquals(expected, actual);
+    assertEquals("v0!", map.get(0));
+
+    LongObjectMap<String>.Cursor cursor = map.cursor();
+    cursor.advance();
+    map.remove(1L << 40);
+    try {
+      cursor.key();
+      fail();
+    } catch (ConcurrentModificationException expected2) {
+    }
+  }
+
+  public void testEqualsAndHashCode() {
+    LongObjectMap<String> a = LongObjectMap.create();
+    a.put(1, "a");
+    a.put(0, "b");
+    LongObjectMap<String> b = LongObjectMap.createWithExpectedSize(100);
+    b.put(0, "b");
+    b.put(1, "a");
+    LongObjectMap<String> c = LongObjectMap.create();
+    c.put(1, "a");
+    new EqualsTester()
+        .addEqualityGroup(LongObjectMap.create())
+        .addEqualityGroup(a, b)
+        .addEqualityGroup(c)
+        .testEquals();
+
+    Map<Long, String> expected = new HashMap<>();
+    expected.put(1L, "a");
+    expected.put(0L, "b");
+    assertEquals(expected.hashCode(), a.hashCode());
+  }
+
+  public void testClear() {
+    LongObjectMap<String> map = LongObjectMap.create();
+    for (long i = 0; i < 100; i++) {
+      map.put(i, "x");
+    }
+    map.clear();
+    assertTrue(map.isEmpty());
+    assertNull(map.get(0));
+    assertNull(map.get(50));
+  }
+
+  /** Checks the map against a {@link HashMap} through random operations on a small key range. */
+  public void testRandomOperations() {
+    Random random = new Random(0);
+    for (float loadFactor : new float[] {0.1f, 0.5f, 0.75f, 0.99f}) {
+      LongObjectMap<Integer> map = LongObjectMap.createWithExpectedSize(0, loadFactor);
+      Map<Long, Integer> expected = new HashMap<>();
+      for (int i = 0; i < reduceIterationsIfGwt(20_000); i++) {
+        long key = (random.nextInt(200) - 100) * 0x1_0000_0001L;
+        Integer value = random.nextInt();
+        switch (random.nextInt(4)) {
+          case 0:
+          case 1:
+            assertEquals(expected.put(key, value), map.put(key, value));
+            break;
+          case 2:
+            assertEquals(expected.remove(key), map.remove(key));
+            break;
+          default:
+            assertEquals(expected.containsKey(key), map.containsKey(key));
+            assertEquals(expected.get(key), map.get(key));
+        }
+        assertEquals(expected.size(), map.size());
+      }
+      for (Map.Entry<Long, Integer> entry : expected.entrySet()) {
+        assertEquals(entry.getValue(), map.get(entry.getKey()));
+      }
+      assertEquals(expected.hashCode(), map.hashCode());
+    }
+  }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.common.primitives;
+
+import com.google.common.annotations.GwtCompatible;
+import java.util.Arrays;
+import java.util.Random;
+import junit.framework.TestCase;
+
+/** Tests for {@link LongTopKSelector}. */
+@GwtCompatible(emulated = true)
+public class LongTopKSelectorTest extends TestCase {
+
+  public void testLeast() {
+    LongTopKSelector top = LongTopKSelector.least(3);
+    top.offerAll(5, Long.MAX_VALUE, 2, 8, Long.MIN_VALUE, 2, 9, 0);
+    assertEquals(ImmutableLongArray.of(Long.MIN_VALUE, 0, 2), top.topK());
+  }
+
+  public void testGreatest() {
+    LongTopKSelector top = LongTopKSelector.greatest(3);
+    top.offerAll(5, Long.MIN_VALUE, 2, 8, Long.MAX_VALUE, 8, 9, 0);
+    assertEquals(ImmutableLongArray.of(Long.MAX_VALUE, 9, 8), top.topK());
+  }
+
+  public void testCombine() {
+    LongTopKSelector top = LongTopKSelector.least(2);
+    LongTopKSelector other = LongTopKSelector.least(2);
+    other.offerAll(4, 1, 3);
+    assertEquals(ImmutableLongArray.of(1, 3), top.combine(other).topK());
+    try {
+      top.combine(LongTopKSelector.greatest(2));
+      fail();
+    } catch (IllegalArgumentException expected) {
+    }
+    try {
+      top.combine(LongTopKSelector.least(1));
+      fail();
+    } catch (IllegalArgumentException expected) {
+    }
+  }
+
+  public void testRandomMatchesSort() {
+    Random random = new Random(0);
+    LongTopKSelector top = LongTopKSelector.greatest(100);
+    long[] values = new long[10000];
+    for (int i = 0; i < values.length; i += 1000) {
+      LongTopKSelector part = LongTopKSelector.greatest(100);
+      for (int j = i; j < i + 1000; j++) {
+        values[j] = random.nextLong();
+        part.offer(values[j]);
+      }
+      top.combine(part);
+    }
+    Arrays.sort(values);
+    ImmutableLongArray topK = top.topK();
+    for (int i = 0; i < 100; i++) {
+      assertEquals(values[values.length - 1 - i], topK.get(i));
+    }
+  }
+}
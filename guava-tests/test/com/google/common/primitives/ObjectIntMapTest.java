@@ -0,0 +1,176 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.common.primitives;
+
+import static com.google.common.primitives.TestPlatform.reduceIterationsIfGwt;
+
+import com.google.common.annotations.GwtCompatible;
+import com.google.common.testing.EqualsTester;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import junit.framework.TestCase;
+
+/** Tests for {@link ObjectIntMap}. */
+@GwtCompatible(emulated = true)
+public class ObjectIntMapTest extends TestCase {
+
+  public void testEmpty() {
+    ObjectIntMap<String> map = ObjectIntMap.create();
+    assertTrue(map.isEmpty());
+    assertFalse(map.containsKey("a"));
+    assertFalse(map.containsKey(null));
+    assertEquals(0, map.get("a"));
+    assertEquals(0, map.get(null));
+    assertEquals(-1, map.getOrDefault("a", -1));
+    assertEquals(0, map.remove("a"));
+    assertFalse(map.cursor().advance());
+    assertEquals("{}", map.toString());
+  }
+
+  public void testPutAndGet() {
+    ObjectIntMap<String> map = ObjectIntMap.create();
+    assertEquals(0, map.put("a", 1));
+    assertEquals(0, map.put("b", 0));
+    assertEquals(1, map.put("a", 2));
+    assertEquals(2, map.size());
+    assertEquals(2, map.get("a"));
+    assertTrue(map.containsKey("b"));
+    assertEquals(0, map.getOrDefault("b", -1));
+    assertEquals(2, map.remove("a"));
+    assertFalse(map.containsKey("a"));
+    assertEquals("{b=0}", map.toString());
+  }
+
+  public void testPut_nullKey() {
+    ObjectIntMap<String> map = ObjectIntMap.create();
+    try {
+      map.put(null, 1);
+      fail();
+    } catch (NullPointerException expected) {
+    }
+    try {
+      map.addAndGet(null, 1);
+      fail();
+    } catch (NullPointerException expected) {
+    }
+  }
+
+  public void testCounting() {
+    ObjectIntMap<String> map = ObjectIntMap.create();
+    for (String word : "the quick brown fox jumps over the lazy dog the end".split(" ")) {
+      map.addAndGet(word, 1);
+    }
+    assertEquals(3, map.get("the"));
+    assertEquals(1, map.get("fox"));
+    assertEquals(9, map.size());
+    assertEquals(3, map.getAndAdd("the", -3));
+    assertEquals(0, map.get("the"));
+    assertTrue(map.containsKey("the"));
+  }
+
+  public void testCursor() {
+    ObjectIntMap<String> map = ObjectIntMap.create();
+    Map<String, Integer> expected = new HashMap<>();
+    for (int i = 0; i < 50; i++) {
+      map.put("k" + i, i);
+      expected.put("k" + i, i);
+    }
+    Map<String, Integer> actual = new HashMap<>();
+    for (ObjectIntMap<String>.Cursor cursor = map.cursor(); cursor.advance(); ) {
+      assertNull(actual.put(cursor.key(), cursor.value()));
+      cursor.setValue(-cursor.value());
+    }
+    assertEquals(expected, actual);
+    assertEquals(-49, map.get("k49"));
+
+    ObjectIntMap<String>.Cursor cursor = map.cursor();
+    cursor.advance();
+    map.remove("k1");
+    try {
+      cursor.advance();
+      fail();
+    } catch (ConcurrentModificationException expected2) {
+    }
+  }
+
+  public void testEqualsAndHashCode() {
+    ObjectIntMap<String> a = ObjectIntMap.create();
+    a.put("a", 1);
+    a.put("b", 2);
+    ObjectIntMap<String> b = ObjectIntMap.createWithExpectedSize(100);
+    b.put("b", 2);
+    b.put("a", 1);
+    ObjectIntMap<String> c = ObjectIntMap.create();
+    c.put("a", 1);
+    c.put("b", 3);
+    new EqualsTester()
+        .addEqualityGroup(ObjectIntMap.create())
+        .addEqualityGroup(a, b)
+        .addEqualityGroup(c)
+        .testEquals();
+
+    Map<String, Integer> expected = new HashMap<>();
+    expected.put("a", 1);
+    expected.put("b", 2);
+    assertEquals(expected.hashCode(), a.hashCode());
+  }
+
+  public void testClear() {
+    ObjectIntMap<Integer> map = ObjectIntMap.create();
+    for (int i = 0; i < 100; i++) {
+      map.put(i, i);
+    }
+    map.clear();
+    assertTrue(map.isEmpty());
+    assertFalse(map.containsKey(50));
+  }
+
+  /** Checks the map against a {@link HashMap} through random operations on a small key range. */
+  public void testRandomOperations() {
+    Random random = new Random(0);
+    for (float loadFactor : new float[] {0.1f, 0.5f, 0.75f, 0.99f}) {
+      ObjectIntMap<Integer> map = ObjectIntMap.createWithExpectedSize(0, loadFactor);
+      Map<Integer, Integer> expected = new HashMap<>();
+      for (int i = 0; i < reduceIterationsIfGwt(20_000); i++) {
+        // multiples of 1024 collide in the low bits of their hash codes before smearing
+        Integer key = (random.nextInt(200) - 100) * 1024;
+        int value = random.nextInt();
+        switch (random.nextInt(4)) {
+          case 0:
+          case 1:
+            assertEquals(orZero(expected.put(key, value)), map.put(key, value));
+            break;
+          case 2:
+            assertEquals(orZero(expected.remove(key)), map.remove(key));
+            break;
+          default:
+            assertEquals(expected.containsKey(key), map.containsKey(key));
+            assertEquals(orZero(expected.get(key)), map.get(key));
+        }
+        assertEquals(expected.size(), map.size());
+      }
+      for (Map.Entry<Integer, Integer> entry : expected.entrySet()) {
+        assertEquals((int) entry.getValue(), map.get(entry.getKey()));
+      }
+      assertEquals(expected.hashCode(), map.hashCode());
+    }
+  }
+
+  private static int orZero(Integer value) {
+    return (value == null) ? 0 : value;
+  }
+}
@@ -22,6 +22,7 @@ import java.util.Map.Entry;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
+import javax.annotation.CheckForNull;
 
 /**
  * This class provides a skeletal implementation of the {@code Cache} interface to minimize the
@@ -187,6 +188,53 @@ public abstract class AbstractCache<K, V> implements Cache<K, V> {
      */
     void recordEviction();
 
+    /**
+     * Records that a newly added entry was evicted by the cache's admission policy rather than
+     * being admitted into the main region of the cache. This is called in addition to {@link
+     * #recordEviction} and only by caches using {@link EvictionPolicy#WINDOW_TINY_LFU}.
+     *
+     * <p>The default implementation does nothing.
+     *
+     * @since NEXT
+     */
+    default void recordAdmissionRejection() {}
+
+    /**
+     * Records the time taken by a cache request that returned a cached value. This is called in
+     * addition to {@link #recordHits}, and only by caches that were built with {@link
+     * CacheBuilder#recordHitLatencies}.
+     *
+     * <p>The default implementation does nothing.
+     *
+     * @param latency the number of nanoseconds the request took
+     * @since NEXT
+     */
+    @SuppressWarnings("GoodTime") // should accept a java.time.Duration
+    default void recordHitLatency(long latency) {}
+
+    /**
+     * Records cache requests that were answered by a cached negative result. This is called
+     * instead of {@link #recordHits} or {@link #recordMisses}, and only by caches that were built
+     * with {@link CacheBuilder#cacheNegativeResults}.
+     *
+     * <p>The default implementation does nothing.
+     *
+     * @param count the number of requests to record
+     * @since NEXT
+     */
+    default void recordNegativeHits(int count) {}
+
+    /**
+     * Records that a load found no value, and that this was cached as a negative result. This is
+     * called in addition to {@link #recordLoadException}, and only by caches that were built with
+     * {@link CacheBuilder#cacheNegativeResults}.
+     *
+     * <p>The default implementation does nothing.
+     *
+     * @since NEXT
+     */
+    default void recordNegativeLoad() {}
+
     /**
      * Returns a snapshot of this counter's values. Note that this may be an inconsistent view, as
      * it may be interleaved with update operations.
@@ -206,9 +254,34 @@ public abstract class AbstractCache<K, V> implements Cache<K, V> {
     private final LongAddable loadExceptionCount = LongAddables.create();
     private final LongAddable totalLoadTime = LongAddables.create();
     private final LongAddable evictionCount = LongAddables.create();
+    private final LongAddable admissionRejectionCount = LongAddables.create();
+    private final LongAddable negativeHitCount = LongAddables.create();
+    private final LongAddable negativeLoadCount = LongAddables.create();
+    @CheckForNull private final LatencyRecorder loadLatencies;
+    @CheckForNull private final LatencyRecorder hitLatencies;
 
     /** Constructs an instance with all counts initialized to zero. */
-    public SimpleStatsCounter() {}
+    public SimpleStatsCounter() {
+      this.loadLatencies = null;
+      this.hitLatencies = null;
+    }
+
+    private SimpleStatsCounter(LatencyRecorder loadLatencies, LatencyRecorder hitLatencies) {
+      this.loadLatencies = loadLatencies;
+      this.hitLatencies = hitLatencies;
+    }
+
+    /**
+     * Returns an instance with all counts initialized to zero, which also records the latency of
+     * each load and hit into the histograms of {@link CacheStats#loadLatencies} and {@link
+     * CacheStats#hitLatencies}. Recording a latency costs about as much as incrementing a count,
+     * and memory for the histograms is only allocated for the ranges of latencies that occur.
+     *
+     * @since NEXT
+     */
+    public static SimpleStatsCounter withLatencyHistograms() {
+      return new SimpleStatsCounter(new LatencyRecorder(), new LatencyRecorder());
+    }
 
     /** @since 11.0 */
     @Override
@@ -227,6 +300,9 @@ public abstract class AbstractCache<K, V> implements Cache<K, V> {
     public void recordLoadSuccess(long loadTime) {
       loadSuccessCount.increment();
       totalLoadTime.add(loadTime);
+      if (loadLatencies != null) {
+        loadLatencies.record(loadTime);
+      }
     }
 
     @SuppressWarnings("GoodTime") // b/122668874
@@ -234,6 +310,9 @@ public abstract class AbstractCache<K, V> implements Cache<K, V> {
     public void recordLoadException(long loadTime) {
       loadExceptionCount.increment();
       totalLoadTime.add(loadTime);
+      if (loadLatencies != null) {
+        loadLatencies.record(loadTime);
+      }
     }
 
     @Override
@@ -241,6 +320,33 @@ public abstract class AbstractCache<K, V> implements Cache<K, V> {
       evictionCount.increment();
     }
 
+    /** @since NEXT */
+    @Override
+    public void recordAdmissionRejection() {
+      admissionRejectionCount.increment();
+    }
+
+    /** @since NEXT */
+    @Override
+    public void recordNegativeHits(int count) {
+      negativeHitCount.add(count);
+    }
+
+    /** @since NEXT */
+    @Override
+    public void recordNegativeLoad() {
+      negativeLoadCount.increment();
+    }
+
+    /** @since NEXT */
+    @SuppressWarnings("GoodTime") // b/122668874
+    @Override
+    public void recordHitLatency(long latency) {
+      if (hitLatencies != null) {
+        hitLatencies.record(latency);
+      }
+    }
+
     @Override
     public CacheStats snapshot() {
       return new CacheStats(
@@ -249,7 +355,12 @@ public abstract class AbstractCache<K, V> implements Cache<K, V> {
           negativeToMaxValue(loadSuccessCount.sum()),
           negativeToMaxValue(loadExceptionCount.sum()),
           negativeToMaxValue(totalLoadTime.sum()),
-          negativeToMaxValue(evictionCount.sum()));
+          negativeToMaxValue(evictionCount.sum()),
+          negativeToMaxValue(admissionRejectionCount.sum()),
+          negativeToMaxValue(negativeHitCount.sum()),
+          negativeToMaxValue(negativeLoadCount.sum()),
+          (loadLatencies == null) ? LatencyHistogram.empty() : loadLatencies.snapshot(),
+          (hitLatencies == null) ? LatencyHistogram.empty() : hitLatencies.snapshot());
     }
 
     /** Returns {@code value}, if non-negative. Otherwise, returns {@link Long#MAX_VALUE}. */
@@ -257,7 +368,10 @@ public abstract class AbstractCache<K, V> implements Cache<K, V> {
       return (value >= 0) ? value : Long.MAX_VALUE;
     }
 
-    /** Increments all counters by the values in {@code other}. */
+    /**
+     * Increments all counters by the values in {@code other}. Latencies recorded by {@code other}
+     * are only added if this instance was created by {@link #withLatencyHistograms}.
+     */
     public void incrementBy(StatsCounter other) {
       CacheStats otherStats = other.snapshot();
       hitCount.add(otherStats.hitCount());
@@ -266,6 +380,15 @@ public abstract class AbstractCache<K, V> implements Cache<K, V> {
       loadExceptionCount.add(otherStats.loadExceptionCount());
       totalLoadTime.add(otherStats.totalLoadTime());
       evictionCount.add(otherStats.evictionCount());
+      admissionRejectionCount.add(otherStats.admissionRejectionCount());
+      negativeHitCount.add(otherStats.negativeHitCount());
+      negativeLoadCount.add(otherStats.negativeLoadCount());
+      if (loadLatencies != null) {
+        loadLatencies.add(otherStats.loadLatencies());
+      }
+      if (hitLatencies != null) {
+        hitLatencies.add(otherStats.hitLatencies());
+      }
     }
   }
 }
@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.common.cache;
+
+import com.google.common.annotations.GwtIncompatible;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.ListenableFuture;
+import java.util.concurrent.Executor;
+import javax.annotation.CheckForNull;
+
+/**
+ * A semi-persistent mapping from keys to values whose values are loaded asynchronously. Unlike
+ * {@link LoadingCache}, no method of this interface blocks while a value is loaded: a request for
+ * an absent value returns a {@link ListenableFuture} immediately, and the {@link CacheLoader} runs
+ * on the {@link Executor} supplied to {@link CacheBuilder#buildAsync}. Instances are built using
+ * {@link CacheBuilder}.
+ *
+ * <p>Implementations of this interface are expected to be thread-safe, and can be safely accessed
+ * by multiple concurrent threads.
+ *
+ * <p>Cancelling a future returned by this cache does not cancel the load it is waiting for, as
+ * other callers may be waiting for the same load.
+ *
+ * @param <K> the type of the cache's keys, which are not permitted to be null
+ * @param <V> the type of the cache's values, which are not permitted to be null
+ * @since NEXT
+ */
+@GwtIncompatible
+@ElementTypesAreNonnullByDefault
+public interface AsyncLoadingCache<K, V> {
+
+  /**
+   * Returns a future for the value associated with {@code key} in this cache, or {@code null} if
+   * there is neither a cached value nor a load in progress for {@code key}.
+   */
+  @CheckForNull
+  ListenableFuture<V> getIfPresent(Object key);
+
+  /**
+   * Returns a future for the value associated with {@code key} in this cache, first starting to
+   * load that value if necessary. No observable state associated with this cache is modified until
+   * loading completes.
+   *
+   * <p>If another call is currently loading the value for {@code key}, the returned future
+   * completes when that load does, and no new load is started. Note that values for distinct keys
+   * may be loaded concurrently.
+   *
+   * <p>If the load fails, the returned future fails with the exception thrown by {@link
+   * CacheLoader#load}, and nothing is stored in the cache, so that the next request for {@code
+   * key} starts a new load. If the loader returns null, the future fails with an {@link
+   * CacheLoader.InvalidCacheLoadException}.
+   */
+  ListenableFuture<V> get(K key);
+
+  /**
+   * Returns a future for a map of the values associated with {@code keys}, starting to load values
+   * that are not already cached or being loaded. The returned map contains each key in {@code
+   * keys} exactly once, in the order of its first occurrence.
+   *
+   * <p>All keys that need to be loaded are passed to a single call of {@link CacheLoader#loadAll},
+   * and concurrent calls to {@link #get} for any of those keys wait for that bulk load rather than
+   * starting their own. If {@code loadAll} is not implemented, each key is loaded by its own call
+   * to {@link CacheLoader#load}. If {@code loadAll} returns entries for keys that were not
+   * requested, they are cached as well.
+   *
+   * <p>If the value for any key fails to load, the returned future fails, and the keys whose
+   * values could not be loaded are not cached.
+   */
+  ListenableFuture<ImmutableMap<K, V>> getAll(Iterable<? extends K> keys);
+
+  /**
+   * Returns a view of this cache as a {@link LoadingCache} whose methods block until loading
+   * completes. Both views share the same entries, loads and statistics, so a value loaded through
+   * either view is visible to the other, and statistics are available through {@link
+   * LoadingCache#stats}.
+   */
+  LoadingCache<K, V> synchronous();
+}
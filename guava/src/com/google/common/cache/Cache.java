@@ -55,6 +55,20 @@ public interface Cache<K, V> {
   @CanIgnoreReturnValue // TODO(b/27479612): consider removing this?
   V getIfPresent(@CompatibleWith("K") Object key);
 
+  /**
+   * Returns whether this cache holds a {@linkplain CacheBuilder#cacheNegativeResults negative
+   * result} for {@code key}: that is, whether its loader recently found no value for {@code key},
+   * so that {@link #getIfPresent} returns null without that being a miss. This doesn't count as a
+   * lookup in the cache's {@linkplain #stats statistics}.
+   *
+   * <p>The default implementation returns false.
+   *
+   * @since NEXT
+   */
+  default boolean hasNegativeResult(@CompatibleWith("K") Object key) {
+    return false;
+  }
+
   /**
    * Returns the value associated with {@code key} in this cache, obtaining that value from {@code
    * loader} if necessary. The method improves upon the conventional "if cached, return; otherwise
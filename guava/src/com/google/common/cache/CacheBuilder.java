@@ -29,13 +29,19 @@ import com.google.common.base.Ticker;
 import com.google.common.cache.AbstractCache.SimpleStatsCounter;
 import com.google.common.cache.AbstractCache.StatsCounter;
 import com.google.common.cache.LocalCache.Strength;
+import com.google.common.io.ByteSource;
+import com.google.common.primitives.Ints;
+import com.google.common.util.concurrent.ListenableFuture;
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import com.google.j2objc.annotations.J2ObjCIncompatible;
 import java.lang.ref.SoftReference;
 import java.lang.ref.WeakReference;
+import java.nio.file.Path;
 import java.util.ConcurrentModificationException;
 import java.util.IdentityHashMap;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -169,7 +175,9 @@ import javax.annotation.CheckForNull;
  * calling it should not be necessary with a high throughput cache. Only caches built with {@link
  * #removalListener removalListener}, {@link #expireAfterWrite expireAfterWrite}, {@link
  * #expireAfterAccess expireAfterAccess}, {@link #weakKeys weakKeys}, {@link #weakValues
- * weakValues}, or {@link #softValues softValues} perform periodic maintenance.
+ * weakValues}, or {@link #softValues softValues} perform periodic maintenance. A cache built with
+ * a {@link #maintenanceExecutor maintenanceExecutor} also performs this maintenance on that
+ * executor, so that a cache which is rarely accessed still releases expired and collected entries.
  *
  * <p>The caches produced by {@code CacheBuilder} are serializable, and the deserialized caches
  * retain all the configuration properties of the original cache. Note that the serialized form does
@@ -195,6 +203,9 @@ public final class CacheBuilder<K, V> {
   private static final int DEFAULT_INITIAL_CAPACITY = 16;
   private static final int DEFAULT_CONCURRENCY_LEVEL = 4;
 
+  /** The number of segments for each processor used by {@link #autoConcurrencyLevel}. */
+  static final int SEGMENTS_PER_PROCESSOR = 4;
+
   @SuppressWarnings("GoodTime") // should be a java.time.Duration
   private static final int DEFAULT_EXPIRATION_NANOS = 0;
 
@@ -239,6 +250,9 @@ public final class CacheBuilder<K, V> {
    */
   static final Supplier<StatsCounter> CACHE_STATS_COUNTER = () -> new SimpleStatsCounter();
 
+  static final Supplier<StatsCounter> LATENCY_STATS_COUNTER =
+      () -> SimpleStatsCounter.withLatencyHistograms();
+
   enum NullListener implements RemovalListener<Object, Object> {
     INSTANCE;
 
@@ -274,9 +288,22 @@ public final class CacheBuilder<K, V> {
   long maximumSize = UNSET_INT;
   long maximumWeight = UNSET_INT;
   @CheckForNull Weigher<? super K, ? super V> weigher;
+  @CheckForNull EvictionPolicy evictionPolicy;
 
   @CheckForNull Strength keyStrength;
   @CheckForNull Strength valueStrength;
+  @CheckForNull ValueCodec<?> valueCodec;
+
+  @GwtIncompatible // java.nio.file.Path
+  @CheckForNull
+  Path slabDirectory;
+
+  @GwtIncompatible // ByteSource
+  @CheckForNull
+  ByteSource warmStartSnapshot;
+
+  @CheckForNull ValueCodec<?> warmStartKeyCodec;
+  @CheckForNull ValueCodec<?> warmStartValueCodec;
 
   @SuppressWarnings("GoodTime") // should be a java.time.Duration
   long expireAfterWriteNanos = UNSET_INT;
@@ -284,16 +311,33 @@ public final class CacheBuilder<K, V> {
   @SuppressWarnings("GoodTime") // should be a java.time.Duration
   long expireAfterAccessNanos = UNSET_INT;
 
+  @CheckForNull Expiry<? super K, ? super V> expiry;
+
   @SuppressWarnings("GoodTime") // should be a java.time.Duration
   long refreshNanos = UNSET_INT;
 
+  @SuppressWarnings("GoodTime") // should be a java.time.Duration
+  long refreshWindowNanos = UNSET_INT;
+
+  int refreshBatchSize = UNSET_INT;
+
+  @SuppressWarnings("GoodTime") // should be a java.time.Duration
+  long negativeExpireNanos = UNSET_INT;
+
+  long negativeMaximumSize = UNSET_INT;
+
   @CheckForNull Equivalence<Object> keyEquivalence;
   @CheckForNull Equivalence<Object> valueEquivalence;
 
   @CheckForNull RemovalListener<? super K, ? super V> removalListener;
   @CheckForNull Ticker ticker;
 
+  @GwtIncompatible // ScheduledExecutorService
+  @CheckForNull
+  ScheduledExecutorService maintenanceExecutor;
+
   Supplier<? extends StatsCounter> statsCounterSupplier = NULL_STATS_COUNTER;
+  boolean recordHitLatencies;
 
   private CacheBuilder() {}
 
@@ -423,7 +467,8 @@ public final class CacheBuilder<K, V> {
    * this still yields higher concurrency than full synchronization.
    *
    * <p>Defaults to 4. <b>Note:</b>The default may change in the future. If you care about this
-   * value, you should always choose it explicitly.
+   * value, you should always choose it explicitly, or use {@link #autoConcurrencyLevel} to scale it
+   * with the number of processors.
    *
    * <p>The current implementation uses the concurrency level to create a fixed number of hashtable
    * segments, each governed by its own write lock. The segment lock is taken once for each explicit
@@ -452,6 +497,36 @@ public final class CacheBuilder<K, V> {
     return this;
   }
 
+  /**
+   * Sets the {@linkplain #concurrencyLevel concurrency level} to a multiple of the number of
+   * processors available to the Java virtual machine, so that the number of segments, and
+   * therefore the number of writes that can proceed without contending for a segment lock, grows
+   * with the number of threads that may be writing at once. This is appropriate for caches that
+   * are written by many threads on machines with many processors, where the default level of 4
+   * makes the segment locks a bottleneck.
+   *
+   * <p>A cache bounded by {@link #maximumSize maximumSize} or {@link #maximumWeight maximumWeight}
+   * still uses fewer segments if that maximum is too small for each segment to hold at least 10
+   * entries, as entries are evicted per segment.
+   *
+   * <p>The number of processors is read when this method is called, so a builder that is reused
+   * after the number of processors available to the virtual machine changed will keep the earlier
+   * level.
+   *
+   * @return this {@code CacheBuilder} instance (for chaining)
+   * @throws IllegalStateException if a concurrency level was already set
+   * @since NEXT
+   */
+  @GwtIncompatible // Runtime.availableProcessors
+  @CanIgnoreReturnValue
+  public CacheBuilder<K, V> autoConcurrencyLevel() {
+    return concurrencyLevel(autoConcurrencyLevel(Runtime.getRuntime().availableProcessors()));
+  }
+
+  static int autoConcurrencyLevel(int processors) {
+    return Ints.saturatedCast((long) processors * SEGMENTS_PER_PROCESSOR);
+  }
+
   int getConcurrencyLevel() {
     return (concurrencyLevel == UNSET_INT) ? DEFAULT_CONCURRENCY_LEVEL : concurrencyLevel;
   }
@@ -584,7 +659,7 @@ public final class CacheBuilder<K, V> {
     if (expireAfterWriteNanos == 0 || expireAfterAccessNanos == 0) {
       return 0;
     }
-    return (weigher == null) ? maximumSize : maximumWeight;
+    return (weigher == null && valueCodec == null) ? maximumSize : maximumWeight;
   }
 
   // Make a safe contravariant cast now so we don't have to do it over and over.
@@ -593,6 +668,39 @@ public final class CacheBuilder<K, V> {
     return (Weigher<K1, V1>) MoreObjects.firstNonNull(weigher, OneWeigher.INSTANCE);
   }
 
+  /**
+   * Specifies the algorithm used to choose which entries to evict when the cache exceeds its
+   * {@linkplain #maximumSize maximum size} or {@linkplain #maximumWeight maximum weight}. By
+   * default, {@link EvictionPolicy#LEAST_RECENTLY_USED} is used.
+   *
+   * <p>Consider {@link EvictionPolicy#WINDOW_TINY_LFU} for workloads that mix a stable set of hot
+   * keys with large scans of keys that are read only once, such as batch jobs that iterate over an
+   * entire key space. Caches using it should also {@linkplain #recordStats record stats} to monitor
+   * {@link CacheStats#admissionRejectionCount}.
+   *
+   * <p>Use of this method requires a corresponding call to {@link #maximumSize} or {@link
+   * #maximumWeight} prior to calling {@link #build}.
+   *
+   * @param evictionPolicy the page replacement algorithm applied within each segment of the cache
+   * @return this {@code CacheBuilder} instance (for chaining)
+   * @throws IllegalStateException if an eviction policy was already set
+   * @since NEXT
+   */
+  @GwtIncompatible // To be supported
+  @CanIgnoreReturnValue
+  public CacheBuilder<K, V> evictionPolicy(EvictionPolicy evictionPolicy) {
+    checkState(
+        this.evictionPolicy == null,
+        "eviction policy was already set to %s",
+        this.evictionPolicy);
+    this.evictionPolicy = checkNotNull(evictionPolicy);
+    return this;
+  }
+
+  EvictionPolicy getEvictionPolicy() {
+    return MoreObjects.firstNonNull(evictionPolicy, EvictionPolicy.LEAST_RECENTLY_USED);
+  }
+
   /**
    * Specifies that each key (not value) stored in the cache should be wrapped in a {@link
    * WeakReference} (by default, strong references are used).
@@ -686,6 +794,135 @@ public final class CacheBuilder<K, V> {
     return MoreObjects.firstNonNull(valueStrength, Strength.STRONG);
   }
 
+  /**
+   * Specifies that values stored in the cache should be encoded with {@code codec} and kept outside
+   * of the Java heap, in direct {@link java.nio.ByteBuffer} slabs. Only keys, entries and small
+   * references to the encoded values remain on the heap, so a large cache adds little to the cost
+   * of garbage collection.
+   *
+   * <p>The weight of each entry is the number of bytes allocated for its encoded value, which is
+   * its length rounded up to a power of two, so the cache must be bounded by {@link #maximumWeight
+   * maximumWeight}, which is then a limit on the number of bytes of values, and must not have a
+   * {@link #weigher weigher}. Entries evicted to stay within that limit
+   * are reported as {@link RemovalCause#SIZE} and counted by {@link CacheStats#evictionCount}.
+   *
+   * <p>Every read of a value decodes a new instance, so values are compared with {@link
+   * Object#equals equals} and should be immutable. Off-heap memory is allocated in slabs of one
+   * mebibyte that are reused as entries are replaced and removed. The free space of partially used
+   * slabs, and one empty slab kept for each size of value, is not counted towards the maximum
+   * weight, so the memory used may exceed it by a few mebibytes.
+   *
+   * @param codec the codec that converts values to and from bytes
+   * @return this {@code CacheBuilder} instance (for chaining)
+   * @throws IllegalStateException if off-heap values were already requested, or when the cache is
+   *     built, if it isn't bounded by {@code maximumWeight}, or if it has a weigher, weak values or
+   *     soft values
+   * @since NEXT
+   */
+  @GwtIncompatible // java.nio.ByteBuffer
+  public <K1 extends K, V1 extends V> CacheBuilder<K1, V1> offHeapValues(
+      ValueCodec<V1> codec) {
+    checkState(valueCodec == null, "off-heap values were already requested with %s", valueCodec);
+    // safely limiting the kinds of caches this can produce
+    @SuppressWarnings("unchecked")
+    CacheBuilder<K1, V1> me = (CacheBuilder<K1, V1>) this;
+    me.valueCodec = checkNotNull(codec);
+    return me;
+  }
+
+  /**
+   * Specifies that values stored in the cache should be encoded with {@code codec} and kept in
+   * memory-mapped files created in {@code directory}, rather than in direct buffers. This allows
+   * the operating system to page values out to disk when memory is short. The files are deleted as
+   * they are created, so they don't survive the process. Otherwise, this is equivalent to {@link
+   * #offHeapValues(ValueCodec)}.
+   *
+   * <p>If a file can't be created or mapped, the write that needed it throws an {@link
+   * java.io.UncheckedIOException}.
+   *
+   * @param codec the codec that converts values to and from bytes
+   * @param directory the directory in which to create the files that hold values
+   * @return this {@code CacheBuilder} instance (for chaining)
+   * @throws IllegalStateException if off-heap values were already requested, or when the cache is
+   *     built, if it isn't bounded by {@code maximumWeight}, or if it has a weigher, weak values or
+   *     soft values
+   * @since NEXT
+   */
+  @GwtIncompatible // java.nio.file.Path
+  public <K1 extends K, V1 extends V> CacheBuilder<K1, V1> offHeapValues(
+      ValueCodec<V1> codec, Path directory) {
+    checkNotNull(directory);
+    CacheBuilder<K1, V1> me = offHeapValues(codec);
+    me.slabDirectory = directory;
+    return me;
+  }
+
+  // Make a safe contravariant cast now so we don't have to do it over and over.
+  @SuppressWarnings("unchecked")
+  @CheckForNull
+  <V1 extends V> ValueCodec<V1> getValueCodec() {
+    return (ValueCodec<V1>) valueCodec;
+  }
+
+  @GwtIncompatible // java.nio.file.Path
+  @CheckForNull
+  Path getSlabDirectory() {
+    return slabDirectory;
+  }
+
+  /**
+   * Specifies that the cache should start out holding the entries of {@code snapshot}, which was
+   * written by {@link CacheSnapshots#write CacheSnapshots.write}, so that a restarted process
+   * doesn't need to load every value it had cached again.
+   *
+   * <p>The snapshot is read when the cache is built, and its entries are added to the cache without
+   * loading, recording statistics or notifying the removal listener. Each segment of the cache is
+   * sized up front to hold the entries it is given, and the entries are added without running
+   * eviction: if the snapshot holds more than the cache's {@linkplain #maximumWeight maximum
+   * weight}, the most recently accessed entries that fit are kept and the rest are skipped.
+   * Entries expire and refresh as if they were written when the cache was built.
+   *
+   * <p>If the snapshot can't be read, for example because it doesn't exist yet or is corrupt, the
+   * exception is logged and the cache starts with the entries read until then.
+   *
+   * @param snapshot the source of the snapshot
+   * @param keyCodec the codec that converts the snapshot's keys from bytes
+   * @param valueCodec the codec that converts the snapshot's values from bytes
+   * @return this {@code CacheBuilder} instance (for chaining)
+   * @throws IllegalStateException if a warm start was already requested
+   * @since NEXT
+   */
+  @GwtIncompatible // ByteSource
+  public <K1 extends K, V1 extends V> CacheBuilder<K1, V1> warmStart(
+      ByteSource snapshot, ValueCodec<K1> keyCodec, ValueCodec<V1> valueCodec) {
+    checkState(
+        warmStartSnapshot == null, "warm start was already requested from %s", warmStartSnapshot);
+    // safely limiting the kinds of caches this can produce
+    @SuppressWarnings("unchecked")
+    CacheBuilder<K1, V1> me = (CacheBuilder<K1, V1>) this;
+    me.warmStartKeyCodec = checkNotNull(keyCodec);
+    me.warmStartValueCodec = checkNotNull(valueCodec);
+    me.warmStartSnapshot = checkNotNull(snapshot);
+    return me;
+  }
+
+  @GwtIncompatible // ByteSource
+  @CheckForNull
+  ByteSource getWarmStartSnapshot() {
+    return warmStartSnapshot;
+  }
+
+  // Make a safe contravariant cast now so we don't have to do it over and over.
+  @SuppressWarnings("unchecked")
+  <K1 extends K> ValueCodec<K1> getWarmStartKeyCodec() {
+    return (ValueCodec<K1>) checkNotNull(warmStartKeyCodec);
+  }
+
+  @SuppressWarnings("unchecked")
+  <V1 extends V> ValueCodec<V1> getWarmStartValueCodec() {
+    return (ValueCodec<V1>) checkNotNull(warmStartValueCodec);
+  }
+
   /**
    * Specifies that each entry should be automatically removed from the cache once a fixed duration
    * has elapsed after the entry's creation, or the most recent replacement of its value.
@@ -702,7 +939,8 @@ public final class CacheBuilder<K, V> {
    *     removed
    * @return this {@code CacheBuilder} instance (for chaining)
    * @throws IllegalArgumentException if {@code duration} is negative
-   * @throws IllegalStateException if {@link #expireAfterWrite} was already set
+   * @throws IllegalStateException if {@link #expireAfterWrite} was already set, or if {@link
+   *     #expireAfter} was set
    * @throws ArithmeticException for durations greater than +/- approximately 292 years
    * @since 25.0
    */
@@ -734,7 +972,8 @@ public final class CacheBuilder<K, V> {
    * @param unit the unit that {@code duration} is expressed in
    * @return this {@code CacheBuilder} instance (for chaining)
    * @throws IllegalArgumentException if {@code duration} is negative
-   * @throws IllegalStateException if {@link #expireAfterWrite} was already set
+   * @throws IllegalStateException if {@link #expireAfterWrite} was already set, or if {@link
+   *     #expireAfter} was set
    */
   @SuppressWarnings("GoodTime") // should accept a java.time.Duration
   @CanIgnoreReturnValue
@@ -743,6 +982,7 @@ public final class CacheBuilder<K, V> {
         expireAfterWriteNanos == UNSET_INT,
         "expireAfterWrite was already set to %s ns",
         expireAfterWriteNanos);
+    checkState(expiry == null, "expireAfterWrite can not be combined with expireAfter");
     checkArgument(duration >= 0, "duration cannot be negative: %s %s", duration, unit);
     this.expireAfterWriteNanos = unit.toNanos(duration);
     return this;
@@ -774,7 +1014,8 @@ public final class CacheBuilder<K, V> {
    *     automatically removed
    * @return this {@code CacheBuilder} instance (for chaining)
    * @throws IllegalArgumentException if {@code duration} is negative
-   * @throws IllegalStateException if {@link #expireAfterAccess} was already set
+   * @throws IllegalStateException if {@link #expireAfterAccess} was already set, or if {@link
+   *     #expireAfter} was set
    * @throws ArithmeticException for durations greater than +/- approximately 292 years
    * @since 25.0
    */
@@ -811,7 +1052,8 @@ public final class CacheBuilder<K, V> {
    * @param unit the unit that {@code duration} is expressed in
    * @return this {@code CacheBuilder} instance (for chaining)
    * @throws IllegalArgumentException if {@code duration} is negative
-   * @throws IllegalStateException if {@link #expireAfterAccess} was already set
+   * @throws IllegalStateException if {@link #expireAfterAccess} was already set, or if {@link
+   *     #expireAfter} was set
    */
   @SuppressWarnings("GoodTime") // should accept a java.time.Duration
   @CanIgnoreReturnValue
@@ -820,6 +1062,7 @@ public final class CacheBuilder<K, V> {
         expireAfterAccessNanos == UNSET_INT,
         "expireAfterAccess was already set to %s ns",
         expireAfterAccessNanos);
+    checkState(expiry == null, "expireAfterAccess can not be combined with expireAfter");
     checkArgument(duration >= 0, "duration cannot be negative: %s %s", duration, unit);
     this.expireAfterAccessNanos = unit.toNanos(duration);
     return this;
@@ -832,6 +1075,61 @@ public final class CacheBuilder<K, V> {
         : expireAfterAccessNanos;
   }
 
+  /**
+   * Specifies that each entry should be automatically removed from the cache once a duration
+   * chosen by {@code expiry} has elapsed. The duration is calculated separately for each entry when
+   * it is created, and may be changed whenever its value is replaced or it is read, so that entries
+   * of the same cache can expire at different times. For example, a cache of access tokens might
+   * expire each token when the token itself does:
+   *
+   * <pre>{@code
+   * LoadingCache<String, Token> tokens = CacheBuilder.newBuilder()
+   *     .expireAfter((String id, Token token, long now) -> token.remainingLifetimeNanos())
+   *     .build(TOKEN_LOADER);
+   * }</pre>
+   *
+   * <p>Entries are scheduled on a hierarchical timer wheel whose buckets cover progressively longer
+   * spans of time, so that scheduling and rescheduling an entry is a constant-time operation and
+   * expired entries are found without searching entries that have not yet expired.
+   *
+   * <p>Expired entries may be counted in {@link Cache#size}, but will never be visible to read or
+   * write operations. Expired entries are cleaned up as part of the routine maintenance described
+   * in the class javadoc.
+   *
+   * @param expiry the expiry that calculates how long each entry lives
+   * @return this {@code CacheBuilder} instance (for chaining)
+   * @throws IllegalStateException if an expiry was already set, or if {@link #expireAfterWrite} or
+   *     {@link #expireAfterAccess} was set
+   * @since NEXT
+   */
+  @GwtIncompatible // To be supported
+  @CanIgnoreReturnValue
+  public <K1 extends K, V1 extends V> CacheBuilder<K1, V1> expireAfter(
+      Expiry<? super K1, ? super V1> expiry) {
+    checkState(this.expiry == null, "expiry was already set to %s", this.expiry);
+    checkState(
+        expireAfterWriteNanos == UNSET_INT,
+        "expireAfter can not be combined with expireAfterWrite (%s ns provided)",
+        expireAfterWriteNanos);
+    checkState(
+        expireAfterAccessNanos == UNSET_INT,
+        "expireAfter can not be combined with expireAfterAccess (%s ns provided)",
+        expireAfterAccessNanos);
+
+    // safely limiting the kinds of caches this can produce
+    @SuppressWarnings("unchecked")
+    CacheBuilder<K1, V1> me = (CacheBuilder<K1, V1>) this;
+    me.expiry = checkNotNull(expiry);
+    return me;
+  }
+
+  // Make a safe contravariant cast now so we don't have to do it over and over.
+  @SuppressWarnings("unchecked")
+  @CheckForNull
+  <K1 extends K, V1 extends V> Expiry<K1, V1> getExpiry() {
+    return (Expiry<K1, V1>) expiry;
+  }
+
   /**
    * Specifies that active entries are eligible for automatic refresh once a fixed duration has
    * elapsed after the entry's creation, or the most recent replacement of its value. The semantics
@@ -913,6 +1211,178 @@ public final class CacheBuilder<K, V> {
     return (refreshNanos == UNSET_INT) ? DEFAULT_REFRESH_NANOS : refreshNanos;
   }
 
+  /**
+   * Specifies that automatic refreshes should be gathered into batches and performed by a single
+   * call to {@link CacheLoader#reloadAll}, rather than by a call to {@link CacheLoader#reload} for
+   * each stale entry. This is useful when the source of the cache's values serves batches of keys
+   * much more cheaply than individual keys.
+   *
+   * <p>Entries that are found to be stale while a batch is open keep returning their old values
+   * until the batch is refreshed. A batch is refreshed once it holds {@code maxBatchSize} keys, or
+   * once {@code window} has elapsed since its first key was added. If a {@link #maintenanceExecutor
+   * maintenanceExecutor} is set, batches are refreshed on that executor, and a batch whose window
+   * elapses is refreshed even if the cache isn't accessed. Otherwise, a batch is refreshed by the
+   * first read or write that finds it full or its window elapsed.
+   *
+   * <p>The new value of each key is stored atomically, as if by a separate refresh of that key. A
+   * key that is missing from the map returned by {@code reloadAll}, or whose entry was modified
+   * while the batch was loading, keeps its current value. Refreshes requested by {@link
+   * LoadingCache#refresh} and loads with a loader other than the cache's own are not batched.
+   *
+   * <p><b>Note:</b> <i>all exceptions thrown during refresh will be logged and then swallowed</i>.
+   *
+   * @param window the longest time that a stale entry waits for its batch to be refreshed
+   * @param maxBatchSize the largest number of keys passed to a single call to {@code reloadAll}
+   * @return this {@code CacheBuilder} instance (for chaining)
+   * @throws IllegalArgumentException if {@code window} or {@code maxBatchSize} is not positive
+   * @throws IllegalStateException if refresh coalescing was already set, or when the cache is
+   *     built, if {@link #refreshAfterWrite} was not set
+   * @throws ArithmeticException for durations greater than +/- approximately 292 years
+   * @since NEXT
+   */
+  @J2ObjCIncompatible
+  @GwtIncompatible // java.time.Duration
+  @SuppressWarnings("GoodTime") // java.time.Duration decomposition
+  @CanIgnoreReturnValue
+  public CacheBuilder<K, V> coalesceRefreshes(java.time.Duration window, int maxBatchSize) {
+    return coalesceRefreshes(toNanosSaturated(window), TimeUnit.NANOSECONDS, maxBatchSize);
+  }
+
+  /**
+   * Specifies that automatic refreshes should be gathered into batches and performed by a single
+   * call to {@link CacheLoader#reloadAll}, rather than by a call to {@link CacheLoader#reload} for
+   * each stale entry. See {@link #coalesceRefreshes(Duration, int)} for details.
+   *
+   * <p>If you can represent the duration as a {@link java.time.Duration} (which should be preferred
+   * when feasible), use {@link #coalesceRefreshes(Duration, int)} instead.
+   *
+   * @param window the longest time that a stale entry waits for its batch to be refreshed
+   * @param unit the unit that {@code window} is expressed in
+   * @param maxBatchSize the largest number of keys passed to a single call to {@code reloadAll}
+   * @return this {@code CacheBuilder} instance (for chaining)
+   * @throws IllegalArgumentException if {@code window} or {@code maxBatchSize} is not positive
+   * @throws IllegalStateException if refresh coalescing was already set, or when the cache is
+   *     built, if {@link #refreshAfterWrite} was not set
+   * @since NEXT
+   */
+  @GwtIncompatible // To be supported
+  @SuppressWarnings("GoodTime") // should accept a java.time.Duration
+  @CanIgnoreReturnValue
+  public CacheBuilder<K, V> coalesceRefreshes(long window, TimeUnit unit, int maxBatchSize) {
+    checkNotNull(unit);
+    checkState(
+        refreshWindowNanos == UNSET_INT,
+        "refresh window was already set to %s ns",
+        refreshWindowNanos);
+    checkArgument(window > 0, "window must be positive: %s %s", window, unit);
+    checkArgument(maxBatchSize > 0, "maxBatchSize must be positive: %s", maxBatchSize);
+    this.refreshWindowNanos = unit.toNanos(window);
+    this.refreshBatchSize = maxBatchSize;
+    return this;
+  }
+
+  @SuppressWarnings("GoodTime") // nanos internally, should be Duration
+  long getRefreshWindowNanos() {
+    return refreshWindowNanos;
+  }
+
+  int getRefreshBatchSize() {
+    return refreshBatchSize;
+  }
+
+  /**
+   * Specifies that when the cache's loader finds no value for a key, the cache should remember
+   * that as a <i>negative result</i> for a fixed duration, rather than calling the loader again on
+   * each request for the key. A loader finds no value when {@link CacheLoader#load} returns null or
+   * throws an {@link CacheLoader.InvalidCacheLoadException}, or when {@link CacheLoader#loadAll}
+   * omits a requested key. A refresh that finds no value keeps the old value, so it caches no
+   * negative result.
+   *
+   * <p>While a negative result for a key is cached, {@link LoadingCache#get} throws an {@code
+   * InvalidCacheLoadException} for the key without loading, the futures returned by {@link
+   * AsyncLoadingCache#get} and {@link AsyncLoadingCache#getAll} fail with one, {@link
+   * Cache#getIfPresent} returns null, and {@link Cache#hasNegativeResult} returns true. Such
+   * requests are counted by {@link CacheStats#negativeHitCount}. Negative results are held apart
+   * from the cache's entries: they aren't counted by {@link Cache#size}, don't count towards {@link
+   * #maximumSize} or {@link #maximumWeight}, and aren't reported to the {@link #removalListener}.
+   * Instead, at most {@code maximumSize} of them are held, and the least recently written are
+   * evicted first. A negative result is discarded as soon as a value is written for its key, or
+   * when the key is {@linkplain Cache#invalidate invalidated}.
+   *
+   * @param duration the length of time after a negative result is cached that it should be
+   *     discarded
+   * @param maximumSize the maximum number of negative results the cache may hold
+   * @return this {@code CacheBuilder} instance (for chaining)
+   * @throws IllegalArgumentException if {@code duration} or {@code maximumSize} is negative
+   * @throws IllegalStateException if negative results were already requested
+   * @throws ArithmeticException for durations greater than +/- approximately 292 years
+   * @since NEXT
+   */
+  @J2ObjCIncompatible
+  @GwtIncompatible // java.time.Duration
+  @SuppressWarnings("GoodTime") // java.time.Duration decomposition
+  @CanIgnoreReturnValue
+  public CacheBuilder<K, V> cacheNegativeResults(java.time.Duration duration, long maximumSize) {
+    return cacheNegativeResults(toNanosSaturated(duration), TimeUnit.NANOSECONDS, maximumSize);
+  }
+
+  /**
+   * Specifies that when the cache's loader finds no value for a key, the cache should remember
+   * that as a negative result for a fixed duration. See {@link #cacheNegativeResults(Duration,
+   * long)} for details.
+   *
+   * <p>If you can represent the duration as a {@link java.time.Duration} (which should be preferred
+   * when feasible), use {@link #cacheNegativeResults(Duration, long)} instead.
+   *
+   * @param duration the length of time after a negative result is cached that it should be
+   *     discarded
+   * @param unit the unit that {@code duration} is expressed in
+   * @param maximumSize the maximum number of negative results the cache may hold
+   * @return this {@code CacheBuilder} instance (for chaining)
+   * @throws IllegalArgumentException if {@code duration} or {@code maximumSize} is negative
+   * @throws IllegalStateException if negative results were already requested
+   * @since NEXT
+   */
+  @GwtIncompatible // To be supported
+  @SuppressWarnings("GoodTime") // should accept a java.time.Duration
+  @CanIgnoreReturnValue
+  public CacheBuilder<K, V> cacheNegativeResults(long duration, TimeUnit unit, long maximumSize) {
+    checkState(
+        negativeExpireNanos == UNSET_INT,
+        "negative results were already requested for %s ns",
+        negativeExpireNanos);
+    checkArgument(duration >= 0, "duration cannot be negative: %s %s", duration, unit);
+    checkArgument(maximumSize >= 0, "maximum size must not be negative");
+    this.negativeExpireNanos = unit.toNanos(duration);
+    this.negativeMaximumSize = maximumSize;
+    return this;
+  }
+
+  /**
+   * Returns a builder for the cache of negative results that caches built by this builder hold, or
+   * null if they don't cache negative results.
+   */
+  @CheckForNull
+  CacheBuilder<Object, Object> getNegativeResultsBuilder() {
+    if (negativeExpireNanos == UNSET_INT) {
+      return null;
+    }
+    CacheBuilder<Object, Object> builder =
+        newBuilder()
+            .expireAfterWrite(negativeExpireNanos, TimeUnit.NANOSECONDS)
+            .maximumSize(negativeMaximumSize);
+    if (concurrencyLevel != UNSET_INT) {
+      builder.concurrencyLevel(concurrencyLevel);
+    }
+    if (ticker != null) {
+      builder.ticker(ticker);
+    }
+    // negative results are looked up with the same equivalence as the cache's keys
+    builder.keyStrength = keyStrength;
+    builder.keyEquivalence = keyEquivalence;
+    return builder;
+  }
+
   /**
    * Specifies a nanosecond-precision time source for this cache. By default, {@link
    * System#nanoTime} is used.
@@ -976,6 +1446,44 @@ public final class CacheBuilder<K, V> {
         MoreObjects.firstNonNull(removalListener, NullListener.INSTANCE);
   }
 
+  /**
+   * Specifies an executor on which the cache performs its routine maintenance, instead of relying
+   * only on the threads that read and write it. About once a second the cache removes its expired
+   * and collected entries on {@code executor}, so that an idle cache doesn't hold on to them until
+   * it is next used, and the next caller doesn't pay for all of that cleanup at once.
+   *
+   * <p>Removal notifications are also delivered on {@code executor}: threads that read or write the
+   * cache only queue notifications, and never invoke the {@link #removalListener removalListener}
+   * themselves. An explicit call to {@link Cache#cleanUp} still delivers any queued notifications
+   * in the calling thread. If {@code executor} rejects a task, notifications are delivered in the
+   * calling thread instead.
+   *
+   * <p>The cache schedules a periodic task on {@code executor} when it is built, and that task
+   * cancels itself once the cache has been garbage collected. The executor is not shut down by the
+   * cache.
+   *
+   * @param executor the executor on which maintenance is performed
+   * @return this {@code CacheBuilder} instance (for chaining)
+   * @throws IllegalStateException if a maintenance executor was already set
+   * @since NEXT
+   */
+  @GwtIncompatible // ScheduledExecutorService
+  @CanIgnoreReturnValue
+  public CacheBuilder<K, V> maintenanceExecutor(ScheduledExecutorService executor) {
+    checkState(
+        maintenanceExecutor == null,
+        "maintenance executor was already set to %s",
+        maintenanceExecutor);
+    this.maintenanceExecutor = checkNotNull(executor);
+    return this;
+  }
+
+  @GwtIncompatible // ScheduledExecutorService
+  @CheckForNull
+  ScheduledExecutorService getMaintenanceExecutor() {
+    return maintenanceExecutor;
+  }
+
   /**
    * Enable the accumulation of {@link CacheStats} during the operation of the cache. Without this
    * {@link Cache#stats} will return zero for all statistics. Note that recording stats requires
@@ -991,8 +1499,47 @@ public final class CacheBuilder<K, V> {
     return this;
   }
 
+  /**
+   * Enable the accumulation of {@link CacheStats}, like {@link #recordStats}, and also record the
+   * time taken by each load in the histogram of {@link CacheStats#loadLatencies}. Recording a
+   * latency costs about as much as updating the other statistics, and the histogram's memory is
+   * only allocated for the ranges of latencies that occur.
+   *
+   * @return this {@code CacheBuilder} instance (for chaining)
+   * @since NEXT
+   */
+  @CanIgnoreReturnValue
+  public CacheBuilder<K, V> recordLatencies() {
+    statsCounterSupplier = LATENCY_STATS_COUNTER;
+    return this;
+  }
+
+  /**
+   * Enable the accumulation of {@link CacheStats} and of load latencies, like {@link
+   * #recordLatencies}, and also record the time taken by each request that returns a cached value
+   * in the histogram of {@link CacheStats#hitLatencies}.
+   *
+   * <p>Note that timing hits requires reading the cache's {@link #ticker} twice on each hit, which
+   * is usually much more expensive than the rest of a hit. It should only be enabled for caches
+   * whose hits are expected to be slow, such as those that use {@link #offHeapValues}.
+   *
+   * @return this {@code CacheBuilder} instance (for chaining)
+   * @since NEXT
+   */
+  @CanIgnoreReturnValue
+  public CacheBuilder<K, V> recordHitLatencies() {
+    statsCounterSupplier = LATENCY_STATS_COUNTER;
+    recordHitLatencies = true;
+    return this;
+  }
+
   boolean isRecordingStats() {
-    return statsCounterSupplier == CACHE_STATS_COUNTER;
+    return statsCounterSupplier == CACHE_STATS_COUNTER
+        || statsCounterSupplier == LATENCY_STATS_COUNTER;
+  }
+
+  boolean isRecordingHitLatencies() {
+    return recordHitLatencies;
   }
 
   Supplier<? extends StatsCounter> getStatsCounterSupplier() {
@@ -1014,9 +1561,39 @@ public final class CacheBuilder<K, V> {
   public <K1 extends K, V1 extends V> LoadingCache<K1, V1> build(
       CacheLoader<? super K1, V1> loader) {
     checkWeightWithWeigher();
+    checkEvictionPolicy();
+    checkOffHeapValues();
+    checkRefreshCoalescing();
     return new LocalCache.LocalLoadingCache<>(this, loader);
   }
 
+  /**
+   * Builds a cache which returns a {@link ListenableFuture} for the value of a given key rather
+   * than blocking the calling thread. Absent values are loaded by invoking the supplied {@code
+   * CacheLoader} on {@code executor}. If a value for the key is already being loaded, the returned
+   * future waits for that load. A load that fails is not cached, so the next request retries it.
+   *
+   * <p>Refreshes that are triggered by {@link #refreshAfterWrite} also run on {@code executor}, so
+   * reads never block on {@link CacheLoader#reload}.
+   *
+   * <p>This method does not alter the state of this {@code CacheBuilder} instance, so it can be
+   * invoked again to create multiple independent caches.
+   *
+   * @param loader the cache loader used to obtain new values
+   * @param executor the executor on which values are loaded
+   * @return a cache having the requested features
+   * @since NEXT
+   */
+  @GwtIncompatible // To be supported
+  public <K1 extends K, V1 extends V> AsyncLoadingCache<K1, V1> buildAsync(
+      CacheLoader<? super K1, V1> loader, Executor executor) {
+    checkWeightWithWeigher();
+    checkEvictionPolicy();
+    checkOffHeapValues();
+    checkRefreshCoalescing();
+    return new LocalCache.LocalAsyncLoadingCache<>(this, loader, executor);
+  }
+
   /**
    * Builds a cache which does not automatically load values when keys are requested.
    *
@@ -1031,17 +1608,117 @@ public final class CacheBuilder<K, V> {
    */
   public <K1 extends K, V1 extends V> Cache<K1, V1> build() {
     checkWeightWithWeigher();
+    checkEvictionPolicy();
+    checkOffHeapValues();
     checkNonLoadingCache();
+    checkRefreshCoalescing();
     return new LocalCache.LocalManualCache<>(this);
   }
 
+  /**
+   * Builds a cache with {@code long} keys, which loads values using the supplied {@code
+   * CacheLoader} like {@link #build(CacheLoader)}. The cache stores its keys unboxed, so that a
+   * request for a cached value allocates nothing. Its entries expire, are evicted by size and
+   * count statistics as those of a {@link LoadingCache} would, except that entries are evicted in
+   * an approximation of least-recently-used order.
+   *
+   * <p>The keys passed to the loader, and to any {@link #weigher} or {@link #removalListener} of
+   * this builder, are {@link Long} instances.
+   *
+   * <p>This method does not alter the state of this {@code CacheBuilder} instance, so it can be
+   * invoked again to create multiple independent caches.
+   *
+   * @param loader the cache loader used to obtain new values
+   * @return a cache having the requested features
+   * @throws IllegalStateException if this builder requested weak or soft references, {@link
+   *     #refreshAfterWrite}, {@link #expireAfter}, {@link #offHeapValues}, {@link #warmStart},
+   *     {@link #cacheNegativeResults(long, TimeUnit, long) cacheNegativeResults}, a {@link
+   *     #maintenanceExecutor} or an {@link #evictionPolicy} other than {@link
+   *     EvictionPolicy#LEAST_RECENTLY_USED}, which primitive-keyed caches don't support
+   * @since NEXT
+   */
+  @GwtIncompatible // StampedLock
+  public <V1 extends V> LongKeyLoadingCache<V1> buildLongKeyed(
+      CacheLoader<? super Long, V1> loader) {
+    checkWeightWithWeigher();
+    checkEvictionPolicy();
+    checkRefreshCoalescing();
+    checkPrimitiveKeyedCache();
+    return new PrimitiveKeyCache.LocalLongKeyCache<>(this, loader);
+  }
+
+  /**
+   * Builds a cache with {@code int} keys, which loads values using the supplied {@code
+   * CacheLoader}. See {@link #buildLongKeyed} for details; the keys passed to the loader, weigher
+   * and removal listener are {@link Integer} instances.
+   *
+   * @param loader the cache loader used to obtain new values
+   * @return a cache having the requested features
+   * @throws IllegalStateException if this builder requested a feature that primitive-keyed caches
+   *     don't support, as listed by {@link #buildLongKeyed}
+   * @since NEXT
+   */
+  @GwtIncompatible // StampedLock
+  public <V1 extends V> IntKeyLoadingCache<V1> buildIntKeyed(
+      CacheLoader<? super Integer, V1> loader) {
+    checkWeightWithWeigher();
+    checkEvictionPolicy();
+    checkRefreshCoalescing();
+    checkPrimitiveKeyedCache();
+    return new PrimitiveKeyCache.LocalIntKeyCache<>(this, loader);
+  }
+
+  @GwtIncompatible // warmStartSnapshot, maintenanceExecutor
+  private void checkPrimitiveKeyedCache() {
+    checkState(
+        getKeyStrength() == Strength.STRONG && getValueStrength() == Strength.STRONG,
+        "primitive-keyed caches don't support weak or soft references");
+    checkState(refreshNanos == UNSET_INT, "primitive-keyed caches don't support refreshAfterWrite");
+    checkState(expiry == null, "primitive-keyed caches don't support expireAfter");
+    checkState(valueCodec == null, "primitive-keyed caches don't support offHeapValues");
+    checkState(warmStartSnapshot == null, "primitive-keyed caches don't support warmStart");
+    checkState(
+        negativeExpireNanos == UNSET_INT,
+        "primitive-keyed caches don't support cacheNegativeResults");
+    checkState(
+        maintenanceExecutor == null, "primitive-keyed caches don't support maintenanceExecutor");
+    checkState(
+        evictionPolicy == null || evictionPolicy == EvictionPolicy.LEAST_RECENTLY_USED,
+        "primitive-keyed caches don't support evictionPolicy %s",
+        evictionPolicy);
+  }
+
   private void checkNonLoadingCache() {
     checkState(refreshNanos == UNSET_INT, "refreshAfterWrite requires a LoadingCache");
   }
 
+  private void checkRefreshCoalescing() {
+    checkState(
+        refreshWindowNanos == UNSET_INT || refreshNanos != UNSET_INT,
+        "coalesceRefreshes requires refreshAfterWrite");
+  }
+
+  private void checkEvictionPolicy() {
+    checkState(
+        evictionPolicy == null || maximumSize != UNSET_INT || maximumWeight != UNSET_INT,
+        "evictionPolicy requires maximumSize or maximumWeight");
+  }
+
+  private void checkOffHeapValues() {
+    if (valueCodec != null) {
+      checkState(maximumWeight != UNSET_INT, "offHeapValues requires maximumWeight");
+      checkState(weigher == null, "offHeapValues can not be combined with weigher");
+      checkState(
+          getValueStrength() == Strength.STRONG,
+          "offHeapValues can not be combined with %s values",
+          valueStrength);
+    }
+  }
+
   private void checkWeightWithWeigher() {
     if (weigher == null) {
-      checkState(maximumWeight == UNSET_INT, "maximumWeight requires weigher");
+      checkState(
+          maximumWeight == UNSET_INT || valueCodec != null, "maximumWeight requires weigher");
     } else {
       if (strictParsing) {
         checkState(maximumWeight != UNSET_INT, "weigher requires maximumWeight");
@@ -1072,18 +1749,33 @@ public final class CacheBuilder<K, V> {
     if (maximumWeight != UNSET_INT) {
       s.add("maximumWeight", maximumWeight);
     }
+    if (evictionPolicy != null) {
+      s.add("evictionPolicy", Ascii.toLowerCase(evictionPolicy.toString()));
+    }
     if (expireAfterWriteNanos != UNSET_INT) {
       s.add("expireAfterWrite", expireAfterWriteNanos + "ns");
     }
+    if (negativeExpireNanos != UNSET_INT) {
+      s.add("cacheNegativeResults", negativeExpireNanos + "ns");
+    }
     if (expireAfterAccessNanos != UNSET_INT) {
       s.add("expireAfterAccess", expireAfterAccessNanos + "ns");
     }
+    if (expiry != null) {
+      s.addValue("expiry");
+    }
     if (keyStrength != null) {
       s.add("keyStrength", Ascii.toLowerCase(keyStrength.toString()));
     }
     if (valueStrength != null) {
       s.add("valueStrength", Ascii.toLowerCase(valueStrength.toString()));
     }
+    if (valueCodec != null) {
+      s.addValue("offHeapValues");
+    }
+    if (warmStartKeyCodec != null) {
+      s.addValue("warmStart");
+    }
     if (keyEquivalence != null) {
       s.addValue("keyEquivalence");
     }
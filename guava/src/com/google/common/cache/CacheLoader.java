@@ -100,6 +100,34 @@ public abstract class CacheLoader<K, V> {
     return Futures.immediateFuture(load(key));
   }
 
+  /**
+   * Computes or retrieves replacement values corresponding to already-cached keys. This method is
+   * called when stale entries are refreshed in batches, by a cache built with {@link
+   * CacheBuilder#coalesceRefreshes}.
+   *
+   * <p>This implementation synchronously delegates to {@link #loadAll}. If neither method is
+   * overridden, each entry of the batch is refreshed by its own call to {@link #reload} instead.
+   *
+   * <p><b>Note:</b> <i>all exceptions thrown by this method will be logged and then swallowed</i>.
+   *
+   * @param oldValues the non-null keys whose values should be loaded, each mapped to its non-null
+   *     old value
+   * @return the future map from each key in {@code oldValues} to its new value; <b>may not contain
+   *     null values</b>. Keys that are missing from the map keep their old values, and keys that
+   *     weren't requested are ignored.
+   * @throws Exception if unable to reload the result
+   * @throws UnsupportedLoadingOperationException if bulk reloading is not supported
+   * @throws InterruptedException if this method is interrupted. {@code InterruptedException} is
+   *     treated like any other {@code Exception} in all respects except that, when it is caught,
+   *     the thread's interrupt status is set
+   * @since NEXT
+   */
+  @GwtIncompatible // Futures
+  public ListenableFuture<Map<K, V>> reloadAll(Map<K, V> oldValues) throws Exception {
+    checkNotNull(oldValues);
+    return Futures.immediateFuture(loadAll(oldValues.keySet()));
+  }
+
   /**
    * Computes or retrieves the values corresponding to {@code keys}. This method is called by {@link
    * LoadingCache#getAll}.
@@ -174,7 +202,7 @@ public abstract class CacheLoader<K, V> {
 
   /**
    * Returns a {@code CacheLoader} which wraps {@code loader}, executing calls to {@link
-   * CacheLoader#reload} using {@code executor}.
+   * CacheLoader#reload} and {@link CacheLoader#reloadAll} using {@code executor}.
    *
    * <p>This method is useful only when {@code loader.reload} has a synchronous implementation, such
    * as {@linkplain #reload the default implementation}.
@@ -204,6 +232,14 @@ public abstract class CacheLoader<K, V> {
       public Map<K, V> loadAll(Iterable<? extends K> keys) throws Exception {
         return loader.loadAll(keys);
       }
+
+      @Override
+      public ListenableFuture<Map<K, V>> reloadAll(Map<K, V> oldValues) {
+        ListenableFutureTask<Map<K, V>> task =
+            ListenableFutureTask.create(() -> loader.reloadAll(oldValues).get());
+        executor.execute(task);
+        return task;
+      }
     };
   }
 
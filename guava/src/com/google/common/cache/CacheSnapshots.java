@@ -0,0 +1,181 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.common.cache;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.annotations.GwtIncompatible;
+import com.google.common.cache.LocalCache.LocalManualCache;
+import com.google.common.io.ByteSink;
+import com.google.common.io.Closer;
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map.Entry;
+
+/**
+ * Static methods that save the hottest entries of a cache, so that a new cache can be warmed up
+ * with them by {@link CacheBuilder#warmStart}.
+ *
+ * <p>A snapshot holds the entries' keys and values, encoded by {@link ValueCodec codecs}, most
+ * recently accessed first. It doesn't hold any other state of the entries, such as when they were
+ * written, so entries loaded from a snapshot expire and refresh as if they were just written.
+ *
+ * @since NEXT
+ */
+@GwtIncompatible // java.io
+@ElementTypesAreNonnullByDefault
+public final class CacheSnapshots {
+  private static final int MAGIC = 0x47434353; // "GCCS"
+  private static final int VERSION = 1;
+  private static final int END = -1;
+
+  private CacheSnapshots() {}
+
+  /**
+   * Writes a snapshot of the live entries of {@code cache} to {@code out}, which isn't closed.
+   * Entries are written from the most recently accessed until the next entry would make their
+   * total weight exceed {@code maximumWeight}, where weights are those of the cache's {@link
+   * CacheBuilder#weigher weigher}, or 1 if it has none.
+   *
+   * <p>Caches that {@link CacheBuilder#maximumSize evict by size} or {@link
+   * CacheBuilder#expireAfterAccess expire after access} order each segment's entries by access.
+   * Entries of other caches are written in no particular order. As the entries of different
+   * segments are interleaved, the order across the whole cache is approximate.
+   *
+   * <p>The snapshot is weakly consistent: entries that are written or removed while it is being
+   * taken may or may not be included. Taking a snapshot doesn't count as an access of its entries.
+   *
+   * @param cache a cache built by {@link CacheBuilder}
+   * @param keyCodec the codec that converts keys to bytes
+   * @param valueCodec the codec that converts values to bytes
+   * @param maximumWeight the largest total weight of the entries to write
+   * @param out the stream to write the snapshot to
+   * @return the number of entries written
+   * @throws IllegalArgumentException if {@code cache} wasn't built by {@code CacheBuilder}, or if
+   *     {@code maximumWeight} is negative
+   * @throws IOException if an I/O error occurs while writing to {@code out}
+   */
+  @CanIgnoreReturnValue
+  public static <K, V> int write(
+      Cache<K, V> cache,
+      ValueCodec<? super K> keyCodec,
+      ValueCodec<? super V> valueCodec,
+      long maximumWeight,
+      OutputStream out)
+      throws IOException {
+    checkNotNull(keyCodec);
+    checkNotNull(valueCodec);
+    checkNotNull(out);
+    checkArgument(maximumWeight >= 0, "maximumWeight must not be negative: %s", maximumWeight);
+    List<Entry<K, V>> entries = toLocalCache(cache).hotEntries(maximumWeight);
+
+    DataOutputStream data = new DataOutputStream(out);
+    data.writeInt(MAGIC);
+    data.writeInt(VERSION);
+    for (Entry<K, V> entry : entries) {
+      writeBytes(data, keyCodec.encode(entry.getKey()));
+      writeBytes(data, valueCodec.encode(entry.getValue()));
+    }
+    data.writeInt(END);
+    data.flush();
+    return entries.size();
+  }
+
+  /**
+   * Writes a snapshot of the live entries of {@code cache} to {@code sink}. This is equivalent to
+   * {@link #write(Cache, ValueCodec, ValueCodec, long, OutputStream)}, but opens and closes a
+   * stream to {@code sink}.
+   *
+   * @throws IllegalArgumentException if {@code cache} wasn't built by {@code CacheBuilder}, or if
+   *     {@code maximumWeight} is negative
+   * @throws IOException if an I/O error occurs while writing to {@code sink}
+   */
+  @CanIgnoreReturnValue
+  public static <K, V> int write(
+      Cache<K, V> cache,
+      ValueCodec<? super K> keyCodec,
+      ValueCodec<? super V> valueCodec,
+      long maximumWeight,
+      ByteSink sink)
+      throws IOException {
+    checkNotNull(sink);
+    Closer closer = Closer.create();
+    try {
+      OutputStream out = closer.register(sink.openBufferedStream());
+      return write(cache, keyCodec, valueCodec, maximumWeight, out);
+    } catch (Throwable e) {
+      throw closer.rethrow(e);
+    } finally {
+      closer.close();
+    }
+  }
+
+  /**
+   * Reads the entries of a snapshot from {@code in}, adding their keys and values to {@code keys}
+   * and {@code values} in the order they were written. If an exception is thrown, the entries read
+   * until then remain in the lists.
+   */
+  static <K, V> void read(
+      InputStream in,
+      ValueCodec<K> keyCodec,
+      ValueCodec<V> valueCodec,
+      List<K> keys,
+      List<V> values)
+      throws IOException {
+    DataInputStream data = new DataInputStream(in);
+    int magic = data.readInt();
+    if (magic != MAGIC) {
+      throw new IOException("Not a cache snapshot: " + Integer.toHexString(magic));
+    }
+    int version = data.readInt();
+    if (version != VERSION) {
+      throw new IOException("Unsupported cache snapshot version: " + version);
+    }
+    for (int length = data.readInt(); length != END; length = data.readInt()) {
+      K key = checkNotNull(keyCodec.decode(readBytes(data, length)), "key codec returned null");
+      V value =
+          checkNotNull(
+              valueCodec.decode(readBytes(data, data.readInt())), "value codec returned null");
+      keys.add(key);
+      values.add(value);
+    }
+  }
+
+  private static void writeBytes(DataOutputStream data, byte[] bytes) throws IOException {
+    data.writeInt(bytes.length);
+    data.write(bytes);
+  }
+
+  private static byte[] readBytes(DataInputStream data, int length) throws IOException {
+    if (length < 0) {
+      throw new IOException("Corrupt cache snapshot: negative length " + length);
+    }
+    byte[] bytes = new byte[length];
+    data.readFully(bytes);
+    return bytes;
+  }
+
+  private static <K, V> LocalCache<K, V> toLocalCache(Cache<K, V> cache) {
+    checkArgument(
+        cache instanceof LocalManualCache, "Only caches built by CacheBuilder are supported");
+    return ((LocalManualCache<K, V>) cache).localCache;
+  }
+}
@@ -15,6 +15,7 @@
 package com.google.common.cache;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.math.LongMath.saturatedAdd;
 import static com.google.common.math.LongMath.saturatedSubtract;
 
@@ -44,6 +45,16 @@ import javax.annotation.CheckForNull;
  *             missCount}.
  *       </ul>
  *   <li>When an entry is evicted from the cache, {@code evictionCount} is incremented.
+ *   <li>When a cache using {@link EvictionPolicy#WINDOW_TINY_LFU} evicts a new entry instead of
+ *       admitting it into the main region, {@code admissionRejectionCount} is also incremented.
+ *   <li>If the cache was built with {@link CacheBuilder#cacheNegativeResults}, a lookup that is
+ *       answered by a cached negative result increments {@code negativeHitCount} rather than
+ *       {@code hitCount} or {@code missCount}, and each load that finds no value and caches a
+ *       negative result increments {@code negativeLoadCount} in addition to {@code
+ *       loadExceptionCount}.
+ *   <li>If the cache was built with {@link CacheBuilder#recordLatencies}, the loading time of
+ *       each load is also counted in {@code loadLatencies}, and with {@link
+ *       CacheBuilder#recordHitLatencies}, the time taken by each hit in {@code hitLatencies}.
  *   <li>No stats are modified when a cache entry is invalidated or manually removed.
  *   <li>No stats are modified by operations invoked on the {@linkplain Cache#asMap asMap} view of
  *       the cache.
@@ -68,6 +79,11 @@ public final class CacheStats {
   private final long totalLoadTime;
 
   private final long evictionCount;
+  private final long admissionRejectionCount;
+  private final long negativeHitCount;
+  private final long negativeLoadCount;
+  private final LatencyHistogram loadLatencies;
+  private final LatencyHistogram hitLatencies;
 
   /**
    * Constructs a new {@code CacheStats} instance.
@@ -83,12 +99,67 @@ public final class CacheStats {
       long loadExceptionCount,
       long totalLoadTime,
       long evictionCount) {
+    this(
+        hitCount, missCount, loadSuccessCount, loadExceptionCount, totalLoadTime, evictionCount, 0);
+  }
+
+  /**
+   * Constructs a new {@code CacheStats} instance, including the count of entries that were rejected
+   * by the cache's admission policy.
+   *
+   * @since NEXT
+   */
+  @SuppressWarnings("GoodTime") // should accept a java.time.Duration
+  public CacheStats(
+      long hitCount,
+      long missCount,
+      long loadSuccessCount,
+      long loadExceptionCount,
+      long totalLoadTime,
+      long evictionCount,
+      long admissionRejectionCount) {
+    this(
+        hitCount,
+        missCount,
+        loadSuccessCount,
+        loadExceptionCount,
+        totalLoadTime,
+        evictionCount,
+        admissionRejectionCount,
+        0,
+        0,
+        LatencyHistogram.empty(),
+        LatencyHistogram.empty());
+  }
+
+  /**
+   * Constructs a new {@code CacheStats} instance, including the negative-result counts and the
+   * load and hit latency histograms.
+   *
+   * @since NEXT
+   */
+  @SuppressWarnings("GoodTime") // should accept a java.time.Duration
+  public CacheStats(
+      long hitCount,
+      long missCount,
+      long loadSuccessCount,
+      long loadExceptionCount,
+      long totalLoadTime,
+      long evictionCount,
+      long admissionRejectionCount,
+      long negativeHitCount,
+      long negativeLoadCount,
+      LatencyHistogram loadLatencies,
+      LatencyHistogram hitLatencies) {
     checkArgument(hitCount >= 0);
     checkArgument(missCount >= 0);
     checkArgument(loadSuccessCount >= 0);
     checkArgument(loadExceptionCount >= 0);
     checkArgument(totalLoadTime >= 0);
     checkArgument(evictionCount >= 0);
+    checkArgument(admissionRejectionCount >= 0);
+    checkArgument(negativeHitCount >= 0);
+    checkArgument(negativeLoadCount >= 0);
 
     this.hitCount = hitCount;
     this.missCount = missCount;
@@ -96,6 +167,11 @@ public final class CacheStats {
     this.loadExceptionCount = loadExceptionCount;
     this.totalLoadTime = totalLoadTime;
     this.evictionCount = evictionCount;
+    this.admissionRejectionCount = admissionRejectionCount;
+    this.negativeHitCount = negativeHitCount;
+    this.negativeLoadCount = negativeLoadCount;
+    this.loadLatencies = checkNotNull(loadLatencies);
+    this.hitLatencies = checkNotNull(hitLatencies);
   }
 
   /**
@@ -235,6 +311,63 @@ public final class CacheStats {
     return evictionCount;
   }
 
+  /**
+   * Returns the number of times a newly added entry was evicted because the cache's admission
+   * policy estimated that it would be accessed less frequently than the entry it would have
+   * replaced. Each such rejection is also counted by {@link #evictionCount}. This is always zero
+   * unless the cache uses {@link EvictionPolicy#WINDOW_TINY_LFU}.
+   *
+   * @since NEXT
+   */
+  public long admissionRejectionCount() {
+    return admissionRejectionCount;
+  }
+
+  /**
+   * Returns the number of times {@link Cache} lookup methods found a cached negative result for
+   * their key, which {@link LoadingCache#get} reports by throwing an {@link
+   * CacheLoader.InvalidCacheLoadException} without loading, and {@link Cache#getIfPresent} by
+   * returning null. These lookups are counted by neither {@link #hitCount} nor {@link #missCount}.
+   * This is always zero unless the cache was built with {@link CacheBuilder#cacheNegativeResults}.
+   *
+   * @since NEXT
+   */
+  public long negativeHitCount() {
+    return negativeHitCount;
+  }
+
+  /**
+   * Returns the number of times the cache loaded no value for a key, and cached that as a negative
+   * result. Each such load is also counted by {@link #loadExceptionCount}. This is always zero
+   * unless the cache was built with {@link CacheBuilder#cacheNegativeResults}.
+   *
+   * @since NEXT
+   */
+  public long negativeLoadCount() {
+    return negativeLoadCount;
+  }
+
+  /**
+   * Returns a histogram of the time, in nanoseconds, that the cache spent loading new values,
+   * whether successfully or not. This is always empty unless the cache was built with {@link
+   * CacheBuilder#recordLatencies}.
+   *
+   * @since NEXT
+   */
+  public LatencyHistogram loadLatencies() {
+    return loadLatencies;
+  }
+
+  /**
+   * Returns a histogram of the time, in nanoseconds, that lookups took to return a cached value.
+   * This is always empty unless the cache was built with {@link CacheBuilder#recordHitLatencies}.
+   *
+   * @since NEXT
+   */
+  public LatencyHistogram hitLatencies() {
+    return hitLatencies;
+  }
+
   /**
    * Returns a new {@code CacheStats} representing the difference between this {@code CacheStats}
    * and {@code other}. Negative values, which aren't supported by {@code CacheStats} will be
@@ -247,7 +380,12 @@ public final class CacheStats {
         Math.max(0, saturatedSubtract(loadSuccessCount, other.loadSuccessCount)),
         Math.max(0, saturatedSubtract(loadExceptionCount, other.loadExceptionCount)),
         Math.max(0, saturatedSubtract(totalLoadTime, other.totalLoadTime)),
-        Math.max(0, saturatedSubtract(evictionCount, other.evictionCount)));
+        Math.max(0, saturatedSubtract(evictionCount, other.evictionCount)),
+        Math.max(0, saturatedSubtract(admissionRejectionCount, other.admissionRejectionCount)),
+        Math.max(0, saturatedSubtract(negativeHitCount, other.negativeHitCount)),
+        Math.max(0, saturatedSubtract(negativeLoadCount, other.negativeLoadCount)),
+        loadLatencies.minus(other.loadLatencies),
+        hitLatencies.minus(other.hitLatencies));
   }
 
   /**
@@ -267,13 +405,28 @@ public final class CacheStats {
         saturatedAdd(loadSuccessCount, other.loadSuccessCount),
         saturatedAdd(loadExceptionCount, other.loadExceptionCount),
         saturatedAdd(totalLoadTime, other.totalLoadTime),
-        saturatedAdd(evictionCount, other.evictionCount));
+        saturatedAdd(evictionCount, other.evictionCount),
+        saturatedAdd(admissionRejectionCount, other.admissionRejectionCount),
+        saturatedAdd(negativeHitCount, other.negativeHitCount),
+        saturatedAdd(negativeLoadCount, other.negativeLoadCount),
+        loadLatencies.plus(other.loadLatencies),
+        hitLatencies.plus(other.hitLatencies));
   }
 
   @Override
   public int hashCode() {
     return Objects.hashCode(
-        hitCount, missCount, loadSuccessCount, loadExceptionCount, totalLoadTime, evictionCount);
+        hitCount,
+        missCount,
+        loadSuccessCount,
+        loadExceptionCount,
+        totalLoadTime,
+        evictionCount,
+        admissionRejectionCount,
+        negativeHitCount,
+        negativeLoadCount,
+        loadLatencies,
+        hitLatencies);
   }
 
   @Override
@@ -285,7 +438,12 @@ public final class CacheStats {
           && loadSuccessCount == other.loadSuccessCount
           && loadExceptionCount == other.loadExceptionCount
           && totalLoadTime == other.totalLoadTime
-          && evictionCount == other.evictionCount;
+          && evictionCount == other.evictionCount
+          && admissionRejectionCount == other.admissionRejectionCount
+          && negativeHitCount == other.negativeHitCount
+          && negativeLoadCount == other.negativeLoadCount
+          && loadLatencies.equals(other.loadLatencies)
+          && hitLatencies.equals(other.hitLatencies);
     }
     return false;
   }
@@ -299,6 +457,11 @@ public final class CacheStats {
         .add("loadExceptionCount", loadExceptionCount)
         .add("totalLoadTime", totalLoadTime)
         .add("evictionCount", evictionCount)
+        .add("admissionRejectionCount", admissionRejectionCount)
+        .add("negativeHitCount", negativeHitCount)
+        .add("negativeLoadCount", negativeLoadCount)
+        .add("loadLatencies", loadLatencies)
+        .add("hitLatencies", hitLatencies)
         .toString();
   }
 }
@@ -0,0 +1,56 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.common.cache;
+
+import com.google.common.annotations.GwtCompatible;
+
+/**
+ * The page replacement algorithm used to choose which entries to evict when a cache built with
+ * {@link CacheBuilder#maximumSize} or {@link CacheBuilder#maximumWeight} exceeds its bound.
+ *
+ * <p>As with the default behavior, eviction is performed per segment of the cache, so the policy
+ * applies to the entries of each segment rather than to the cache as a whole.
+ *
+ * @since NEXT
+ */
+@GwtCompatible
+@ElementTypesAreNonnullByDefault
+public enum EvictionPolicy {
+  /**
+   * Evicts the entry that was least recently read or written. This is the default policy. It adapts
+   * quickly to changes in the working set, but a single scan over many cold keys can flush out the
+   * entire hot working set.
+   */
+  LEAST_RECENTLY_USED,
+
+  /**
+   * Admits new entries into the main region of the cache only if they are estimated to be accessed
+   * more frequently than the entry they would replace (the W-TinyLFU algorithm).
+   *
+   * <p>New entries first enter a small admission window, which is ordered by recency and holds
+   * about one percent of the segment. When an entry leaves the window it competes with the
+   * least-recently-used entry of the main region, and the one with the lower estimated access
+   * frequency is evicted. The main region is a segmented LRU: entries that are read again while on
+   * probation are promoted to a protected region that holds about eighty percent of the main
+   * region.
+   *
+   * <p>Access frequencies are estimated with a compact count-min sketch of 4-bit counters that are
+   * periodically halved, so that entries which were popular only in the past eventually lose their
+   * advantage. This keeps frequently accessed entries resident across scans of cold keys, at the
+   * cost of a few bytes of sketch per entry. Candidates that lose an admission contest are counted
+   * by {@link CacheStats#admissionRejectionCount}.
+   */
+  WINDOW_TINY_LFU
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.common.cache;
+
+import com.google.common.annotations.GwtCompatible;
+
+/**
+ * Calculates when cache entries expire. A cache built with {@link CacheBuilder#expireAfter} asks
+ * its {@code Expiry} for a new duration whenever an entry is created, its value is replaced, or it
+ * is read, so that each entry can expire at its own time.
+ *
+ * <p>All times are in nanoseconds and are read from the cache's {@linkplain CacheBuilder#ticker
+ * ticker}. A duration that is zero or negative causes the entry to expire immediately. Durations
+ * longer than about 146 years are treated as that maximum.
+ *
+ * <p>These methods are called while the cache holds a lock on part of its contents, or on the path
+ * of a read, and so should be fast and must not access the cache.
+ *
+ * @param <K> the type of the cache's keys
+ * @param <V> the type of the cache's values
+ * @since NEXT
+ */
+@GwtCompatible
+@FunctionalInterface
+@ElementTypesAreNonnullByDefault
+public interface Expiry<K, V> {
+
+  /**
+   * Returns the length of time after which a newly created entry expires. This is called when a
+   * value is stored for a key that had no value, whether explicitly or by a completed load.
+   *
+   * @param key the key of the new entry
+   * @param value the value of the new entry
+   * @param currentTime the current ticker time, in nanoseconds
+   * @return the length of time before the entry expires, in nanoseconds
+   */
+  long expireAfterCreate(K key, V value, long currentTime);
+
+  /**
+   * Returns the length of time after which an entry whose value was replaced expires. This is
+   * called when a value is stored for a key that already had one, whether explicitly or by a
+   * completed refresh. By default, the entry's remaining lifetime is unchanged.
+   *
+   * @param key the key of the entry
+   * @param value the new value of the entry
+   * @param currentTime the current ticker time, in nanoseconds
+   * @param currentDuration the entry's remaining lifetime before the update, in nanoseconds
+   * @return the length of time before the entry expires, in nanoseconds
+   */
+  default long expireAfterUpdate(K key, V value, long currentTime, long currentDuration) {
+    return currentDuration;
+  }
+
+  /**
+   * Returns the length of time after which an entry that was just read expires. This is called
+   * when a lookup returns the entry's value, but not by {@code containsKey} nor by operations on
+   * the collection views of {@link Cache#asMap}. By default, the entry's remaining lifetime is
+   * unchanged.
+   *
+   * @param key the key of the entry
+   * @param value the value of the entry
+   * @param currentTime the current ticker time, in nanoseconds
+   * @param currentDuration the entry's remaining lifetime, in nanoseconds
+   * @return the length of time before the entry expires, in nanoseconds
+   */
+  default long expireAfterRead(K key, V value, long currentTime, long currentDuration) {
+    return currentDuration;
+  }
+}
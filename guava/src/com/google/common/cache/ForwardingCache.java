@@ -49,6 +49,12 @@ public abstract class ForwardingCache<K, V> extends ForwardingObject implements
     return delegate().getIfPresent(key);
   }
 
+  /** @since NEXT */
+  @Override
+  public boolean hasNegativeResult(Object key) {
+    return delegate().hasNegativeResult(key);
+  }
+
   /** @since 11.0 */
   @Override
   public V get(K key, Callable<? extends V> valueLoader) throws ExecutionException {
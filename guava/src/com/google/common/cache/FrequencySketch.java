@@ -0,0 +1,175 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.common.cache;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.annotations.GwtIncompatible;
+import com.google.common.annotations.VisibleForTesting;
+
+/**
+ * A probabilistic multiset for estimating the popularity of an element within a time window. The
+ * maximum frequency of an element is limited to 15 (4-bits) and an aging process periodically
+ * halves the popularity of all elements.
+ *
+ * <p>This is a count-min sketch packing sixteen 4-bit counters into each {@code long}. Each element
+ * maps to four counters, one per hash function, and its estimated frequency is the minimum of them.
+ * The table is sized to the next power of two at or above the expected number of distinct elements,
+ * which keeps the error rate low without storing the elements themselves.
+ *
+ * <p>This class is not thread-safe; callers are expected to guard it with the segment lock.
+ */
+@GwtIncompatible
+@ElementTypesAreNonnullByDefault
+final class FrequencySketch {
+
+  /*
+   * The seeds are the 64-bit primes used by FarmHash (see FarmHashFingerprint64) followed by the
+   * FNV offset basis; any set of well-mixed odd multipliers would do.
+   */
+  private static final long[] SEED = {
+    0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+  };
+
+  /** Mask that clears the high bit of each 4-bit counter after a shift, used when aging. */
+  private static final long RESET_MASK = 0x7777777777777777L;
+
+  /** Mask of the low bit of each 4-bit counter, used to correct the sample size when aging. */
+  private static final long ONE_MASK = 0x1111111111111111L;
+
+  /** The largest value a single 4-bit counter can hold. */
+  static final int MAX_FREQUENCY = 15;
+
+  private long[] table = new long[1];
+  private int tableMask;
+  private int sampleSize = 10;
+  private int size;
+
+  /**
+   * Increases the capacity of this sketch so that it can accurately estimate the popularity of
+   * about {@code maximumSize} distinct elements. A request that does not require growth is a no-op.
+   *
+   * <p>Growing the sketch preserves the current estimates: a counter's index is its hash masked by
+   * the table size, so tiling the old table across the new one leaves every element's counters at
+   * their previous values. Collisions that the larger table would have avoided are only shed as
+   * those counters are aged.
+   */
+  void ensureCapacity(long maximumSize) {
+    checkArgument(maximumSize >= 0);
+    int maximum = (int) Math.min(maximumSize, Integer.MAX_VALUE >>> 1);
+    if (table.length >= maximum) {
+      return;
+    }
+
+    long[] oldTable = table;
+    table = new long[ceilingPowerOfTwo(maximum)];
+    for (int i = 0; i < table.length; i += oldTable.length) {
+      System.arraycopy(oldTable, 0, table, i, oldTable.length);
+    }
+    tableMask = table.length - 1;
+    sampleSize = (int) Math.min(10L * maximum, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Returns the estimated number of occurrences of an element with the given hash, up to the
+   * maximum ({@value #MAX_FREQUENCY}).
+   */
+  int frequency(int hash) {
+    int start = (spread(hash) & 3) << 2;
+    int frequency = Integer.MAX_VALUE;
+    for (int i = 0; i < 4; i++) {
+      int index = indexOf(hash, i);
+      int count = (int) ((table[index] >>> ((start + i) << 2)) & 0xfL);
+      frequency = Math.min(frequency, count);
+    }
+    return frequency;
+  }
+
+  /**
+   * Increments the popularity of the element with the given hash if it does not exceed the maximum
+   * ({@value #MAX_FREQUENCY}). All of the element's counters are incremented, which biases the
+   * estimate upwards but keeps this method branch-light. When the number of observed increments
+   * reaches the sample size, all counters are halved so that stale popularity decays.
+   */
+  void increment(int hash) {
+    int start = (spread(hash) & 3) << 2;
+
+    boolean added = false;
+    for (int i = 0; i < 4; i++) {
+      int index = indexOf(hash, i);
+      added |= incrementAt(index, start + i);
+    }
+
+    if (added && (++size == sampleSize)) {
+      reset();
+    }
+  }
+
+  /** Increments the specified counter by 1 if it is not already at the maximum value. */
+  private boolean incrementAt(int i, int j) {
+    int offset = j << 2;
+    long mask = 0xfL << offset;
+    if ((table[i] & mask) != mask) {
+      table[i] += 1L << offset;
+      return true;
+    }
+    return false;
+  }
+
+  /** Halves every counter and adjusts the sample size accordingly. */
+  @VisibleForTesting
+  void reset() {
+    int odd = 0;
+    for (int i = 0; i < table.length; i++) {
+      odd += Long.bitCount(table[i] & ONE_MASK);
+      table[i] = (table[i] >>> 1) & RESET_MASK;
+    }
+    size = (size - (odd >>> 2)) >>> 1;
+  }
+
+  /** Returns the number of increments recorded since the last reset. */
+  @VisibleForTesting
+  int sampleCount() {
+    return size;
+  }
+
+  /** Returns the number of increments after which all counters are halved. */
+  @VisibleForTesting
+  int sampleSize() {
+    return sampleSize;
+  }
+
+  /** Returns the table index for the counter at the specified depth. */
+  private int indexOf(int hash, int i) {
+    long h = (hash + SEED[i]) * SEED[i];
+    h += (h >>> 32);
+    return ((int) h) & tableMask;
+  }
+
+  /**
+   * Applies a supplemental hash function to a given hash code, which defends against poor quality
+   * hash functions.
+   */
+  private static int spread(int x) {
+    x = ((x >>> 16) ^ x) * 0x45d9f3b;
+    x = ((x >>> 16) ^ x) * 0x45d9f3b;
+    return (x >>> 16) ^ x;
+  }
+
+  private static int ceilingPowerOfTwo(int x) {
+    // From Hacker's Delight, Chapter 3, Harry S. Warren Jr.
+    return 1 << -Integer.numberOfLeadingZeros(x - 1);
+  }
+}
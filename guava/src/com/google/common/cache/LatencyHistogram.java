@@ -0,0 +1,199 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.common.cache;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.math.LongMath.saturatedAdd;
+import static com.google.common.math.LongMath.saturatedSubtract;
+
+import com.google.common.annotations.GwtCompatible;
+import com.google.common.base.MoreObjects;
+import java.util.Arrays;
+import javax.annotation.CheckForNull;
+
+/**
+ * A histogram of latencies recorded by a {@link Cache}, such as the time taken by each load.
+ * Instances of this class are immutable, and are obtained from {@link CacheStats#loadLatencies} and
+ * {@link CacheStats#hitLatencies}.
+ *
+ * <p>Latencies are counted in log-linear buckets: each power of two is divided into 16 buckets of
+ * equal width, and latencies below 16 nanoseconds are counted exactly. A {@linkplain #quantile
+ * quantile} is therefore never less than the exact quantile of the recorded latencies, and exceeds
+ * it by less than a sixteenth. Histograms from different caches, or from different periods of time,
+ * can be combined with {@link #plus} and {@link #minus} without any further loss of precision.
+ *
+ * @since NEXT
+ */
+@GwtCompatible
+@ElementTypesAreNonnullByDefault
+public final class LatencyHistogram {
+  /** The base-2 logarithm of the number of buckets that each power of two is divided into. */
+  static final int SUB_BUCKET_BITS = 4;
+
+  static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+  /** The number of buckets needed to count every non-negative {@code long}. */
+  static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+  private static final LatencyHistogram EMPTY = new LatencyHistogram(new long[0], 0);
+
+  /** The number of latencies in each bucket, up to the last bucket that isn't empty. */
+  private final long[] counts;
+
+  private final long count;
+
+  private LatencyHistogram(long[] counts, long count) {
+    this.counts = counts;
+    this.count = count;
+  }
+
+  /** Returns a histogram in which no latencies were recorded. */
+  public static LatencyHistogram empty() {
+    return EMPTY;
+  }
+
+  /** Returns a histogram with the given bucket counts, which the histogram takes ownership of. */
+  static LatencyHistogram of(long[] counts) {
+    int length = counts.length;
+    while (length > 0 && counts[length - 1] == 0) {
+      length--;
+    }
+    if (length == 0) {
+      return EMPTY;
+    }
+    long count = 0;
+    for (int i = 0; i < length; i++) {
+      checkArgument(counts[i] >= 0);
+      count = saturatedAdd(count, counts[i]);
+    }
+    return new LatencyHistogram(
+        (length == counts.length) ? counts : Arrays.copyOf(counts, length), count);
+  }
+
+  /** Returns the index of the bucket that counts {@code nanos}, treating negative values as 0. */
+  static int bucketIndex(long nanos) {
+    if (nanos < SUB_BUCKETS) {
+      return (nanos < 0) ? 0 : (int) nanos;
+    }
+    int exponent = (Long.SIZE - 1) - Long.numberOfLeadingZeros(nanos);
+    int shift = exponent - SUB_BUCKET_BITS;
+    // the sub-bucket is the SUB_BUCKET_BITS bits below the highest bit
+    int subBucket = (int) (nanos >>> shift) - SUB_BUCKETS;
+    return SUB_BUCKETS + shift * SUB_BUCKETS + subBucket;
+  }
+
+  /** Returns the largest value counted by the bucket at {@code index}. */
+  static long bucketUpperBound(int index) {
+    if (index < SUB_BUCKETS) {
+      return index;
+    }
+    int shift = (index - SUB_BUCKETS) / SUB_BUCKETS;
+    long lowerBound = (long) (SUB_BUCKETS + (index % SUB_BUCKETS)) << shift;
+    return lowerBound + ((1L << shift) - 1);
+  }
+
+  /** Returns the number of latencies that were recorded. */
+  public long count() {
+    return count;
+  }
+
+  /**
+   * Returns the latency, in nanoseconds, below which the given fraction of the recorded latencies
+   * fall. For example, {@code quantile(0.99)} returns the 99th percentile, and {@code quantile(1)}
+   * the maximum. The result is the upper bound of the bucket that holds that latency, so it may
+   * exceed the exact quantile by less than a sixteenth. Returns zero if no latencies were recorded.
+   *
+   * @param quantile the fraction of latencies, between 0 and 1 inclusive
+   * @throws IllegalArgumentException if {@code quantile} is not between 0 and 1 inclusive
+   */
+  @SuppressWarnings("GoodTime") // should return a java.time.Duration
+  public long quantile(double quantile) {
+    checkArgument(quantile >= 0.0 && quantile <= 1.0, "quantile must be in [0, 1]: %s", quantile);
+    if (count == 0) {
+      return 0;
+    }
+    // the rank of the latency, counting from 1
+    long rank = Math.max(1, (long) Math.ceil(quantile * count));
+    long seen = 0;
+    for (int i = 0; i < counts.length; i++) {
+      seen += counts[i];
+      if (seen >= rank) {
+        return bucketUpperBound(i);
+      }
+    }
+    return bucketUpperBound(counts.length - 1);
+  }
+
+  /** Returns the number of latencies that were recorded in the bucket at {@code index}. */
+  long bucketCount(int index) {
+    return (index < counts.length) ? counts[index] : 0;
+  }
+
+  /** Returns the number of buckets up to and including the last bucket that isn't empty. */
+  int bucketsInUse() {
+    return counts.length;
+  }
+
+  /**
+   * Returns a new histogram holding the latencies of this histogram except those of {@code other}.
+   * Negative counts, which aren't supported by {@code LatencyHistogram}, will be rounded up to
+   * zero.
+   */
+  public LatencyHistogram minus(LatencyHistogram other) {
+    checkNotNull(other);
+    long[] difference = counts.clone();
+    for (int i = 0; i < difference.length; i++) {
+      difference[i] = Math.max(0, saturatedSubtract(difference[i], other.bucketCount(i)));
+    }
+    return of(difference);
+  }
+
+  /**
+   * Returns a new histogram holding the latencies of both this histogram and {@code other}.
+   *
+   * <p><b>Note:</b> counts are saturated at {@link Long#MAX_VALUE} rather than overflowing.
+   */
+  public LatencyHistogram plus(LatencyHistogram other) {
+    long[] sum = Arrays.copyOf(counts, Math.max(counts.length, other.counts.length));
+    for (int i = 0; i < other.counts.length; i++) {
+      sum[i] = saturatedAdd(sum[i], other.counts[i]);
+    }
+    return of(sum);
+  }
+
+  @Override
+  public int hashCode() {
+    return Arrays.hashCode(counts);
+  }
+
+  @Override
+  public boolean equals(@CheckForNull Object object) {
+    if (object instanceof LatencyHistogram) {
+      LatencyHistogram other = (LatencyHistogram) object;
+      return Arrays.equals(counts, other.counts);
+    }
+    return false;
+  }
+
+  @Override
+  public String toString() {
+    MoreObjects.ToStringHelper s = MoreObjects.toStringHelper(this).add("count", count);
+    if (count > 0) {
+      s.add("p50", quantile(0.5)).add("p99", quantile(0.99)).add("max", quantile(1.0));
+    }
+    return s.toString();
+  }
+}
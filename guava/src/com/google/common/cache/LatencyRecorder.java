@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.common.cache;
+
+import com.google.common.annotations.GwtCompatible;
+import javax.annotation.CheckForNull;
+
+/**
+ * Records latencies into the buckets of a {@link LatencyHistogram}. Each bucket is a {@link
+ * LongAddable}, so that threads recording similar latencies concurrently don't contend on a single
+ * counter.
+ *
+ * <p>Buckets are allocated when they first count a latency, as latencies usually fall into a small
+ * fraction of them. A bucket is published to other threads without synchronization, which is safe
+ * because a newly created {@code LongAddable} holds nothing but default values, and all of its
+ * updates are atomic.
+ */
+@GwtCompatible
+@ElementTypesAreNonnullByDefault
+final class LatencyRecorder {
+  @CheckForNull private volatile LongAddable[] buckets;
+
+  /** Records a latency, in nanoseconds. */
+  void record(long nanos) {
+    bucket(LatencyHistogram.bucketIndex(nanos)).increment();
+  }
+
+  /** Adds the latencies of {@code histogram} to the recorded latencies. */
+  void add(LatencyHistogram histogram) {
+    for (int i = 0; i < histogram.bucketsInUse(); i++) {
+      long count = histogram.bucketCount(i);
+      if (count != 0) {
+        bucket(i).add(count);
+      }
+    }
+  }
+
+  /**
+   * Returns a histogram of the recorded latencies. Note that this may be an inconsistent view, as
+   * it may be interleaved with update operations.
+   */
+  LatencyHistogram snapshot() {
+    LongAddable[] buckets = this.buckets;
+    if (buckets == null) {
+      return LatencyHistogram.empty();
+    }
+    long[] counts = new long[buckets.length];
+    for (int i = 0; i < buckets.length; i++) {
+      LongAddable bucket = buckets[i];
+      if (bucket != null) {
+        long count = bucket.sum();
+        counts[i] = (count >= 0) ? count : Long.MAX_VALUE;
+      }
+    }
+    return LatencyHistogram.of(counts);
+  }
+
+  private LongAddable bucket(int index) {
+    LongAddable[] buckets = this.buckets;
+    if (buckets == null) {
+      synchronized (this) {
+        buckets = this.buckets;
+        if (buckets == null) {
+          buckets = new LongAddable[LatencyHistogram.BUCKETS];
+          this.buckets = buckets;
+        }
+      }
+    }
+    LongAddable bucket = buckets[index];
+    if (bucket == null) {
+      synchronized (this) {
+        bucket = buckets[index];
+        if (bucket == null) {
+          bucket = LongAddables.create();
+          buckets[index] = bucket;
+        }
+      }
+    }
+    return bucket;
+  }
+}
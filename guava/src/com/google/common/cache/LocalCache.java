@@ -37,11 +37,14 @@ import com.google.common.cache.CacheBuilder.OneWeigher;
 import com.google.common.cache.CacheLoader.InvalidCacheLoadException;
 import com.google.common.cache.CacheLoader.UnsupportedLoadingOperationException;
 import com.google.common.collect.AbstractSequentialIterator;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
 import com.google.common.collect.Iterators;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
+import com.google.common.io.ByteSource;
 import com.google.common.primitives.Ints;
 import com.google.common.util.concurrent.ExecutionError;
 import com.google.common.util.concurrent.Futures;
@@ -54,6 +57,7 @@ import com.google.errorprone.annotations.concurrent.GuardedBy;
 import com.google.j2objc.annotations.RetainedWith;
 import com.google.j2objc.annotations.Weak;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InvalidObjectException;
 import java.io.ObjectInputStream;
 import java.io.Serializable;
@@ -61,13 +65,17 @@ import java.lang.ref.Reference;
 import java.lang.ref.ReferenceQueue;
 import java.lang.ref.SoftReference;
 import java.lang.ref.WeakReference;
+import java.nio.file.Paths;
 import java.util.AbstractCollection;
 import java.util.AbstractMap;
 import java.util.AbstractQueue;
 import java.util.AbstractSet;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Queue;
@@ -76,7 +84,12 @@ import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.concurrent.locks.ReentrantLock;
@@ -157,6 +170,12 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
    */
   static final int DRAIN_THRESHOLD = 0x3F;
 
+  /**
+   * Number of reads that each stripe of a segment's recency queue can hold. This is larger than
+   * {@link #DRAIN_THRESHOLD} so that a single reading thread never loses records between drains.
+   */
+  static final int READ_BUFFER_STRIPE_CAPACITY = 2 * (DRAIN_THRESHOLD + 1);
+
   /**
    * Maximum number of entries to be drained in a single cleanup run. This applies independently to
    * the cleanup queue and both reference queues.
@@ -164,6 +183,9 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
   // TODO(fry): empirically optimize this
   static final int DRAIN_MAX = 16;
 
+  /** The delay between runs of the periodic maintenance on a maintenance executor. */
+  static final long MAINTENANCE_PERIOD_NANOS = TimeUnit.SECONDS.toNanos(1);
+
   // Fields
 
   static final Logger logger = Logger.getLogger(LocalCache.class.getName());
@@ -204,15 +226,27 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
   /** Weigher to weigh cache entries. */
   final Weigher<K, V> weigher;
 
+  /** The algorithm used to choose entries to evict when the map exceeds its maximum weight. */
+  final EvictionPolicy evictionPolicy;
+
   /** How long after the last access to an entry the map will retain that entry. */
   final long expireAfterAccessNanos;
 
   /** How long after the last write to an entry the map will retain that entry. */
   final long expireAfterWriteNanos;
 
+  /** Calculates when each entry expires, or null if entries don't expire individually. */
+  @CheckForNull final Expiry<K, V> expiry;
+
+  /** Stores the encoded values of the map, or null if values are kept on the heap. */
+  @CheckForNull final OffHeapStore<V> offHeapStore;
+
   /** How long after the last write an entry becomes a candidate for refresh. */
   final long refreshNanos;
 
+  /** Gathers stale entries into batches to be refreshed together, or null if they aren't. */
+  @CheckForNull final RefreshBatcher<K, V> refreshBatcher;
+
   /** Entries waiting to be consumed by the removal listener. */
   // TODO(fry): define a new type which creates event objects and automates the clear logic
   final Queue<RemovalNotification<K, V>> removalNotificationQueue;
@@ -223,9 +257,18 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
    */
   final RemovalListener<K, V> removalListener;
 
+  /** Whether the time taken by each hit is recorded by the stats counters. */
+  final boolean recordsHitLatency;
+
   /** Measures time in a testable way. */
   final Ticker ticker;
 
+  /** Performs periodic maintenance and delivers removal notifications, if not null. */
+  @CheckForNull final ScheduledExecutorService maintenanceExecutor;
+
+  /** Whether a task that delivers removal notifications is waiting to run on the executor. */
+  final AtomicBoolean notificationTaskPending = new AtomicBoolean();
+
   /** Factory used to create new entries. */
   final EntryFactory entryFactory;
 
@@ -238,6 +281,13 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
   /** The default cache loader to use on loading operations. */
   @CheckForNull final CacheLoader<? super K, V> defaultLoader;
 
+  /**
+   * The keys for which the loader recently found no value, mapped to {@code TRUE}, or null if the
+   * cache doesn't cache negative results. Segments may update it while they are locked, but it
+   * never calls back into this cache, so that can't deadlock.
+   */
+  @CheckForNull final LocalCache<Object, Object> negativeResults;
+
   /**
    * Creates a new, empty map with the specified strategy, initial capacity and concurrency level.
    */
@@ -253,9 +303,21 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
 
     maxWeight = builder.getMaximumWeight();
     weigher = builder.getWeigher();
+    evictionPolicy = builder.getEvictionPolicy();
     expireAfterAccessNanos = builder.getExpireAfterAccessNanos();
     expireAfterWriteNanos = builder.getExpireAfterWriteNanos();
+    expiry = builder.getExpiry();
+    ValueCodec<V> valueCodec = builder.getValueCodec();
+    offHeapStore =
+        (valueCodec == null)
+            ? null
+            : new OffHeapStore<>(valueCodec, builder.getSlabDirectory());
     refreshNanos = builder.getRefreshNanos();
+    refreshBatcher =
+        (builder.getRefreshWindowNanos() == UNSET_INT)
+            ? null
+            : new RefreshBatcher<>(
+                this, builder.getRefreshWindowNanos(), builder.getRefreshBatchSize());
 
     removalListener = builder.getRemovalListener();
     removalNotificationQueue =
@@ -263,10 +325,15 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
             ? LocalCache.discardingQueue()
             : new ConcurrentLinkedQueue<>();
 
+    recordsHitLatency = builder.isRecordingHitLatencies();
     ticker = builder.getTicker(recordsTime());
+    maintenanceExecutor = builder.getMaintenanceExecutor();
     entryFactory = EntryFactory.getFactory(keyStrength, usesAccessEntries(), usesWriteEntries());
     globalStatsCounter = builder.getStatsCounterSupplier().get();
     defaultLoader = loader;
+    CacheBuilder<Object, Object> negativeResultsBuilder = builder.getNegativeResultsBuilder();
+    negativeResults =
+        (negativeResultsBuilder == null) ? null : new LocalCache<>(negativeResultsBuilder, null);
 
     int initialCapacity = Math.min(builder.getInitialCapacity(), MAXIMUM_CAPACITY);
     if (evictsBySize() && !customWeigher()) {
@@ -316,6 +383,18 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
             createSegment(segmentSize, UNSET_INT, builder.getStatsCounterSupplier().get());
       }
     }
+
+    ByteSource snapshot = builder.getWarmStartSnapshot();
+    if (snapshot != null) {
+      warmStart(snapshot, builder.getWarmStartKeyCodec(), builder.getWarmStartValueCodec());
+    }
+
+    if (maintenanceExecutor != null) {
+      MaintenanceTask task = new MaintenanceTask(this);
+      task.future =
+          maintenanceExecutor.scheduleWithFixedDelay(
+              task, MAINTENANCE_PERIOD_NANOS, MAINTENANCE_PERIOD_NANOS, NANOSECONDS);
+    }
   }
 
   boolean evictsBySize() {
@@ -323,11 +402,19 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
   }
 
   boolean customWeigher() {
-    return weigher != OneWeigher.INSTANCE;
+    return weigher != OneWeigher.INSTANCE || storesValuesOffHeap();
+  }
+
+  boolean storesValuesOffHeap() {
+    return offHeapStore != null;
+  }
+
+  boolean evictsByFrequency() {
+    return evictsBySize() && evictionPolicy == EvictionPolicy.WINDOW_TINY_LFU;
   }
 
   boolean expires() {
-    return expiresAfterWrite() || expiresAfterAccess();
+    return expiresAfterWrite() || expiresAfterAccess() || expiresVariably();
   }
 
   boolean expiresAfterWrite() {
@@ -338,6 +425,14 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
     return expireAfterAccessNanos > 0;
   }
 
+  /**
+   * Returns whether each entry has its own expiration time, which is calculated by the {@link
+   * #expiry} and stored in the entry's access time.
+   */
+  boolean expiresVariably() {
+    return expiry != null;
+  }
+
   boolean refreshes() {
     return refreshNanos > 0;
   }
@@ -347,7 +442,7 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
   }
 
   boolean usesWriteQueue() {
-    return expiresAfterWrite();
+    return expiresAfterWrite() || expiresVariably();
   }
 
   boolean recordsWrite() {
@@ -359,7 +454,7 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
   }
 
   boolean recordsTime() {
-    return recordsWrite() || recordsAccess();
+    return recordsWrite() || recordsAccess() || expiresVariably() || recordsHitLatency;
   }
 
   boolean usesWriteEntries() {
@@ -367,7 +462,7 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
   }
 
   boolean usesAccessEntries() {
-    return usesAccessQueue() || recordsAccess();
+    return usesAccessQueue() || recordsAccess() || expiresVariably();
   }
 
   boolean usesKeyReferences() {
@@ -628,6 +723,7 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
       // TODO(fry): when we link values instead of entries this method can go
       // away, as can connectAccessOrder, nullifyAccessOrder.
       newEntry.setAccessTime(original.getAccessTime());
+      newEntry.setAccessRegion(original.getAccessRegion());
 
       connectAccessOrder(original.getPreviousInAccessQueue(), newEntry);
       connectAccessOrder(newEntry, original.getNextInAccessQueue());
@@ -811,6 +907,14 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
     @Override
     public void setPreviousInAccessQueue(ReferenceEntry<Object, Object> previous) {}
 
+    @Override
+    public int getAccessRegion() {
+      return 0;
+    }
+
+    @Override
+    public void setAccessRegion(int region) {}
+
     @Override
     public long getWriteTime() {
       return 0;
@@ -892,6 +996,16 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
       throw new UnsupportedOperationException();
     }
 
+    @Override
+    public int getAccessRegion() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setAccessRegion(int region) {
+      throw new UnsupportedOperationException();
+    }
+
     @Override
     public long getWriteTime() {
       throw new UnsupportedOperationException();
@@ -1058,6 +1172,19 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
     public void setPreviousInAccessQueue(ReferenceEntry<K, V> previous) {
       this.previousAccess = previous;
     }
+
+    // Guarded By Segment.this
+    int accessRegion;
+
+    @Override
+    public int getAccessRegion() {
+      return accessRegion;
+    }
+
+    @Override
+    public void setAccessRegion(int region) {
+      this.accessRegion = region;
+    }
   }
 
   static final class StrongWriteEntry<K, V> extends StrongEntry<K, V> {
@@ -1151,6 +1278,19 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
       this.previousAccess = previous;
     }
 
+    // Guarded By Segment.this
+    int accessRegion;
+
+    @Override
+    public int getAccessRegion() {
+      return accessRegion;
+    }
+
+    @Override
+    public void setAccessRegion(int region) {
+      this.accessRegion = region;
+    }
+
     // The code below is exactly the same for each write entry type.
 
     volatile long writeTime = Long.MAX_VALUE;
@@ -1242,6 +1382,16 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
       throw new UnsupportedOperationException();
     }
 
+    @Override
+    public int getAccessRegion() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setAccessRegion(int region) {
+      throw new UnsupportedOperationException();
+    }
+
     // null write
 
     @Override
@@ -1346,6 +1496,19 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
     public void setPreviousInAccessQueue(ReferenceEntry<K, V> previous) {
       this.previousAccess = previous;
     }
+
+    // Guarded By Segment.this
+    int accessRegion;
+
+    @Override
+    public int getAccessRegion() {
+      return accessRegion;
+    }
+
+    @Override
+    public void setAccessRegion(int region) {
+      this.accessRegion = region;
+    }
   }
 
   static final class WeakWriteEntry<K, V> extends WeakEntry<K, V> {
@@ -1441,6 +1604,19 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
       this.previousAccess = previous;
     }
 
+    // Guarded By Segment.this
+    int accessRegion;
+
+    @Override
+    public int getAccessRegion() {
+      return accessRegion;
+    }
+
+    @Override
+    public void setAccessRegion(int region) {
+      this.accessRegion = region;
+    }
+
     // The code below is exactly the same for each write entry type.
 
     volatile long writeTime = Long.MAX_VALUE;
@@ -1795,6 +1971,41 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
     return value;
   }
 
+  // negative results
+
+  /** Returns whether a negative result is cached for {@code key}. */
+  boolean hasNegativeResult(Object key) {
+    return negativeResults != null && negativeResults.containsKey(key);
+  }
+
+  /**
+   * Caches a negative result for {@code key}, if the cache caches negative results. Callers hold
+   * the lock of the key's segment and have checked that the key has no value, so that a value
+   * written concurrently either prevents the negative result or discards it once it is written.
+   */
+  void cacheNegativeResult(K key, StatsCounter statsCounter) {
+    if (negativeResults != null) {
+      negativeResults.put(key, Boolean.TRUE);
+      statsCounter.recordNegativeLoad();
+    }
+  }
+
+  /**
+   * Discards the negative result for {@code key}, if any. Writers call this after storing a value
+   * and releasing the segment lock.
+   */
+  void discardNegativeResult(Object key) {
+    // a lock-free check first, as most writes have no negative result to discard
+    if (negativeResults != null && negativeResults.containsKey(key)) {
+      negativeResults.remove(key);
+    }
+  }
+
+  static InvalidCacheLoadException negativeResultException(Object key) {
+    return new InvalidCacheLoadException(
+        "CacheLoader recently found no value for key " + key + ".");
+  }
+
   // expiration
 
   /** Returns true if the entry has expired. */
@@ -1806,9 +2017,54 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
     if (expiresAfterWrite() && (now - entry.getWriteTime() >= expireAfterWriteNanos)) {
       return true;
     }
+    if (expiresVariably() && (now - entry.getAccessTime() >= 0)) {
+      return true;
+    }
     return false;
   }
 
+  /**
+   * The longest lifetime that an {@link Expiry} can give an entry, about 146 years, which keeps
+   * expiration times comparable by subtraction.
+   */
+  static final long MAXIMUM_EXPIRY = Long.MAX_VALUE >> 1;
+
+  /** Returns the time at which an entry expires if it has {@code duration} nanoseconds to live. */
+  static long expirationTime(long now, long duration) {
+    return now + Math.min(Math.max(duration, 0), MAXIMUM_EXPIRY);
+  }
+
+  /**
+   * Returns the time at which {@code entry} expires now that its value is being set to {@code
+   * value}. The entry is treated as newly created unless {@code previous} holds a value that has
+   * not yet expired.
+   */
+  long expirationTimeAfterWrite(
+      ReferenceEntry<K, V> entry, K key, V value, ValueReference<K, V> previous, long now) {
+    long currentDuration = entry.getAccessTime() - now;
+    long duration =
+        (previous.get() == null || currentDuration <= 0)
+            ? expiry.expireAfterCreate(key, value, now)
+            : expiry.expireAfterUpdate(key, value, now, currentDuration);
+    return expirationTime(now, duration);
+  }
+
+  /**
+   * Updates the expiration time of {@code entry}, which was just read. This may race with a
+   * concurrent write of the entry, in which case either expiration time may be kept, as with the
+   * access time of entries which expire after access.
+   */
+  void setExpirationTimeAfterRead(ReferenceEntry<K, V> entry, long now) {
+    K key = entry.getKey();
+    V value = entry.getValueReference().get();
+    if (key == null || value == null) {
+      return;
+    }
+    long expirationTime = entry.getAccessTime();
+    long duration = expiry.expireAfterRead(key, value, now, expirationTime - now);
+    entry.setAccessTime(expirationTime(now, duration));
+  }
+
   // queues
 
   // Guarded By Segment.this
@@ -1853,6 +2109,154 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
     }
   }
 
+  /**
+   * Delivers pending removal notifications following a routine read or write. If there is a
+   * maintenance executor, this submits a task to deliver them rather than invoking the listener in
+   * the calling thread.
+   */
+  void deliverPendingNotifications() {
+    if (maintenanceExecutor == null) {
+      processPendingNotifications();
+    } else if (!removalNotificationQueue.isEmpty()
+        && notificationTaskPending.compareAndSet(false, true)) {
+      try {
+        maintenanceExecutor.execute(
+            () -> {
+              notificationTaskPending.set(false);
+              processPendingNotifications();
+            });
+      } catch (RejectedExecutionException e) {
+        notificationTaskPending.set(false);
+        processPendingNotifications();
+      }
+    }
+  }
+
+  /**
+   * Gathers stale entries so that they are refreshed together by {@link CacheLoader#reloadAll}. An
+   * entry joins the open batch once a loading value reference has replaced its value, so that it
+   * isn't refreshed twice, and keeps returning its old value until the batch is refreshed.
+   */
+  static final class RefreshBatcher<K, V> {
+    final LocalCache<K, V> map;
+    final long windowNanos;
+    final int maxBatchSize;
+
+    @GuardedBy("this")
+    Map<K, LoadingValueReference<K, V>> batch = Maps.newLinkedHashMap();
+
+    /** The ticker time at which the first entry was added to the open batch. */
+    @GuardedBy("this")
+    long batchStart;
+
+    RefreshBatcher(LocalCache<K, V> map, long windowNanos, int maxBatchSize) {
+      this.map = map;
+      this.windowNanos = windowNanos;
+      this.maxBatchSize = maxBatchSize;
+    }
+
+    /** Adds a stale entry to the open batch, refreshing the batch if it is full. */
+    void add(K key, LoadingValueReference<K, V> loadingValueReference, long now) {
+      Map<K, LoadingValueReference<K, V>> opened = null;
+      Map<K, LoadingValueReference<K, V>> full = null;
+      synchronized (this) {
+        if (batch.isEmpty()) {
+          batchStart = now;
+          opened = batch;
+        }
+        batch.put(key, loadingValueReference);
+        if (batch.size() >= maxBatchSize) {
+          full = takeBatch();
+        }
+      }
+      if (full != null) {
+        refresh(full);
+      } else if (opened != null && map.maintenanceExecutor != null) {
+        Map<K, LoadingValueReference<K, V>> scheduled = opened;
+        try {
+          map.maintenanceExecutor.schedule(
+              () -> refreshIfOpen(scheduled), windowNanos, NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+          // the batch is refreshed by a later read or write instead
+        }
+      }
+    }
+
+    /** Refreshes the open batch if its window has elapsed. */
+    void refreshIfDue(long now) {
+      Map<K, LoadingValueReference<K, V>> due;
+      synchronized (this) {
+        if (batch.isEmpty() || now - batchStart < windowNanos) {
+          return;
+        }
+        due = takeBatch();
+      }
+      refresh(due);
+    }
+
+    /** Refreshes {@code scheduled} if it is still the open batch. */
+    void refreshIfOpen(Map<K, LoadingValueReference<K, V>> scheduled) {
+      synchronized (this) {
+        if (batch != scheduled) {
+          return;
+        }
+        takeBatch();
+      }
+      refresh(scheduled);
+    }
+
+    @GuardedBy("this")
+    private Map<K, LoadingValueReference<K, V>> takeBatch() {
+      Map<K, LoadingValueReference<K, V>> taken = batch;
+      batch = Maps.newLinkedHashMap();
+      return taken;
+    }
+
+    private void refresh(Map<K, LoadingValueReference<K, V>> batch) {
+      if (map.maintenanceExecutor != null) {
+        try {
+          map.maintenanceExecutor.execute(() -> map.reloadAll(batch));
+          return;
+        } catch (RejectedExecutionException e) {
+          // refresh in the calling thread instead
+        }
+      }
+      map.reloadAll(batch);
+    }
+  }
+
+  /**
+   * A periodic task that performs maintenance on a cache. The task refers to the cache weakly, so
+   * that scheduling it doesn't keep the cache reachable, and cancels itself once the cache has been
+   * collected.
+   */
+  static final class MaintenanceTask implements Runnable {
+    final WeakReference<LocalCache<?, ?>> cacheReference;
+    @CheckForNull volatile Future<?> future;
+
+    MaintenanceTask(LocalCache<?, ?> cache) {
+      this.cacheReference = new WeakReference<>(cache);
+    }
+
+    @Override
+    public void run() {
+      LocalCache<?, ?> cache = cacheReference.get();
+      if (cache == null) {
+        Future<?> future = this.future;
+        if (future != null) {
+          future.cancel(false);
+        }
+        return;
+      }
+      try {
+        cache.cleanUp();
+      } catch (Throwable e) {
+        // an exception would suppress all later runs of this task
+        logger.log(Level.WARNING, "Exception thrown during cache maintenance", e);
+      }
+    }
+  }
+
   @SuppressWarnings("unchecked")
   final Segment<K, V>[] newSegmentArray(int ssize) {
     return new Segment[ssize];
@@ -1944,7 +2348,8 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
     /**
      * The recency queue is used to record which entries were accessed for updating the access
      * list's ordering. It is drained as a batch operation when either the DRAIN_THRESHOLD is
-     * crossed or a write occurs on the segment.
+     * crossed or a write occurs on the segment. Recording is lossy: reads that find their stripe
+     * of the buffer full or contended are dropped rather than blocking or allocating.
      */
     final Queue<ReferenceEntry<K, V>> recencyQueue;
 
@@ -1956,7 +2361,8 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
 
     /**
      * A queue of elements currently in the map, ordered by write time. Elements are added to the
-     * tail of the queue on write.
+     * tail of the queue on write. When entries expire variably this is a {@link TimerWheel}
+     * instead, ordered only by expiration time, to which elements are also re-added on read.
      */
     @GuardedBy("this")
     final Queue<ReferenceEntry<K, V>> writeQueue;
@@ -1986,11 +2392,21 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
       valueReferenceQueue = map.usesValueReferences() ? new ReferenceQueue<>() : null;
 
       recencyQueue =
-          map.usesAccessQueue() ? new ConcurrentLinkedQueue<>() : LocalCache.discardingQueue();
+          (map.usesAccessQueue() || map.expiresVariably())
+              ? new StripedReadBuffer<ReferenceEntry<K, V>>(READ_BUFFER_STRIPE_CAPACITY)
+              : LocalCache.discardingQueue();
 
-      writeQueue = map.usesWriteQueue() ? new WriteQueue<>() : LocalCache.discardingQueue();
+      if (map.expiresVariably()) {
+        writeQueue = new TimerWheel<>(map.ticker.read());
+      } else {
+        writeQueue = map.usesWriteQueue() ? new WriteQueue<>() : LocalCache.discardingQueue();
+      }
 
-      accessQueue = map.usesAccessQueue() ? new AccessQueue<>() : LocalCache.discardingQueue();
+      if (map.evictsByFrequency()) {
+        accessQueue = new TinyLfuAccessQueue<>(map.recordsAccess());
+      } else {
+        accessQueue = map.usesAccessQueue() ? new AccessQueue<>() : LocalCache.discardingQueue();
+      }
     }
 
     AtomicReferenceArray<ReferenceEntry<K, V>> newEntryArray(int size) {
@@ -2036,18 +2452,127 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
       return newEntry;
     }
 
+    /**
+     * Returns the entries of this segment, most recently accessed first if it keeps an access
+     * queue, and otherwise in the order of its table.
+     */
+    List<ReferenceEntry<K, V>> entriesByAccess() {
+      lock();
+      try {
+        List<ReferenceEntry<K, V>> entries = new ArrayList<>(count);
+        if (map.usesAccessQueue()) {
+          drainRecencyQueue();
+          entries.addAll(accessQueue);
+          Collections.reverse(entries);
+        } else {
+          AtomicReferenceArray<ReferenceEntry<K, V>> table = this.table;
+          for (int i = 0; i < table.length(); i++) {
+            for (ReferenceEntry<K, V> e = table.get(i); e != null; e = e.getNext()) {
+              entries.add(e);
+            }
+          }
+        }
+        return entries;
+      } finally {
+        unlock();
+      }
+    }
+
+    /**
+     * Adds the entries at {@code indices} of {@code keys} and {@code values}, which are ordered
+     * from the most recently accessed, to this segment of a cache that isn't shared yet. The table
+     * is sized for all of them up front, and rather than adding every entry and then evicting, the
+     * most recently accessed entries that fit within the maximum weight are selected first. They
+     * are then added from the least recently accessed, so that the access queue ends up in order.
+     */
+    void bulkLoad(List<K> keys, List<V> values, int[] hashes, int[] indices, int length) {
+      lock();
+      try {
+        long now = map.ticker.read();
+        int capacity = table.length();
+        while (count + length > capacity * 3 / 4 && capacity < MAXIMUM_CAPACITY) {
+          capacity <<= 1;
+        }
+        if (count == 0 && capacity > table.length()) {
+          initTable(newEntryArray(capacity));
+        }
+
+        Set<Equivalence.Wrapper<K>> seen = new HashSet<>();
+        int[] selected = new int[length];
+        int selectedCount = 0;
+        long weight = totalWeight;
+        for (int j = 0; j < length; j++) {
+          int i = indices[j];
+          K key = keys.get(i);
+          if (!seen.add(map.keyEquivalence.wrap(key)) || getEntry(key, hashes[i]) != null) {
+            continue;
+          }
+          if (map.evictsBySize()) {
+            V value = values.get(i);
+            int entryWeight =
+                (map.offHeapStore == null)
+                    ? map.weigher.weigh(key, value)
+                    : OffHeapStore.allocatedSize(map.offHeapStore.codec.encode(value).length);
+            if (weight + entryWeight > maxSegmentWeight) {
+              continue;
+            }
+            weight += entryWeight;
+          }
+          selected[selectedCount++] = i;
+        }
+
+        int newCount = this.count;
+        for (int j = selectedCount - 1; j >= 0; j--) {
+          int i = selected[j];
+          K key = keys.get(i);
+          int hash = hashes[i];
+          AtomicReferenceArray<ReferenceEntry<K, V>> table = this.table;
+          int index = hash & (table.length() - 1);
+          ReferenceEntry<K, V> e = newEntry(key, hash, table.get(index));
+          setValue(e, key, values.get(i), now);
+          table.set(index, e);
+          newCount++;
+        }
+        ++modCount;
+        this.count = newCount; // write-volatile
+      } finally {
+        unlock();
+      }
+    }
+
     /** Sets a new value of an entry. Adds newly created entries at the end of the access queue. */
     @GuardedBy("this")
     void setValue(ReferenceEntry<K, V> entry, K key, V value, long now) {
       ValueReference<K, V> previous = entry.getValueReference();
-      int weight = map.weigher.weigh(key, value);
-      checkState(weight >= 0, "Weights must be non-negative");
+      ValueReference<K, V> valueReference;
+      int weight;
+      if (map.offHeapStore != null) {
+        valueReference = map.offHeapStore.store(value, entry);
+        weight = valueReference.getWeight();
+      } else {
+        weight = map.weigher.weigh(key, value);
+        checkState(weight >= 0, "Weights must be non-negative");
+        valueReference = map.valueStrength.referenceValue(this, entry, value, weight);
+      }
+      if (map.expiresVariably()) {
+        entry.setAccessTime(map.expirationTimeAfterWrite(entry, key, value, previous, now));
+      }
 
-      ValueReference<K, V> valueReference =
-          map.valueStrength.referenceValue(this, entry, value, weight);
       entry.setValueReference(valueReference);
       recordWrite(entry, weight, now);
       previous.notifyNewValue(value);
+      releaseValue(previous);
+    }
+
+    /**
+     * Frees the off-heap storage of a value that the map no longer refers to. A loading value frees
+     * the value it was going to replace.
+     */
+    @GuardedBy("this")
+    void releaseValue(ValueReference<K, V> valueReference) {
+      if (map.offHeapStore != null) {
+        map.offHeapStore.release(valueReference);
+      }
     }
 
     // loading
@@ -2058,6 +2583,8 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
       checkNotNull(loader);
       try {
         if (count != 0) { // read-volatile
+          // as in getIfPresent, the latency of a hit includes looking up its entry
+          long start = map.recordsHitLatency ? map.ticker.read() : 0;
           // don't call getLiveEntry, which would ignore loading values
           ReferenceEntry<K, V> e = getEntry(key, hash);
           if (e != null) {
@@ -2066,7 +2593,11 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
             if (value != null) {
               recordRead(e, now);
               statsCounter.recordHits(1);
-              return scheduleRefresh(e, key, hash, value, now, loader);
+              V result = scheduleRefresh(e, key, hash, value, now, loader);
+              if (map.recordsHitLatency) {
+                statsCounter.recordHitLatency(map.ticker.read() - start);
+              }
+              return result;
             }
             ValueReference<K, V> valueReference = e.getValueReference();
             if (valueReference.isLoading()) {
@@ -2076,6 +2607,10 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
         }
 
         // at this point e is either null or expired;
+        if (map.hasNegativeResult(key)) {
+          statsCounter.recordNegativeHits(1);
+          throw negativeResultException(key);
+        }
         return lockedGetOrLoad(key, hash, loader);
       } catch (ExecutionException ee) {
         Throwable cause = ee.getCause();
@@ -2158,6 +2693,7 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
               // immediately reuse invalid entries
               writeQueue.remove(e);
               accessQueue.remove(e);
+              releaseValue(valueReference);
               this.count = newCount; // write-volatile
             }
             break;
@@ -2341,9 +2877,16 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
         ListenableFuture<V> newValue)
         throws ExecutionException {
       V value = null;
+      boolean foundNoValue = false;
       try {
-        value = getUninterruptibly(newValue);
+        try {
+          value = getUninterruptibly(newValue);
+        } catch (ExecutionException e) {
+          foundNoValue = e.getCause() instanceof InvalidCacheLoadException;
+          throw e;
+        }
         if (value == null) {
+          foundNoValue = true;
           throw new InvalidCacheLoadException("CacheLoader returned null for key " + key + ".");
         }
         statsCounter.recordLoadSuccess(loadingValueReference.elapsedNanos());
@@ -2352,7 +2895,12 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
       } finally {
         if (value == null) {
           statsCounter.recordLoadException(loadingValueReference.elapsedNanos());
-          removeLoadingValue(key, hash, loadingValueReference);
+          // a failed refresh keeps the old value, so there is no negative result to cache
+          if (foundNoValue && !loadingValueReference.isActive()) {
+            removeLoadingValueWithNegativeResult(key, hash, loadingValueReference, statsCounter);
+          } else {
+            removeLoadingValue(key, hash, loadingValueReference);
+          }
         }
       }
     }
@@ -2367,6 +2915,15 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
       if (map.refreshes()
           && (now - entry.getWriteTime() > map.refreshNanos)
           && !entry.getValueReference().isLoading()) {
+        RefreshBatcher<K, V> refreshBatcher = map.refreshBatcher;
+        if (refreshBatcher != null && loader == map.defaultLoader) {
+          LoadingValueReference<K, V> loadingValueReference =
+              insertLoadingValueReference(key, hash, true);
+          if (loadingValueReference != null) {
+            refreshBatcher.add(key, loadingValueReference, now);
+          }
+          return oldValue;
+        }
         V newValue = refresh(key, hash, loader, true);
         if (newValue != null) {
           return newValue;
@@ -2401,18 +2958,235 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
       return null;
     }
 
+    // asynchronous loading
+
     /**
-     * Returns a newly inserted {@code LoadingValueReference}, or null if the live value reference
-     * is already loading.
+     * Returns a future for the value of {@code key}, starting to load it on {@code executor} if the
+     * segment holds neither a live value nor a load in progress. If {@code reserved} is non-null, a
+     * missing value is instead reserved: a new loading value reference is inserted and added to
+     * {@code reserved}, and the caller becomes responsible for completing it.
      */
-    @CheckForNull
-    LoadingValueReference<K, V> insertLoadingValueReference(
-        final K key, final int hash, boolean checkTime) {
-      ReferenceEntry<K, V> e = null;
-      lock();
+    ListenableFuture<V> getAsync(
+        K key,
+        int hash,
+        CacheLoader<? super K, V> loader,
+        Executor executor,
+        @CheckForNull Map<K, LoadingValueReference<K, V>> reserved) {
+      checkNotNull(key);
+      checkNotNull(loader);
+      checkNotNull(executor);
       try {
-        long now = map.ticker.read();
-        preWriteCleanup(now);
+        if (count != 0) { // read-volatile
+          // don't call getLiveEntry, which would ignore loading values
+          ReferenceEntry<K, V> e = getEntry(key, hash);
+          if (e != null) {
+            long now = map.ticker.read();
+            V value = getLiveValue(e, now);
+            if (value != null) {
+              recordRead(e, now);
+              statsCounter.recordHits(1);
+              return Futures.immediateFuture(scheduleRefresh(e, key, hash, value, now, loader));
+            }
+            ValueReference<K, V> valueReference = e.getValueReference();
+            if (valueReference.isLoading()) {
+              statsCounter.recordMisses(1);
+              return loadingFuture(key, (LoadingValueReference<K, V>) valueReference);
+            }
+          }
+        }
+
+        // at this point e is either null or expired;
+        if (map.hasNegativeResult(key)) {
+          statsCounter.recordNegativeHits(1);
+          return Futures.immediateFailedFuture(negativeResultException(key));
+        }
+        return lockedGetOrLoadAsync(key, hash, loader, executor, reserved);
+      } finally {
+        postReadCleanup();
+      }
+    }
+
+    ListenableFuture<V> lockedGetOrLoadAsync(
+        K key,
+        int hash,
+        CacheLoader<? super K, V> loader,
+        Executor executor,
+        @CheckForNull Map<K, LoadingValueReference<K, V>> reserved) {
+      ReferenceEntry<K, V> e;
+      ValueReference<K, V> valueReference = null;
+      LoadingValueReference<K, V> loadingValueReference = null;
+      boolean createNewEntry = true;
+
+      lock();
+      try {
+        // re-read ticker once inside the lock
+        long now = map.ticker.read();
+        preWriteCleanup(now);
+
+        int newCount = this.count - 1;
+        AtomicReferenceArray<ReferenceEntry<K, V>> table = this.table;
+        int index = hash & (table.length() - 1);
+        ReferenceEntry<K, V> first = table.get(index);
+
+        for (e = first; e != null; e = e.getNext()) {
+          K entryKey = e.getKey();
+          if (e.getHash() == hash
+              && entryKey != null
+              && map.keyEquivalence.equivalent(key, entryKey)) {
+            valueReference = e.getValueReference();
+            if (valueReference.isLoading()) {
+              createNewEntry = false;
+            } else {
+              V value = valueReference.get();
+              if (value == null) {
+                enqueueNotification(
+                    entryKey, hash, value, valueReference.getWeight(), RemovalCause.COLLECTED);
+              } else if (map.isExpired(e, now)) {
+                enqueueNotification(
+                    entryKey, hash, value, valueReference.getWeight(), RemovalCause.EXPIRED);
+              } else {
+                recordLockedRead(e, now);
+                statsCounter.recordHits(1);
+                // we were concurrent with loading; don't consider refresh
+                return Futures.immediateFuture(value);
+              }
+
+              // immediately reuse invalid entries
+              writeQueue.remove(e);
+              accessQueue.remove(e);
+              releaseValue(valueReference);
+              this.count = newCount; // write-volatile
+            }
+            break;
+          }
+        }
+
+        if (createNewEntry) {
+          loadingValueReference = new LoadingValueReference<>();
+
+          if (e == null) {
+            e = newEntry(key, hash, first);
+            e.setValueReference(loadingValueReference);
+            table.set(index, e);
+          } else {
+            e.setValueReference(loadingValueReference);
+          }
+        }
+      } finally {
+        unlock();
+        postWriteCleanup();
+      }
+
+      statsCounter.recordMisses(1);
+      if (!createNewEntry) {
+        return loadingFuture(key, (LoadingValueReference<K, V>) valueReference);
+      } else if (reserved != null) {
+        reserved.put(key, loadingValueReference);
+        return loadingFuture(key, loadingValueReference);
+      }
+      return loadOnExecutor(key, hash, loadingValueReference, loader, executor);
+    }
+
+    /**
+     * Returns a future for the value of {@code key} that is being loaded by another call. The
+     * future fails if the loader returns null, and cancelling it does not cancel the shared load.
+     */
+    ListenableFuture<V> loadingFuture(
+        final Object key, LoadingValueReference<K, V> loadingValueReference) {
+      return transform(
+          Futures.nonCancellationPropagating(loadingValueReference.futureValue),
+          value -> {
+            if (value == null) {
+              throw new InvalidCacheLoadException("CacheLoader returned null for key " + key + ".");
+            }
+            return value;
+          },
+          directExecutor());
+    }
+
+    /**
+     * Loads the value for {@code key} on {@code executor}. The returned future completes once the
+     * loaded value has been stored, or once the failed load has been removed from the segment.
+     */
+    ListenableFuture<V> loadOnExecutor(
+        final K key,
+        final int hash,
+        final LoadingValueReference<K, V> loadingValueReference,
+        final CacheLoader<? super K, V> loader,
+        Executor executor) {
+      final SettableFuture<V> result = SettableFuture.create();
+      try {
+        executor.execute(
+            () -> {
+              final ListenableFuture<V> loadingFuture =
+                  loadingValueReference.loadFuture(key, loader);
+              loadingFuture.addListener(
+                  () -> {
+                    try {
+                      result.set(
+                          getAndRecordStats(key, hash, loadingValueReference, loadingFuture));
+                    } catch (ExecutionException e) {
+                      result.setException(e.getCause());
+                    } catch (Throwable t) {
+                      loadingValueReference.setException(t);
+                      result.setException(t);
+                    }
+                  },
+                  directExecutor());
+            });
+      } catch (RuntimeException e) {
+        // the executor rejected the load, so it never started; fail anyone waiting for it
+        loadingValueReference.setException(e);
+        statsCounter.recordLoadException(0);
+        removeLoadingValue(key, hash, loadingValueReference);
+        result.setException(e);
+      }
+      return result;
+    }
+
+    /**
+     * Returns a future for the value of {@code key} if it is present or being loaded, or null
+     * otherwise. Unlike {@link #getAsync}, this never starts a load.
+     */
+    @CheckForNull
+    ListenableFuture<V> getIfPresentAsync(Object key, int hash) {
+      try {
+        // don't check count, which doesn't include entries that are still loading
+        ReferenceEntry<K, V> e = getEntry(key, hash);
+        if (e != null) {
+          long now = map.ticker.read();
+          V value = getLiveValue(e, now);
+          if (value != null) {
+            recordRead(e, now);
+            statsCounter.recordHits(1);
+            return Futures.immediateFuture(
+                scheduleRefresh(e, e.getKey(), hash, value, now, map.defaultLoader));
+          }
+          ValueReference<K, V> valueReference = e.getValueReference();
+          if (valueReference.isLoading()) {
+            statsCounter.recordMisses(1);
+            return loadingFuture(key, (LoadingValueReference<K, V>) valueReference);
+          }
+        }
+        statsCounter.recordMisses(1);
+        return null;
+      } finally {
+        postReadCleanup();
+      }
+    }
+
+    /**
+     * Returns a newly inserted {@code LoadingValueReference}, or null if the live value reference
+     * is already loading.
+     */
+    @CheckForNull
+    LoadingValueReference<K, V> insertLoadingValueReference(
+        final K key, final int hash, boolean checkTime) {
+      ReferenceEntry<K, V> e = null;
+      lock();
+      try {
+        long now = map.ticker.read();
+        preWriteCleanup(now);
 
         AtomicReferenceArray<ReferenceEntry<K, V>> table = this.table;
         int index = hash & (table.length() - 1);
@@ -2534,7 +3308,8 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
     /**
      * Records the relative order in which this read was performed by adding {@code entry} to the
      * recency queue. At write-time, or when the queue is full past the threshold, the queue will be
-     * drained and the entries therein processed.
+     * drained and the entries therein processed. The record may be dropped if the recency queue is
+     * contended, in which case {@code entry} simply isn't moved in the access order.
      *
      * <p>Note: locked reads should use {@link #recordLockedRead}.
      */
@@ -2542,7 +3317,10 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
       if (map.recordsAccess()) {
         entry.setAccessTime(now);
       }
-      recencyQueue.add(entry);
+      if (map.expiresVariably()) {
+        map.setExpirationTimeAfterRead(entry, now);
+      }
+      recencyQueue.offer(entry);
     }
 
     /**
@@ -2557,6 +3335,10 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
       if (map.recordsAccess()) {
         entry.setAccessTime(now);
       }
+      if (map.expiresVariably()) {
+        map.setExpirationTimeAfterRead(entry, now);
+        writeQueue.add(entry);
+      }
       accessQueue.add(entry);
     }
 
@@ -2597,6 +3379,10 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
         if (accessQueue.contains(e)) {
           accessQueue.add(e);
         }
+        if (map.expiresVariably() && writeQueue.contains(e)) {
+          // reschedule the entry, whose expiration time may have changed when it was read
+          writeQueue.add(e);
+        }
       }
     }
 
@@ -2617,6 +3403,9 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
     @GuardedBy("this")
     void expireEntries(long now) {
       drainRecencyQueue();
+      if (map.expiresVariably()) {
+        ((TimerWheel<K, V>) writeQueue).advance(now);
+      }
 
       ReferenceEntry<K, V> e;
       while ((e = writeQueue.peek()) != null && map.isExpired(e, now)) {
@@ -2668,6 +3457,10 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
         }
       }
 
+      if (map.evictsByFrequency()) {
+        evictFromAdmissionWindow();
+      }
+
       while (totalWeight > maxSegmentWeight) {
         ReferenceEntry<K, V> e = getNextEvictable();
         if (!removeEntry(e, e.getHash(), RemovalCause.SIZE)) {
@@ -2676,6 +3469,48 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
       }
     }
 
+    /**
+     * Moves entries that overflow the admission window into the main region. While the segment is
+     * over capacity, each such candidate must be estimated to be accessed more frequently than the
+     * main region's next eviction victim; otherwise the candidate itself is evicted.
+     */
+    @GuardedBy("this")
+    void evictFromAdmissionWindow() {
+      TinyLfuAccessQueue<K, V> queue = (TinyLfuAccessQueue<K, V>) accessQueue;
+      ReferenceEntry<K, V> candidate;
+      while ((candidate = queue.peekWindowOverflow()) != null) {
+        ReferenceEntry<K, V> victim =
+            (totalWeight > maxSegmentWeight && candidate.getValueReference().getWeight() > 0)
+                ? getNextMainEvictable(queue)
+                : null;
+        if (victim == null) {
+          queue.admit(candidate);
+        } else if (queue.admits(candidate, victim)) {
+          queue.admit(candidate);
+          if (!removeEntry(victim, victim.getHash(), RemovalCause.SIZE)) {
+            throw new AssertionError();
+          }
+        } else {
+          if (!removeEntry(candidate, candidate.getHash(), RemovalCause.SIZE)) {
+            throw new AssertionError();
+          }
+          statsCounter.recordAdmissionRejection();
+        }
+      }
+    }
+
+    /** Returns the first evictable entry of the main region, or null if it has none. */
+    @CheckForNull
+    @GuardedBy("this")
+    ReferenceEntry<K, V> getNextMainEvictable(TinyLfuAccessQueue<K, V> queue) {
+      for (ReferenceEntry<K, V> e : Iterables.concat(queue.probation, queue.protectedRegion)) {
+        if (e.getValueReference().getWeight() > 0) {
+          return e;
+        }
+      }
+      return null;
+    }
+
     // TODO(fry): instead implement this with an eviction head
     @GuardedBy("this")
     ReferenceEntry<K, V> getNextEvictable() {
@@ -2871,6 +3706,8 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
         return null;
       } finally {
         unlock();
+        // a present value makes any negative result stale, whether or not it was just written
+        map.discardNegativeResult(key);
         postWriteCleanup();
       }
     }
@@ -2946,6 +3783,7 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
     }
 
     boolean replace(K key, int hash, V oldValue, V newValue) {
+      boolean present = false;
       lock();
       try {
         long now = map.ticker.read();
@@ -2962,6 +3800,7 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
               && map.keyEquivalence.equivalent(key, entryKey)) {
             ValueReference<K, V> valueReference = e.getValueReference();
             V entryValue = valueReference.get();
+            present = (entryValue != null);
             if (entryValue == null) {
               if (valueReference.isActive()) {
                 // If the value disappeared, this entry is partially collected.
@@ -3002,12 +3841,16 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
         return false;
       } finally {
         unlock();
+        if (present) {
+          map.discardNegativeResult(key);
+        }
         postWriteCleanup();
       }
     }
 
     @CheckForNull
     V replace(K key, int hash, V newValue) {
+      boolean present = false;
       lock();
       try {
         long now = map.ticker.read();
@@ -3024,6 +3867,7 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
               && map.keyEquivalence.equivalent(key, entryKey)) {
             ValueReference<K, V> valueReference = e.getValueReference();
             V entryValue = valueReference.get();
+            present = (entryValue != null);
             if (entryValue == null) {
               if (valueReference.isActive()) {
                 // If the value disappeared, this entry is partially collected.
@@ -3057,6 +3901,9 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
         return null;
       } finally {
         unlock();
+        if (present) {
+          map.discardNegativeResult(key);
+        }
         postWriteCleanup();
       }
     }
@@ -3211,6 +4058,7 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
         return true;
       } finally {
         unlock();
+        map.discardNegativeResult(key);
         postWriteCleanup();
       }
     }
@@ -3234,6 +4082,7 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
                 enqueueNotification(
                     key, e.getHash(), value, e.getValueReference().getWeight(), cause);
               }
+              releaseValue(e.getValueReference());
             }
           }
           for (int i = 0; i < table.length(); ++i) {
@@ -3266,6 +4115,7 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
       enqueueNotification(key, hash, value, valueReference.getWeight(), cause);
       writeQueue.remove(entry);
       accessQueue.remove(entry);
+      releaseValue(valueReference);
 
       if (valueReference.isLoading()) {
         valueReference.notifyNewValue(null);
@@ -3304,6 +4154,7 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
           RemovalCause.COLLECTED);
       writeQueue.remove(entry);
       accessQueue.remove(entry);
+      releaseValue(entry.getValueReference());
     }
 
     /** Removes an entry whose key has been garbage collected. */
@@ -3387,6 +4238,37 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
       }
     }
 
+    /**
+     * Removes a loading value reference whose load found no value for {@code key}, and caches a
+     * negative result for the key if the reference was still the entry's value. A value written
+     * while the load was in progress replaced the reference, so it is never shadowed by a negative
+     * result.
+     */
+    void removeLoadingValueWithNegativeResult(
+        K key, int hash, LoadingValueReference<K, V> valueReference, StatsCounter statsCounter) {
+      lock();
+      try {
+        if (removeLoadingValue(key, hash, valueReference)) {
+          map.cacheNegativeResult(key, statsCounter);
+        }
+      } finally {
+        unlock();
+        postWriteCleanup();
+      }
+    }
+
+    /** Caches a negative result for {@code key} unless the segment holds an entry for it. */
+    void cacheNegativeResultIfAbsent(K key, int hash, StatsCounter statsCounter) {
+      lock();
+      try {
+        if (getEntry(key, hash) == null) {
+          map.cacheNegativeResult(key, statsCounter);
+        }
+      } finally {
+        unlock();
+      }
+    }
+
     @CanIgnoreReturnValue
     boolean removeLoadingValue(K key, int hash, LoadingValueReference<K, V> valueReference) {
       lock();
@@ -3484,6 +4366,21 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
       runUnlockedCleanup();
     }
 
+    /**
+     * Makes every expired entry of the timer wheel available to {@link #expireEntries}, including
+     * those that writes and reads leave in the bucket holding the current time.
+     */
+    void sweepTimerWheel() {
+      lock();
+      try {
+        TimerWheel<K, V> wheel = (TimerWheel<K, V>) writeQueue;
+        wheel.advance(map.ticker.read());
+        wheel.sweep();
+      } finally {
+        unlock();
+      }
+    }
+
     void runLockedCleanup(long now) {
       if (tryLock()) {
         try {
@@ -3499,7 +4396,8 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
     void runUnlockedCleanup() {
       // locked cleanup may generate notifications we can send unlocked
       if (!isHeldByCurrentThread()) {
-        map.processPendingNotifications();
+        map.deliverPendingNotifications();
+        map.refreshPendingIfDue();
       }
     }
   }
@@ -3798,64 +4696,276 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
   }
 
   /**
-   * A custom queue for managing access order. Note that this is tightly integrated with {@code
-   * ReferenceEntry}, upon which it relies to perform its linking.
-   *
-   * <p>Note that this entire implementation makes the assumption that all elements which are in the
-   * map are also in this queue, and that all elements not in the queue are not in the map.
+   * A write queue for caches using an {@link Expiry}, which schedules each entry by its expiration
+   * time (held in its access time) on a hierarchical timer wheel. Each level of the wheel is an
+   * array of buckets that each span a power-of-two number of nanoseconds, from about a second on
+   * the lowest level to about a week on the highest. An entry is placed on the lowest level that
+   * can hold its expiration time without wrapping around, so adding, rescheduling and removing an
+   * entry takes constant time and never searches other entries. Every bucket is a {@link
+   * WriteQueue} linked through the same write pointers of {@code ReferenceEntry}.
    *
-   * <p>The benefits of creating our own queue are that (1) we can replace elements in the middle of
-   * the queue as part of copyWriteEntry, and (2) the contains method is highly optimized for the
-   * current model.
+   * <p>{@link #advance} visits the buckets whose whole span the current time has passed since the
+   * wheel was last advanced, moving expired entries to a queue of their own and cascading the
+   * others down to lower levels. On a higher level that advanced, it also cascades the bucket the
+   * current time entered, whose entries now fit on a lower level; each entry is cascaded at most
+   * once per level. The lowest-level bucket holding the current time isn't visited, as the wheel is
+   * advanced on every write and rescanning that bucket each time would make writes take time
+   * proportional to its size. Entries in it that have already expired are found by the lazy
+   * expiration checks of reads, and reach {@link #peek} once the bucket's span has passed, at most
+   * about a second later, or when {@link #sweep} is called by an explicit cleanup. Iteration visits
+   * expired entries first, followed by the buckets in no particular order.
    */
-  static final class AccessQueue<K, V> extends AbstractQueue<ReferenceEntry<K, V>> {
-    final ReferenceEntry<K, V> head =
-        new AbstractReferenceEntry<K, V>() {
+  static final class TimerWheel<K, V> extends AbstractQueue<ReferenceEntry<K, V>> {
+    /** The number of buckets on each level of the wheel. */
+    static final int[] BUCKETS = {64, 64, 32, 4, 1};
+
+    /** The number of nanoseconds spanned by each bucket on each level of the wheel. */
+    static final long[] SPANS = {
+      1L << 30, // 1.07s
+      1L << 36, // 1.14m
+      1L << 42, // 1.22h
+      1L << 47, // 1.63d
+      1L << 49, // 6.5d
+    };
 
-          @Override
-          public long getAccessTime() {
-            return Long.MAX_VALUE;
-          }
+    final WriteQueue<K, V>[][] wheel;
+    final WriteQueue<K, V> expired = new WriteQueue<>();
 
-          @Override
-          public void setAccessTime(long time) {}
+    /** The ticker time from which wheel times are measured, so that they are never negative. */
+    final long origin;
 
-          @Weak ReferenceEntry<K, V> nextAccess = this;
+    /** The wheel time that the wheel was last advanced to. */
+    long time;
 
-          @Override
-          public ReferenceEntry<K, V> getNextInAccessQueue() {
-            return nextAccess;
-          }
+    int size;
 
-          @Override
-          public void setNextInAccessQueue(ReferenceEntry<K, V> next) {
-            this.nextAccess = next;
-          }
+    @SuppressWarnings("unchecked")
+    TimerWheel(long origin) {
+      this.origin = origin;
+      wheel = (WriteQueue<K, V>[][]) new WriteQueue<?, ?>[BUCKETS.length][];
+      for (int i = 0; i < BUCKETS.length; i++) {
+        wheel[i] = (WriteQueue<K, V>[]) new WriteQueue<?, ?>[BUCKETS[i]];
+        for (int j = 0; j < BUCKETS[i]; j++) {
+          wheel[i][j] = new WriteQueue<>();
+        }
+      }
+    }
 
-          @Weak ReferenceEntry<K, V> previousAccess = this;
+    /**
+     * Advances the wheel to the ticker time {@code now}, after which every entry that expired
+     * before the start of the lowest-level bucket holding {@code now} is at the head of this queue.
+     * This takes time proportional to the number of entries in the buckets that were passed or
+     * entered, so repeatedly advancing the wheel within a bucket takes constant time.
+     */
+    void advance(long now) {
+      long previousTime = time;
+      long currentTime = now - origin;
+      if (currentTime - previousTime <= 0) {
+        return;
+      }
+      time = currentTime;
+
+      for (int i = 0; i < BUCKETS.length; i++) {
+        int shift = Long.numberOfTrailingZeros(SPANS[i]);
+        long previousTicks = previousTime >>> shift;
+        long delta = (currentTime >>> shift) - previousTicks;
+        if (delta <= 0) {
+          // no bucket of this level has passed, and coarser levels can't have advanced either
+          break;
+        }
+        int steps = (int) Math.min(delta, BUCKETS[i]);
+        for (int j = 0; j < steps; j++) {
+          expire(wheel[i][(int) (previousTicks + j) & (BUCKETS[i] - 1)]);
+        }
+        if ((i > 0) && (delta < BUCKETS[i])) {
+          expire(wheel[i][(int) (previousTicks + delta) & (BUCKETS[i] - 1)]);
+        }
+      }
+    }
 
-          @Override
-          public ReferenceEntry<K, V> getPreviousInAccessQueue() {
-            return previousAccess;
-          }
+    /**
+     * Moves the expired entries of the lowest-level bucket holding the time the wheel was last
+     * advanced to, which {@link #advance} leaves in place, to the head of this queue.
+     */
+    void sweep() {
+      int shift = Long.numberOfTrailingZeros(SPANS[0]);
+      expire(wheel[0][(int) (time >>> shift) & (BUCKETS[0] - 1)]);
+    }
 
-          @Override
-          public void setPreviousInAccessQueue(ReferenceEntry<K, V> previous) {
-            this.previousAccess = previous;
-          }
-        };
+    /** Reschedules every entry of {@code bucket}, moving those that have expired to the queue. */
+    private void expire(WriteQueue<K, V> bucket) {
+      ReferenceEntry<K, V> head = bucket.head;
+      ReferenceEntry<K, V> e = head.getNextInWriteQueue();
+      connectWriteOrder(head, head);
+      while (e != head) {
+        ReferenceEntry<K, V> next = e.getNextInWriteQueue();
+        nullifyWriteOrder(e);
+        schedule(e);
+        e = next;
+      }
+    }
+
+    private void schedule(ReferenceEntry<K, V> entry) {
+      bucketFor(entry.getAccessTime() - origin).offer(entry);
+    }
+
+    /** Returns the bucket for an entry that expires at {@code expirationTime} on this wheel. */
+    private WriteQueue<K, V> bucketFor(long expirationTime) {
+      if (expirationTime - time <= 0) {
+        return expired;
+      }
+      for (int i = 0; i < BUCKETS.length - 1; i++) {
+        int shift = Long.numberOfTrailingZeros(SPANS[i]);
+        long ticks = expirationTime >>> shift;
+        if (ticks - (time >>> shift) < BUCKETS[i]) {
+          return wheel[i][(int) ticks & (BUCKETS[i] - 1)];
+        }
+      }
+      return wheel[BUCKETS.length - 1][0];
+    }
+
+    /** Returns the queue of expired entries followed by every bucket of the wheel. */
+    List<WriteQueue<K, V>> queues() {
+      List<WriteQueue<K, V>> queues = new ArrayList<>();
+      queues.add(expired);
+      for (WriteQueue<K, V>[] level : wheel) {
+        Collections.addAll(queues, level);
+      }
+      return queues;
+    }
 
     // implements Queue
 
+    /** Schedules {@code entry}, or reschedules it if its expiration time changed. */
     @Override
     public boolean offer(ReferenceEntry<K, V> entry) {
-      // unlink
-      connectAccessOrder(entry.getPreviousInAccessQueue(), entry.getNextInAccessQueue());
-
-      // add to tail
-      connectAccessOrder(head.getPreviousInAccessQueue(), entry);
-      connectAccessOrder(entry, head);
-
+      if (!contains(entry)) {
+        size++;
+      }
+      schedule(entry);
+      return true;
+    }
+
+    /** Returns an entry that had expired when the wheel was last advanced, if any. */
+    @CheckForNull
+    @Override
+    public ReferenceEntry<K, V> peek() {
+      return expired.peek();
+    }
+
+    @CheckForNull
+    @Override
+    public ReferenceEntry<K, V> poll() {
+      ReferenceEntry<K, V> next = peek();
+      if (next != null) {
+        remove(next);
+      }
+      return next;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    @CanIgnoreReturnValue
+    public boolean remove(Object o) {
+      ReferenceEntry<K, V> e = (ReferenceEntry<K, V>) o;
+      if (!contains(e)) {
+        return false;
+      }
+      size--;
+      // every bucket shares the same links, so any of them can unlink the entry
+      return expired.remove(e);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean contains(Object o) {
+      ReferenceEntry<K, V> e = (ReferenceEntry<K, V>) o;
+      return e.getNextInWriteQueue() != NullEntry.INSTANCE;
+    }
+
+    @Override
+    public boolean isEmpty() {
+      return size == 0;
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+
+    @Override
+    public void clear() {
+      for (WriteQueue<K, V> queue : queues()) {
+        queue.clear();
+      }
+      size = 0;
+    }
+
+    @Override
+    public Iterator<ReferenceEntry<K, V>> iterator() {
+      return Iterables.concat(queues()).iterator();
+    }
+  }
+
+  /**
+   * A custom queue for managing access order. Note that this is tightly integrated with {@code
+   * ReferenceEntry}, upon which it relies to perform its linking.
+   *
+   * <p>Note that this entire implementation makes the assumption that all elements which are in the
+   * map are also in this queue, and that all elements not in the queue are not in the map.
+   *
+   * <p>The benefits of creating our own queue are that (1) we can replace elements in the middle of
+   * the queue as part of copyWriteEntry, and (2) the contains method is highly optimized for the
+   * current model.
+   */
+  static final class AccessQueue<K, V> extends AbstractQueue<ReferenceEntry<K, V>> {
+    final ReferenceEntry<K, V> head =
+        new AbstractReferenceEntry<K, V>() {
+
+          @Override
+          public long getAccessTime() {
+            return Long.MAX_VALUE;
+          }
+
+          @Override
+          public void setAccessTime(long time) {}
+
+          @Weak ReferenceEntry<K, V> nextAccess = this;
+
+          @Override
+          public ReferenceEntry<K, V> getNextInAccessQueue() {
+            return nextAccess;
+          }
+
+          @Override
+          public void setNextInAccessQueue(ReferenceEntry<K, V> next) {
+            this.nextAccess = next;
+          }
+
+          @Weak ReferenceEntry<K, V> previousAccess = this;
+
+          @Override
+          public ReferenceEntry<K, V> getPreviousInAccessQueue() {
+            return previousAccess;
+          }
+
+          @Override
+          public void setPreviousInAccessQueue(ReferenceEntry<K, V> previous) {
+            this.previousAccess = previous;
+          }
+        };
+
+    // implements Queue
+
+    @Override
+    public boolean offer(ReferenceEntry<K, V> entry) {
+      // unlink
+      connectAccessOrder(entry.getPreviousInAccessQueue(), entry.getNextInAccessQueue());
+
+      // add to tail
+      connectAccessOrder(head.getPreviousInAccessQueue(), entry);
+      connectAccessOrder(entry, head);
+
       return true;
     }
 
@@ -3940,12 +5050,309 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
     }
   }
 
+  /**
+   * An access queue for caches using {@link EvictionPolicy#WINDOW_TINY_LFU}. Entries are kept in
+   * three regions, each of which is an {@link AccessQueue} linked through the same access pointers
+   * of {@code ReferenceEntry}: a small admission window for new entries, and a main region split
+   * into probation and protected regions. Every offer records an access in a {@link
+   * FrequencySketch}, which the owning segment consults when deciding whether an entry leaving the
+   * window should replace the next eviction victim of the main region.
+   *
+   * <p>The regions are sized by entry count relative to the number of entries in this queue rather
+   * than by weight, so that weighted caches don't need to track the weight of each region.
+   * Iteration (and therefore {@link Segment#getNextEvictable}) visits probation, then protected,
+   * then window entries.
+   *
+   * <p>Each region is ordered by access, but an entry demoted from the protected region retains its
+   * earlier access time, so {@link #peek} only approximates the least recently accessed entry. This
+   * only affects how promptly entries which expire after access are cleaned up; lookups never
+   * return expired entries. Access times are only compared when the cache records them: without
+   * {@code expireAfterAccess} they are unset, and with {@code expireAfter} they hold expiration
+   * times, so {@link #peek} instead follows the region order of iteration.
+   */
+  static final class TinyLfuAccessQueue<K, V> extends AbstractQueue<ReferenceEntry<K, V>> {
+    static final int WINDOW = 0;
+    static final int PROBATION = 1;
+    static final int PROTECTED = 2;
+
+    /** Percentage of entries that are held in the admission window. */
+    static final int WINDOW_PERCENT = 1;
+
+    /** Percentage of the main region's entries that are held in the protected region. */
+    static final int PROTECTED_PERCENT = 80;
+
+    final AccessQueue<K, V> window = new AccessQueue<>();
+    final AccessQueue<K, V> probation = new AccessQueue<>();
+    final AccessQueue<K, V> protectedRegion = new AccessQueue<>();
+    final FrequencySketch sketch = new FrequencySketch();
+
+    /** Whether entries' access times are last access times, and so may be compared by peek. */
+    final boolean comparesAccessTimes;
+
+    int size;
+    int windowSize;
+    int protectedSize;
+
+    TinyLfuAccessQueue(boolean comparesAccessTimes) {
+      this.comparesAccessTimes = comparesAccessTimes;
+    }
+
+    /**
+     * Records an access to {@code entry}. New entries are added to the admission window; entries
+     * that are accessed while on probation are promoted to the protected region, which may in turn
+     * demote its least recently used entries back to probation.
+     */
+    @Override
+    public boolean offer(ReferenceEntry<K, V> entry) {
+      if (!contains(entry)) {
+        size++;
+        windowSize++;
+        sketch.ensureCapacity(size);
+        sketch.increment(entry.getHash());
+        entry.setAccessRegion(WINDOW);
+        window.offer(entry);
+        return true;
+      }
+
+      sketch.increment(entry.getHash());
+      switch (entry.getAccessRegion()) {
+        case WINDOW:
+          window.offer(entry);
+          break;
+        case PROBATION:
+          protectedSize++;
+          entry.setAccessRegion(PROTECTED);
+          protectedRegion.offer(entry);
+          demoteProtected();
+          break;
+        case PROTECTED:
+          protectedRegion.offer(entry);
+          break;
+        default:
+          throw new AssertionError();
+      }
+      return true;
+    }
+
+    private void demoteProtected() {
+      int maxProtected = (int) ((long) (size - windowSize) * PROTECTED_PERCENT / 100);
+      while (protectedSize > maxProtected) {
+        ReferenceEntry<K, V> demoted = protectedRegion.peek();
+        protectedSize--;
+        demoted.setAccessRegion(PROBATION);
+        probation.offer(demoted);
+      }
+    }
+
+    /**
+     * Returns the least recently used entry of the admission window if the window holds more than
+     * its share of entries, or {@code null} if no entry needs to leave the window.
+     */
+    @CheckForNull
+    ReferenceEntry<K, V> peekWindowOverflow() {
+      int maxWindow = Math.max(1, size * WINDOW_PERCENT / 100);
+      return (windowSize > maxWindow) ? window.peek() : null;
+    }
+
+    /** Moves {@code candidate} from the admission window to the tail of the probation region. */
+    void admit(ReferenceEntry<K, V> candidate) {
+      checkState(candidate.getAccessRegion() == WINDOW);
+      windowSize--;
+      candidate.setAccessRegion(PROBATION);
+      probation.offer(candidate);
+    }
+
+    /**
+     * Returns whether {@code candidate} should be admitted into the main region at the expense of
+     * {@code victim}. Ties favor the victim, so that a scan of keys which are seen only once never
+     * displaces entries already in the main region.
+     */
+    boolean admits(ReferenceEntry<K, V> candidate, ReferenceEntry<K, V> victim) {
+      return sketch.frequency(candidate.getHash()) > sketch.frequency(victim.getHash());
+    }
+
+    @CheckForNull
+    @Override
+    public ReferenceEntry<K, V> peek() {
+      ReferenceEntry<K, V> oldest = probation.peek();
+      if (!comparesAccessTimes) {
+        if (oldest == null) {
+          oldest = protectedRegion.peek();
+        }
+        return (oldest == null) ? window.peek() : oldest;
+      }
+      oldest = lessRecentlyAccessed(oldest, protectedRegion.peek());
+      return lessRecentlyAccessed(oldest, window.peek());
+    }
+
+    @CheckForNull
+    private static <K, V> ReferenceEntry<K, V> lessRecentlyAccessed(
+        @CheckForNull ReferenceEntry<K, V> a, @CheckForNull ReferenceEntry<K, V> b) {
+      if (a == null) {
+        return b;
+      } else if (b == null) {
+        return a;
+      }
+      return (b.getAccessTime() < a.getAccessTime()) ? b : a;
+    }
+
+    @CheckForNull
+    @Override
+    public ReferenceEntry<K, V> poll() {
+      ReferenceEntry<K, V> next = peek();
+      if (next != null) {
+        remove(next);
+      }
+      return next;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    @CanIgnoreReturnValue
+    public boolean remove(Object o) {
+      ReferenceEntry<K, V> e = (ReferenceEntry<K, V>) o;
+      if (!contains(e)) {
+        return false;
+      }
+      switch (e.getAccessRegion()) {
+        case WINDOW:
+          windowSize--;
+          break;
+        case PROTECTED:
+          protectedSize--;
+          break;
+        default:
+          break;
+      }
+      size--;
+      // every region shares the same links, so any of them can unlink the entry
+      return window.remove(e);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean contains(Object o) {
+      ReferenceEntry<K, V> e = (ReferenceEntry<K, V>) o;
+      return e.getNextInAccessQueue() != NullEntry.INSTANCE;
+    }
+
+    @Override
+    public boolean isEmpty() {
+      return size == 0;
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+
+    @Override
+    public void clear() {
+      window.clear();
+      probation.clear();
+      protectedRegion.clear();
+      size = 0;
+      windowSize = 0;
+      protectedSize = 0;
+    }
+
+    @Override
+    public Iterator<ReferenceEntry<K, V>> iterator() {
+      return Iterators.concat(probation.iterator(), protectedRegion.iterator(), window.iterator());
+    }
+  }
+
+  // Snapshots
+
+  /**
+   * Returns the live entries of this cache, most recently accessed first, until the next entry
+   * would make their total weight exceed {@code maximumWeight}. Segments are ordered separately,
+   * so their entries are interleaved.
+   */
+  List<Entry<K, V>> hotEntries(long maximumWeight) {
+    List<Iterator<ReferenceEntry<K, V>>> segmentEntries = new ArrayList<>(segments.length);
+    for (Segment<K, V> segment : segments) {
+      segmentEntries.add(segment.entriesByAccess().iterator());
+    }
+    long now = ticker.read();
+    List<Entry<K, V>> entries = new ArrayList<>();
+    long weight = 0;
+    while (!segmentEntries.isEmpty()) {
+      for (Iterator<Iterator<ReferenceEntry<K, V>>> it = segmentEntries.iterator();
+          it.hasNext(); ) {
+        Iterator<ReferenceEntry<K, V>> segmentIterator = it.next();
+        if (!segmentIterator.hasNext()) {
+          it.remove();
+          continue;
+        }
+        ReferenceEntry<K, V> e = segmentIterator.next();
+        K key = e.getKey();
+        V value = getLiveValue(e, now);
+        if (key == null || value == null) {
+          continue;
+        }
+        int entryWeight = e.getValueReference().getWeight();
+        if (weight + entryWeight > maximumWeight) {
+          return entries;
+        }
+        weight += entryWeight;
+        entries.add(Maps.immutableEntry(key, value));
+      }
+    }
+    return entries;
+  }
+
+  /**
+   * Adds the entries of a snapshot to this cache while it's being constructed. If the snapshot
+   * can't be read, the entries read until then are added.
+   */
+  void warmStart(ByteSource snapshot, ValueCodec<K> keyCodec, ValueCodec<V> valueCodec) {
+    List<K> keys = new ArrayList<>();
+    List<V> values = new ArrayList<>();
+    try (InputStream in = snapshot.openBufferedStream()) {
+      CacheSnapshots.read(in, keyCodec, valueCodec, keys, values);
+    } catch (IOException | RuntimeException e) {
+      logger.log(Level.WARNING, "Exception thrown while reading cache snapshot " + snapshot, e);
+    }
+
+    // group the entries by segment, keeping their order
+    int[] hashes = new int[keys.size()];
+    int[][] indices = new int[segments.length][];
+    int[] lengths = new int[segments.length];
+    for (int i = 0; i < keys.size(); i++) {
+      hashes[i] = hash(keys.get(i));
+      lengths[(hashes[i] >>> segmentShift) & segmentMask]++;
+    }
+    for (int s = 0; s < segments.length; s++) {
+      indices[s] = new int[lengths[s]];
+      lengths[s] = 0;
+    }
+    for (int i = 0; i < keys.size(); i++) {
+      int s = (hashes[i] >>> segmentShift) & segmentMask;
+      indices[s][lengths[s]++] = i;
+    }
+    for (int s = 0; s < segments.length; s++) {
+      if (lengths[s] > 0) {
+        segments[s].bulkLoad(keys, values, hashes, indices[s], lengths[s]);
+      }
+    }
+  }
+
   // Cache support
 
   public void cleanUp() {
     for (Segment<?, ?> segment : segments) {
+      if (expiresVariably()) {
+        // only an explicit or scheduled cleanup pays for scanning the current bucket
+        segment.sweepTimerWheel();
+      }
       segment.cleanUp();
     }
+    refreshPendingIfDue();
+    if (maintenanceExecutor != null) {
+      // notifications are delivered by the caller of an explicit cleanup, as without an executor
+      processPendingNotifications();
+    }
   }
 
   // ConcurrentMap methods
@@ -4014,11 +5421,19 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
   @CheckForNull
   public V getIfPresent(Object key) {
     int hash = hash(checkNotNull(key));
+    long start = recordsHitLatency ? ticker.read() : 0;
     V value = segmentFor(hash).get(key, hash);
     if (value == null) {
-      globalStatsCounter.recordMisses(1);
+      if (hasNegativeResult(key)) {
+        globalStatsCounter.recordNegativeHits(1);
+      } else {
+        globalStatsCounter.recordMisses(1);
+      }
     } else {
       globalStatsCounter.recordHits(1);
+      if (recordsHitLatency) {
+        globalStatsCounter.recordHitLatency(ticker.read() - start);
+      }
     }
     return value;
   }
@@ -4039,12 +5454,17 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
   ImmutableMap<K, V> getAllPresent(Iterable<?> keys) {
     int hits = 0;
     int misses = 0;
+    int negativeHits = 0;
 
     ImmutableMap.Builder<K, V> result = ImmutableMap.builder();
     for (Object key : keys) {
       V value = get(key);
       if (value == null) {
-        misses++;
+        if (hasNegativeResult(key)) {
+          negativeHits++;
+        } else {
+          misses++;
+        }
       } else {
         // TODO(fry): store entry key instead of query key
         @SuppressWarnings("unchecked")
@@ -4055,39 +5475,57 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
     }
     globalStatsCounter.recordHits(hits);
     globalStatsCounter.recordMisses(misses);
+    if (negativeHits > 0) {
+      globalStatsCounter.recordNegativeHits(negativeHits);
+    }
     return result.buildKeepingLast();
   }
 
   ImmutableMap<K, V> getAll(Iterable<? extends K> keys) throws ExecutionException {
     int hits = 0;
     int misses = 0;
+    int negativeHits = 0;
 
     Map<K, V> result = Maps.newLinkedHashMap();
     Set<K> keysToLoad = Sets.newLinkedHashSet();
+    K negativeKey = null;
     for (K key : keys) {
       V value = get(key);
       if (!result.containsKey(key)) {
         result.put(key, value);
-        if (value == null) {
+        if (value != null) {
+          hits++;
+        } else if (hasNegativeResult(key)) {
+          negativeHits++;
+          negativeKey = key;
+        } else {
           misses++;
           keysToLoad.add(key);
-        } else {
-          hits++;
         }
       }
     }
 
     try {
+      if (negativeKey != null) {
+        throw negativeResultException(negativeKey);
+      }
       if (!keysToLoad.isEmpty()) {
         try {
           Map<K, V> newEntries = loadAll(unmodifiableSet(keysToLoad), defaultLoader);
+          K missingKey = null;
           for (K key : keysToLoad) {
             V value = newEntries.get(key);
             if (value == null) {
-              throw new InvalidCacheLoadException("loadAll failed to return a value for " + key);
+              int hash = hash(key);
+              segmentFor(hash).cacheNegativeResultIfAbsent(key, hash, globalStatsCounter);
+              missingKey = (missingKey == null) ? key : missingKey;
             }
             result.put(key, value);
           }
+          if (missingKey != null) {
+            throw new InvalidCacheLoadException(
+                "loadAll failed to return a value for " + missingKey);
+          }
         } catch (UnsupportedLoadingOperationException e) {
           // loadAll not implemented, fallback to load
           for (K key : keysToLoad) {
@@ -4100,6 +5538,9 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
     } finally {
       globalStatsCounter.recordHits(hits);
       globalStatsCounter.recordMisses(misses);
+      if (negativeHits > 0) {
+        globalStatsCounter.recordNegativeHits(negativeHits);
+      }
     }
   }
 
@@ -4167,6 +5608,226 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
     return result;
   }
 
+  ListenableFuture<ImmutableMap<K, V>> getAllAsync(
+      Iterable<? extends K> keys, CacheLoader<? super K, V> loader, Executor executor) {
+    // Reject null keys before reserving anything, since a reserved key must be loaded or failed
+    ImmutableSet<K> keySet = ImmutableSet.copyOf(keys);
+    Map<K, ListenableFuture<V>> futures = Maps.newLinkedHashMap();
+    Map<K, LoadingValueReference<K, V>> reserved = Maps.newLinkedHashMap();
+    for (K key : keySet) {
+      int hash = hash(key);
+      futures.put(key, segmentFor(hash).getAsync(key, hash, loader, executor, reserved));
+    }
+
+    if (!reserved.isEmpty()) {
+      try {
+        executor.execute(() -> loadAllReserved(reserved, loader));
+      } catch (RuntimeException e) {
+        globalStatsCounter.recordLoadException(0);
+        failReserved(reserved, e);
+      }
+    }
+
+    final ImmutableList<K> orderedKeys = ImmutableList.copyOf(futures.keySet());
+    return transform(
+        Futures.allAsList(futures.values()),
+        values -> {
+          ImmutableMap.Builder<K, V> result = ImmutableMap.builderWithExpectedSize(values.size());
+          for (int i = 0; i < values.size(); i++) {
+            result.put(orderedKeys.get(i), values.get(i));
+          }
+          return result.buildOrThrow();
+        },
+        directExecutor());
+  }
+
+  /**
+   * Loads the values reserved by {@link #getAllAsync} with a single call to {@link
+   * CacheLoader#loadAll}, storing each loaded value and completing its loading value reference. If
+   * {@code loadAll} is not implemented, each value is loaded individually instead.
+   */
+  void loadAllReserved(
+      Map<K, LoadingValueReference<K, V>> reserved, CacheLoader<? super K, V> loader) {
+    Stopwatch stopwatch = Stopwatch.createStarted();
+    Map<K, V> result;
+    try {
+      @SuppressWarnings("unchecked") // safe since all keys extend K
+      Map<K, V> map = (Map<K, V>) loader.loadAll(unmodifiableSet(reserved.keySet()));
+      result = map;
+    } catch (UnsupportedLoadingOperationException e) {
+      // loadAll not implemented, fallback to load
+      for (Entry<K, LoadingValueReference<K, V>> entry : reserved.entrySet()) {
+        K key = entry.getKey();
+        int hash = hash(key);
+        segmentFor(hash).loadOnExecutor(key, hash, entry.getValue(), loader, directExecutor());
+      }
+      return;
+    } catch (Throwable t) {
+      if (t instanceof InterruptedException) {
+        Thread.currentThread().interrupt();
+      }
+      globalStatsCounter.recordLoadException(stopwatch.elapsed(NANOSECONDS));
+      failReserved(reserved, t);
+      return;
+    }
+
+    if (result == null) {
+      globalStatsCounter.recordLoadException(stopwatch.elapsed(NANOSECONDS));
+      failReserved(
+          reserved, new InvalidCacheLoadException(loader + " returned null map from loadAll"));
+      return;
+    }
+
+    stopwatch.stop();
+    boolean nullsPresent = false;
+    for (Entry<K, V> entry : result.entrySet()) {
+      K key = entry.getKey();
+      V value = entry.getValue();
+      if (key == null || value == null) {
+        // delay failure until non-null entries are stored
+        nullsPresent = true;
+        continue;
+      }
+      LoadingValueReference<K, V> loadingValueReference = reserved.remove(key);
+      if (loadingValueReference == null) {
+        put(key, value);
+      } else {
+        int hash = hash(key);
+        segmentFor(hash).storeLoadedValue(key, hash, loadingValueReference, value);
+        loadingValueReference.set(value);
+      }
+    }
+
+    if (nullsPresent || !reserved.isEmpty()) {
+      globalStatsCounter.recordLoadException(stopwatch.elapsed(NANOSECONDS));
+      for (Entry<K, LoadingValueReference<K, V>> entry : reserved.entrySet()) {
+        K key = entry.getKey();
+        LoadingValueReference<K, V> loadingValueReference = entry.getValue();
+        loadingValueReference.setException(
+            new InvalidCacheLoadException("loadAll failed to return a value for " + key));
+        int hash = hash(key);
+        segmentFor(hash)
+            .removeLoadingValueWithNegativeResult(
+                key, hash, loadingValueReference, globalStatsCounter);
+      }
+    } else {
+      globalStatsCounter.recordLoadSuccess(stopwatch.elapsed(NANOSECONDS));
+    }
+  }
+
+  /** Refreshes the batch of stale entries waiting to be refreshed, if its window has elapsed. */
+  void refreshPendingIfDue() {
+    if (refreshBatcher != null) {
+      refreshBatcher.refreshIfDue(ticker.read());
+    }
+  }
+
+  /**
+   * Refreshes a batch of stale entries with a single call to {@link CacheLoader#reloadAll},
+   * storing each new value as if it was refreshed individually. If {@code reloadAll} is not
+   * implemented, each entry is refreshed by {@link CacheLoader#reload} instead.
+   */
+  void reloadAll(Map<K, LoadingValueReference<K, V>> batch) {
+    Map<K, V> oldValues = Maps.newLinkedHashMapWithExpectedSize(batch.size());
+    for (Iterator<Entry<K, LoadingValueReference<K, V>>> i = batch.entrySet().iterator();
+        i.hasNext(); ) {
+      Entry<K, LoadingValueReference<K, V>> entry = i.next();
+      V oldValue = entry.getValue().getOldValue().get();
+      if (oldValue == null) {
+        // the entry was removed while it waited, so there is nothing to refresh
+        i.remove();
+        K key = entry.getKey();
+        int hash = hash(key);
+        segmentFor(hash).removeLoadingValue(key, hash, entry.getValue());
+      } else {
+        oldValues.put(entry.getKey(), oldValue);
+      }
+    }
+    if (batch.isEmpty()) {
+      return;
+    }
+
+    @SuppressWarnings("unchecked") // safe since the loader only sees keys of type K
+    CacheLoader<K, V> loader = (CacheLoader<K, V>) checkNotNull(defaultLoader);
+    Stopwatch stopwatch = Stopwatch.createStarted();
+    ListenableFuture<Map<K, V>> future;
+    try {
+      future = loader.reloadAll(Collections.unmodifiableMap(oldValues));
+      if (future == null) {
+        throw new InvalidCacheLoadException(loader + " returned null future from reloadAll");
+      }
+    } catch (Throwable t) {
+      if (t instanceof InterruptedException) {
+        Thread.currentThread().interrupt();
+      }
+      future = Futures.immediateFailedFuture(t);
+    }
+    ListenableFuture<Map<K, V>> newValues = future;
+    newValues.addListener(
+        () -> storeReloaded(batch, newValues, loader, stopwatch), directExecutor());
+  }
+
+  private void storeReloaded(
+      Map<K, LoadingValueReference<K, V>> batch,
+      ListenableFuture<Map<K, V>> newValues,
+      CacheLoader<K, V> loader,
+      Stopwatch stopwatch) {
+    Map<K, V> result;
+    try {
+      result = getUninterruptibly(newValues);
+      if (result == null) {
+        throw new InvalidCacheLoadException(loader + " returned null map from reloadAll");
+      }
+    } catch (Throwable t) {
+      Throwable cause = (t instanceof ExecutionException) ? t.getCause() : t;
+      if (cause instanceof UnsupportedLoadingOperationException) {
+        // reloadAll not implemented, fallback to reload
+        for (Entry<K, LoadingValueReference<K, V>> entry : batch.entrySet()) {
+          K key = entry.getKey();
+          int hash = hash(key);
+          segmentFor(hash).loadAsync(key, hash, entry.getValue(), loader);
+        }
+        return;
+      }
+      logger.log(Level.WARNING, "Exception thrown during refresh", cause);
+      globalStatsCounter.recordLoadException(stopwatch.elapsed(NANOSECONDS));
+      failReserved(batch, cause);
+      return;
+    }
+
+    stopwatch.stop();
+    for (Entry<K, LoadingValueReference<K, V>> entry : batch.entrySet()) {
+      K key = entry.getKey();
+      LoadingValueReference<K, V> loadingValueReference = entry.getValue();
+      V value = result.get(key);
+      if (value == null) {
+        // keep the old value; reloadAll may omit keys, so this isn't counted as a failed load
+        failReserved(
+            key,
+            loadingValueReference,
+            new InvalidCacheLoadException("reloadAll failed to return a value for " + key));
+      } else {
+        int hash = hash(key);
+        segmentFor(hash).storeLoadedValue(key, hash, loadingValueReference, value);
+        loadingValueReference.set(value);
+      }
+    }
+    globalStatsCounter.recordLoadSuccess(stopwatch.elapsed(NANOSECONDS));
+  }
+
+  private void failReserved(Map<K, LoadingValueReference<K, V>> reserved, Throwable t) {
+    for (Entry<K, LoadingValueReference<K, V>> entry : reserved.entrySet()) {
+      failReserved(entry.getKey(), entry.getValue(), t);
+    }
+  }
+
+  private void failReserved(
+      K key, LoadingValueReference<K, V> loadingValueReference, Throwable t) {
+    loadingValueReference.setException(t);
+    int hash = hash(key);
+    segmentFor(hash).removeLoadingValue(key, hash, loadingValueReference);
+  }
+
   /**
    * Returns the internal entry for the specified key. The entry may be loading, expired, or
    * partially collected.
@@ -4300,6 +5961,7 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
     if (key == null) {
       return null;
     }
+    discardNegativeResult(key);
     int hash = hash(key);
     return segmentFor(hash).remove(key, hash);
   }
@@ -4338,6 +6000,9 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
 
   @Override
   public void clear() {
+    if (negativeResults != null) {
+      negativeResults.clear();
+    }
     for (Segment<K, V> segment : segments) {
       segment.clear();
     }
@@ -4742,8 +6407,12 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
     final Equivalence<Object> valueEquivalence;
     final long expireAfterWriteNanos;
     final long expireAfterAccessNanos;
+    @CheckForNull final Expiry<? super K, ? super V> expiry;
+    @CheckForNull final ValueCodec<V> valueCodec;
+    @CheckForNull final String slabDirectory;
     final long maxWeight;
     final Weigher<K, V> weigher;
+    @CheckForNull final EvictionPolicy evictionPolicy;
     final int concurrencyLevel;
     final RemovalListener<? super K, ? super V> removalListener;
     @CheckForNull final Ticker ticker;
@@ -4759,8 +6428,14 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
           cache.valueEquivalence,
           cache.expireAfterWriteNanos,
           cache.expireAfterAccessNanos,
+          cache.expiry,
+          (cache.offHeapStore == null) ? null : cache.offHeapStore.codec,
+          (cache.offHeapStore == null || cache.offHeapStore.directory == null)
+              ? null
+              : cache.offHeapStore.directory.toString(),
           cache.maxWeight,
           cache.weigher,
+          cache.evictionPolicy,
           cache.concurrencyLevel,
           cache.removalListener,
           cache.ticker,
@@ -4774,8 +6449,12 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
         Equivalence<Object> valueEquivalence,
         long expireAfterWriteNanos,
         long expireAfterAccessNanos,
+        @CheckForNull Expiry<? super K, ? super V> expiry,
+        @CheckForNull ValueCodec<V> valueCodec,
+        @CheckForNull String slabDirectory,
         long maxWeight,
         Weigher<K, V> weigher,
+        EvictionPolicy evictionPolicy,
         int concurrencyLevel,
         RemovalListener<? super K, ? super V> removalListener,
         Ticker ticker,
@@ -4786,8 +6465,12 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
       this.valueEquivalence = valueEquivalence;
       this.expireAfterWriteNanos = expireAfterWriteNanos;
       this.expireAfterAccessNanos = expireAfterAccessNanos;
+      this.expiry = expiry;
+      this.valueCodec = valueCodec;
+      this.slabDirectory = slabDirectory;
       this.maxWeight = maxWeight;
       this.weigher = weigher;
+      this.evictionPolicy = evictionPolicy;
       this.concurrencyLevel = concurrencyLevel;
       this.removalListener = removalListener;
       this.ticker = (ticker == Ticker.systemTicker() || ticker == NULL_TICKER) ? null : ticker;
@@ -4810,7 +6493,16 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
       if (expireAfterAccessNanos > 0) {
         builder.expireAfterAccess(expireAfterAccessNanos, TimeUnit.NANOSECONDS);
       }
-      if (weigher != OneWeigher.INSTANCE) {
+      if (expiry != null) {
+        Object unused = builder.expireAfter(expiry);
+      }
+      if (valueCodec != null) {
+        Object unused =
+            (slabDirectory == null)
+                ? builder.offHeapValues(valueCodec)
+                : builder.offHeapValues(valueCodec, Paths.get(slabDirectory));
+        builder.maximumWeight(maxWeight);
+      } else if (weigher != OneWeigher.INSTANCE) {
         Object unused = builder.weigher(weigher);
         if (maxWeight != UNSET_INT) {
           builder.maximumWeight(maxWeight);
@@ -4820,6 +6512,9 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
           builder.maximumSize(maxWeight);
         }
       }
+      if (evictionPolicy != null && evictionPolicy != EvictionPolicy.LEAST_RECENTLY_USED) {
+        builder.evictionPolicy(evictionPolicy);
+      }
       if (ticker != null) {
         builder.ticker(ticker);
       }
@@ -4915,6 +6610,11 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
       return localCache.getIfPresent(key);
     }
 
+    @Override
+    public boolean hasNegativeResult(Object key) {
+      return localCache.hasNegativeResult(checkNotNull(key));
+    }
+
     @Override
     public V get(K key, final Callable<? extends V> valueLoader) throws ExecutionException {
       checkNotNull(valueLoader);
@@ -4971,7 +6671,7 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
 
     @Override
     public CacheStats stats() {
-      SimpleStatsCounter aggregator = new SimpleStatsCounter();
+      SimpleStatsCounter aggregator = SimpleStatsCounter.withLatencyHistograms();
       aggregator.incrementBy(localCache.globalStatsCounter);
       for (Segment<K, V> segment : localCache.segments) {
         aggregator.incrementBy(segment.statsCounter);
@@ -5005,6 +6705,11 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
       super(new LocalCache<>(builder, checkNotNull(loader)));
     }
 
+    /** Creates a view of an existing loading {@code LocalCache}. */
+    LocalLoadingCache(LocalCache<K, V> localCache) {
+      super(localCache);
+    }
+
     // LoadingCache methods
 
     @Override
@@ -5050,4 +6755,45 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
       throw new InvalidObjectException("Use LoadingSerializationProxy");
     }
   }
+
+  static final class LocalAsyncLoadingCache<K, V> implements AsyncLoadingCache<K, V> {
+    final LocalCache<K, V> localCache;
+    final CacheLoader<? super K, V> loader;
+    final Executor executor;
+    final LoadingCache<K, V> synchronous;
+
+    LocalAsyncLoadingCache(
+        CacheBuilder<? super K, ? super V> builder,
+        CacheLoader<? super K, V> loader,
+        Executor executor) {
+      this.executor = checkNotNull(executor);
+      // refreshes triggered by reads must not block the reading thread either
+      this.loader = CacheLoader.asyncReloading(checkNotNull(loader), executor);
+      this.localCache = new LocalCache<>(builder, this.loader);
+      this.synchronous = new LocalLoadingCache<>(localCache);
+    }
+
+    @Override
+    @CheckForNull
+    public ListenableFuture<V> getIfPresent(Object key) {
+      int hash = localCache.hash(checkNotNull(key));
+      return localCache.segmentFor(hash).getIfPresentAsync(key, hash);
+    }
+
+    @Override
+    public ListenableFuture<V> get(K key) {
+      int hash = localCache.hash(checkNotNull(key));
+      return localCache.segmentFor(hash).getAsync(key, hash, loader, executor, null);
+    }
+
+    @Override
+    public ListenableFuture<ImmutableMap<K, V>> getAll(Iterable<? extends K> keys) {
+      return localCache.getAllAsync(keys, loader, executor);
+    }
+
+    @Override
+    public LoadingCache<K, V> synchronous() {
+      return synchronous;
+    }
+  }
 }
@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.common.cache;
+
+import com.google.common.annotations.GwtIncompatible;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import java.util.concurrent.ExecutionException;
+import javax.annotation.CheckForNull;
+
+/**
+ * A {@link LoadingCache} whose keys are {@code long} values, built by {@link
+ * CacheBuilder#buildLongKeyed}. Keys are stored unboxed, so a request for a cached value neither
+ * boxes its key nor allocates anything else. Keys are only boxed to be passed to the cache's {@link
+ * CacheLoader}, {@link Weigher} and {@link RemovalListener}.
+ *
+ * <p>Implementations of this interface are expected to be thread-safe, and can be safely accessed
+ * by multiple concurrent threads.
+ *
+ * @param <V> the type of the cache's values, which are not permitted to be null
+ * @since NEXT
+ */
+@GwtIncompatible
+@ElementTypesAreNonnullByDefault
+public interface LongKeyLoadingCache<V> {
+
+  /**
+   * Returns the value associated with {@code key} in this cache, first loading that value if
+   * necessary. If another call to {@link #get} or {@link #getUnchecked} is currently loading the
+   * value for {@code key}, simply waits for that thread to finish and returns its loaded value.
+   *
+   * @throws ExecutionException if a checked exception was thrown while loading the value
+   * @throws UncheckedExecutionException if an unchecked exception was thrown while loading the
+   *     value
+   * @throws ExecutionError if an error was thrown while loading the value
+   * @see LoadingCache#get
+   */
+  @CanIgnoreReturnValue
+  V get(long key) throws ExecutionException;
+
+  /**
+   * Returns the value associated with {@code key} in this cache, first loading that value if
+   * necessary. Unlike {@link #get}, this method does not throw a checked exception, and thus should
+   * only be used in situations where checked exceptions are not thrown by the cache loader.
+   *
+   * @throws UncheckedExecutionException if an exception was thrown while loading the value
+   * @throws ExecutionError if an error was thrown while loading the value
+   * @see LoadingCache#getUnchecked
+   */
+  @CanIgnoreReturnValue
+  V getUnchecked(long key);
+
+  /**
+   * Returns the value associated with {@code key} in this cache, or {@code null} if there is no
+   * cached value for {@code key}. A value that is still being loaded is not returned.
+   */
+  @CheckForNull
+  @CanIgnoreReturnValue
+  V getIfPresent(long key);
+
+  /**
+   * Associates {@code value} with {@code key} in this cache. If the cache previously contained a
+   * value associated with {@code key}, the old value is replaced by {@code value}.
+   */
+  void put(long key, V value);
+
+  /** Discards any cached value for key {@code key}. */
+  void invalidate(long key);
+
+  /** Discards all entries in the cache. */
+  void invalidateAll();
+
+  /** Returns the approximate number of entries in this cache. */
+  long size();
+
+  /**
+   * Returns a current snapshot of this cache's cumulative statistics, or a set of default values if
+   * the cache is not recording statistics. All statistics begin at zero and never decrease over the
+   * lifetime of the cache.
+   */
+  CacheStats stats();
+
+  /**
+   * Performs any pending maintenance operations needed by the cache, such as removing all the
+   * expired entries rather than only those that requests came across.
+   */
+  void cleanUp();
+}
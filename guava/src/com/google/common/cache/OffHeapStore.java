@@ -0,0 +1,407 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.common.cache;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.nio.file.StandardOpenOption.DELETE_ON_CLOSE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import com.google.common.annotations.GwtIncompatible;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.LocalCache.ValueReference;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.ref.ReferenceQueue;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.StampedLock;
+import javax.annotation.CheckForNull;
+
+/**
+ * Stores the encoded values of a cache outside of the Java heap, in direct or memory-mapped {@link
+ * ByteBuffer} slabs.
+ *
+ * <p>Memory is handed out in power-of-two chunks. Each slab holds chunks of a single size, and
+ * freed chunks are reused for values of the same size class, so the store never compacts or moves
+ * values. Values larger than a slab get a buffer of their own, which is released to the garbage
+ * collector when the value is freed.
+ *
+ * <p>The weight of a stored value is the size of its chunk rather than the length of its encoding,
+ * so a cache bounded by weight accounts for the rounding to a power of two. It does not account for
+ * the free chunks of partially used slabs. A slab whose chunks are all free is released to the
+ * garbage collector, except for the last available slab of each size class, which is kept to avoid
+ * reallocating it when a single value of that size is repeatedly replaced. The off-heap memory used
+ * may therefore exceed the cache's maximum weight by up to one slab per size class, plus the free
+ * chunks of slabs that are only partially used.
+ *
+ * <p>Reads don't block writes. Every chunk has a generation that is advanced when it is freed, and
+ * a reference to a stored value remembers the generation it was written with. A reader copies the
+ * value's bytes under an optimistic read of the slab's {@link StampedLock}. If the chunk was freed
+ * in the meantime because the value was replaced, the reader follows the entry to its current
+ * value. Allocation and freeing are guarded by the monitor of the size class, so segments only
+ * contend when they store or free values of the same size at the same time.
+ */
+@GwtIncompatible
+@ElementTypesAreNonnullByDefault
+final class OffHeapStore<V> {
+  /** The size of each slab, which is also the largest chunk. */
+  static final int SLAB_SIZE = 1 << 20;
+
+  /** The base-2 logarithm of the smallest chunk. */
+  static final int MIN_CHUNK_SHIFT = 6;
+
+  final ValueCodec<V> codec;
+  @CheckForNull final Path directory;
+  private final SizeClass[] sizeClasses;
+
+  private final AtomicLong reservedBytes = new AtomicLong();
+  private final AtomicLong slabBytes = new AtomicLong();
+
+  /**
+   * Creates a store that encodes values with {@code codec}, in direct buffers if {@code directory}
+   * is null and otherwise in memory-mapped files created in {@code directory}.
+   */
+  OffHeapStore(ValueCodec<V> codec, @CheckForNull Path directory) {
+    this.codec = checkNotNull(codec);
+    this.directory = directory;
+    int classes = Integer.numberOfTrailingZeros(SLAB_SIZE) - MIN_CHUNK_SHIFT + 1;
+    sizeClasses = new SizeClass[classes];
+    for (int i = 0; i < classes; i++) {
+      sizeClasses[i] = new SizeClass(1 << (MIN_CHUNK_SHIFT + i));
+    }
+  }
+
+  /**
+   * Returns the number of bytes allocated for a value whose encoding is {@code length} bytes long,
+   * which is the weight of the value.
+   */
+  static int allocatedSize(int length) {
+    if (length > SLAB_SIZE) {
+      return length;
+    }
+    return (length <= 1 << MIN_CHUNK_SHIFT)
+        ? 1 << MIN_CHUNK_SHIFT
+        : 1 << (32 - Integer.numberOfLeadingZeros(length - 1));
+  }
+
+  /**
+   * Encodes {@code value} and copies it off-heap, returning a reference to the stored value of
+   * {@code entry}.
+   */
+  <K> OffHeapValueReference<K, V> store(V value, ReferenceEntry<K, V> entry) {
+    byte[] bytes = checkNotNull(codec.encode(value), "codec returned null for %s", value);
+    Slab slab;
+    int chunk;
+    if (bytes.length > SLAB_SIZE) {
+      slab = new Slab(newBuffer(bytes.length), bytes.length, 1);
+      slabBytes.addAndGet(bytes.length);
+      chunk = 0;
+    } else {
+      SizeClass sizeClass = sizeClassOf(allocatedSize(bytes.length));
+      synchronized (sizeClass) {
+        slab = sizeClass.available.peek();
+        if (slab == null) {
+          int chunkSize = sizeClass.chunkSize;
+          slab = new Slab(newBuffer(SLAB_SIZE), chunkSize, SLAB_SIZE / chunkSize);
+          slabBytes.addAndGet(SLAB_SIZE);
+          sizeClass.available.add(slab);
+        }
+        chunk = slab.freeChunks[--slab.freeCount];
+        if (slab.freeCount == 0) {
+          sizeClass.available.remove();
+        }
+      }
+    }
+    reservedBytes.addAndGet(slab.chunkSize);
+    int generation = slab.write(chunk, bytes);
+    return new OffHeapValueReference<>(this, slab, chunk, generation, bytes.length, entry);
+  }
+
+  private SizeClass sizeClassOf(int chunkSize) {
+    return sizeClasses[Integer.numberOfTrailingZeros(chunkSize) - MIN_CHUNK_SHIFT];
+  }
+
+  /**
+   * Returns the value stored at {@code chunk} of {@code slab}, or null if it was freed since it was
+   * written with {@code generation}.
+   */
+  @CheckForNull
+  V read(Slab slab, int chunk, int generation, int length) {
+    byte[] bytes = slab.read(chunk, generation, length);
+    return (bytes == null) ? null : codec.decode(bytes);
+  }
+
+  /**
+   * Frees the storage of a value reference that is no longer used by the cache, if it was stored
+   * here. A loading reference frees the value it replaces. Freeing a value more than once has no
+   * effect.
+   */
+  void release(ValueReference<?, ?> valueReference) {
+    if (valueReference instanceof LocalCache.LoadingValueReference) {
+      valueReference = ((LocalCache.LoadingValueReference<?, ?>) valueReference).getOldValue();
+    }
+    if (valueReference instanceof OffHeapValueReference) {
+      OffHeapValueReference<?, ?> reference = (OffHeapValueReference<?, ?>) valueReference;
+      if (reference.store == this) {
+        free(reference.slab, reference.chunk, reference.generation);
+      }
+    }
+  }
+
+  private void free(Slab slab, int chunk, int generation) {
+    if (!slab.invalidate(chunk, generation)) {
+      return;
+    }
+    reservedBytes.addAndGet(-slab.chunkSize);
+    if (slab.chunkSize > SLAB_SIZE) {
+      // a dedicated buffer is never reused
+      slabBytes.addAndGet(-slab.chunkSize);
+      return;
+    }
+    SizeClass sizeClass = sizeClassOf(slab.chunkSize);
+    synchronized (sizeClass) {
+      if (slab.freeCount++ == 0) {
+        sizeClass.available.add(slab);
+      }
+      slab.freeChunks[slab.freeCount - 1] = chunk;
+      if (slab.freeCount == slab.freeChunks.length && sizeClass.available.size() > 1) {
+        sizeClass.available.remove(slab);
+        slabBytes.addAndGet(-SLAB_SIZE);
+      }
+    }
+  }
+
+  /** Returns the number of bytes of the chunks that hold values. */
+  @VisibleForTesting
+  long reservedBytes() {
+    return reservedBytes.get();
+  }
+
+  /** Returns the number of bytes of all slabs, whether or not their chunks hold values. */
+  @VisibleForTesting
+  long slabBytes() {
+    return slabBytes.get();
+  }
+
+  private ByteBuffer newBuffer(int capacity) {
+    if (directory == null) {
+      return ByteBuffer.allocateDirect(capacity);
+    }
+    try {
+      Path file = Files.createTempFile(directory, "cache", ".slab");
+      // the mapping outlives the channel, and the file is deleted as soon as it is closed
+      try (FileChannel channel = FileChannel.open(file, READ, WRITE, DELETE_ON_CLOSE)) {
+        return channel.map(MapMode.READ_WRITE, 0, capacity);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /** The slabs that hold chunks of a single size. Its monitor guards the slabs' free chunks. */
+  private static final class SizeClass {
+    final int chunkSize;
+
+    /** The slabs of this size that have at least one free chunk. */
+    final ArrayDeque<Slab> available = new ArrayDeque<>();
+
+    SizeClass(int chunkSize) {
+      this.chunkSize = chunkSize;
+    }
+  }
+
+  /**
+   * A buffer divided into chunks of equal size. The contents of the buffer and the generations of
+   * its chunks are guarded by the lock, while the free chunks are guarded by the monitor of its
+   * size class.
+   */
+  static final class Slab {
+    final ByteBuffer buffer;
+    final int chunkSize;
+    final int[] generations;
+    final StampedLock lock = new StampedLock();
+
+    // guarded by the size class
+    final int[] freeChunks;
+    int freeCount;
+
+    Slab(ByteBuffer buffer, int chunkSize, int chunks) {
+      this.buffer = buffer;
+      this.chunkSize = chunkSize;
+      this.generations = new int[chunks];
+      this.freeChunks = new int[chunks];
+      for (int i = 0; i < chunks; i++) {
+        // hand out chunks from the start of the slab first
+        freeChunks[i] = chunks - 1 - i;
+      }
+      this.freeCount = chunks;
+    }
+
+    /** Copies {@code bytes} into a chunk, returning the chunk's generation. */
+    int write(int chunk, byte[] bytes) {
+      long stamp = lock.writeLock();
+      try {
+        ByteBuffer view = buffer.duplicate();
+        view.position(chunk * chunkSize);
+        view.put(bytes);
+        return generations[chunk];
+      } finally {
+        lock.unlockWrite(stamp);
+      }
+    }
+
+    /** Advances the generation of a chunk, returning false if it was already freed. */
+    boolean invalidate(int chunk, int generation) {
+      long stamp = lock.writeLock();
+      try {
+        if (generations[chunk] != generation) {
+          return false;
+        }
+        generations[chunk]++;
+        return true;
+      } finally {
+        lock.unlockWrite(stamp);
+      }
+    }
+
+    /** Returns a copy of a chunk, or null if it was freed since {@code generation}. */
+    @CheckForNull
+    byte[] read(int chunk, int generation, int length) {
+      byte[] bytes = new byte[length];
+      long stamp = lock.tryOptimisticRead();
+      if (stamp != 0) {
+        boolean current = copy(chunk, generation, bytes);
+        if (lock.validate(stamp)) {
+          return current ? bytes : null;
+        }
+      }
+      stamp = lock.readLock();
+      try {
+        return copy(chunk, generation, bytes) ? bytes : null;
+      } finally {
+        lock.unlockRead(stamp);
+      }
+    }
+
+    private boolean copy(int chunk, int generation, byte[] bytes) {
+      if (generations[chunk] != generation) {
+        return false;
+      }
+      ByteBuffer view = buffer.duplicate();
+      view.position(chunk * chunkSize);
+      view.get(bytes);
+      return true;
+    }
+  }
+
+  /**
+   * A reference to a value stored off-heap. The value is decoded on every read, so the reference
+   * itself is the only per-entry state kept on the heap besides the entry.
+   *
+   * <p>The reference remembers the entry that holds it, so that a reader which loaded it before the
+   * value was replaced can follow the entry to the replacing value. The entry is updated when the
+   * reference is copied to a new entry, as the old entry is then no longer in the map.
+   */
+  static final class OffHeapValueReference<K, V> implements ValueReference<K, V> {
+    final OffHeapStore<V> store;
+    final Slab slab;
+    final int chunk;
+    final int generation;
+    final int length;
+    volatile ReferenceEntry<K, V> entry;
+
+    OffHeapValueReference(
+        OffHeapStore<V> store,
+        Slab slab,
+        int chunk,
+        int generation,
+        int length,
+        ReferenceEntry<K, V> entry) {
+      this.store = store;
+      this.slab = slab;
+      this.chunk = chunk;
+      this.generation = generation;
+      this.length = length;
+      this.entry = entry;
+    }
+
+    /**
+     * Returns the decoded value. If it was freed because the entry's value was replaced, returns
+     * the replacing value instead, or null if the entry was removed.
+     */
+    @CheckForNull
+    @Override
+    public V get() {
+      OffHeapValueReference<K, V> reference = this;
+      while (true) {
+        V value =
+            store.read(reference.slab, reference.chunk, reference.generation, reference.length);
+        if (value != null) {
+          return value;
+        }
+        // a replacing value is set on the entry before the value it replaces is freed
+        ValueReference<K, V> current = reference.entry.getValueReference();
+        if (current == reference || !(current instanceof OffHeapValueReference)) {
+          return null;
+        }
+        reference = (OffHeapValueReference<K, V>) current;
+      }
+    }
+
+    /** Returns the number of bytes allocated for the encoded value. */
+    @Override
+    public int getWeight() {
+      return slab.chunkSize;
+    }
+
+    @CheckForNull
+    @Override
+    public ReferenceEntry<K, V> getEntry() {
+      return null;
+    }
+
+    @Override
+    public ValueReference<K, V> copyFor(
+        ReferenceQueue<V> queue, @CheckForNull V value, ReferenceEntry<K, V> entry) {
+      this.entry = entry;
+      return this;
+    }
+
+    @Override
+    public boolean isLoading() {
+      return false;
+    }
+
+    @Override
+    public boolean isActive() {
+      return true;
+    }
+
+    @CheckForNull
+    @Override
+    public V waitForValue() {
+      return get();
+    }
+
+    @Override
+    public void notifyNewValue(@CheckForNull V newValue) {}
+  }
+}
@@ -0,0 +1,978 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.common.cache;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.util.concurrent.Uninterruptibles.getUninterruptibly;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import com.google.common.annotations.GwtIncompatible;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Stopwatch;
+import com.google.common.base.Ticker;
+import com.google.common.cache.AbstractCache.SimpleStatsCounter;
+import com.google.common.cache.AbstractCache.StatsCounter;
+import com.google.common.cache.CacheBuilder.NullListener;
+import com.google.common.cache.CacheBuilder.OneWeigher;
+import com.google.common.cache.CacheLoader.InvalidCacheLoadException;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.StampedLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.CheckForNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * The implementation of the caches built by {@link CacheBuilder#buildLongKeyed} and {@link
+ * CacheBuilder#buildIntKeyed}.
+ *
+ * <p>Like {@link LocalCache}, the cache is divided into segments, selected by the high bits of a
+ * key's hash, each of which guards its entries with its own lock. Rather than a chain of entry
+ * objects, a segment stores its entries in parallel arrays: an open-addressed table of unboxed keys
+ * using linear probing, alongside their values and, as the cache's configuration requires, their
+ * weights, write and access times, and reference bits. Removing an entry moves the following
+ * entries of its probe sequence back into place, so the table never holds tombstones.
+ *
+ * <p>Each segment's lock is a {@link StampedLock}. Reads search the table under an optimistic read
+ * stamp, and only take the read lock if a write invalidated the stamp, so a hit neither locks nor
+ * allocates. Hits update the access time and reference bit of their entry without the write lock;
+ * as a write that races with a hit invalidates the hit's stamp, such an update can at worst be
+ * applied to another entry that the write moved into the same slot.
+ *
+ * <p>Eviction by size approximates LRU with the CLOCK algorithm: a hand sweeps the table, clearing
+ * the reference bits that hits set, and evicts the first entry whose bit was already clear. Expired
+ * entries are never returned, and are removed by a sweep over a few slots on each write, and on
+ * every 64th read if the segment isn't locked, or by a full sweep in {@link #cleanUp}.
+ *
+ * <p>The keys of an {@code int}-keyed cache are stored widened to {@code long}, and are narrowed
+ * back when they are boxed for the loader, the weigher or the removal listener.
+ */
+@GwtIncompatible // StampedLock
+@ElementTypesAreNonnullByDefault
+final class PrimitiveKeyCache<V> {
+  private static final Logger logger = Logger.getLogger(PrimitiveKeyCache.class.getName());
+
+  /** The largest number of segments. */
+  static final int MAX_SEGMENTS = 1 << 16;
+
+  /** The smallest capacity of a segment's table. */
+  static final int MINIMUM_CAPACITY = 8;
+
+  /** The largest capacity of a segment's table. */
+  static final int MAXIMUM_CAPACITY = 1 << 30;
+
+  /** The number of slots that each write checks for expired entries. */
+  static final int EXPIRATION_SWEEP_SLOTS = 16;
+
+  /** Reads are cleaned up after this many reads that weren't followed by a write, less one. */
+  static final int DRAIN_THRESHOLD = 0x3F;
+
+  final boolean intKeys;
+  final CacheLoader<Object, V> loader;
+  final Weigher<Object, ? super V> weigher;
+  final long maxWeight;
+  final long expireAfterWriteNanos;
+  final long expireAfterAccessNanos;
+  final Ticker ticker;
+  final boolean recordsHitLatency;
+  final RemovalListener<Object, V> removalListener;
+  final Queue<RemovalNotification<Object, V>> removalNotificationQueue =
+      new ConcurrentLinkedQueue<>();
+
+  final int segmentShift;
+  @VisibleForTesting final Segment<V>[] segments;
+
+  @SuppressWarnings({"unchecked", "rawtypes"}) // keys are boxed to Integer or Long, as requested
+  PrimitiveKeyCache(CacheBuilder<?, ?> builder, CacheLoader<?, V> loader, boolean intKeys) {
+    this.intKeys = intKeys;
+    this.loader = (CacheLoader) checkNotNull(loader);
+    this.weigher = (Weigher) builder.getWeigher();
+    this.maxWeight = builder.getMaximumWeight();
+    this.expireAfterWriteNanos = builder.getExpireAfterWriteNanos();
+    this.expireAfterAccessNanos = builder.getExpireAfterAccessNanos();
+    this.recordsHitLatency = builder.isRecordingHitLatencies();
+    this.ticker = builder.getTicker(expires() || recordsHitLatency);
+    this.removalListener = (RemovalListener) builder.getRemovalListener();
+
+    int concurrencyLevel = Math.min(builder.getConcurrencyLevel(), MAX_SEGMENTS);
+    int initialCapacity = Math.min(builder.getInitialCapacity(), MAXIMUM_CAPACITY);
+    if (evictsBySize() && weigher == OneWeigher.INSTANCE) {
+      initialCapacity = (int) Math.min(initialCapacity, maxWeight);
+    }
+
+    // as in LocalCache, each segment of a cache that evicts by size holds at least 10 entries
+    int segmentShift = 0;
+    int segmentCount = 1;
+    while (segmentCount < concurrencyLevel && (!evictsBySize() || segmentCount * 20 <= maxWeight)) {
+      ++segmentShift;
+      segmentCount <<= 1;
+    }
+    this.segmentShift = Integer.SIZE - segmentShift;
+
+    int segmentCapacity = (initialCapacity + segmentCount - 1) / segmentCount;
+    int capacity = MINIMUM_CAPACITY;
+    while (threshold(capacity) < segmentCapacity && capacity < MAXIMUM_CAPACITY) {
+      capacity <<= 1;
+    }
+
+    Segment<V>[] segments = new Segment[segmentCount];
+    long maxSegmentWeight = maxWeight / segmentCount + 1;
+    long remainder = maxWeight % segmentCount;
+    for (int i = 0; i < segmentCount; i++) {
+      if (i == remainder) {
+        maxSegmentWeight--;
+      }
+      segments[i] =
+          new Segment<>(
+              this,
+              capacity,
+              evictsBySize() ? maxSegmentWeight : CacheBuilder.UNSET_INT,
+              builder.getStatsCounterSupplier().get());
+    }
+    this.segments = segments;
+  }
+
+  boolean evictsBySize() {
+    return maxWeight >= 0;
+  }
+
+  boolean expiresAfterWrite() {
+    return expireAfterWriteNanos > 0;
+  }
+
+  boolean expiresAfterAccess() {
+    return expireAfterAccessNanos > 0;
+  }
+
+  boolean expires() {
+    return expiresAfterWrite() || expiresAfterAccess();
+  }
+
+  static int hash(long key) {
+    return LocalCache.rehash(Long.hashCode(key));
+  }
+
+  Segment<V> segmentFor(int hash) {
+    // a shift by 32 bits is a shift by 0 bits, so a single segment needs special-casing
+    return (segments.length == 1) ? segments[0] : segments[hash >>> segmentShift];
+  }
+
+  /** Returns {@code key} boxed to the key type of the cache. */
+  Object boxKey(long key) {
+    return intKeys ? (Object) Integer.valueOf((int) key) : (Object) Long.valueOf(key);
+  }
+
+  // cache operations
+
+  V get(long key) throws ExecutionException {
+    int hash = hash(key);
+    Segment<V> segment = segmentFor(hash);
+    try {
+      long now = ticker.read();
+      Object value = segment.lookup(key, hash, now);
+      if (value instanceof LoadingValue) {
+        @SuppressWarnings("unchecked") // only values of type V are loaded
+        LoadingValue<V> loadingValue = (LoadingValue<V>) value;
+        return segment.waitForLoadingValue(loadingValue);
+      } else if (value != null) {
+        return segment.recordHit(value, now);
+      }
+      return segment.lockedGetOrLoad(key, hash);
+    } catch (ExecutionException ee) {
+      Throwable cause = ee.getCause();
+      if (cause instanceof Error) {
+        throw new ExecutionError((Error) cause);
+      } else if (cause instanceof RuntimeException) {
+        throw new UncheckedExecutionException(cause);
+      }
+      throw ee;
+    } finally {
+      segment.postReadCleanup();
+    }
+  }
+
+  V getUnchecked(long key) {
+    try {
+      return get(key);
+    } catch (ExecutionException e) {
+      throw new UncheckedExecutionException(e.getCause());
+    }
+  }
+
+  @CheckForNull
+  V getIfPresent(long key) {
+    int hash = hash(key);
+    Segment<V> segment = segmentFor(hash);
+    long now = ticker.read();
+    Object value = segment.lookup(key, hash, now);
+    V result;
+    if (value == null || value instanceof LoadingValue) {
+      segment.statsCounter.recordMisses(1);
+      result = null;
+    } else {
+      result = segment.recordHit(value, now);
+    }
+    segment.postReadCleanup();
+    return result;
+  }
+
+  void put(long key, V value) {
+    checkNotNull(value);
+    int hash = hash(key);
+    segmentFor(hash).put(key, hash, value);
+  }
+
+  void invalidate(long key) {
+    int hash = hash(key);
+    segmentFor(hash).invalidate(key, hash);
+  }
+
+  void invalidateAll() {
+    for (Segment<V> segment : segments) {
+      segment.clear();
+    }
+  }
+
+  long size() {
+    long size = 0;
+    for (Segment<V> segment : segments) {
+      size += segment.count;
+    }
+    return size;
+  }
+
+  CacheStats stats() {
+    SimpleStatsCounter aggregator = SimpleStatsCounter.withLatencyHistograms();
+    for (Segment<V> segment : segments) {
+      aggregator.incrementBy(segment.statsCounter);
+    }
+    return aggregator.snapshot();
+  }
+
+  void cleanUp() {
+    for (Segment<V> segment : segments) {
+      segment.cleanUp();
+    }
+  }
+
+  // entries
+
+  /** Returns whether the entry at slot {@code i} of {@code table} has expired at {@code now}. */
+  boolean isExpired(Table table, int i, long now) {
+    if (expiresAfterWrite() && now - table.writeTimes[i] >= expireAfterWriteNanos) {
+      return true;
+    }
+    return expiresAfterAccess() && now - table.accessTimes[i] >= expireAfterAccessNanos;
+  }
+
+  /** Records a read of the entry at slot {@code i}, which may happen without the write lock. */
+  static void recordRead(Table table, int i, long now) {
+    if (table.accessTimes != null) {
+      table.accessTimes[i] = now;
+    }
+    if (table.referenced != null && table.referenced[i] == 0) {
+      table.referenced[i] = 1;
+    }
+  }
+
+  int weigh(long key, V value) {
+    if (weigher == OneWeigher.INSTANCE) {
+      return 1;
+    }
+    int weight = weigher.weigh(boxKey(key), value);
+    checkState(weight >= 0, "Weights must be non-negative");
+    return weight;
+  }
+
+  void enqueueNotification(long key, V value, RemovalCause cause) {
+    if (removalListener != NullListener.INSTANCE) {
+      removalNotificationQueue.offer(RemovalNotification.create(boxKey(key), value, cause));
+    }
+  }
+
+  /**
+   * Notifies the listener of the removals that were enqueued while a segment was locked. Called
+   * after unlocking, so that the listener can't block other operations on the segment.
+   */
+  void processPendingNotifications() {
+    RemovalNotification<Object, V> notification;
+    while ((notification = removalNotificationQueue.poll()) != null) {
+      try {
+        removalListener.onRemoval(notification);
+      } catch (Throwable e) {
+        logger.log(Level.WARNING, "Exception thrown by removal listener", e);
+      }
+    }
+  }
+
+  /** Returns the number of occupied slots at which a table of {@code capacity} is resized. */
+  static int threshold(int capacity) {
+    // a load factor of 3/4, which keeps linear probe sequences short
+    return capacity - (capacity >>> 2);
+  }
+
+  /**
+   * The placeholder of a value that is being loaded, which other requests for its key wait for.
+   * Placeholders have no weight, and are never evicted or expired.
+   */
+  static final class LoadingValue<V> {
+    final SettableFuture<V> future = SettableFuture.create();
+  }
+
+  /**
+   * The parallel arrays that hold the entries of a segment, which all have the same power-of-two
+   * length. A slot is empty if its value is null. Arrays that the cache's configuration doesn't
+   * need are null.
+   */
+  static final class Table {
+    final long[] keys;
+
+    /** The values, or {@link LoadingValue placeholders} of values that are being loaded. */
+    final @Nullable Object[] values;
+
+    @CheckForNull final int[] weights;
+    @CheckForNull final byte[] referenced;
+    @CheckForNull final long[] writeTimes;
+    @CheckForNull final long[] accessTimes;
+
+    Table(int capacity, PrimitiveKeyCache<?> map) {
+      keys = new long[capacity];
+      values = new Object[capacity];
+      weights = map.evictsBySize() ? new int[capacity] : null;
+      referenced = map.evictsBySize() ? new byte[capacity] : null;
+      writeTimes = map.expiresAfterWrite() ? new long[capacity] : null;
+      accessTimes = map.expiresAfterAccess() ? new long[capacity] : null;
+    }
+
+    int mask() {
+      return keys.length - 1;
+    }
+
+    /** Copies the entry at slot {@code from} to slot {@code to} of {@code target}. */
+    void copy(int from, Table target, int to) {
+      target.keys[to] = keys[from];
+      target.values[to] = values[from];
+      if (weights != null) {
+        target.weights[to] = weights[from];
+        target.referenced[to] = referenced[from];
+      }
+      if (writeTimes != null) {
+        target.writeTimes[to] = writeTimes[from];
+      }
+      if (accessTimes != null) {
+        target.accessTimes[to] = accessTimes[from];
+      }
+    }
+  }
+
+  /**
+   * A segment of the cache. Its fields, other than {@link #count}, and the contents of its table
+   * are guarded by its write lock.
+   */
+  @SuppressWarnings("serial") // This class is never serialized.
+  static final class Segment<V> extends StampedLock {
+    final PrimitiveKeyCache<V> map;
+    final long maxSegmentWeight;
+    final StatsCounter statsCounter;
+    final AtomicInteger readCount = new AtomicInteger();
+
+    /** The table, which is replaced by a larger one when it fills up. */
+    volatile Table table;
+
+    /** The number of cached values, not counting the values that are being loaded. */
+    volatile int count;
+
+    /** The number of slots that aren't empty, including placeholders. */
+    int occupied;
+
+    long totalWeight;
+
+    /** The slot that the eviction hand points to, modulo the table's capacity. */
+    int evictionHand;
+
+    /** The slot that the next expiration sweep starts from, modulo the table's capacity. */
+    int expirationHand;
+
+    Segment(
+        PrimitiveKeyCache<V> map, int capacity, long maxSegmentWeight, StatsCounter statsCounter) {
+      this.map = map;
+      this.maxSegmentWeight = maxSegmentWeight;
+      this.statsCounter = checkNotNull(statsCounter);
+      this.table = new Table(capacity, map);
+    }
+
+    // reads
+
+    /**
+     * Returns the live value or the placeholder for {@code key}, or null if there is neither. The
+     * table is first searched optimistically, and only under the read lock if a write interfered.
+     */
+    @CheckForNull
+    Object lookup(long key, int hash, long now) {
+      long stamp = tryOptimisticRead();
+      if (stamp != 0) {
+        Object value = find(table, key, hash, now);
+        if (validate(stamp)) {
+          return value;
+        }
+      }
+      stamp = readLock();
+      try {
+        return find(table, key, hash, now);
+      } finally {
+        unlockRead(stamp);
+      }
+    }
+
+    /**
+     * Searches {@code table} for {@code key}. As the table may be modified during an optimistic
+     * read, the search is bounded by the table's capacity, and its result must be validated.
+     */
+    @CheckForNull
+    private Object find(Table table, long key, int hash, long now) {
+      int mask = table.mask();
+      for (int i = hash & mask, probes = 0; probes <= mask; i = (i + 1) & mask, probes++) {
+        Object value = table.values[i];
+        if (value == null) {
+          return null;
+        }
+        if (table.keys[i] == key) {
+          if (value instanceof LoadingValue) {
+            return value;
+          }
+          if (map.isExpired(table, i, now)) {
+            return null;
+          }
+          recordRead(table, i, now);
+          return value;
+        }
+      }
+      return null;
+    }
+
+    @SuppressWarnings("unchecked") // values other than placeholders are of type V
+    V recordHit(Object value, long now) {
+      statsCounter.recordHits(1);
+      if (map.recordsHitLatency) {
+        statsCounter.recordHitLatency(map.ticker.read() - now);
+      }
+      return (V) value;
+    }
+
+    V waitForLoadingValue(LoadingValue<V> loadingValue) throws ExecutionException {
+      statsCounter.recordMisses(1);
+      return getUninterruptibly(loadingValue.future);
+    }
+
+    /** Sweeps a few slots for expired entries once every {@code DRAIN_THRESHOLD + 1} reads. */
+    void postReadCleanup() {
+      if (map.expires() && (readCount.incrementAndGet() & DRAIN_THRESHOLD) == 0) {
+        long stamp = tryWriteLock();
+        if (stamp != 0) {
+          try {
+            expireEntries(map.ticker.read());
+          } finally {
+            unlockWrite(stamp);
+          }
+          map.processPendingNotifications();
+        }
+      }
+    }
+
+    // loading
+
+    V lockedGetOrLoad(long key, int hash) throws ExecutionException {
+      LoadingValue<V> loadingValue = null;
+      boolean createNewEntry = true;
+      long stamp = writeLock();
+      try {
+        long now = map.ticker.read();
+        expireEntries(now);
+        Table table = this.table;
+        int i = indexOf(table, key, hash);
+        if (i >= 0) {
+          Object value = table.values[i];
+          if (value instanceof LoadingValue) {
+            @SuppressWarnings("unchecked") // only values of type V are loaded
+            LoadingValue<V> existing = (LoadingValue<V>) value;
+            loadingValue = existing;
+            createNewEntry = false;
+          } else if (map.isExpired(table, i, now)) {
+            removeEntry(table, i, RemovalCause.EXPIRED);
+          } else {
+            // another thread stored the value since the lookup
+            recordRead(table, i, now);
+            return recordHit(value, now);
+          }
+        }
+        if (createNewEntry) {
+          loadingValue = new LoadingValue<>();
+          // insert may resize the table, so read it afterwards
+          i = insert(key, hash);
+          this.table.values[i] = loadingValue;
+        }
+      } finally {
+        unlockWrite(stamp);
+        map.processPendingNotifications();
+      }
+      return createNewEntry
+          ? load(key, hash, loadingValue)
+          : waitForLoadingValue(checkNotNull(loadingValue));
+    }
+
+    V load(long key, int hash, LoadingValue<V> loadingValue) throws ExecutionException {
+      statsCounter.recordMisses(1);
+      Stopwatch stopwatch = Stopwatch.createStarted();
+      V value;
+      try {
+        value = map.loader.load(map.boxKey(key));
+      } catch (Throwable t) {
+        statsCounter.recordLoadException(stopwatch.elapsed(NANOSECONDS));
+        removeLoadingValue(key, hash, loadingValue);
+        loadingValue.future.setException(t);
+        if (t instanceof InterruptedException) {
+          Thread.currentThread().interrupt();
+        }
+        throw new ExecutionException(t);
+      }
+      if (value == null) {
+        statsCounter.recordLoadException(stopwatch.elapsed(NANOSECONDS));
+        removeLoadingValue(key, hash, loadingValue);
+        InvalidCacheLoadException e =
+            new InvalidCacheLoadException("CacheLoader returned null for key " + key + ".");
+        loadingValue.future.setException(e);
+        throw e;
+      }
+      statsCounter.recordLoadSuccess(stopwatch.elapsed(NANOSECONDS));
+      storeLoadedValue(key, hash, loadingValue, value);
+      loadingValue.future.set(value);
+      return value;
+    }
+
+    /** Removes the placeholder of a load that failed, if it is still in the table. */
+    void removeLoadingValue(long key, int hash, LoadingValue<V> loadingValue) {
+      long stamp = writeLock();
+      try {
+        Table table = this.table;
+        int i = indexOf(table, key, hash);
+        if (i >= 0 && table.values[i] == loadingValue) {
+          deleteSlot(table, i);
+        }
+      } finally {
+        unlockWrite(stamp);
+      }
+    }
+
+    /**
+     * Replaces the placeholder of a load with its value. If the placeholder was replaced by a value
+     * that was put while loading, the loaded value is discarded, and the listener is notified.
+     */
+    void storeLoadedValue(long key, int hash, LoadingValue<V> loadingValue, V value) {
+      long stamp = writeLock();
+      try {
+        long now = map.ticker.read();
+        Table table = this.table;
+        int i = indexOf(table, key, hash);
+        if (i >= 0 && table.values[i] == loadingValue) {
+          count++;
+          setValue(table, i, key, value, now);
+          evictEntries(i);
+        } else {
+          map.enqueueNotification(key, value, RemovalCause.REPLACED);
+        }
+      } finally {
+        unlockWrite(stamp);
+        map.processPendingNotifications();
+      }
+    }
+
+    // writes
+
+    void put(long key, int hash, V value) {
+      long stamp = writeLock();
+      try {
+        long now = map.ticker.read();
+        expireEntries(now);
+        Table table = this.table;
+        int i = indexOf(table, key, hash);
+        if (i < 0) {
+          i = insert(key, hash);
+          table = this.table;
+          count++;
+        } else {
+          Object oldValue = table.values[i];
+          if (oldValue instanceof LoadingValue) {
+            // the load will find its placeholder replaced
+            count++;
+          } else {
+            @SuppressWarnings("unchecked") // values other than placeholders are of type V
+            V old = (V) oldValue;
+            RemovalCause cause =
+                map.isExpired(table, i, now) ? RemovalCause.EXPIRED : RemovalCause.REPLACED;
+            map.enqueueNotification(key, old, cause);
+            if (table.weights != null) {
+              totalWeight -= table.weights[i];
+            }
+          }
+        }
+        setValue(table, i, key, value, now);
+        evictEntries(i);
+      } finally {
+        unlockWrite(stamp);
+        map.processPendingNotifications();
+      }
+    }
+
+    void invalidate(long key, int hash) {
+      long stamp = writeLock();
+      try {
+        Table table = this.table;
+        int i = indexOf(table, key, hash);
+        // like LocalCache, a value that is being loaded isn't affected
+        if (i >= 0 && !(table.values[i] instanceof LoadingValue)) {
+          RemovalCause cause =
+              map.isExpired(table, i, map.ticker.read())
+                  ? RemovalCause.EXPIRED
+                  : RemovalCause.EXPLICIT;
+          removeEntry(table, i, cause);
+        }
+      } finally {
+        unlockWrite(stamp);
+        map.processPendingNotifications();
+      }
+    }
+
+    /** Removes all the cached values, but keeps the placeholders of values being loaded. */
+    void clear() {
+      long stamp = writeLock();
+      try {
+        Table table = this.table;
+        Table cleared = new Table(table.keys.length, map);
+        int mask = cleared.mask();
+        int occupied = 0;
+        for (int i = 0; i < table.keys.length; i++) {
+          Object value = table.values[i];
+          if (value instanceof LoadingValue) {
+            int j = hash(table.keys[i]) & mask;
+            while (cleared.values[j] != null) {
+              j = (j + 1) & mask;
+            }
+            table.copy(i, cleared, j);
+            occupied++;
+          } else if (value != null) {
+            @SuppressWarnings("unchecked") // values other than placeholders are of type V
+            V old = (V) value;
+            map.enqueueNotification(table.keys[i], old, RemovalCause.EXPLICIT);
+          }
+        }
+        this.occupied = occupied;
+        this.totalWeight = 0;
+        this.count = 0;
+        this.table = cleared;
+      } finally {
+        unlockWrite(stamp);
+        map.processPendingNotifications();
+      }
+    }
+
+    void cleanUp() {
+      if (!map.expires()) {
+        return;
+      }
+      long stamp = writeLock();
+      try {
+        long now = map.ticker.read();
+        Table table = this.table;
+        // a removal moves a later entry into slot i, so slot i is checked again
+        for (int i = 0; i < table.keys.length; ) {
+          Object value = table.values[i];
+          if (value != null && !(value instanceof LoadingValue) && map.isExpired(table, i, now)) {
+            removeEntry(table, i, RemovalCause.EXPIRED);
+          } else {
+            i++;
+          }
+        }
+      } finally {
+        unlockWrite(stamp);
+        map.processPendingNotifications();
+      }
+    }
+
+    // table maintenance, under the write lock
+
+    /** Returns the slot that holds {@code key}, or -1 if there is none. */
+    int indexOf(Table table, long key, int hash) {
+      int mask = table.mask();
+      for (int i = hash & mask; table.values[i] != null; i = (i + 1) & mask) {
+        if (table.keys[i] == key) {
+          return i;
+        }
+      }
+      return -1;
+    }
+
+    /**
+     * Claims an empty slot for {@code key}, which must be absent, growing the table if needed. The
+     * caller must store a value in the returned slot of the (possibly new) table.
+     */
+    int insert(long key, int hash) {
+      if (occupied + 1 > threshold(table.keys.length)) {
+        resize();
+      }
+      Table table = this.table;
+      int mask = table.mask();
+      int i = hash & mask;
+      while (table.values[i] != null) {
+        i = (i + 1) & mask;
+      }
+      table.keys[i] = key;
+      occupied++;
+      return i;
+    }
+
+    void resize() {
+      Table oldTable = table;
+      int oldCapacity = oldTable.keys.length;
+      if (oldCapacity >= MAXIMUM_CAPACITY) {
+        return;
+      }
+      Table newTable = new Table(oldCapacity << 1, map);
+      int mask = newTable.mask();
+      for (int i = 0; i < oldCapacity; i++) {
+        if (oldTable.values[i] != null) {
+          int j = hash(oldTable.keys[i]) & mask;
+          while (newTable.values[j] != null) {
+            j = (j + 1) & mask;
+          }
+          oldTable.copy(i, newTable, j);
+        }
+      }
+      table = newTable;
+    }
+
+    void setValue(Table table, int i, long key, V value, long now) {
+      if (table.weights != null) {
+        int weight = map.weigh(key, value);
+        table.weights[i] = weight;
+        table.referenced[i] = 1;
+        totalWeight += weight;
+      }
+      if (table.writeTimes != null) {
+        table.writeTimes[i] = now;
+      }
+      if (table.accessTimes != null) {
+        table.accessTimes[i] = now;
+      }
+      table.values[i] = value;
+    }
+
+    /** Removes the cached value at slot {@code i}, enqueueing a notification of its removal. */
+    void removeEntry(Table table, int i, RemovalCause cause) {
+      @SuppressWarnings("unchecked") // values other than placeholders are of type V
+      V value = (V) table.values[i];
+      map.enqueueNotification(table.keys[i], value, cause);
+      if (table.weights != null) {
+        totalWeight -= table.weights[i];
+      }
+      count--;
+      deleteSlot(table, i);
+    }
+
+    /**
+     * Empties slot {@code hole}, moving back the entries after it in its probe sequence that would
+     * otherwise no longer be reachable.
+     */
+    void deleteSlot(Table table, int hole) {
+      int mask = table.mask();
+      for (int i = (hole + 1) & mask; table.values[i] != null; i = (i + 1) & mask) {
+        int home = hash(table.keys[i]) & mask;
+        // the entry stays if its home slot is cyclically in (hole, i]
+        boolean stays = (hole <= i) ? (hole < home && home <= i) : (hole < home || home <= i);
+        if (!stays) {
+          table.copy(i, table, hole);
+          hole = i;
+        }
+      }
+      table.values[hole] = null;
+      occupied--;
+    }
+
+    /**
+     * Evicts entries until the segment's weight is within its maximum. The entry at slot {@code
+     * newest}, which was just written, is evicted first if it alone exceeds the maximum; others are
+     * chosen by the eviction hand.
+     */
+    void evictEntries(int newest) {
+      if (!map.evictsBySize()) {
+        return;
+      }
+      Table table = this.table;
+      if (totalWeight > maxSegmentWeight && table.weights[newest] > maxSegmentWeight) {
+        removeEntry(table, newest, RemovalCause.SIZE);
+        statsCounter.recordEviction();
+      }
+      int mask = table.mask();
+      while (totalWeight > maxSegmentWeight) {
+        int i = evictionHand & mask;
+        Object value = table.values[i];
+        if (value == null || value instanceof LoadingValue) {
+          evictionHand = i + 1;
+        } else if (table.referenced[i] != 0) {
+          table.referenced[i] = 0;
+          evictionHand = i + 1;
+        } else {
+          // the hand stays, as the next entry may have moved into slot i
+          removeEntry(table, i, RemovalCause.SIZE);
+          statsCounter.recordEviction();
+        }
+      }
+    }
+
+    /** Removes the expired entries among the next few slots of the expiration sweep. */
+    void expireEntries(long now) {
+      if (!map.expires() || count == 0) {
+        return;
+      }
+      Table table = this.table;
+      int mask = table.mask();
+      for (int n = Math.min(EXPIRATION_SWEEP_SLOTS, mask + 1); n > 0; n--) {
+        int i = expirationHand & mask;
+        Object value = table.values[i];
+        if (value != null && !(value instanceof LoadingValue) && map.isExpired(table, i, now)) {
+          removeEntry(table, i, RemovalCause.EXPIRED);
+        } else {
+          expirationHand = i + 1;
+        }
+      }
+    }
+  }
+
+  /** The view of a cache with {@code long} keys. */
+  static final class LocalLongKeyCache<V> implements LongKeyLoadingCache<V> {
+    final PrimitiveKeyCache<V> cache;
+
+    LocalLongKeyCache(CacheBuilder<?, ?> builder, CacheLoader<? super Long, V> loader) {
+      this.cache = new PrimitiveKeyCache<>(builder, loader, false);
+    }
+
+    @Override
+    public V get(long key) throws ExecutionException {
+      return cache.get(key);
+    }
+
+    @Override
+    public V getUnchecked(long key) {
+      return cache.getUnchecked(key);
+    }
+
+    @Override
+    @CheckForNull
+    public V getIfPresent(long key) {
+      return cache.getIfPresent(key);
+    }
+
+    @Override
+    public void put(long key, V value) {
+      cache.put(key, value);
+    }
+
+    @Override
+    public void invalidate(long key) {
+      cache.invalidate(key);
+    }
+
+    @Override
+    public void invalidateAll() {
+      cache.invalidateAll();
+    }
+
+    @Override
+    public long size() {
+      return cache.size();
+    }
+
+    @Override
+    public CacheStats stats() {
+      return cache.stats();
+    }
+
+    @Override
+    public void cleanUp() {
+      cache.cleanUp();
+    }
+  }
+
+  /** The view of a cache with {@code int} keys, which are stored widened to {@code long}. */
+  static final class LocalIntKeyCache<V> implements IntKeyLoadingCache<V> {
+    final PrimitiveKeyCache<V> cache;
+
+    LocalIntKeyCache(CacheBuilder<?, ?> builder, CacheLoader<? super Integer, V> loader) {
+      this.cache = new PrimitiveKeyCache<>(builder, loader, true);
+    }
+
+    @Override
+    public V get(int key) throws ExecutionException {
+      return cache.get(key);
+    }
+
+    @Override
+    public V getUnchecked(int key) {
+      return cache.getUnchecked(key);
+    }
+
+    @Override
+    @CheckForNull
+    public V getIfPresent(int key) {
+      return cache.getIfPresent(key);
+    }
+
+    @Override
+    public void put(int key, V value) {
+      cache.put(key, value);
+    }
+
+    @Override
+    public void invalidate(int key) {
+      cache.invalidate(key);
+    }
+
+    @Override
+    public void invalidateAll() {
+      cache.invalidateAll();
+    }
+
+    @Override
+    public long size() {
+      return cache.size();
+    }
+
+    @Override
+    public CacheStats stats() {
+      return cache.stats();
+    }
+
+    @Override
+    public void cleanUp() {
+      cache.cleanUp();
+    }
+  }
+}
@@ -85,6 +85,15 @@ interface ReferenceEntry<K, V> {
   /** Sets the previous entry in the access queue. */
   void setPreviousInAccessQueue(ReferenceEntry<K, V> previous);
 
+  /**
+   * Returns the region of a segmented access queue that this entry belongs to. This is only used by
+   * caches with an {@link EvictionPolicy} other than least-recently-used.
+   */
+  int getAccessRegion();
+
+  /** Sets the region of a segmented access queue that this entry belongs to. */
+  void setAccessRegion(int region);
+
   /*
    * Implemented by entries that use write order. Write entries are maintained in a doubly-linked
    * list. New entries are added at the tail of the list at write time and stale entries are
@@ -0,0 +1,265 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.common.cache;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.annotations.GwtIncompatible;
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import javax.annotation.CheckForNull;
+
+/**
+ * A bounded, lossy, multiple-producer single-consumer buffer that records elements without
+ * allocating and without contending on a single tail pointer.
+ *
+ * <p>The buffer is made of ring buffers ("stripes") of a fixed capacity. A producer picks a stripe
+ * by hashing its thread id, reserves a slot with a single compare-and-set, and publishes its
+ * element with a lazy write. When the reservation fails because another thread won the race, the
+ * element is dropped and the number of stripes is doubled (up to a small multiple of the number of
+ * processors), so that threads which collide repeatedly are spread apart. When a stripe is full the
+ * element is also dropped; the consumer is expected to drain the buffer often enough that this is
+ * rare. Stripes are created lazily, so a buffer that is never written to costs a single small
+ * array.
+ *
+ * <p>{@link #offer} may therefore return {@code false} and is safe to call from any thread, while
+ * {@link #poll}, {@link #peek} and {@link #clear} must only be called by a single consumer at a
+ * time (for the cache, the thread holding the segment lock). {@link #size} and {@link #iterator}
+ * are weakly consistent snapshots intended for testing and monitoring.
+ */
+@GwtIncompatible
+@ElementTypesAreNonnullByDefault
+final class StripedReadBuffer<E> extends AbstractQueue<E> {
+  /** Number of CPUS, to place bound on table size. */
+  static final int NCPU = Runtime.getRuntime().availableProcessors();
+
+  /** The maximum number of stripes, which is a power of two. */
+  static final int MAX_STRIPES = ceilingPowerOfTwo(4 * NCPU);
+
+  private final int stripeCapacity;
+  private final AtomicBoolean resizing = new AtomicBoolean();
+  private volatile AtomicReferenceArray<Stripe<E>> stripes = new AtomicReferenceArray<>(1);
+
+  /**
+   * Creates a buffer whose stripes each hold {@code stripeCapacity} elements, which must be a power
+   * of two.
+   */
+  StripedReadBuffer(int stripeCapacity) {
+    checkArgument(
+        stripeCapacity > 0 && (stripeCapacity & (stripeCapacity - 1)) == 0,
+        "stripeCapacity (%s) must be a power of two",
+        stripeCapacity);
+    this.stripeCapacity = stripeCapacity;
+  }
+
+  /**
+   * Records {@code e} in the current thread's stripe, returning {@code false} if it was dropped
+   * because the stripe was full or contended.
+   */
+  @Override
+  public boolean offer(E e) {
+    checkNotNull(e);
+    AtomicReferenceArray<Stripe<E>> stripes = this.stripes;
+    int index = stripeIndex(stripes.length());
+    Stripe<E> stripe = stripes.get(index);
+    if (stripe == null) {
+      stripes.compareAndSet(index, null, new Stripe<E>(stripeCapacity));
+      stripe = stripes.get(index);
+    }
+    switch (stripe.offer(e)) {
+      case SUCCESS:
+        return true;
+      case CONTENDED:
+        expand(stripes);
+        return false;
+      default:
+        return false;
+    }
+  }
+
+  /** Doubles the number of stripes, unless another thread already did or the maximum is reached. */
+  private void expand(AtomicReferenceArray<Stripe<E>> current) {
+    int length = current.length();
+    if (length >= MAX_STRIPES || !resizing.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      if (stripes == current) {
+        AtomicReferenceArray<Stripe<E>> expanded = new AtomicReferenceArray<>(length << 1);
+        for (int i = 0; i < length; i++) {
+          expanded.set(i, current.get(i));
+        }
+        stripes = expanded;
+      }
+    } finally {
+      resizing.set(false);
+    }
+  }
+
+  @CheckForNull
+  @Override
+  public E poll() {
+    AtomicReferenceArray<Stripe<E>> stripes = this.stripes;
+    for (int i = 0; i < stripes.length(); i++) {
+      Stripe<E> stripe = stripes.get(i);
+      if (stripe != null) {
+        E e = stripe.poll();
+        if (e != null) {
+          return e;
+        }
+      }
+    }
+    return null;
+  }
+
+  @CheckForNull
+  @Override
+  public E peek() {
+    AtomicReferenceArray<Stripe<E>> stripes = this.stripes;
+    for (int i = 0; i < stripes.length(); i++) {
+      Stripe<E> stripe = stripes.get(i);
+      if (stripe != null) {
+        E e = stripe.peek();
+        if (e != null) {
+          return e;
+        }
+      }
+    }
+    return null;
+  }
+
+  @Override
+  public int size() {
+    AtomicReferenceArray<Stripe<E>> stripes = this.stripes;
+    int size = 0;
+    for (int i = 0; i < stripes.length(); i++) {
+      Stripe<E> stripe = stripes.get(i);
+      if (stripe != null) {
+        size += stripe.size();
+      }
+    }
+    return size;
+  }
+
+  @Override
+  public Iterator<E> iterator() {
+    AtomicReferenceArray<Stripe<E>> stripes = this.stripes;
+    List<E> elements = new ArrayList<>();
+    for (int i = 0; i < stripes.length(); i++) {
+      Stripe<E> stripe = stripes.get(i);
+      if (stripe != null) {
+        stripe.copyTo(elements);
+      }
+    }
+    return Collections.unmodifiableList(elements).iterator();
+  }
+
+  /** Returns the stripe that the current thread records into, for a table of the given length. */
+  private static int stripeIndex(int length) {
+    long id = Thread.currentThread().getId();
+    // Fibonacci hashing spreads sequential thread ids across the table
+    return (int) ((id * 0x9E3779B97F4A7C15L) >>> 32) & (length - 1);
+  }
+
+  private static int ceilingPowerOfTwo(int x) {
+    return 1 << -Integer.numberOfLeadingZeros(x - 1);
+  }
+
+  private enum OfferResult {
+    SUCCESS,
+    FULL,
+    CONTENDED
+  }
+
+  /**
+   * A ring buffer for a subset of producers. The write counter is advanced by producers with a
+   * compare-and-set, while the read counter is only advanced by the consumer. A slot whose element
+   * has not yet been published reads as null, which the consumer treats as the end of the stripe.
+   */
+  private static final class Stripe<E> {
+    @SuppressWarnings("rawtypes")
+    private static final AtomicLongFieldUpdater<Stripe> WRITE_COUNTER =
+        AtomicLongFieldUpdater.newUpdater(Stripe.class, "writeCounter");
+
+    final AtomicReferenceArray<E> buffer;
+    final int mask;
+    volatile long readCounter;
+    volatile long writeCounter;
+
+    Stripe(int capacity) {
+      buffer = new AtomicReferenceArray<>(capacity);
+      mask = capacity - 1;
+    }
+
+    OfferResult offer(E e) {
+      long head = readCounter;
+      long tail = writeCounter;
+      if (tail - head > mask) {
+        return OfferResult.FULL;
+      }
+      if (!WRITE_COUNTER.compareAndSet(this, tail, tail + 1)) {
+        return OfferResult.CONTENDED;
+      }
+      buffer.lazySet((int) tail & mask, e);
+      return OfferResult.SUCCESS;
+    }
+
+    @CheckForNull
+    E poll() {
+      long head = readCounter;
+      if (head == writeCounter) {
+        return null;
+      }
+      int index = (int) head & mask;
+      E e = buffer.get(index);
+      if (e != null) {
+        buffer.lazySet(index, null);
+        readCounter = head + 1;
+      }
+      return e;
+    }
+
+    @CheckForNull
+    E peek() {
+      long head = readCounter;
+      return (head == writeCounter) ? null : buffer.get((int) head & mask);
+    }
+
+    int size() {
+      long head = readCounter;
+      long tail = writeCounter;
+      return (int) Math.min(tail - head, mask + 1L);
+    }
+
+    void copyTo(List<E> elements) {
+      long head = readCounter;
+      long tail = writeCounter;
+      for (long i = head; i < tail && i - head <= mask; i++) {
+        E e = buffer.get((int) i & mask);
+        if (e == null) {
+          return;
+        }
+        elements.add(e);
+      }
+    }
+  }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.common.cache;
+
+import com.google.common.annotations.GwtCompatible;
+
+/**
+ * Converts cache values to and from bytes, so that a cache built with {@link
+ * CacheBuilder#offHeapValues} can store them outside of the Java heap. Codecs also convert the
+ * keys and values of {@linkplain CacheSnapshots cache snapshots}.
+ *
+ * <p>A value that is decoded from the bytes it was encoded to should be {@linkplain Object#equals
+ * equal} to the original value. Each read of an off-heap value decodes a new instance, so values
+ * should be immutable and must not rely on their identity.
+ *
+ * @param <V> the type of the cache's values, or of its keys
+ * @since NEXT
+ */
+@GwtCompatible
+@ElementTypesAreNonnullByDefault
+public interface ValueCodec<V> {
+
+  /**
+   * Returns the serialized form of {@code value}. The cache copies the returned array off-heap and
+   * doesn't retain it, and uses its length as the weight of the entry.
+   */
+  byte[] encode(V value);
+
+  /** Returns the value whose serialized form is {@code bytes}. */
+  V decode(byte[] bytes);
+}
@@ -0,0 +1,928 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.common.collect;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.collect.CollectPreconditions.checkNonnegative;
+import static com.google.common.collect.NullnessCasts.uncheckedCastNullableTToT;
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.annotations.GwtIncompatible;
+import com.google.common.primitives.Ints;
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.ObjIntConsumer;
+import javax.annotation.CheckForNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A multiset which maintains the ordering of its elements in a B-tree, according to either their
+ * natural order or an explicit {@link Comparator}. Like {@link TreeMultiset}, this implementation
+ * uses {@link Comparable#compareTo} or {@link Comparator#compare} instead of {@link Object#equals}
+ * to determine equivalence of instances.
+ *
+ * <p>Where {@code TreeMultiset} allocates a tree node per distinct element, this multiset stores
+ * up to 64 elements and their counts side by side in the arrays of each leaf of the tree, and links
+ * the leaves in order. A lookup therefore touches about {@code log64(n)} nodes rather than {@code
+ * log2(n)}, iteration walks arrays rather than chasing a pointer per element, and large multisets
+ * take considerably less memory. Each inner node records the total and distinct counts below each
+ * of its children, which lets range views compute their sizes, and {@link #rank} and {@link
+ * #select} answer order-statistic queries, in O(log n) time.
+ *
+ * <p>A node that shrinks is merged into a neighbor whenever the two fit in one node, so that
+ * removals keep the tree compact.
+ *
+ * <p>Iterators over this multiset and its views never throw {@link
+ * java.util.ConcurrentModificationException}: after the multiset is modified, an iterator resumes
+ * after the last element that it returned. The entries that they return reflect later changes to
+ * the counts of their elements.
+ *
+ * <p><b>Warning:</b> The comparison must be <i>consistent with equals</i> as explained by the
+ * {@link Comparable} class specification. Otherwise, the resulting multiset will violate the {@link
+ * java.util.Collection} contract, which is specified in terms of {@link Object#equals}.
+ *
+ * <p>This class is not thread-safe.
+ *
+ * @since NEXT
+ */
+@GwtIncompatible
+@ElementTypesAreNonnullByDefault
+public final class BTreeMultiset<E extends @Nullable Object> extends AbstractSortedMultiset<E>
+    implements Serializable {
+
+  /**
+   * Creates a new, empty multiset, sorted according to the elements' natural order. All elements
+   * inserted into the multiset must implement the {@code Comparable} interface and be mutually
+   * comparable.
+   *
+   * <p>The type specification is {@code <E extends Comparable>}, instead of the more specific
+   * {@code <E extends Comparable<? super E>>}, to support classes defined without generics.
+   */
+  @SuppressWarnings("rawtypes") // https://github.com/google/guava/issues/989
+  public static <E extends Comparable> BTreeMultiset<E> create() {
+    return new BTreeMultiset<E>(Ordering.natural());
+  }
+
+  /**
+   * Creates a new, empty multiset, sorted according to the specified comparator. All elements
+   * inserted into the multiset must be mutually comparable by the specified comparator.
+   *
+   * @param comparator the comparator that will be used to sort this multiset. A null value
+   *     indicates that the elements' <i>natural ordering</i> should be used.
+   */
+  @SuppressWarnings("unchecked")
+  public static <E extends @Nullable Object> BTreeMultiset<E> create(
+      @CheckForNull Comparator<? super E> comparator) {
+    return (comparator == null)
+        ? new BTreeMultiset<E>((Comparator) Ordering.natural())
+        : new BTreeMultiset<E>(comparator);
+  }
+
+  /**
+   * Creates an empty multiset containing the given initial elements, sorted according to the
+   * elements' natural order.
+   *
+   * <p>The type specification is {@code <E extends Comparable>}, instead of the more specific
+   * {@code <E extends Comparable<? super E>>}, to support classes defined without generics.
+   */
+  @SuppressWarnings("rawtypes") // https://github.com/google/guava/issues/989
+  public static <E extends Comparable> BTreeMultiset<E> create(Iterable<? extends E> elements) {
+    BTreeMultiset<E> multiset = create();
+    Iterables.addAll(multiset, elements);
+    return multiset;
+  }
+
+  /** The most elements that a leaf holds. */
+  private static final int LEAF_CAPACITY = 64;
+
+  /** The most children that an inner node has. */
+  private static final int INNER_CAPACITY = 64;
+
+  private final transient Tree tree;
+  private final transient GeneralRange<E> range;
+
+  private BTreeMultiset(Tree tree, GeneralRange<E> range) {
+    super(range.comparator());
+    this.tree = tree;
+    this.range = range;
+  }
+
+  BTreeMultiset(Comparator<? super E> comparator) {
+    this(new Tree(), GeneralRange.all(comparator));
+  }
+
+  /** The state shared by a multiset and all of its views. */
+  private static final class Tree {
+    Node root = new Leaf();
+    long totalCount;
+    int distinctElements;
+
+    /** Incremented whenever any count changes, so that iterators and entries can catch up. */
+    int modCount;
+  }
+
+  /** A node of the tree. Every node but the root holds at least one element. */
+  private abstract static class Node {
+    /** The number of elements of a leaf, or of children of an inner node. */
+    int size;
+  }
+
+  /** A leaf, which holds its elements in order and their counts in parallel arrays. */
+  private static final class Leaf extends Node {
+    final @Nullable Object[] elements = new Object[LEAF_CAPACITY];
+    final int[] counts = new int[LEAF_CAPACITY];
+    @CheckForNull Leaf previous;
+    @CheckForNull Leaf next;
+  }
+
+  /**
+   * An inner node. Each {@code keys[i]} is greater than every element of {@code children[i - 1]}
+   * and no greater than any element of {@code children[i]}; {@code keys[0]} is the key with which
+   * the node was split from its left neighbor, if it was.
+   */
+  private static final class Inner extends Node {
+    final @Nullable Object[] keys = new Object[INNER_CAPACITY];
+    final Node[] children = new Node[INNER_CAPACITY];
+
+    /** The total count of the elements below each child. */
+    final long[] totals = new long[INNER_CAPACITY];
+
+    /** The number of distinct elements below each child. */
+    final int[] distincts = new int[INNER_CAPACITY];
+  }
+
+  private static long totalCount(Node node) {
+    long total = 0;
+    if (node instanceof Leaf) {
+      int[] counts = ((Leaf) node).counts;
+      for (int i = 0; i < node.size; i++) {
+        total += counts[i];
+      }
+    } else {
+      long[] totals = ((Inner) node).totals;
+      for (int i = 0; i < node.size; i++) {
+        total += totals[i];
+      }
+    }
+    return total;
+  }
+
+  private static int distinctElements(Node node) {
+    if (node instanceof Leaf) {
+      return node.size;
+    }
+    int distinct = 0;
+    int[] distincts = ((Inner) node).distincts;
+    for (int i = 0; i < node.size; i++) {
+      distinct += distincts[i];
+    }
+    return distinct;
+  }
+
+  /**
+   * Returns the index of {@code e} in {@code leaf}, or {@code -(insertionPoint) - 1} if it is
+   * absent.
+   */
+  @SuppressWarnings("unchecked") // we only store Es as elements
+  private int search(Leaf leaf, @ParametricNullness E e) {
+    return Arrays.binarySearch((E[]) leaf.elements, 0, leaf.size, e, comparator());
+  }
+
+  /** Returns the index of the child of {@code inner} under which {@code e} belongs. */
+  @SuppressWarnings("unchecked") // we only store Es as keys
+  private int childIndex(Inner inner, @ParametricNullness E e) {
+    int index = Arrays.binarySearch((E[]) inner.keys, 1, inner.size, e, comparator());
+    return (index >= 0) ? index : -index - 2;
+  }
+
+  private Leaf leafFor(@ParametricNullness E e) {
+    Node node = tree.root;
+    while (node instanceof Inner) {
+      Inner inner = (Inner) node;
+      node = inner.children[childIndex(inner, e)];
+    }
+    return (Leaf) node;
+  }
+
+  private int countInTree(@ParametricNullness E e) {
+    Leaf leaf = leafFor(e);
+    int index = search(leaf, e);
+    return (index >= 0) ? leaf.counts[index] : 0;
+  }
+
+  /** Changes the count of {@code e}, which must be in range, from {@code oldCount} to newCount. */
+  private void changeCount(@ParametricNullness E e, int oldCount, int newCount) {
+    if (oldCount == newCount) {
+      return;
+    }
+    if (oldCount == 0) {
+      Node split = insert(tree.root, e, newCount);
+      if (split != null) {
+        Inner newRoot = new Inner();
+        appendChild(newRoot, null, tree.root);
+        appendChild(newRoot, firstKey(split), split);
+        tree.root = newRoot;
+      }
+      tree.distinctElements++;
+    } else if (newCount == 0) {
+      delete(tree.root, e, oldCount);
+      while (tree.root instanceof Inner && tree.root.size == 1) {
+        tree.root = ((Inner) tree.root).children[0];
+      }
+      tree.distinctElements--;
+    } else {
+      int delta = newCount - oldCount;
+      Node node = tree.root;
+      while (node instanceof Inner) {
+        Inner inner = (Inner) node;
+        int i = childIndex(inner, e);
+        inner.totals[i] += delta;
+        node = inner.children[i];
+      }
+      Leaf leaf = (Leaf) node;
+      leaf.counts[search(leaf, e)] = newCount;
+    }
+    tree.totalCount += newCount - oldCount;
+    tree.modCount++;
+  }
+
+  /**
+   * Inserts {@code e}, which is absent, with the given count below {@code node}. If {@code node}
+   * had to split, returns the new node holding its upper half.
+   */
+  @CheckForNull
+  private Node insert(Node node, @ParametricNullness E e, int count) {
+    if (node instanceof Leaf) {
+      Leaf leaf = (Leaf) node;
+      int index = -search(leaf, e) - 1;
+      if (leaf.size < LEAF_CAPACITY) {
+        insertAt(leaf, index, e, count);
+        return null;
+      }
+      Leaf right = splitLeaf(leaf);
+      if (index <= leaf.size) {
+        insertAt(leaf, index, e, count);
+      } else {
+        insertAt(right, index - leaf.size, e, count);
+      }
+      return right;
+    }
+    Inner inner = (Inner) node;
+    int i = childIndex(inner, e);
+    Node child = inner.children[i];
+    Node split = insert(child, e, count);
+    if (split == null) {
+      inner.totals[i] += count;
+      inner.distincts[i]++;
+      return null;
+    }
+    inner.totals[i] = totalCount(child);
+    inner.distincts[i] = distinctElements(child);
+    if (inner.size < INNER_CAPACITY) {
+      insertChild(inner, i + 1, firstKey(split), split);
+      return null;
+    }
+    Inner right = splitInner(inner);
+    if (i + 1 <= inner.size) {
+      insertChild(inner, i + 1, firstKey(split), split);
+    } else {
+      insertChild(right, i + 1 - inner.size, firstKey(split), split);
+    }
+    return right;
+  }
+
+  /** Returns the key with which to find {@code node}, which was just split off, in its parent. */
+  @CheckForNull
+  private static Object firstKey(Node node) {
+    return (node instanceof Leaf) ? ((Leaf) node).elements[0] : ((Inner) node).keys[0];
+  }
+
+  private static void insertAt(Leaf leaf, int index, @CheckForNull Object e, int count) {
+    System.arraycopy(leaf.elements, index, leaf.elements, index + 1, leaf.size - index);
+    System.arraycopy(leaf.counts, index, leaf.counts, index + 1, leaf.size - index);
+    leaf.elements[index] = e;
+    leaf.counts[index] = count;
+    leaf.size++;
+  }
+
+  private static void removeAt(Leaf leaf, int index) {
+    int moved = leaf.size - index - 1;
+    System.arraycopy(leaf.elements, index + 1, leaf.elements, index, moved);
+    System.arraycopy(leaf.counts, index + 1, leaf.counts, index, moved);
+    leaf.size--;
+    leaf.elements[leaf.size] = null;
+  }
+
+  private static Leaf splitLeaf(Leaf leaf) {
+    Leaf right = new Leaf();
+    int half = leaf.size / 2;
+    right.size = leaf.size - half;
+    System.arraycopy(leaf.elements, half, right.elements, 0, right.size);
+    System.arraycopy(leaf.counts, half, right.counts, 0, right.size);
+    Arrays.fill(leaf.elements, half, leaf.size, null);
+    leaf.size = half;
+    right.next = leaf.next;
+    if (right.next != null) {
+      right.next.previous = right;
+    }
+    right.previous = leaf;
+    leaf.next = right;
+    return right;
+  }
+
+  private static void appendChild(Inner inner, @CheckForNull Object key, Node child) {
+    int i = inner.size++;
+    inner.keys[i] = key;
+    inner.children[i] = child;
+    inner.totals[i] = totalCount(child);
+    inner.distincts[i] = distinctElements(child);
+  }
+
+  private static void insertChild(Inner inner, int index, @CheckForNull Object key, Node child) {
+    int moved = inner.size - index;
+    System.arraycopy(inner.keys, index, inner.keys, index + 1, moved);
+    System.arraycopy(inner.children, index, inner.children, index + 1, moved);
+    System.arraycopy(inner.totals, index, inner.totals, index + 1, moved);
+    System.arraycopy(inner.distincts, index, inner.distincts, index + 1, moved);
+    inner.keys[index] = key;
+    inner.children[index] = child;
+    inner.totals[index] = totalCount(child);
+    inner.distincts[index] = distinctElements(child);
+    inner.size++;
+  }
+
+  private static void removeChild(Inner inner, int index) {
+    int moved = inner.size - index - 1;
+    System.arraycopy(inner.keys, index + 1, inner.keys, index, moved);
+    System.arraycopy(inner.children, index + 1, inner.children, index, moved);
+    System.arraycopy(inner.totals, index + 1, inner.totals, index, moved);
+    System.arraycopy(inner.distincts, index + 1, inner.distincts, index, moved);
+    inner.size--;
+    inner.keys[inner.size] = null;
+    inner.children[inner.size] = null;
+  }
+
+  private static Inner splitInner(Inner inner) {
+    Inner right = new Inner();
+    int half = inner.size / 2;
+    right.size = inner.size - half;
+    System.arraycopy(inner.keys, half, right.keys, 0, right.size);
+    System.arraycopy(inner.children, half, right.children, 0, right.size);
+    System.arraycopy(inner.totals, half, right.totals, 0, right.size);
+    System.arraycopy(inner.distincts, half, right.distincts, 0, right.size);
+    Arrays.fill(inner.keys, half, inner.size, null);
+    Arrays.fill(inner.children, half, inner.size, null);
+    inner.size = half;
+    return right;
+  }
+
+  /** Removes {@code e}, which is present with the given count, from below {@code node}. */
+  private void delete(Node node, @ParametricNullness E e, int count) {
+    if (node instanceof Leaf) {
+      Leaf leaf = (Leaf) node;
+      removeAt(leaf, search(leaf, e));
+      return;
+    }
+    Inner inner = (Inner) node;
+    int i = childIndex(inner, e);
+    Node child = inner.children[i];
+    delete(child, e, count);
+    inner.totals[i] -= count;
+    inner.distincts[i]--;
+    if (child.size == 0) {
+      if (child instanceof Leaf) {
+        unlink((Leaf) child);
+      }
+      removeChild(inner, i);
+    } else {
+      int capacity = (child instanceof Leaf) ? LEAF_CAPACITY : INNER_CAPACITY;
+      if (i > 0 && inner.children[i - 1].size + child.size <= capacity) {
+        mergeChildren(inner, i - 1);
+      } else if (i + 1 < inner.size && inner.children[i + 1].size + child.size <= capacity) {
+        mergeChildren(inner, i);
+      }
+    }
+  }
+
+  private static void unlink(Leaf leaf) {
+    if (leaf.previous != null) {
+      leaf.previous.next = leaf.next;
+    }
+    if (leaf.next != null) {
+      leaf.next.previous = leaf.previous;
+    }
+  }
+
+  /** Moves the contents of child {@code index + 1} of {@code inner} into child {@code index}. */
+  private static void mergeChildren(Inner inner, int index) {
+    Node left = inner.children[index];
+    Node right = inner.children[index + 1];
+    if (left instanceof Leaf) {
+      Leaf leftLeaf = (Leaf) left;
+      Leaf rightLeaf = (Leaf) right;
+      System.arraycopy(rightLeaf.elements, 0, leftLeaf.elements, left.size, right.size);
+      System.arraycopy(rightLeaf.counts, 0, leftLeaf.counts, left.size, right.size);
+      unlink(rightLeaf);
+    } else {
+      Inner leftInner = (Inner) left;
+      Inner rightInner = (Inner) right;
+      System.arraycopy(rightInner.keys, 0, leftInner.keys, left.size, right.size);
+      System.arraycopy(rightInner.children, 0, leftInner.children, left.size, right.size);
+      System.arraycopy(rightInner.totals, 0, leftInner.totals, left.size, right.size);
+      System.arraycopy(rightInner.distincts, 0, leftInner.distincts, left.size, right.size);
+      leftInner.keys[left.size] = inner.keys[index + 1];
+    }
+    left.size += right.size;
+    inner.totals[index] += inner.totals[index + 1];
+    inner.distincts[index] += inner.distincts[index + 1];
+    removeChild(inner, index + 1);
+  }
+
+  /**
+   * Returns the total count, or with {@code distinct} the number of distinct elements, of the
+   * elements less than {@code e}, or with {@code inclusive} no greater than {@code e}.
+   */
+  private long aggregateBelow(@ParametricNullness E e, boolean inclusive, boolean distinct) {
+    long result = 0;
+    Node node = tree.root;
+    while (node instanceof Inner) {
+      Inner inner = (Inner) node;
+      int i = childIndex(inner, e);
+      for (int j = 0; j < i; j++) {
+        result += distinct ? inner.distincts[j] : inner.totals[j];
+      }
+      node = inner.children[i];
+    }
+    Leaf leaf = (Leaf) node;
+    int index = search(leaf, e);
+    int end = (index >= 0) ? (inclusive ? index + 1 : index) : -index - 1;
+    if (distinct) {
+      return result + end;
+    }
+    for (int j = 0; j < end; j++) {
+      result += leaf.counts[j];
+    }
+    return result;
+  }
+
+  /** Returns the aggregate of the elements of the tree that are below this multiset's range. */
+  private long aggregateBelowRange(boolean distinct) {
+    if (!range.hasLowerBound()) {
+      return 0;
+    }
+    E endpoint = uncheckedCastNullableTToT(range.getLowerEndpoint());
+    return aggregateBelow(endpoint, range.getLowerBoundType() == BoundType.OPEN, distinct);
+  }
+
+  private long aggregateForEntries(boolean distinct) {
+    long total = distinct ? tree.distinctElements : tree.totalCount;
+    if (range.hasUpperBound()) {
+      E endpoint = uncheckedCastNullableTToT(range.getUpperEndpoint());
+      total = aggregateBelow(endpoint, range.getUpperBoundType() == BoundType.CLOSED, distinct);
+    }
+    return Math.max(0, total - aggregateBelowRange(distinct));
+  }
+
+  @Override
+  public int size() {
+    return Ints.saturatedCast(aggregateForEntries(false));
+  }
+
+  @Override
+  int distinctElements() {
+    return Ints.saturatedCast(aggregateForEntries(true));
+  }
+
+  /**
+   * Returns the number of elements of this multiset, counting multiple occurrences, that are
+   * strictly less than {@code element}, which need not be present. If {@code select(i)} is {@code
+   * element}, then {@code rank(element) <= i < rank(element) + count(element)}.
+   *
+   * <p>This method takes O(log n) time.
+   */
+  public long rank(@ParametricNullness E element) {
+    long rank;
+    if (range.tooLow(element)) {
+      rank = 0;
+    } else if (range.tooHigh(element)) {
+      rank = aggregateForEntries(false);
+    } else {
+      rank = aggregateBelow(element, false, false) - aggregateBelowRange(false);
+    }
+    return rank;
+  }
+
+  /**
+   * Returns the element at position {@code index} of this multiset, in the order of its iterator
+   * that repeats each element as many times as it occurs. That is, returns the element {@code e}
+   * such that {@code rank(e) <= index < rank(e) + count(e)}.
+   *
+   * <p>This method takes O(log n) time.
+   *
+   * @throws IndexOutOfBoundsException if {@code index} is negative or at least the total number of
+   *     occurrences in this multiset, which {@link #size} may report as only {@code
+   *     Integer.MAX_VALUE}
+   */
+  @ParametricNullness
+  public E select(long index) {
+    long size = aggregateForEntries(false);
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("index (" + index + ") must be in [0, " + size + ")");
+    }
+    long remaining = index + aggregateBelowRange(false);
+    Node node = tree.root;
+    while (node instanceof Inner) {
+      Inner inner = (Inner) node;
+      int i = 0;
+      while (remaining >= inner.totals[i]) {
+        remaining -= inner.totals[i];
+        i++;
+      }
+      node = inner.children[i];
+    }
+    Leaf leaf = (Leaf) node;
+    int i = 0;
+    while (remaining >= leaf.counts[i]) {
+      remaining -= leaf.counts[i];
+      i++;
+    }
+    return element(leaf, i);
+  }
+
+  @SuppressWarnings("unchecked") // we only store Es as elements
+  @ParametricNullness
+  private static <E extends @Nullable Object> E element(Leaf leaf, int index) {
+    return (E) leaf.elements[index];
+  }
+
+  @Override
+  public int count(@CheckForNull Object element) {
+    try {
+      @SuppressWarnings("unchecked")
+      E e = (E) element;
+      return range.contains(e) ? countInTree(e) : 0;
+    } catch (ClassCastException | NullPointerException e) {
+      return 0;
+    }
+  }
+
+  @CanIgnoreReturnValue
+  @Override
+  public int add(@ParametricNullness E element, int occurrences) {
+    checkNonnegative(occurrences, "occurrences");
+    if (occurrences == 0) {
+      return count(element);
+    }
+    checkArgument(range.contains(element));
+    int unused = comparator().compare(element, element);
+    int oldCount = countInTree(element);
+    checkArgument(
+        occurrences <= Integer.MAX_VALUE - oldCount, "too many occurrences: %s", occurrences);
+    changeCount(element, oldCount, oldCount + occurrences);
+    return oldCount;
+  }
+
+  @CanIgnoreReturnValue
+  @Override
+  public int remove(@CheckForNull Object element, int occurrences) {
+    checkNonnegative(occurrences, "occurrences");
+    if (occurrences == 0) {
+      return count(element);
+    }
+    E e;
+    int oldCount;
+    try {
+      @SuppressWarnings("unchecked")
+      E castElement = (E) element;
+      e = castElement;
+      if (!range.contains(e)) {
+        return 0;
+      }
+      oldCount = countInTree(e);
+    } catch (ClassCastException | NullPointerException exception) {
+      return 0;
+    }
+    changeCount(e, oldCount, Math.max(0, oldCount - occurrences));
+    return oldCount;
+  }
+
+  @CanIgnoreReturnValue
+  @Override
+  public int setCount(@ParametricNullness E element, int count) {
+    checkNonnegative(count, "count");
+    if (!range.contains(element)) {
+      checkArgument(count == 0);
+      return 0;
+    }
+    int oldCount = countInTree(element);
+    changeCount(element, oldCount, count);
+    return oldCount;
+  }
+
+  @CanIgnoreReturnValue
+  @Override
+  public boolean setCount(@ParametricNullness E element, int oldCount, int newCount) {
+    checkNonnegative(newCount, "newCount");
+    checkNonnegative(oldCount, "oldCount");
+    checkArgument(range.contains(element));
+    if (countInTree(element) != oldCount) {
+      return false;
+    }
+    changeCount(element, oldCount, newCount);
+    return true;
+  }
+
+  @Override
+  public void clear() {
+    if (!range.hasLowerBound() && !range.hasUpperBound()) {
+      tree.root = new Leaf();
+      tree.totalCount = 0;
+      tree.distinctElements = 0;
+      tree.modCount++;
+    } else {
+      Iterators.clear(entryIterator());
+    }
+  }
+
+  private Entry<E> wrapEntry(@ParametricNullness E element, int count) {
+    int expectedModCount = tree.modCount;
+    return new Multisets.AbstractEntry<E>() {
+      @Override
+      @ParametricNullness
+      public E getElement() {
+        return element;
+      }
+
+      @Override
+      public int getCount() {
+        return (tree.modCount == expectedModCount) ? count : count(element);
+      }
+    };
+  }
+
+  /** A position in the leaves: the element at {@code index} of {@code leaf}, if there is one. */
+  private abstract class Cursor implements Iterator<Entry<E>> {
+    @CheckForNull Leaf leaf;
+    int index;
+    int expectedModCount;
+    boolean started;
+    @CheckForNull E lastElement;
+    boolean canRemove;
+
+    Cursor() {
+      expectedModCount = tree.modCount;
+      seekStart();
+    }
+
+    /** Positions the cursor at the first element of the range to visit. */
+    abstract void seekStart();
+
+    /** Positions the cursor at the element that follows {@code e} in iteration order. */
+    abstract void seekAfter(@ParametricNullness E e);
+
+    /** Moves the cursor to the next position, which might not hold an element. */
+    abstract void step();
+
+    /** Moves to a position that holds an element, if the current one doesn't. */
+    abstract void normalize();
+
+    /** Returns whether {@code e} lies beyond the end of the range to visit. */
+    abstract boolean pastEnd(@ParametricNullness E e);
+
+    @Override
+    public boolean hasNext() {
+      if (expectedModCount != tree.modCount) {
+        expectedModCount = tree.modCount;
+        if (started) {
+          seekAfter(uncheckedCastNullableTToT(lastElement));
+        } else {
+          seekStart();
+        }
+      }
+      normalize();
+      Leaf current = leaf;
+      if (current == null) {
+        return false;
+      } else if (pastEnd(element(current, index))) {
+        leaf = null;
+        return false;
+      }
+      return true;
+    }
+
+    @Override
+    public Entry<E> next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      Leaf current = requireNonNull(leaf);
+      E element = element(current, index);
+      Entry<E> result = wrapEntry(element, current.counts[index]);
+      lastElement = element;
+      started = true;
+      canRemove = true;
+      step();
+      return result;
+    }
+
+    @Override
+    public void remove() {
+      checkState(canRemove, "no calls to next() since the last call to remove()");
+      setCount(uncheckedCastNullableTToT(lastElement), 0);
+      canRemove = false;
+    }
+  }
+
+  private final class AscendingCursor extends Cursor {
+    @Override
+    void seekStart() {
+      if (range.hasLowerBound()) {
+        seekCeiling(
+            uncheckedCastNullableTToT(range.getLowerEndpoint()),
+            range.getLowerBoundType() == BoundType.OPEN);
+      } else {
+        Node node = tree.root;
+        while (node instanceof Inner) {
+          node = ((Inner) node).children[0];
+        }
+        leaf = (Leaf) node;
+        index = 0;
+      }
+    }
+
+    @Override
+    void seekAfter(@ParametricNullness E e) {
+      seekCeiling(e, true);
+    }
+
+    /** Positions the cursor at the least element greater than, or if not strict equal to, e. */
+    private void seekCeiling(@ParametricNullness E e, boolean strict) {
+      Leaf found = leafFor(e);
+      int i = search(found, e);
+      leaf = found;
+      index = (i >= 0) ? (strict ? i + 1 : i) : -i - 1;
+    }
+
+    @Override
+    void step() {
+      index++;
+    }
+
+    @Override
+    void normalize() {
+      Leaf current = leaf;
+      if (current != null && index >= current.size) {
+        leaf = current.next;
+        index = 0;
+      }
+    }
+
+    @Override
+    boolean pastEnd(@ParametricNullness E e) {
+      return range.tooHigh(e);
+    }
+  }
+
+  private final class DescendingCursor extends Cursor {
+    @Override
+    void seekStart() {
+      if (range.hasUpperBound()) {
+        seekFloor(
+            uncheckedCastNullableTToT(range.getUpperEndpoint()),
+            range.getUpperBoundType() == BoundType.OPEN);
+      } else {
+        Node node = tree.root;
+        while (node instanceof Inner) {
+          node = ((Inner) node).children[node.size - 1];
+        }
+        leaf = (Leaf) node;
+        index = node.size - 1;
+      }
+    }
+
+    @Override
+    void seekAfter(@ParametricNullness E e) {
+      seekFloor(e, true);
+    }
+
+    /** Positions the cursor at the greatest element less than, or if not strict equal to, e. */
+    private void seekFloor(@ParametricNullness E e, boolean strict) {
+      Leaf found = leafFor(e);
+      int i = search(found, e);
+      leaf = found;
+      index = (i >= 0) ? (strict ? i - 1 : i) : -i - 2;
+    }
+
+    @Override
+    void step() {
+      index--;
+    }
+
+    @Override
+    void normalize() {
+      Leaf current = leaf;
+      if (current != null && index < 0) {
+        Leaf previous = current.previous;
+        leaf = previous;
+        index = (previous == null) ? 0 : previous.size - 1;
+      }
+    }
+
+    @Override
+    boolean pastEnd(@ParametricNullness E e) {
+      return range.tooLow(e);
+    }
+  }
+
+  @Override
+  Iterator<E> elementIterator() {
+    return Multisets.elementIterator(entryIterator());
+  }
+
+  @Override
+  Iterator<Entry<E>> entryIterator() {
+    return new AscendingCursor();
+  }
+
+  @Override
+  Iterator<Entry<E>> descendingEntryIterator() {
+    return new DescendingCursor();
+  }
+
+  @Override
+  public void forEachEntry(ObjIntConsumer<? super E> action) {
+    checkNotNull(action);
+    AscendingCursor cursor = new AscendingCursor();
+    for (Leaf leaf = cursor.leaf; leaf != null; leaf = leaf.next) {
+      for (int i = (leaf == cursor.leaf) ? cursor.index : 0; i < leaf.size; i++) {
+        E element = element(leaf, i);
+        if (range.tooHigh(element)) {
+          return;
+        }
+        action.accept(element, leaf.counts[i]);
+      }
+    }
+  }
+
+  @Override
+  public Iterator<E> iterator() {
+    return Multisets.iteratorImpl(this);
+  }
+
+  @Override
+  public SortedMultiset<E> headMultiset(@ParametricNullness E upperBound, BoundType boundType) {
+    return new BTreeMultiset<E>(
+        tree, range.intersect(GeneralRange.upTo(comparator(), upperBound, boundType)));
+  }
+
+  @Override
+  public SortedMultiset<E> tailMultiset(@ParametricNullness E lowerBound, BoundType boundType) {
+    return new BTreeMultiset<E>(
+        tree, range.intersect(GeneralRange.downTo(comparator(), lowerBound, boundType)));
+  }
+
+  /**
+   * @serialData the comparator, the number of distinct elements, the first element, its count, the
+   *     second element, its count, and so on
+   */
+  private void writeObject(ObjectOutputStream stream) throws IOException {
+    stream.defaultWriteObject();
+    stream.writeObject(elementSet().comparator());
+    Serialization.writeMultiset(this, stream);
+  }
+
+  private void readObject(ObjectInputStream stream) throws IOException, ClassNotFoundException {
+    stream.defaultReadObject();
+    @SuppressWarnings("unchecked")
+    // reading data stored by writeObject
+    Comparator<? super E> comparator = (Comparator<? super E>) stream.readObject();
+    Serialization.getFieldSetter(AbstractSortedMultiset.class, "comparator").set(this, comparator);
+    Serialization.getFieldSetter(BTreeMultiset.class, "range")
+        .set(this, GeneralRange.all(comparator));
+    Serialization.getFieldSetter(BTreeMultiset.class, "tree").set(this, new Tree());
+    Serialization.populateMultiset(this, stream);
+  }
+
+  private static final long serialVersionUID = 0;
+}
@@ -0,0 +1,1364 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.common.collect;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkElementIndex;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.annotations.GwtIncompatible;
+import com.google.common.primitives.Ints;
+import com.google.errorprone.annotations.DoNotCall;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.function.IntToLongFunction;
+import javax.annotation.CheckForNull;
+
+/**
+ * An immutable sorted set of {@code Integer} or {@code Long} values, compressed in the style of a
+ * Roaring bitmap. Values are grouped by their high bits into chunks of 2<sup>16</sup> consecutive
+ * values, and each chunk is stored in whichever of three forms is smallest: a sorted array of
+ * 16-bit values, a bitmap of 2<sup>16</sup> bits, or a list of runs of consecutive values. Sets
+ * that are dense or clustered take at most about two bytes per value, where {@link
+ * ImmutableSortedSet#copyOf(Iterable)} takes about twenty; very sparse sets, with only a few values
+ * in each chunk, gain less. Example:
+ *
+ * <pre>{@code
+ * BitmapSortedSet<Integer> allowed =
+ *     BitmapSortedSet.create(allowedRanges, DiscreteDomain.integers());
+ * BitmapSortedSet<Integer> both = allowed.intersection(BitmapSortedSet.ofInts(requestedIds));
+ * }</pre>
+ *
+ * <p>Lookups such as {@link #contains}, {@link #rank} and {@link #ceiling} find the chunk by binary
+ * search and then search within it. {@link #union} and {@link #intersection} work a chunk at a
+ * time and share unchanged chunks with their inputs. Subsets copy the table of chunks, so unlike
+ * the subsets of most sorted sets they take time linear in the number of chunks.
+ *
+ * <p>Only the {@link DiscreteDomain#integers()} and {@link DiscreteDomain#longs()} domains are
+ * supported. {@link #size} returns {@link Integer#MAX_VALUE} for sets of more values than that.
+ *
+ * @since NEXT
+ */
+@GwtIncompatible // not worth using in GWT for now
+@SuppressWarnings("rawtypes") // allow ungenerified Comparable types
+@ElementTypesAreNonnullByDefault
+public final class BitmapSortedSet<C extends Comparable> extends ImmutableSortedSet<C> {
+  /**
+   * Returns a set of the given {@code int} values, in ascending order, ignoring duplicates.
+   *
+   * @throws NullPointerException if {@code values} is null
+   */
+  public static BitmapSortedSet<Integer> ofInts(int... values) {
+    int[] sorted = values.clone();
+    Arrays.sort(sorted);
+    return fromSortedValues(false, sorted.length, i -> sorted[i]);
+  }
+
+  /**
+   * Returns a set of the given {@code long} values, in ascending order, ignoring duplicates.
+   *
+   * @throws NullPointerException if {@code values} is null
+   */
+  public static BitmapSortedSet<Long> ofLongs(long... values) {
+    long[] sorted = values.clone();
+    Arrays.sort(sorted);
+    return fromSortedValues(true, sorted.length, i -> sorted[i]);
+  }
+
+  /**
+   * Returns a set of the values in {@code rangeSet}, which takes time and space linear in the
+   * number of its ranges and of the chunks they cover rather than in the number of values. Use
+   * {@code create(ImmutableRangeSet.of(range), domain)} to convert a {@link ContiguousSet}.
+   *
+   * @throws IllegalArgumentException if {@code domain} is neither {@link DiscreteDomain#integers()}
+   *     nor {@link DiscreteDomain#longs()}, or if the set would need more than {@link
+   *     Integer#MAX_VALUE} chunks, for example because {@code rangeSet} has unbounded ranges of
+   *     {@code Long} values
+   */
+  public static <C extends Comparable> BitmapSortedSet<C> create(
+      RangeSet<C> rangeSet, DiscreteDomain<C> domain) {
+    checkNotNull(rangeSet);
+    boolean longs = isLongDomain(domain);
+    RunsBuilder builder = new RunsBuilder();
+    for (Range<C> range : rangeSet.asRanges()) {
+      ContiguousSet<C> values = ContiguousSet.create(range, domain);
+      if (!values.isEmpty()) {
+        builder.addRun(toLong(values.first()), toLong(values.last()));
+      }
+    }
+    return builder.build(longs);
+  }
+
+  private static boolean isLongDomain(DiscreteDomain<?> domain) {
+    if (domain == DiscreteDomain.longs()) {
+      return true;
+    }
+    checkArgument(
+        domain == DiscreteDomain.integers(),
+        "BitmapSortedSet supports only the integers() and longs() domains, not %s",
+        domain);
+    return false;
+  }
+
+  /** Builds a set from {@code size} values, given in ascending order, possibly with duplicates. */
+  private static <C extends Comparable> BitmapSortedSet<C> fromSortedValues(
+      boolean longs, int size, IntToLongFunction values) {
+    ChunkList chunks = new ChunkList(4);
+    char[] lows = new char[Math.min(size, CHUNK_SIZE)];
+    int i = 0;
+    while (i < size) {
+      long key = values.applyAsLong(i) >> CHUNK_BITS;
+      int count = 0;
+      long previous = 0;
+      for (; i < size && values.applyAsLong(i) >> CHUNK_BITS == key; i++) {
+        long value = values.applyAsLong(i);
+        if (count == 0 || value != previous) {
+          lows[count++] = (char) value;
+          previous = value;
+        }
+      }
+      chunks.add(key, Container.fromSortedValues(lows, 0, count));
+    }
+    return chunks.build(longs);
+  }
+
+  private static final int CHUNK_BITS = 16;
+  private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+  private static final int MAX_LOW = CHUNK_SIZE - 1;
+  private static final int BITMAP_WORDS = CHUNK_SIZE / Long.SIZE;
+
+  /** The largest chunk to store as an array, which then takes as much space as a bitmap. */
+  private static final int MAX_ARRAY_SIZE = CHUNK_SIZE / Character.SIZE;
+
+  private static final int MAX_CHUNKS = Integer.MAX_VALUE - 8;
+
+  /** Whether the elements are {@code Long}s rather than {@code Integer}s. */
+  private final boolean longs;
+
+  /** The high bits ({@code value >> CHUNK_BITS}) of the values in each chunk, ascending. */
+  private final long[] keys;
+
+  /** The low bits of the values in each chunk. No chunk is empty. */
+  private final Container[] containers;
+
+  /** {@code offsets[i]} is the number of values in the chunks before chunk {@code i}. */
+  private final long[] offsets;
+
+  private BitmapSortedSet(boolean longs, long[] keys, Container[] containers) {
+    super(Ordering.<C>natural());
+    this.longs = longs;
+    this.keys = keys;
+    this.containers = containers;
+    this.offsets = new long[containers.length + 1];
+    for (int i = 0; i < containers.length; i++) {
+      offsets[i + 1] = offsets[i] + containers[i].cardinality();
+    }
+  }
+
+  private BitmapSortedSet<C> emptySet() {
+    return new BitmapSortedSet<>(longs, new long[0], new Container[0]);
+  }
+
+  private static long toLong(Comparable value) {
+    return ((Number) value).longValue();
+  }
+
+  private static int low(long value) {
+    return (int) value & MAX_LOW;
+  }
+
+  @SuppressWarnings("unchecked") // C is Long if longs is true, and Integer otherwise
+  private C box(long value) {
+    return (C) (longs ? (Object) value : (Object) (int) value);
+  }
+
+  private C box(long key, int low) {
+    return box((key << CHUNK_BITS) | low);
+  }
+
+  /** Returns the index of the chunk that would hold {@code value}, as {@link Arrays#binarySearch}. */
+  private int chunkIndex(long value) {
+    return Arrays.binarySearch(keys, value >> CHUNK_BITS);
+  }
+
+  private boolean isElementType(@CheckForNull Object object) {
+    return longs ? object instanceof Long : object instanceof Integer;
+  }
+
+  private long minValue() {
+    return longs ? Long.MIN_VALUE : Integer.MIN_VALUE;
+  }
+
+  private long maxValue() {
+    return longs ? Long.MAX_VALUE : Integer.MAX_VALUE;
+  }
+
+  @Override
+  public int size() {
+    return Ints.saturatedCast(offsets[containers.length]);
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return containers.length == 0;
+  }
+
+  @Override
+  public boolean contains(@CheckForNull Object object) {
+    if (!isElementType(object)) {
+      return false;
+    }
+    long value = toLong((Comparable) object);
+    int i = chunkIndex(value);
+    return i >= 0 && containers[i].contains(low(value));
+  }
+
+  /**
+   * Returns the number of elements of this set that are less than {@code value}, whether or not
+   * {@code value} is itself an element. This is the index of {@code value} in {@link #asList} if it
+   * is an element, but it may exceed {@link Integer#MAX_VALUE} for large sets of {@code Long}s.
+   */
+  public long rank(C value) {
+    long v = toLong(checkNotNull(value));
+    int i = chunkIndex(v);
+    return (i >= 0) ? offsets[i] + containers[i].rank(low(v)) : offsets[-i - 1];
+  }
+
+  /** Returns the element at {@code index} in ascending order. */
+  private C select(long index) {
+    int i = Arrays.binarySearch(offsets, index);
+    // offsets is strictly increasing, so a miss means that index falls inside the chunk before
+    i = (i >= 0) ? i : -i - 2;
+    return box(keys[i], containers[i].select((int) (index - offsets[i])));
+  }
+
+  @Override
+  @SuppressWarnings("unchecked") // contains checked that target is a C
+  int indexOf(@CheckForNull Object target) {
+    return contains(target) ? Ints.checkedCast(rank((C) target)) : -1;
+  }
+
+  /**
+   * Returns a set of the elements that are in this set, in {@code other}, or in both. The chunks
+   * that only one of the sets has are shared with the result rather than copied.
+   *
+   * @throws IllegalArgumentException if one set holds {@code Integer}s and the other {@code Long}s
+   */
+  public BitmapSortedSet<C> union(BitmapSortedSet<C> other) {
+    checkCompatible(other);
+    if (other.isEmpty()) {
+      return this;
+    } else if (isEmpty()) {
+      return other;
+    }
+    ChunkList result = new ChunkList(keys.length + other.keys.length);
+    int i = 0;
+    int j = 0;
+    while (i < keys.length && j < other.keys.length) {
+      if (keys[i] < other.keys[j]) {
+        result.add(keys[i], containers[i++]);
+      } else if (keys[i] > other.keys[j]) {
+        result.add(other.keys[j], other.containers[j++]);
+      } else {
+        result.add(keys[i], Container.or(containers[i++], other.containers[j++]));
+      }
+    }
+    for (; i < keys.length; i++) {
+      result.add(keys[i], containers[i]);
+    }
+    for (; j < other.keys.length; j++) {
+      result.add(other.keys[j], other.containers[j]);
+    }
+    return result.build(longs);
+  }
+
+  /**
+   * Returns a set of the elements that are in both this set and {@code other}.
+   *
+   * @throws IllegalArgumentException if one set holds {@code Integer}s and the other {@code Long}s
+   */
+  public BitmapSortedSet<C> intersection(BitmapSortedSet<C> other) {
+    checkCompatible(other);
+    ChunkList result = new ChunkList(Math.min(keys.length, other.keys.length));
+    int i = 0;
+    int j = 0;
+    while (i < keys.length && j < other.keys.length) {
+      if (keys[i] < other.keys[j]) {
+        i++;
+      } else if (keys[i] > other.keys[j]) {
+        j++;
+      } else {
+        result.add(keys[i], Container.and(containers[i++], other.containers[j++]));
+      }
+    }
+    return result.build(longs);
+  }
+
+  private void checkCompatible(BitmapSortedSet<C> other) {
+    checkArgument(
+        longs == other.longs, "Cannot combine a set of Integer values with a set of Long values");
+  }
+
+  /**
+   * Returns the elements of this set as an {@link ImmutableRangeSet} of closed ranges, one for each
+   * run of consecutive elements.
+   */
+  @SuppressWarnings("unchecked") // the builder needs Comparable<?>, which C, an Integer or Long, is
+  public ImmutableRangeSet<C> toRangeSet() {
+    ImmutableRangeSet.Builder builder = ImmutableRangeSet.builder();
+    long[] runs = runs();
+    for (int i = 0; i < runs.length; i += 2) {
+      builder.add(Range.closed(box(runs[i]), box(runs[i + 1])));
+    }
+    return builder.build();
+  }
+
+  /** Returns the first and last value of each maximal run of consecutive elements, in order. */
+  private long[] runs() {
+    RunCollector collector = new RunCollector();
+    for (int i = 0; i < containers.length; i++) {
+      containers[i].forEachRun(keys[i] << CHUNK_BITS, collector);
+    }
+    return collector.toArray();
+  }
+
+  @Override
+  public C first() {
+    if (isEmpty()) {
+      throw new NoSuchElementException();
+    }
+    return box(keys[0], containers[0].ceiling(0));
+  }
+
+  @Override
+  public C last() {
+    if (isEmpty()) {
+      throw new NoSuchElementException();
+    }
+    int i = containers.length - 1;
+    return box(keys[i], containers[i].floor(MAX_LOW));
+  }
+
+  @Override
+  @CheckForNull
+  public C lower(C e) {
+    long value = toLong(checkNotNull(e));
+    return (value == minValue()) ? null : floorValue(value - 1);
+  }
+
+  @Override
+  @CheckForNull
+  public C floor(C e) {
+    return floorValue(toLong(checkNotNull(e)));
+  }
+
+  @Override
+  @CheckForNull
+  public C ceiling(C e) {
+    return ceilingValue(toLong(checkNotNull(e)));
+  }
+
+  @Override
+  @CheckForNull
+  public C higher(C e) {
+    long value = toLong(checkNotNull(e));
+    return (value == maxValue()) ? null : ceilingValue(value + 1);
+  }
+
+  @CheckForNull
+  private C ceilingValue(long value) {
+    int i = chunkIndex(value);
+    if (i >= 0) {
+      int low = containers[i].ceiling(low(value));
+      if (low >= 0) {
+        return box(keys[i], low);
+      }
+      i++;
+    } else {
+      i = -i - 1;
+    }
+    return (i < containers.length) ? box(keys[i], containers[i].ceiling(0)) : null;
+  }
+
+  @CheckForNull
+  private C floorValue(long value) {
+    int i = chunkIndex(value);
+    if (i >= 0) {
+      int low = containers[i].floor(low(value));
+      if (low >= 0) {
+        return box(keys[i], low);
+      }
+      i--;
+    } else {
+      i = -i - 2;
+    }
+    return (i >= 0) ? box(keys[i], containers[i].floor(MAX_LOW)) : null;
+  }
+
+  @Override
+  public BitmapSortedSet<C> headSet(C toElement) {
+    return headSetImpl(checkNotNull(toElement), false);
+  }
+
+  @Override
+  public BitmapSortedSet<C> headSet(C toElement, boolean inclusive) {
+    return headSetImpl(checkNotNull(toElement), inclusive);
+  }
+
+  @Override
+  public BitmapSortedSet<C> subSet(C fromElement, C toElement) {
+    return subSet(fromElement, true, toElement, false);
+  }
+
+  @Override
+  public BitmapSortedSet<C> subSet(
+      C fromElement, boolean fromInclusive, C toElement, boolean toInclusive) {
+    checkNotNull(fromElement);
+    checkNotNull(toElement);
+    checkArgument(comparator().compare(fromElement, toElement) <= 0);
+    return subSetImpl(fromElement, fromInclusive, toElement, toInclusive);
+  }
+
+  @Override
+  public BitmapSortedSet<C> tailSet(C fromElement) {
+    return tailSetImpl(checkNotNull(fromElement), true);
+  }
+
+  @Override
+  public BitmapSortedSet<C> tailSet(C fromElement, boolean inclusive) {
+    return tailSetImpl(checkNotNull(fromElement), inclusive);
+  }
+
+  @Override
+  BitmapSortedSet<C> headSetImpl(C toElement, boolean inclusive) {
+    long to = toLong(toElement);
+    if (!inclusive) {
+      if (to == Long.MIN_VALUE) {
+        return emptySet();
+      }
+      to--;
+    }
+    return restrict(Long.MIN_VALUE, to);
+  }
+
+  @Override
+  BitmapSortedSet<C> subSetImpl(
+      C fromElement, boolean fromInclusive, C toElement, boolean toInclusive) {
+    long from = toLong(fromElement);
+    long to = toLong(toElement);
+    if ((!fromInclusive && from == Long.MAX_VALUE) || (!toInclusive && to == Long.MIN_VALUE)) {
+      return emptySet();
+    }
+    return restrict(fromInclusive ? from : from + 1, toInclusive ? to : to - 1);
+  }
+
+  @Override
+  BitmapSortedSet<C> tailSetImpl(C fromElement, boolean inclusive) {
+    long from = toLong(fromElement);
+    if (!inclusive) {
+      if (from == Long.MAX_VALUE) {
+        return emptySet();
+      }
+      from++;
+    }
+    return restrict(from, Long.MAX_VALUE);
+  }
+
+  /** Returns the elements from {@code from} to {@code to}, both inclusive. */
+  private BitmapSortedSet<C> restrict(long from, long to) {
+    if (isEmpty() || from > to) {
+      return emptySet();
+    }
+    if (from <= toLong(first()) && to >= toLong(last())) {
+      return this;
+    }
+    int start = chunkIndex(from);
+    start = (start >= 0) ? start : -start - 1;
+    int end = chunkIndex(to);
+    end = (end >= 0) ? end : -end - 2;
+    ChunkList result = new ChunkList(Math.max(end - start + 1, 0));
+    for (int i = start; i <= end; i++) {
+      int lowFrom = (keys[i] == from >> CHUNK_BITS) ? low(from) : 0;
+      int lowTo = (keys[i] == to >> CHUNK_BITS) ? low(to) : MAX_LOW;
+      Container container = containers[i];
+      result.add(
+          keys[i],
+          (lowFrom == 0 && lowTo == MAX_LOW) ? container : container.restrict(lowFrom, lowTo));
+    }
+    return result.build(longs);
+  }
+
+  @Override
+  public UnmodifiableIterator<C> iterator() {
+    return new AbstractIterator<C>() {
+      int index = 0;
+      int nextLow = 0;
+
+      @Override
+      @CheckForNull
+      protected C computeNext() {
+        while (index < containers.length) {
+          int low = (nextLow <= MAX_LOW) ? containers[index].ceiling(nextLow) : -1;
+          if (low >= 0) {
+            nextLow = low + 1;
+            return box(keys[index], low);
+          }
+          index++;
+          nextLow = 0;
+        }
+        return endOfData();
+      }
+    };
+  }
+
+  @Override
+  public UnmodifiableIterator<C> descendingIterator() {
+    return new AbstractIterator<C>() {
+      int index = containers.length - 1;
+      int nextLow = MAX_LOW;
+
+      @Override
+      @CheckForNull
+      protected C computeNext() {
+        while (index >= 0) {
+          int low = (nextLow >= 0) ? containers[index].floor(nextLow) : -1;
+          if (low >= 0) {
+            nextLow = low - 1;
+            return box(keys[index], low);
+          }
+          index--;
+          nextLow = MAX_LOW;
+        }
+        return endOfData();
+      }
+    };
+  }
+
+  @Override
+  ImmutableList<C> createAsList() {
+    return new ImmutableAsList<C>() {
+      @Override
+      ImmutableSortedSet<C> delegateCollection() {
+        return BitmapSortedSet.this;
+      }
+
+      @Override
+      public C get(int i) {
+        checkElementIndex(i, size());
+        return select(i);
+      }
+
+      @Override
+      public int indexOf(@CheckForNull Object target) {
+        return BitmapSortedSet.this.indexOf(target);
+      }
+
+      @Override
+      public int lastIndexOf(@CheckForNull Object target) {
+        return BitmapSortedSet.this.indexOf(target);
+      }
+    };
+  }
+
+  @Override
+  ImmutableSortedSet<C> createDescendingSet() {
+    return new DescendingImmutableSortedSet<>(this);
+  }
+
+  @Override
+  boolean isPartialView() {
+    return false;
+  }
+
+  @Override
+  public boolean equals(@CheckForNull Object object) {
+    if (object == this) {
+      return true;
+    }
+    if (object instanceof BitmapSortedSet) {
+      BitmapSortedSet<?> that = (BitmapSortedSet<?>) object;
+      if (longs == that.longs) {
+        // each chunk has only one representation, so equal sets have equal containers
+        return Arrays.equals(keys, that.keys) && Arrays.equals(containers, that.containers);
+      }
+      return isEmpty() && that.isEmpty();
+    }
+    return super.equals(object);
+  }
+
+  @Override
+  public int hashCode() {
+    // Sets.hashCodeImpl, but without boxing each element
+    long hash = 0;
+    for (int i = 0; i < containers.length; i++) {
+      hash += containers[i].hashSum(keys[i] << CHUNK_BITS, longs);
+    }
+    return (int) hash;
+  }
+
+  /**
+   * Not supported. Use {@link #ofInts}, {@link #ofLongs} or {@link #create} instead.
+   *
+   * @throws UnsupportedOperationException always
+   * @deprecated Use {@link #ofInts}, {@link #ofLongs} or {@link #create}.
+   */
+  @Deprecated
+  @DoNotCall("Always throws UnsupportedOperationException")
+  public static <E> ImmutableSortedSet.Builder<E> builder() {
+    throw new UnsupportedOperationException();
+  }
+
+  /** Serializes the set as its runs, which are compact for both dense and clustered sets. */
+  private static final class SerializedForm implements Serializable {
+    final boolean longs;
+    final long[] runs;
+
+    SerializedForm(boolean longs, long[] runs) {
+      this.longs = longs;
+      this.runs = runs;
+    }
+
+    Object readResolve() {
+      RunsBuilder builder = new RunsBuilder();
+      for (int i = 0; i < runs.length; i += 2) {
+        builder.addRun(runs[i], runs[i + 1]);
+      }
+      return builder.build(longs);
+    }
+
+    private static final long serialVersionUID = 0;
+  }
+
+  @Override
+  Object writeReplace() {
+    return new SerializedForm(longs, runs());
+  }
+
+  private void readObject(ObjectInputStream unused) throws InvalidObjectException {
+    throw new InvalidObjectException("Use SerializedForm");
+  }
+
+  /** Accumulates chunks in ascending order of key, dropping empty ones. */
+  private static final class ChunkList {
+    long[] keys;
+    Container[] containers;
+    int size;
+
+    ChunkList(int expectedSize) {
+      keys = new long[expectedSize];
+      containers = new Container[expectedSize];
+    }
+
+    void add(long key, @CheckForNull Container container) {
+      if (container == null) {
+        return;
+      }
+      if (size == keys.length) {
+        checkArgument(size < MAX_CHUNKS, "Too many values for a BitmapSortedSet");
+        int newCapacity = (int) Math.min(Math.max(2L * size, 4), MAX_CHUNKS);
+        keys = Arrays.copyOf(keys, newCapacity);
+        containers = Arrays.copyOf(containers, newCapacity);
+      }
+      keys[size] = key;
+      containers[size++] = container;
+    }
+
+    <C extends Comparable> BitmapSortedSet<C> build(boolean longs) {
+      return new BitmapSortedSet<>(
+          longs,
+          (size == keys.length) ? keys : Arrays.copyOf(keys, size),
+          (size == containers.length) ? containers : Arrays.copyOf(containers, size));
+    }
+  }
+
+  /** Builds a set from runs of consecutive values, given in ascending order. */
+  private static final class RunsBuilder {
+    final ChunkList chunks = new ChunkList(4);
+    long key;
+    char[] runs = new char[8];
+    int runCount;
+
+    /** Adds {@code start} through {@code end}, which must be greater than any earlier value. */
+    void addRun(long start, long end) {
+      long startKey = start >> CHUNK_BITS;
+      long endKey = end >> CHUNK_BITS;
+      if (startKey == endKey) {
+        addToChunk(startKey, low(start), low(end));
+        return;
+      }
+      checkArgument(endKey - startKey < MAX_CHUNKS, "Too many values for a BitmapSortedSet");
+      addToChunk(startKey, low(start), MAX_LOW);
+      flush();
+      for (long k = startKey + 1; k < endKey; k++) {
+        chunks.add(k, Container.FULL);
+      }
+      addToChunk(endKey, 0, low(end));
+    }
+
+    private void addToChunk(long chunkKey, int from, int to) {
+      if (runCount > 0 && chunkKey != key) {
+        flush();
+      }
+      key = chunkKey;
+      if (runCount > 0 && runs[2 * runCount - 1] + 1 == from) {
+        runs[2 * runCount - 1] = (char) to;
+        return;
+      }
+      if (2 * runCount == runs.length) {
+        runs = Arrays.copyOf(runs, 2 * runs.length);
+      }
+      runs[2 * runCount] = (char) from;
+      runs[2 * runCount + 1] = (char) to;
+      runCount++;
+    }
+
+    private void flush() {
+      if (runCount > 0) {
+        chunks.add(key, Container.fromRuns(runs, runCount));
+        runCount = 0;
+      }
+    }
+
+    <C extends Comparable> BitmapSortedSet<C> build(boolean longs) {
+      flush();
+      return chunks.build(longs);
+    }
+  }
+
+  private interface RunVisitor {
+    void visit(long start, long end);
+  }
+
+  /** Collects runs, joining those that continue each other across chunks. */
+  private static final class RunCollector implements RunVisitor {
+    long[] runs = new long[16];
+    int size;
+
+    @Override
+    public void visit(long start, long end) {
+      if (size > 0 && runs[size - 1] + 1 == start) {
+        runs[size - 1] = end;
+        return;
+      }
+      if (size == runs.length) {
+        runs = Arrays.copyOf(runs, 2 * size);
+      }
+      runs[size++] = start;
+      runs[size++] = end;
+    }
+
+    long[] toArray() {
+      return Arrays.copyOf(runs, size);
+    }
+  }
+
+  /**
+   * The low 16 bits of the values in one chunk. Each chunk has exactly one representation, the one
+   * that {@link #choose} picks for its cardinality and number of runs, so that sets can be compared
+   * a container at a time. Methods taking a low value accept 0 to {@link #MAX_LOW}.
+   */
+  private abstract static class Container {
+    static final Container FULL = new RunContainer(new char[] {0, MAX_LOW}, CHUNK_SIZE);
+
+    private static final int ARRAY = 0;
+    private static final int BITMAP = 1;
+    private static final int RUNS = 2;
+
+    /** Picks the smallest representation, preferring an array or a bitmap on a tie. */
+    private static int choose(int cardinality, int runCount) {
+      int arrayBytes = (cardinality <= MAX_ARRAY_SIZE) ? 2 * cardinality : Integer.MAX_VALUE;
+      int bitmapBytes = BITMAP_WORDS * 8;
+      if (4 * runCount < Math.min(arrayBytes, bitmapBytes)) {
+        return RUNS;
+      }
+      return (cardinality <= MAX_ARRAY_SIZE) ? ARRAY : BITMAP;
+    }
+
+    /** Returns a container of the distinct ascending values in {@code values[from, to)}. */
+    @CheckForNull
+    static Container fromSortedValues(char[] values, int from, int to) {
+      int cardinality = to - from;
+      if (cardinality == 0) {
+        return null;
+      }
+      int runCount = 1;
+      for (int i = from + 1; i < to; i++) {
+        if (values[i] != values[i - 1] + 1) {
+          runCount++;
+        }
+      }
+      switch (choose(cardinality, runCount)) {
+        case ARRAY:
+          return new ArrayContainer(Arrays.copyOfRange(values, from, to));
+        case BITMAP:
+          long[] words = new long[BITMAP_WORDS];
+          for (int i = from; i < to; i++) {
+            words[values[i] >>> 6] |= 1L << values[i];
+          }
+          return new BitmapContainer(words, cardinality);
+        default:
+          if (cardinality == CHUNK_SIZE) {
+            return FULL;
+          }
+          char[] runs = new char[2 * runCount];
+          int r = 0;
+          runs[0] = values[from];
+          for (int i = from + 1; i < to; i++) {
+            if (values[i] != values[i - 1] + 1) {
+              runs[r + 1] = values[i - 1];
+              r += 2;
+              runs[r] = values[i];
+            }
+          }
+          runs[r + 1] = values[to - 1];
+          return new RunContainer(runs, cardinality);
+      }
+    }
+
+    /** Returns a container of the first {@code runCount} runs, as start and end pairs. */
+    @CheckForNull
+    static Container fromRuns(char[] runs, int runCount) {
+      int cardinality = 0;
+      for (int r = 0; r < 2 * runCount; r += 2) {
+        cardinality += runs[r + 1] - runs[r] + 1;
+      }
+      if (cardinality == 0) {
+        return null;
+      }
+      switch (choose(cardinality, runCount)) {
+        case ARRAY:
+          char[] values = new char[cardinality];
+          int n = 0;
+          for (int r = 0; r < 2 * runCount; r += 2) {
+            for (int v = runs[r]; v <= runs[r + 1]; v++) {
+              values[n++] = (char) v;
+            }
+          }
+          return new ArrayContainer(values);
+        case BITMAP:
+          long[] words = new long[BITMAP_WORDS];
+          for (int r = 0; r < 2 * runCount; r += 2) {
+            setRange(words, runs[r], runs[r + 1]);
+          }
+          return new BitmapContainer(words, cardinality);
+        default:
+          return (cardinality == CHUNK_SIZE)
+              ? FULL
+              : new RunContainer(Arrays.copyOf(runs, 2 * runCount), cardinality);
+      }
+    }
+
+    /** Returns a container of the set bits of {@code words}, which it may keep. */
+    @CheckForNull
+    static Container fromWords(long[] words) {
+      int cardinality = 0;
+      int runCount = 0;
+      long previous = 0;
+      for (long word : words) {
+        cardinality += Long.bitCount(word);
+        // a run starts at each set bit whose lower neighbor is clear
+        runCount += Long.bitCount(word & ~((word << 1) | (previous >>> 63)));
+        previous = word;
+      }
+      if (cardinality == 0) {
+        return null;
+      }
+      switch (choose(cardinality, runCount)) {
+        case ARRAY:
+          char[] values = new char[cardinality];
+          int n = 0;
+          for (int w = 0; w < BITMAP_WORDS; w++) {
+            for (long word = words[w]; word != 0; word &= word - 1) {
+              values[n++] = (char) ((w << 6) + Long.numberOfTrailingZeros(word));
+            }
+          }
+          return new ArrayContainer(values);
+        case BITMAP:
+          return new BitmapContainer(words, cardinality);
+        default:
+          if (cardinality == CHUNK_SIZE) {
+            return FULL;
+          }
+          char[] runs = new char[2 * runCount];
+          int r = 0;
+          for (int start = nextSetBit(words, 0); start >= 0; ) {
+            int end = nextClearBit(words, start) - 1;
+            runs[r++] = (char) start;
+            runs[r++] = (char) end;
+            start = (end < MAX_LOW) ? nextSetBit(words, end + 1) : -1;
+          }
+          return new RunContainer(runs, cardinality);
+      }
+    }
+
+    @CheckForNull
+    static Container or(Container a, Container b) {
+      if (a == FULL || b == FULL) {
+        return FULL;
+      }
+      if (a instanceof ArrayContainer && b instanceof ArrayContainer) {
+        char[] x = ((ArrayContainer) a).values;
+        char[] y = ((ArrayContainer) b).values;
+        if (x.length + y.length <= MAX_ARRAY_SIZE) {
+          char[] merged = new char[x.length + y.length];
+          int i = 0;
+          int j = 0;
+          int n = 0;
+          while (i < x.length && j < y.length) {
+            if (x[i] < y[j]) {
+              merged[n++] = x[i++];
+            } else if (x[i] > y[j]) {
+              merged[n++] = y[j++];
+            } else {
+              merged[n++] = x[i++];
+              j++;
+            }
+          }
+          while (i < x.length) {
+            merged[n++] = x[i++];
+          }
+          while (j < y.length) {
+            merged[n++] = y[j++];
+          }
+          return fromSortedValues(merged, 0, n);
+        }
+      }
+      long[] words = a.toWords();
+      b.addTo(words);
+      return fromWords(words);
+    }
+
+    @CheckForNull
+    static Container and(Container a, Container b) {
+      if (a == FULL) {
+        return b;
+      } else if (b == FULL) {
+        return a;
+      } else if (a instanceof ArrayContainer) {
+        return ((ArrayContainer) a).filter(b);
+      } else if (b instanceof ArrayContainer) {
+        return ((ArrayContainer) b).filter(a);
+      }
+      long[] words = a.toWords();
+      long[] other = b.toWords();
+      for (int w = 0; w < BITMAP_WORDS; w++) {
+        words[w] &= other[w];
+      }
+      return fromWords(words);
+    }
+
+    abstract int cardinality();
+
+    abstract boolean contains(int low);
+
+    /** Returns the number of values less than {@code low}. */
+    abstract int rank(int low);
+
+    /** Returns the value at {@code index} in ascending order. */
+    abstract int select(int index);
+
+    /** Returns the least value at least {@code low}, or -1 if there is none. */
+    abstract int ceiling(int low);
+
+    /** Returns the greatest value at most {@code low}, or -1 if there is none. */
+    abstract int floor(int low);
+
+    /** Sets the bits of {@code words} that correspond to the values. */
+    abstract void addTo(long[] words);
+
+    /** Passes each maximal run of values, offset by {@code base}, to {@code visitor}. */
+    abstract void forEachRun(long base, RunVisitor visitor);
+
+    /** Returns the values from {@code from} to {@code to}, both inclusive. */
+    @CheckForNull
+    Container restrict(int from, int to) {
+      long[] words = toWords();
+      Arrays.fill(words, 0, from >>> 6, 0);
+      words[from >>> 6] &= -1L << from;
+      words[to >>> 6] &= -1L >>> (63 - (to & 63));
+      Arrays.fill(words, (to >>> 6) + 1, BITMAP_WORDS, 0);
+      return fromWords(words);
+    }
+
+    /** Returns the sum of the hash codes of the values, offset by {@code base}. */
+    long hashSum(long base, boolean longs) {
+      long[] sum = {0};
+      forEachRun(
+          base,
+          (start, end) -> {
+            // not value <= end, which would never be false for an end of Long.MAX_VALUE
+            for (long value = start; ; value++) {
+              sum[0] += longs ? Long.hashCode(value) : (int) value;
+              if (value == end) {
+                break;
+              }
+            }
+          });
+      return sum[0];
+    }
+
+    long[] toWords() {
+      long[] words = new long[BITMAP_WORDS];
+      addTo(words);
+      return words;
+    }
+
+    static void setRange(long[] words, int from, int to) {
+      int fromWord = from >>> 6;
+      int toWord = to >>> 6;
+      long first = -1L << from;
+      long last = -1L >>> (63 - (to & 63));
+      if (fromWord == toWord) {
+        words[fromWord] |= first & last;
+      } else {
+        words[fromWord] |= first;
+        Arrays.fill(words, fromWord + 1, toWord, -1L);
+        words[toWord] |= last;
+      }
+    }
+
+    static int nextSetBit(long[] words, int from) {
+      int w = from >>> 6;
+      long word = words[w] & (-1L << from);
+      while (word == 0) {
+        if (++w == BITMAP_WORDS) {
+          return -1;
+        }
+        word = words[w];
+      }
+      return (w << 6) + Long.numberOfTrailingZeros(word);
+    }
+
+    static int nextClearBit(long[] words, int from) {
+      int w = from >>> 6;
+      long word = ~words[w] & (-1L << from);
+      while (word == 0) {
+        if (++w == BITMAP_WORDS) {
+          return CHUNK_SIZE;
+        }
+        word = ~words[w];
+      }
+      return (w << 6) + Long.numberOfTrailingZeros(word);
+    }
+  }
+
+  /** A sorted array of up to {@link #MAX_ARRAY_SIZE} values. */
+  private static final class ArrayContainer extends Container {
+    final char[] values;
+
+    ArrayContainer(char[] values) {
+      this.values = values;
+    }
+
+    @CheckForNull
+    Container filter(Container other) {
+      char[] result = new char[values.length];
+      int n = 0;
+      for (char value : values) {
+        if (other.contains(value)) {
+          result[n++] = value;
+        }
+      }
+      return fromSortedValues(result, 0, n);
+    }
+
+    @Override
+    int cardinality() {
+      return values.length;
+    }
+
+    @Override
+    boolean contains(int low) {
+      return Arrays.binarySearch(values, (char) low) >= 0;
+    }
+
+    @Override
+    int rank(int low) {
+      int i = Arrays.binarySearch(values, (char) low);
+      return (i >= 0) ? i : -i - 1;
+    }
+
+    @Override
+    int select(int index) {
+      return values[index];
+    }
+
+    @Override
+    int ceiling(int low) {
+      int i = rank(low);
+      return (i < values.length) ? values[i] : -1;
+    }
+
+    @Override
+    int floor(int low) {
+      int i = Arrays.binarySearch(values, (char) low);
+      if (i >= 0) {
+        return low;
+      }
+      i = -i - 2;
+      return (i >= 0) ? values[i] : -1;
+    }
+
+    @Override
+    void addTo(long[] words) {
+      for (char value : values) {
+        words[value >>> 6] |= 1L << value;
+      }
+    }
+
+    @Override
+    void forEachRun(long base, RunVisitor visitor) {
+      int start = 0;
+      for (int i = 1; i <= values.length; i++) {
+        if (i == values.length || values[i] != values[i - 1] + 1) {
+          visitor.visit(base + values[start], base + values[i - 1]);
+          start = i;
+        }
+      }
+    }
+
+    @Override
+    @CheckForNull
+    Container restrict(int from, int to) {
+      int end = (to == MAX_LOW) ? values.length : rank(to + 1);
+      return fromSortedValues(values, rank(from), end);
+    }
+
+    @Override
+    public boolean equals(@CheckForNull Object object) {
+      return object instanceof ArrayContainer
+          && Arrays.equals(values, ((ArrayContainer) object).values);
+    }
+
+    @Override
+    public int hashCode() {
+      return Arrays.hashCode(values);
+    }
+  }
+
+  /** A bitmap of {@link #CHUNK_SIZE} bits, for chunks of over {@link #MAX_ARRAY_SIZE} values. */
+  private static final class BitmapContainer extends Container {
+    final long[] words;
+    final int cardinality;
+
+    BitmapContainer(long[] words, int cardinality) {
+      this.words = words;
+      this.cardinality = cardinality;
+    }
+
+    @Override
+    int cardinality() {
+      return cardinality;
+    }
+
+    @Override
+    boolean contains(int low) {
+      return (words[low >>> 6] & (1L << low)) != 0;
+    }
+
+    @Override
+    int rank(int low) {
+      int rank = 0;
+      int w = low >>> 6;
+      for (int i = 0; i < w; i++) {
+        rank += Long.bitCount(words[i]);
+      }
+      return rank + Long.bitCount(words[w] & ((1L << low) - 1));
+    }
+
+    @Override
+    int select(int index) {
+      for (int w = 0; ; w++) {
+        long word = words[w];
+        int count = Long.bitCount(word);
+        if (index < count) {
+          for (; index > 0; index--) {
+            word &= word - 1;
+          }
+          return (w << 6) + Long.numberOfTrailingZeros(word);
+        }
+        index -= count;
+      }
+    }
+
+    @Override
+    int ceiling(int low) {
+      return nextSetBit(words, low);
+    }
+
+    @Override
+    int floor(int low) {
+      int w = low >>> 6;
+      long word = words[w] & (-1L >>> (63 - (low & 63)));
+      while (word == 0) {
+        if (--w < 0) {
+          return -1;
+        }
+        word = words[w];
+      }
+      return (w << 6) + 63 - Long.numberOfLeadingZeros(word);
+    }
+
+    @Override
+    void addTo(long[] words) {
+      for (int w = 0; w < BITMAP_WORDS; w++) {
+        words[w] |= this.words[w];
+      }
+    }
+
+    @Override
+    void forEachRun(long base, RunVisitor visitor) {
+      for (int start = nextSetBit(words, 0); start >= 0; ) {
+        int end = nextClearBit(words, start) - 1;
+        visitor.visit(base + start, base + end);
+        start = (end < MAX_LOW) ? nextSetBit(words, end + 1) : -1;
+      }
+    }
+
+    @Override
+    public boolean equals(@CheckForNull Object object) {
+      return object instanceof BitmapContainer
+          && Arrays.equals(words, ((BitmapContainer) object).words);
+    }
+
+    @Override
+    public int hashCode() {
+      return Arrays.hashCode(words);
+    }
+  }
+
+  /** Runs of consecutive values, stored as the first and last value of each. */
+  private static final class RunContainer extends Container {
+    final char[] runs;
+    final int cardinality;
+
+    RunContainer(char[] runs, int cardinality) {
+      this.runs = runs;
+      this.cardinality = cardinality;
+    }
+
+    /** Returns the index of the last run that starts at or before {@code low}, or -1. */
+    private int runIndex(int low) {
+      int result = -1;
+      int lo = 0;
+      int hi = runs.length / 2 - 1;
+      while (lo <= hi) {
+        int mid = (lo + hi) >>> 1;
+        if (runs[2 * mid] <= low) {
+          result = mid;
+          lo = mid + 1;
+        } else {
+          hi = mid - 1;
+        }
+      }
+      return result;
+    }
+
+    @Override
+    int cardinality() {
+      return cardinality;
+    }
+
+    @Override
+    boolean contains(int low) {
+      int r = runIndex(low);
+      return r >= 0 && low <= runs[2 * r + 1];
+    }
+
+    @Override
+    int rank(int low) {
+      int r = runIndex(low);
+      if (r < 0) {
+        return 0;
+      }
+      int rank = 0;
+      for (int i = 0; i < 2 * r; i += 2) {
+        rank += runs[i + 1] - runs[i] + 1;
+      }
+      return rank + Math.min(low, runs[2 * r + 1] + 1) - runs[2 * r];
+    }
+
+    @Override
+    int select(int index) {
+      for (int i = 0; ; i += 2) {
+        int length = runs[i + 1] - runs[i] + 1;
+        if (index < length) {
+          return runs[i] + index;
+        }
+        index -= length;
+      }
+    }
+
+    @Override
+    int ceiling(int low) {
+      int r = runIndex(low);
+      if (r >= 0 && low <= runs[2 * r + 1]) {
+        return low;
+      }
+      return (2 * (r + 1) < runs.length) ? runs[2 * (r + 1)] : -1;
+    }
+
+    @Override
+    int floor(int low) {
+      int r = runIndex(low);
+      return (r >= 0) ? Math.min(low, runs[2 * r + 1]) : -1;
+    }
+
+    @Override
+    void addTo(long[] words) {
+      for (int i = 0; i < runs.length; i += 2) {
+        setRange(words, runs[i], runs[i + 1]);
+      }
+    }
+
+    @Override
+    void forEachRun(long base, RunVisitor visitor) {
+      for (int i = 0; i < runs.length; i += 2) {
+        visitor.visit(base + runs[i], base + runs[i + 1]);
+      }
+    }
+
+    @Override
+    @CheckForNull
+    Container restrict(int from, int to) {
+      char[] clipped = new char[runs.length];
+      int n = 0;
+      for (int i = 0; i < runs.length; i += 2) {
+        int start = Math.max(runs[i], from);
+        int end = Math.min(runs[i + 1], to);
+        if (start <= end) {
+          clipped[n++] = (char) start;
+          clipped[n++] = (char) end;
+        }
+      }
+      return fromRuns(clipped, n / 2);
+    }
+
+    @Override
+    public boolean equals(@CheckForNull Object object) {
+      return object instanceof RunContainer && Arrays.equals(runs, ((RunContainer) object).runs);
+    }
+
+    @Override
+    public int hashCode() {
+      return Arrays.hashCode(runs);
+    }
+  }
+
+  private static final long serialVersionUID = 0;
+}
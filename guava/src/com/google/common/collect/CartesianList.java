@@ -22,6 +22,7 @@ import java.util.AbstractList;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.RandomAccess;
+import java.util.Spliterator;
 import javax.annotation.CheckForNull;
 
 /**
@@ -140,6 +141,12 @@ final class CartesianList<E> extends AbstractList<List<E>> implements RandomAcce
     return axesSizeProduct[0];
   }
 
+  @Override
+  public Spliterator<List<E>> spliterator() {
+    return CollectSpliterators.indexed(
+        size(), Spliterator.NONNULL | Spliterator.IMMUTABLE, this::get);
+  }
+
   @Override
   public boolean contains(@CheckForNull Object object) {
     if (!(object instanceof List)) {
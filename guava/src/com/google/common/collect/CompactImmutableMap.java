@@ -0,0 +1,323 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.common.collect;
+
+import static com.google.common.base.Preconditions.checkElementIndex;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkPositionIndex;
+import static com.google.common.collect.CollectPreconditions.checkEntryNotNull;
+import static com.google.common.collect.CompactHashing.tableGet;
+import static com.google.common.collect.CompactHashing.tableSet;
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.annotations.GwtIncompatible;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.RegularImmutableMap.BucketOverflowException;
+import com.google.j2objc.annotations.WeakOuter;
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.function.BiConsumer;
+import javax.annotation.CheckForNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Implementation of {@link ImmutableMap} that stores its keys and values in parallel arrays, with
+ * no object per entry. Keys are found through an open-addressed hash table of indices into those
+ * arrays, which is a {@code byte[]}, {@code short[]} or {@code int[]} depending on its size, as in
+ * {@link CompactHashMap}.
+ *
+ * <p>{@link RegularImmutableMap} switches to this class for maps with at least {@link #MIN_SIZE}
+ * entries, where the entry objects would otherwise take most of the map's memory.
+ */
+@GwtIncompatible
+@ElementTypesAreNonnullByDefault
+final class CompactImmutableMap<K, V> extends ImmutableMap<K, V> {
+  /**
+   * The smallest map that {@link RegularImmutableMap#fromEntryArray} builds with this class.
+   * Smaller maps keep their entry objects, so that iterating over their {@code entrySet()} doesn't
+   * allocate.
+   */
+  static final int MIN_SIZE = 1 << 10;
+
+  // keys and values in insertion order
+  @VisibleForTesting final transient Object[] keys;
+  private final transient Object[] values;
+  // 1 + the index in keys of each key, at its hashed position, or 0 for an empty slot
+  @VisibleForTesting final transient Object table;
+  // 'and' with an int to get a table index
+  private final transient int mask;
+
+  /**
+   * Creates a map from the first {@code n} entries of {@code entryArray}. If {@code
+   * throwIfDuplicateKeys} is false, a duplicated key keeps the position of its first entry and the
+   * value of its last.
+   *
+   * @throws BucketOverflowException if the keys' hash codes collide so often that lookups might
+   *     become slow, which may indicate a hash flooding attack
+   */
+  static <K, V> CompactImmutableMap<K, V> create(
+      int n, @Nullable Entry<K, V>[] entryArray, boolean throwIfDuplicateKeys)
+      throws BucketOverflowException {
+    checkPositionIndex(n, entryArray.length);
+    Object[] keys = new Object[n];
+    Object[] values = new Object[n];
+    int tableSize = ImmutableSet.chooseTableSize(n);
+    Object table = CompactHashing.createTable(tableSize);
+    int mask = tableSize - 1;
+    int maxRun = ImmutableSet.RegularSetBuilderImpl.maxRunBeforeFallback(tableSize);
+    int size = 0;
+    entries:
+    for (int i = 0; i < n; i++) {
+      // requireNonNull is safe because the first `n` elements have been filled in.
+      Entry<K, V> entry = requireNonNull(entryArray[i]);
+      K key = entry.getKey();
+      V value = entry.getValue();
+      checkEntryNotNull(key, value);
+      int h0 = Hashing.smear(key.hashCode());
+      for (int h = h0; ; h++) {
+        if (h - h0 >= maxRun) {
+          throw new BucketOverflowException();
+        }
+        int index = tableGet(table, h & mask) - 1;
+        if (index < 0) {
+          tableSet(table, h & mask, size + 1);
+          keys[size] = key;
+          values[size] = value;
+          size++;
+          continue entries;
+        } else if (key.equals(keys[index])) {
+          if (throwIfDuplicateKeys) {
+            throw conflictException("key", keys[index] + "=" + values[index], entry);
+          }
+          values[index] = value;
+          continue entries;
+        }
+      }
+    }
+    if (size < n) {
+      keys = Arrays.copyOf(keys, size);
+      values = Arrays.copyOf(values, size);
+      int newTableSize = ImmutableSet.chooseTableSize(size);
+      if (newTableSize != tableSize) {
+        tableSize = newTableSize;
+        table = rebuildTable(keys, tableSize);
+        mask = tableSize - 1;
+        maxRun = ImmutableSet.RegularSetBuilderImpl.maxRunBeforeFallback(tableSize);
+      }
+    }
+    if (hashFloodingDetected(table, tableSize, maxRun)) {
+      throw new BucketOverflowException();
+    }
+    return new CompactImmutableMap<>(keys, values, table, mask);
+  }
+
+  /** Builds a table for {@code keys}, which must all be distinct. */
+  private static Object rebuildTable(Object[] keys, int tableSize) {
+    Object table = CompactHashing.createTable(tableSize);
+    int mask = tableSize - 1;
+    for (int i = 0; i < keys.length; i++) {
+      for (int h = Hashing.smear(keys[i].hashCode()); ; h++) {
+        if (tableGet(table, h & mask) == 0) {
+          tableSet(table, h & mask, i + 1);
+          break;
+        }
+      }
+    }
+    return table;
+  }
+
+  /**
+   * Returns whether {@code table} has a run of at least {@code maxRun} consecutive occupied slots.
+   * Such a run could make lookups of absent keys slow, even though each insertion probed fewer
+   * slots. See {@code ImmutableSet.RegularSetBuilderImpl.hashFloodingDetected}.
+   */
+  private static boolean hashFloodingDetected(Object table, int tableSize, int maxRun) {
+    // Start just after an empty slot, which exists because the load factor is below 1, so that no
+    // run wraps around the start of the scan.
+    int start = 0;
+    while (tableGet(table, start) != 0) {
+      start++;
+    }
+    int run = 0;
+    for (int i = 1; i <= tableSize; i++) {
+      if (tableGet(table, (start + i) & (tableSize - 1)) == 0) {
+        run = 0;
+      } else if (++run >= maxRun) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private CompactImmutableMap(Object[] keys, Object[] values, Object table, int mask) {
+    this.keys = keys;
+    this.values = values;
+    this.table = table;
+    this.mask = mask;
+  }
+
+  @Override
+  @CheckForNull
+  public V get(@CheckForNull Object key) {
+    if (key == null) {
+      return null;
+    }
+    for (int h = Hashing.smear(key.hashCode()); ; h++) {
+      int index = tableGet(table, h & mask) - 1;
+      if (index < 0) {
+        return null;
+      } else if (key.equals(keys[index])) {
+        return value(index);
+      }
+    }
+  }
+
+  @SuppressWarnings("unchecked") // we only store Ks in keys
+  private K key(int index) {
+    return (K) keys[index];
+  }
+
+  @SuppressWarnings("unchecked") // we only store Vs in values
+  private V value(int index) {
+    return (V) values[index];
+  }
+
+  @Override
+  public void forEach(BiConsumer<? super K, ? super V> action) {
+    checkNotNull(action);
+    for (int i = 0; i < keys.length; i++) {
+      action.accept(key(i), value(i));
+    }
+  }
+
+  @Override
+  public int size() {
+    return keys.length;
+  }
+
+  @Override
+  boolean isPartialView() {
+    return false;
+  }
+
+  @Override
+  ImmutableSet<Entry<K, V>> createEntrySet() {
+    return new EntrySet();
+  }
+
+  @WeakOuter
+  @SuppressWarnings("serial") // uses writeReplace(), not default serialization
+  private final class EntrySet extends ImmutableMapEntrySet<K, V> {
+    @Override
+    ImmutableMap<K, V> map() {
+      return CompactImmutableMap.this;
+    }
+
+    @Override
+    public UnmodifiableIterator<Entry<K, V>> iterator() {
+      return asList().iterator();
+    }
+
+    @Override
+    public Spliterator<Entry<K, V>> spliterator() {
+      return CollectSpliterators.indexed(
+          size(), SPLITERATOR_CHARACTERISTICS, i -> Maps.immutableEntry(key(i), value(i)));
+    }
+
+    @Override
+    int copyIntoArray(@Nullable Object[] dst, int offset) {
+      return asList().copyIntoArray(dst, offset);
+    }
+
+    @Override
+    ImmutableList<Entry<K, V>> createAsList() {
+      return new ImmutableAsList<Entry<K, V>>() {
+        @Override
+        public Entry<K, V> get(int index) {
+          checkElementIndex(index, size());
+          return Maps.immutableEntry(key(index), value(index));
+        }
+
+        @Override
+        public int size() {
+          return keys.length;
+        }
+
+        @Override
+        ImmutableCollection<Entry<K, V>> delegateCollection() {
+          return EntrySet.this;
+        }
+      };
+    }
+  }
+
+  @Override
+  ImmutableSet<K> createKeySet() {
+    return new KeySet();
+  }
+
+  @WeakOuter
+  @SuppressWarnings("serial") // uses writeReplace(), not default serialization
+  private final class KeySet extends IndexedImmutableSet<K> {
+    @Override
+    K get(int index) {
+      return key(index);
+    }
+
+    @Override
+    public boolean contains(@CheckForNull Object object) {
+      return containsKey(object);
+    }
+
+    @Override
+    boolean isPartialView() {
+      return true;
+    }
+
+    @Override
+    public int size() {
+      return keys.length;
+    }
+  }
+
+  @Override
+  ImmutableCollection<V> createValues() {
+    return new Values();
+  }
+
+  @WeakOuter
+  @SuppressWarnings("serial") // uses writeReplace(), not default serialization
+  private final class Values extends ImmutableList<V> {
+    @Override
+    public V get(int index) {
+      checkElementIndex(index, size());
+      return value(index);
+    }
+
+    @Override
+    public int size() {
+      return values.length;
+    }
+
+    @Override
+    boolean isPartialView() {
+      return true;
+    }
+  }
+
+  // This class is never actually serialized directly, but we have to make the
+  // warning go away (and suppressing would suppress for all nested classes too)
+  private static final long serialVersionUID = 0;
+}
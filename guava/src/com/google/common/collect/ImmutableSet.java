@@ -722,7 +722,7 @@ public abstract class ImmutableSet<E> extends ImmutableCollection<E> implements
    * <p>This implementation attempts to detect hash flooding, and if it's identified, falls back to
    * JdkBackedSetBuilderImpl.
    */
-  private static final class RegularSetBuilderImpl<E> extends SetBuilderImpl<E> {
+  static final class RegularSetBuilderImpl<E> extends SetBuilderImpl<E> {
     // null until at least two elements are present
     @CheckForNull private @Nullable Object[] hashTable;
     private int maxRunBeforeFallback;
@@ -45,8 +45,6 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.NoSuchElementException;
-import java.util.PriorityQueue;
-import java.util.Queue;
 import javax.annotation.CheckForNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
@@ -1308,44 +1306,106 @@ public final class Iterators {
    * is polled. This amortizes the sorting cost over the iteration and requires less memory than
    * sorting all elements at once.
    *
-   * <p>Retrieving a single element takes approximately O(log(M)) time, where M is the number of
-   * iterators. (Retrieving all elements takes approximately O(N*log(M)) time, where N is the total
-   * number of elements.)
+   * <p>The merge is a "loser tree" tournament: the sources are the leaves of a complete binary
+   * tree, each inner node {@code n} records in {@code losers[n]} the source that lost the match
+   * played there, and {@code losers[0]} records the overall winner. After the winner's source
+   * advances, only the matches on the path from its leaf to the root are replayed, against the
+   * recorded losers. Retrieving a single element therefore takes at most ceil(log2(M))
+   * comparisons, where M is the number of iterators, about half as many as sifting a binary heap.
+   * Equivalent elements are returned in the order of the iterators they come from.
    */
-  private static class MergingIterator<T extends @Nullable Object> extends UnmodifiableIterator<T> {
-    final Queue<PeekingIterator<T>> queue;
+  static final class MergingIterator<T extends @Nullable Object> extends UnmodifiableIterator<T> {
+    /** Marks the head of a source with no more elements, which loses every match. */
+    private static final Object EXHAUSTED = new Object();
 
-    public MergingIterator(
-        Iterable<? extends Iterator<? extends T>> iterators, Comparator<? super T> itemComparator) {
-      // A comparator that's used by the heap, allowing the heap
-      // to be sorted based on the top of each iterator.
-      Comparator<PeekingIterator<T>> heapComparator =
-          (PeekingIterator<T> o1, PeekingIterator<T> o2) ->
-              itemComparator.compare(o1.peek(), o2.peek());
-
-      queue = new PriorityQueue<>(2, heapComparator);
+    private final List<Iterator<? extends T>> sources;
+    private final Comparator<? super T> comparator;
+    /** The next element of each source, or {@link #EXHAUSTED}; null until the first match. */
+    private @Nullable Object @Nullable [] heads;
+    private final int[] losers;
 
-      for (Iterator<? extends T> iterator : iterators) {
-        if (iterator.hasNext()) {
-          queue.add(Iterators.peekingIterator(iterator));
-        }
-      }
+    MergingIterator(
+        Iterable<? extends Iterator<? extends T>> iterators, Comparator<? super T> itemComparator) {
+      this.sources = Lists.newArrayList(iterators);
+      this.comparator = itemComparator;
+      this.losers = new int[Math.max(sources.size(), 1)];
     }
 
     @Override
     public boolean hasNext() {
-      return !queue.isEmpty();
+      @Nullable Object[] heads = this.heads;
+      if (heads == null) {
+        int size = sources.size();
+        heads = this.heads = new Object[size];
+        for (int i = 0; i < size; i++) {
+          advance(heads, i);
+        }
+        if (size > 0) {
+          losers[0] = playMatches(heads, 1);
+        }
+      }
+      return heads.length > 0 && heads[losers[0]] != EXHAUSTED;
     }
 
     @Override
     @ParametricNullness
     public T next() {
-      PeekingIterator<T> nextIter = queue.remove();
-      T next = nextIter.next();
-      if (nextIter.hasNext()) {
-        queue.add(nextIter);
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      @Nullable Object[] heads = requireNonNull(this.heads);
+      int winner = losers[0];
+      @SuppressWarnings("unchecked") // heads holds Ts, except for EXHAUSTED, which can't win
+      T result = (T) heads[winner];
+      advance(heads, winner);
+      for (int node = (winner + heads.length) >>> 1; node > 0; node >>>= 1) {
+        int loser = losers[node];
+        if (beats(heads, loser, winner)) {
+          losers[node] = winner;
+          winner = loser;
+        }
+      }
+      losers[0] = winner;
+      return result;
+    }
+
+    private void advance(@Nullable Object[] heads, int source) {
+      Iterator<? extends T> iterator = sources.get(source);
+      heads[source] = iterator.hasNext() ? iterator.next() : EXHAUSTED;
+    }
+
+    /**
+     * Plays all the matches below {@code node}, records their losers, and returns the winner.
+     * Node {@code n} has children {@code 2n} and {@code 2n + 1}, and nodes {@code k} to {@code
+     * 2k - 1} are the leaves for sources 0 to {@code k - 1}.
+     */
+    private int playMatches(@Nullable Object[] heads, int node) {
+      if (node >= heads.length) {
+        return node - heads.length;
+      }
+      int left = playMatches(heads, 2 * node);
+      int right = playMatches(heads, 2 * node + 1);
+      if (beats(heads, left, right)) {
+        losers[node] = right;
+        return left;
+      } else {
+        losers[node] = left;
+        return right;
+      }
+    }
+
+    /** Returns whether the head of source {@code i} comes before the head of source {@code j}. */
+    @SuppressWarnings("unchecked") // heads holds Ts, except for EXHAUSTED
+    private boolean beats(@Nullable Object[] heads, int i, int j) {
+      Object a = heads[i];
+      Object b = heads[j];
+      if (a == EXHAUSTED) {
+        return false;
+      } else if (b == EXHAUSTED) {
+        return true;
       }
-      return next;
+      int cmp = comparator.compare((T) a, (T) b);
+      return cmp < 0 || (cmp == 0 && i < j);
     }
   }
 
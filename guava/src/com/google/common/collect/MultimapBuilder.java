@@ -20,6 +20,7 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.collect.CollectPreconditions.checkNonnegative;
 
 import com.google.common.annotations.GwtCompatible;
+import com.google.common.annotations.GwtIncompatible;
 import com.google.common.base.Supplier;
 import java.io.Serializable;
 import java.util.ArrayList;
@@ -125,6 +126,67 @@ public abstract class MultimapBuilder<K0 extends @Nullable Object, V0 extends @N
     };
   }
 
+  /**
+   * Uses a memory-compact hash table to map keys to value collections. It stores the keys and value
+   * collections in parallel arrays rather than in an entry object per key, so it takes less memory
+   * than {@link #hashKeys()} at some cost in speed. Combine it with {@link
+   * MultimapBuilderWithKeys#compactHashSetValues()} for the smallest hash-based multimaps.
+   *
+   * @since NEXT
+   */
+  @GwtIncompatible // CompactHashMap
+  public static MultimapBuilderWithKeys<@Nullable Object> compactHashKeys() {
+    return compactHashKeys(DEFAULT_EXPECTED_KEYS);
+  }
+
+  /**
+   * Uses a memory-compact hash table to map keys to value collections, initialized to expect the
+   * specified number of keys. See {@link #compactHashKeys()}.
+   *
+   * @throws IllegalArgumentException if {@code expectedKeys < 0}
+   * @since NEXT
+   */
+  @GwtIncompatible // CompactHashMap
+  public static MultimapBuilderWithKeys<@Nullable Object> compactHashKeys(int expectedKeys) {
+    checkNonnegative(expectedKeys, "expectedKeys");
+    return new MultimapBuilderWithKeys<@Nullable Object>() {
+      @Override
+      <K extends @Nullable Object, V extends @Nullable Object> Map<K, Collection<V>> createMap() {
+        return CompactHashMap.createWithExpectedSize(expectedKeys);
+      }
+    };
+  }
+
+  /**
+   * Uses a memory-compact hash table to map keys to value collections, like {@link
+   * #compactHashKeys()}, and iterates through the keys in the order described for {@link
+   * #linkedHashKeys()}.
+   *
+   * @since NEXT
+   */
+  @GwtIncompatible // CompactLinkedHashMap
+  public static MultimapBuilderWithKeys<@Nullable Object> compactLinkedHashKeys() {
+    return compactLinkedHashKeys(DEFAULT_EXPECTED_KEYS);
+  }
+
+  /**
+   * Uses a memory-compact hash table to map keys to value collections, initialized to expect the
+   * specified number of keys. See {@link #compactLinkedHashKeys()}.
+   *
+   * @throws IllegalArgumentException if {@code expectedKeys < 0}
+   * @since NEXT
+   */
+  @GwtIncompatible // CompactLinkedHashMap
+  public static MultimapBuilderWithKeys<@Nullable Object> compactLinkedHashKeys(int expectedKeys) {
+    checkNonnegative(expectedKeys, "expectedKeys");
+    return new MultimapBuilderWithKeys<@Nullable Object>() {
+      @Override
+      <K extends @Nullable Object, V extends @Nullable Object> Map<K, Collection<V>> createMap() {
+        return CompactLinkedHashMap.createWithExpectedSize(expectedKeys);
+      }
+    };
+  }
+
   /**
    * Uses a naturally-ordered {@link TreeMap} to map keys to value collections.
    *
@@ -240,6 +302,23 @@ public abstract class MultimapBuilder<K0 extends @Nullable Object, V0 extends @N
     }
   }
 
+  @GwtIncompatible // InlineCompactHashSet
+  private static final class InlineCompactHashSetSupplier<V extends @Nullable Object>
+      implements Supplier<Set<V>>, Serializable {
+    private final int expectedValuesPerKey;
+    private final boolean linked;
+
+    InlineCompactHashSetSupplier(int expectedValuesPerKey, boolean linked) {
+      this.expectedValuesPerKey = checkNonnegative(expectedValuesPerKey, "expectedValuesPerKey");
+      this.linked = linked;
+    }
+
+    @Override
+    public Set<V> get() {
+      return InlineCompactHashSet.createWithExpectedSize(expectedValuesPerKey, linked);
+    }
+  }
+
   private static final class TreeSetSupplier<V extends @Nullable Object>
       implements Supplier<SortedSet<V>>, Serializable {
     private final Comparator<? super V> comparator;
@@ -363,6 +442,71 @@ public abstract class MultimapBuilder<K0 extends @Nullable Object, V0 extends @N
       };
     }
 
+    /**
+     * Uses a memory-compact hash-based {@code Set} to store value collections. A set of up to eight
+     * values is a single array that is searched linearly; a larger set stores its values in
+     * parallel arrays, without an object per value. This takes much less memory than {@link
+     * #hashSetValues()}, especially when most keys have few values, at some cost in speed.
+     *
+     * @since NEXT
+     */
+    @GwtIncompatible // InlineCompactHashSet
+    public SetMultimapBuilder<K0, @Nullable Object> compactHashSetValues() {
+      return compactHashSetValues(DEFAULT_EXPECTED_VALUES_PER_KEY);
+    }
+
+    /**
+     * Uses a memory-compact hash-based {@code Set} to store value collections, initialized to
+     * expect the specified number of values per key. See {@link #compactHashSetValues()}.
+     *
+     * @throws IllegalArgumentException if {@code expectedValuesPerKey < 0}
+     * @since NEXT
+     */
+    @GwtIncompatible // InlineCompactHashSet
+    public SetMultimapBuilder<K0, @Nullable Object> compactHashSetValues(
+        int expectedValuesPerKey) {
+      return compactSetValues(expectedValuesPerKey, false);
+    }
+
+    /**
+     * Uses a memory-compact, insertion-ordered hash-based {@code Set} to store value collections.
+     * See {@link #compactHashSetValues()}.
+     *
+     * @since NEXT
+     */
+    @GwtIncompatible // InlineCompactHashSet
+    public SetMultimapBuilder<K0, @Nullable Object> compactLinkedHashSetValues() {
+      return compactLinkedHashSetValues(DEFAULT_EXPECTED_VALUES_PER_KEY);
+    }
+
+    /**
+     * Uses a memory-compact, insertion-ordered hash-based {@code Set} to store value collections,
+     * initialized to expect the specified number of values per key. See {@link
+     * #compactHashSetValues()}.
+     *
+     * @throws IllegalArgumentException if {@code expectedValuesPerKey < 0}
+     * @since NEXT
+     */
+    @GwtIncompatible // InlineCompactHashSet
+    public SetMultimapBuilder<K0, @Nullable Object> compactLinkedHashSetValues(
+        int expectedValuesPerKey) {
+      return compactSetValues(expectedValuesPerKey, true);
+    }
+
+    @GwtIncompatible // InlineCompactHashSet
+    private SetMultimapBuilder<K0, @Nullable Object> compactSetValues(
+        int expectedValuesPerKey, boolean linked) {
+      checkNonnegative(expectedValuesPerKey, "expectedValuesPerKey");
+      return new SetMultimapBuilder<K0, @Nullable Object>() {
+        @Override
+        public <K extends K0, V extends @Nullable Object> SetMultimap<K, V> build() {
+          return Multimaps.newSetMultimap(
+              MultimapBuilderWithKeys.this.<K, V>createMap(),
+              new InlineCompactHashSetSupplier<V>(expectedValuesPerKey, linked));
+        }
+      };
+    }
+
     /** Uses a naturally-ordered {@link TreeSet} to store value collections. */
     @SuppressWarnings("rawtypes")
     public SortedSetMultimapBuilder<K0, Comparable> treeSetValues() {
@@ -0,0 +1,877 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.common.collect;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.collect.CollectPreconditions.checkEntryNotNull;
+
+import com.google.common.annotations.GwtIncompatible;
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import com.google.errorprone.annotations.DoNotCall;
+import com.google.errorprone.annotations.concurrent.LazyInit;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import javax.annotation.CheckForNull;
+
+/**
+ * An immutable hash map whose {@link #with} and {@link #without} methods return updated copies in
+ * O(log n) time, sharing all but O(log n) of their structure with the original map. Use it in
+ * place of {@link ImmutableMap} when a map is updated often and each update must leave the previous
+ * version intact, as with copy-on-write snapshots.
+ *
+ * <p>The map is a hash array mapped trie. Each node of the trie covers the next five bits of the
+ * keys' {@linkplain Object#hashCode hash codes}, and holds a bitmap of which of its 32 slots are in
+ * use followed by only those slots, each of which is either an entry or a child node. An entry is
+ * stored in the shallowest node whose bits it shares with no other key. An update copies only the
+ * nodes on the path to the changed key, and a removal folds any child left with a single entry back
+ * into its parent, so that the trie has the same shape however it was built.
+ *
+ * <p>A {@link Builder} applies a batch of updates in place, mutating the nodes that it created
+ * itself rather than copying them. {@link Builder#build} takes constant time: it copies nothing,
+ * but stops the builder from mutating any node that the new map can see.
+ *
+ * <p>Unlike {@code ImmutableMap}, this map iterates in an unspecified order that depends on its
+ * keys' hash codes. Use {@link ImmutableMap#copyOf(Map)} for a copy with a reliable order. Null
+ * keys and values are not permitted. Instances are safe to share between threads; builders are
+ * not.
+ *
+ * @since NEXT
+ */
+@GwtIncompatible
+@ElementTypesAreNonnullByDefault
+public final class PersistentHashMap<K, V> extends AbstractMap<K, V> implements Serializable {
+
+  private static final PersistentHashMap<Object, Object> EMPTY =
+      new PersistentHashMap<>(BitmapNode.EMPTY, 0);
+
+  /** Returns the empty map. */
+  @SuppressWarnings("unchecked") // the empty map contains no Ks or Vs
+  public static <K, V> PersistentHashMap<K, V> of() {
+    return (PersistentHashMap<K, V>) EMPTY;
+  }
+
+  /**
+   * Returns a map containing the entries of {@code map}. Returns {@code map} itself if it is
+   * already a {@code PersistentHashMap}.
+   *
+   * @throws NullPointerException if any key or value in {@code map} is null
+   */
+  public static <K, V> PersistentHashMap<K, V> copyOf(Map<? extends K, ? extends V> map) {
+    if (map instanceof PersistentHashMap) {
+      @SuppressWarnings("unchecked") // safe because the map can't be modified
+      PersistentHashMap<K, V> result = (PersistentHashMap<K, V>) map;
+      return result;
+    }
+    return PersistentHashMap.<K, V>builder().putAll(map).build();
+  }
+
+  /** Returns a new builder for an initially empty map. */
+  public static <K, V> Builder<K, V> builder() {
+    return new Builder<>(BitmapNode.EMPTY, 0);
+  }
+
+  private final transient Node root;
+  private final transient int size;
+
+  @LazyInit @CheckForNull private transient Set<Entry<K, V>> entrySet;
+
+  private PersistentHashMap(Node root, int size) {
+    this.root = root;
+    this.size = size;
+  }
+
+  @Override
+  @CheckForNull
+  public V get(@CheckForNull Object key) {
+    if (key == null) {
+      return null;
+    }
+    @SuppressWarnings("unchecked") // we only store Vs as values
+    V value = (V) root.get(key, Hashing.smearedHash(key), 0);
+    return value;
+  }
+
+  @Override
+  public boolean containsKey(@CheckForNull Object key) {
+    return get(key) != null;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Returns a map with the same entries as this one, except that {@code key} maps to {@code
+   * value}. Returns this map if {@code key} already maps to {@code value}.
+   *
+   * @throws NullPointerException if {@code key} or {@code value} is null
+   */
+  public PersistentHashMap<K, V> with(K key, V value) {
+    checkEntryNotNull(key, value);
+    Change change = new Change();
+    Node newRoot = root.put(null, key, value, Hashing.smearedHash(key), 0, change);
+    return change.modified ? new PersistentHashMap<>(newRoot, size + change.sizeChange) : this;
+  }
+
+  /**
+   * Returns a map with the same entries as this one except for any entry for {@code key}. Returns
+   * this map if it has no entry for {@code key}.
+   */
+  public PersistentHashMap<K, V> without(@CheckForNull Object key) {
+    if (key == null) {
+      return this;
+    }
+    Change change = new Change();
+    Node newRoot = root.remove(null, key, Hashing.smearedHash(key), 0, change);
+    if (!change.modified) {
+      return this;
+    }
+    return (size == 1) ? PersistentHashMap.<K, V>of() : new PersistentHashMap<>(newRoot, size - 1);
+  }
+
+  /**
+   * Returns a new builder initialized with the entries of this map. This takes constant time; the
+   * builder copies the parts of the trie that it modifies as it goes.
+   */
+  public Builder<K, V> toBuilder() {
+    return new Builder<>(root, size);
+  }
+
+  @Override
+  public Set<Entry<K, V>> entrySet() {
+    Set<Entry<K, V>> result = entrySet;
+    return (result == null) ? entrySet = new EntrySet() : result;
+  }
+
+  private final class EntrySet extends AbstractSet<Entry<K, V>> {
+    @Override
+    public UnmodifiableIterator<Entry<K, V>> iterator() {
+      return new TrieIterator<Entry<K, V>>(root) {
+        @SuppressWarnings("unchecked") // we only store Ks as keys and Vs as values
+        @Override
+        Entry<K, V> output(Object key, Object value) {
+          return Maps.immutableEntry((K) key, (V) value);
+        }
+      };
+    }
+
+    @Override
+    public boolean contains(@CheckForNull Object object) {
+      if (object instanceof Entry) {
+        Entry<?, ?> entry = (Entry<?, ?>) object;
+        V value = get(entry.getKey());
+        return value != null && value.equals(entry.getValue());
+      }
+      return false;
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+  }
+
+  /** Returns an iterator over the keys of this map, for {@link PersistentHashSet}. */
+  UnmodifiableIterator<K> keyIterator() {
+    return new TrieIterator<K>(root) {
+      @SuppressWarnings("unchecked") // we only store Ks as keys
+      @Override
+      K output(Object key, Object value) {
+        return (K) key;
+      }
+    };
+  }
+
+  @Override
+  public void forEach(BiConsumer<? super K, ? super V> action) {
+    checkNotNull(action);
+    root.forEach(action);
+  }
+
+  /**
+   * Guaranteed to throw an exception and leave the map unmodified.
+   *
+   * @throws UnsupportedOperationException always
+   * @deprecated Unsupported operation. Use {@link #with} instead.
+   */
+  @CanIgnoreReturnValue
+  @Deprecated
+  @Override
+  @DoNotCall("Always throws UnsupportedOperationException")
+  @CheckForNull
+  public V put(K key, V value) {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Guaranteed to throw an exception and leave the map unmodified.
+   *
+   * @throws UnsupportedOperationException always
+   * @deprecated Unsupported operation. Use {@link #without} instead.
+   */
+  @CanIgnoreReturnValue
+  @Deprecated
+  @Override
+  @DoNotCall("Always throws UnsupportedOperationException")
+  @CheckForNull
+  public V remove(@CheckForNull Object key) {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Guaranteed to throw an exception and leave the map unmodified.
+   *
+   * @throws UnsupportedOperationException always
+   * @deprecated Unsupported operation. Use {@link #toBuilder} instead.
+   */
+  @Deprecated
+  @Override
+  @DoNotCall("Always throws UnsupportedOperationException")
+  public void putAll(Map<? extends K, ? extends V> map) {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Guaranteed to throw an exception and leave the map unmodified.
+   *
+   * @throws UnsupportedOperationException always
+   * @deprecated Unsupported operation. Use {@link #of} instead.
+   */
+  @Deprecated
+  @Override
+  @DoNotCall("Always throws UnsupportedOperationException")
+  public void clear() {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * A builder for {@link PersistentHashMap} instances, which acts like a mutable map. Unlike {@link
+   * ImmutableMap.Builder}, a later {@link #put} of a key replaces the earlier one's value, and keys
+   * can be removed again.
+   *
+   * @since NEXT
+   */
+  public static final class Builder<K, V> {
+    /**
+     * The token identifying the nodes that this builder may modify in place. Every node that the
+     * builder creates records the token, and {@link #build} replaces it so that the built map's
+     * nodes are copied, not modified, by later updates.
+     */
+    private Object owner = new Object();
+
+    private Node root;
+    private int size;
+
+    Builder(Node root, int size) {
+      this.root = root;
+      this.size = size;
+    }
+
+    /**
+     * Associates {@code key} with {@code value}, replacing any value already associated with
+     * {@code key}.
+     *
+     * @throws NullPointerException if {@code key} or {@code value} is null
+     */
+    @CanIgnoreReturnValue
+    public Builder<K, V> put(K key, V value) {
+      checkEntryNotNull(key, value);
+      Change change = new Change();
+      root = root.put(owner, key, value, Hashing.smearedHash(key), 0, change);
+      size += change.sizeChange;
+      return this;
+    }
+
+    /**
+     * Adds {@code entry} to the map, replacing any value already associated with its key.
+     *
+     * @throws NullPointerException if the key or value of {@code entry} is null
+     */
+    @CanIgnoreReturnValue
+    public Builder<K, V> put(Entry<? extends K, ? extends V> entry) {
+      return put(entry.getKey(), entry.getValue());
+    }
+
+    /**
+     * Adds all of the entries of {@code map}, replacing the values of any keys already present.
+     *
+     * @throws NullPointerException if any key or value in {@code map} is null
+     */
+    @CanIgnoreReturnValue
+    public Builder<K, V> putAll(Map<? extends K, ? extends V> map) {
+      for (Entry<? extends K, ? extends V> entry : map.entrySet()) {
+        put(entry.getKey(), entry.getValue());
+      }
+      return this;
+    }
+
+    /** Removes the entry for {@code key}, if there is one. */
+    @CanIgnoreReturnValue
+    public Builder<K, V> remove(@CheckForNull Object key) {
+      if (key != null) {
+        Change change = new Change();
+        root = root.remove(owner, key, Hashing.smearedHash(key), 0, change);
+        size += change.sizeChange;
+      }
+      return this;
+    }
+
+    /** Returns the number of entries that the built map would contain. */
+    public int size() {
+      return size;
+    }
+
+    /**
+     * Returns a map of the entries added so far, in constant time. The builder remains usable, and
+     * later updates to it don't affect the returned map.
+     */
+    public PersistentHashMap<K, V> build() {
+      if (size == 0) {
+        return of();
+      }
+      owner = new Object();
+      return new PersistentHashMap<>(root, size);
+    }
+  }
+
+  /** The number of hash code bits consumed by each level of the trie. */
+  private static final int BITS_PER_LEVEL = 5;
+
+  /** The most nodes on any path from the root, including a final {@link CollisionNode}. */
+  private static final int MAX_DEPTH = (Integer.SIZE + BITS_PER_LEVEL - 1) / BITS_PER_LEVEL + 1;
+
+  /** What an update did to the trie. */
+  static final class Change {
+    /** Whether the update changed any entry. */
+    boolean modified;
+
+    /** The change in the number of entries: 1 for an insertion, -1 for a removal, else 0. */
+    int sizeChange;
+  }
+
+  /**
+   * A node of the trie. A node may be modified in place only by the builder whose token it
+   * records as its {@code owner}; a null owner means that no builder may modify it. Every node
+   * other than the root holds at least two entries, counting those of its descendants.
+   */
+  abstract static class Node {
+    @CheckForNull final Object owner;
+
+    Node(@CheckForNull Object owner) {
+      this.owner = owner;
+    }
+
+    /** Returns whether the caller holding {@code owner} may modify this node in place. */
+    final boolean isEditableBy(@CheckForNull Object owner) {
+      return owner != null && owner == this.owner;
+    }
+
+    /** Returns the value for {@code key}, whose smeared hash is {@code hash}, or null. */
+    @CheckForNull
+    abstract Object get(Object key, int hash, int shift);
+
+    /**
+     * Returns this node updated to map {@code key} to {@code value}, recording the effect in {@code
+     * change}. Returns this node if nothing changed or if it modified the node in place.
+     */
+    abstract Node put(
+        @CheckForNull Object owner, Object key, Object value, int hash, int shift, Change change);
+
+    /**
+     * Returns this node updated to have no entry for {@code key}, recording the effect in {@code
+     * change}. A result with a single entry and no children is to be folded into the parent.
+     */
+    abstract Node remove(
+        @CheckForNull Object owner, Object key, int hash, int shift, Change change);
+
+    /** Returns the number of entries stored directly in this node. */
+    abstract int entryCount();
+
+    abstract Object key(int index);
+
+    abstract Object value(int index);
+
+    /** Returns the number of child nodes of this node. */
+    abstract int childCount();
+
+    abstract Node child(int index);
+
+    @SuppressWarnings("unchecked") // we only store Ks as keys and Vs as values
+    final <K, V> void forEach(BiConsumer<? super K, ? super V> action) {
+      for (int i = 0; i < entryCount(); i++) {
+        action.accept((K) key(i), (V) value(i));
+      }
+      for (int i = 0; i < childCount(); i++) {
+        child(i).forEach(action);
+      }
+    }
+  }
+
+  /**
+   * A node that consumes {@link #BITS_PER_LEVEL} bits of hash code. Its {@code content} holds the
+   * keys and values of its entries, interleaved, followed by its children, both in the order of
+   * their bits in the two bitmaps.
+   */
+  static final class BitmapNode extends Node {
+    static final BitmapNode EMPTY = new BitmapNode(null, 0, 0, new Object[0]);
+
+    /** The slots that hold an entry. */
+    int entryMap;
+
+    /** The slots that hold a child node. */
+    int childMap;
+
+    Object[] content;
+
+    BitmapNode(@CheckForNull Object owner, int entryMap, int childMap, Object[] content) {
+      super(owner);
+      this.entryMap = entryMap;
+      this.childMap = childMap;
+      this.content = content;
+    }
+
+    static int bit(int hash, int shift) {
+      return 1 << ((hash >>> shift) & ((1 << BITS_PER_LEVEL) - 1));
+    }
+
+    /** Returns the index in {@code content} of the key of the entry at {@code bit}. */
+    int entryIndex(int bit) {
+      return 2 * Integer.bitCount(entryMap & (bit - 1));
+    }
+
+    /** Returns the index in {@code content} of the child at {@code bit}. */
+    int childIndex(int bit) {
+      return 2 * Integer.bitCount(entryMap) + Integer.bitCount(childMap & (bit - 1));
+    }
+
+    @Override
+    @CheckForNull
+    Object get(Object key, int hash, int shift) {
+      int bit = bit(hash, shift);
+      if ((entryMap & bit) != 0) {
+        int i = entryIndex(bit);
+        return key.equals(content[i]) ? content[i + 1] : null;
+      } else if ((childMap & bit) != 0) {
+        return ((Node) content[childIndex(bit)]).get(key, hash, shift + BITS_PER_LEVEL);
+      }
+      return null;
+    }
+
+    @Override
+    Node put(
+        @CheckForNull Object owner, Object key, Object value, int hash, int shift, Change change) {
+      int bit = bit(hash, shift);
+      if ((entryMap & bit) != 0) {
+        int i = entryIndex(bit);
+        Object currentKey = content[i];
+        if (currentKey.equals(key)) {
+          if (content[i + 1] == value) {
+            return this;
+          }
+          change.modified = true;
+          BitmapNode node = editableCopy(owner);
+          node.content[i + 1] = value;
+          return node;
+        }
+        Node child =
+            mergeEntries(
+                owner,
+                currentKey,
+                content[i + 1],
+                Hashing.smearedHash(currentKey),
+                key,
+                value,
+                hash,
+                shift + BITS_PER_LEVEL);
+        change.modified = true;
+        change.sizeChange = 1;
+        return replaceEntryWithChild(owner, bit, child);
+      } else if ((childMap & bit) != 0) {
+        int i = childIndex(bit);
+        Node child = (Node) content[i];
+        Node newChild = child.put(owner, key, value, hash, shift + BITS_PER_LEVEL, change);
+        if (newChild == child) {
+          return this;
+        }
+        BitmapNode node = editableCopy(owner);
+        node.content[i] = newChild;
+        return node;
+      } else {
+        change.modified = true;
+        change.sizeChange = 1;
+        return insertEntry(owner, bit, key, value);
+      }
+    }
+
+    @Override
+    Node remove(@CheckForNull Object owner, Object key, int hash, int shift, Change change) {
+      int bit = bit(hash, shift);
+      if ((entryMap & bit) != 0) {
+        int i = entryIndex(bit);
+        if (!key.equals(content[i])) {
+          return this;
+        }
+        change.modified = true;
+        change.sizeChange = -1;
+        Object[] newContent = new Object[content.length - 2];
+        System.arraycopy(content, 0, newContent, 0, i);
+        System.arraycopy(content, i + 2, newContent, i, content.length - i - 2);
+        return update(owner, entryMap ^ bit, childMap, newContent);
+      } else if ((childMap & bit) != 0) {
+        int i = childIndex(bit);
+        Node child = (Node) content[i];
+        Node newChild = child.remove(owner, key, hash, shift + BITS_PER_LEVEL, change);
+        if (!change.modified) {
+          return this;
+        }
+        if (newChild.childCount() == 0 && newChild.entryCount() == 1) {
+          if (shift != 0 && entryMap == 0 && childMap == bit) {
+            // This node now holds a single entry too, so let our own parent fold it in.
+            return newChild;
+          }
+          return replaceChildWithEntry(owner, bit, newChild.key(0), newChild.value(0));
+        } else if (newChild == child) {
+          return this;
+        }
+        BitmapNode node = editableCopy(owner);
+        node.content[i] = newChild;
+        return node;
+      }
+      return this;
+    }
+
+    /**
+     * Returns a node holding two entries with distinct keys, which share the hash bits consumed
+     * before {@code shift}.
+     */
+    private static Node mergeEntries(
+        @CheckForNull Object owner,
+        Object key0,
+        Object value0,
+        int hash0,
+        Object key1,
+        Object value1,
+        int hash1,
+        int shift) {
+      if (shift >= Integer.SIZE) {
+        return new CollisionNode(owner, hash0, new Object[] {key0, value0, key1, value1});
+      }
+      int bit0 = bit(hash0, shift);
+      int bit1 = bit(hash1, shift);
+      if (bit0 != bit1) {
+        Object[] content =
+            (Integer.compareUnsigned(bit0, bit1) < 0)
+                ? new Object[] {key0, value0, key1, value1}
+                : new Object[] {key1, value1, key0, value0};
+        return new BitmapNode(owner, bit0 | bit1, 0, content);
+      }
+      Node child =
+          mergeEntries(owner, key0, value0, hash0, key1, value1, hash1, shift + BITS_PER_LEVEL);
+      return new BitmapNode(owner, 0, bit0, new Object[] {child});
+    }
+
+    private BitmapNode editableCopy(@CheckForNull Object owner) {
+      return isEditableBy(owner)
+          ? this
+          : new BitmapNode(owner, entryMap, childMap, content.clone());
+    }
+
+    /** Returns this node with the given fields, modified in place if {@code owner} allows. */
+    private BitmapNode update(
+        @CheckForNull Object owner, int entryMap, int childMap, Object[] content) {
+      if (isEditableBy(owner)) {
+        this.entryMap = entryMap;
+        this.childMap = childMap;
+        this.content = content;
+        return this;
+      }
+      return new BitmapNode(owner, entryMap, childMap, content);
+    }
+
+    private BitmapNode insertEntry(
+        @CheckForNull Object owner, int bit, Object key, Object value) {
+      int i = entryIndex(bit);
+      Object[] newContent = new Object[content.length + 2];
+      System.arraycopy(content, 0, newContent, 0, i);
+      newContent[i] = key;
+      newContent[i + 1] = value;
+      System.arraycopy(content, i, newContent, i + 2, content.length - i);
+      return update(owner, entryMap | bit, childMap, newContent);
+    }
+
+    private BitmapNode replaceEntryWithChild(@CheckForNull Object owner, int bit, Node child) {
+      int i = entryIndex(bit);
+      int oldChildIndex = childIndex(bit);
+      int newChildIndex = oldChildIndex - 2;
+      Object[] newContent = new Object[content.length - 1];
+      System.arraycopy(content, 0, newContent, 0, i);
+      System.arraycopy(content, i + 2, newContent, i, newChildIndex - i);
+      newContent[newChildIndex] = child;
+      System.arraycopy(
+          content,
+          oldChildIndex,
+          newContent,
+          newChildIndex + 1,
+          content.length - oldChildIndex);
+      return update(owner, entryMap ^ bit, childMap | bit, newContent);
+    }
+
+    private BitmapNode replaceChildWithEntry(
+        @CheckForNull Object owner, int bit, Object key, Object value) {
+      int oldChildIndex = childIndex(bit);
+      int i = entryIndex(bit);
+      Object[] newContent = new Object[content.length + 1];
+      System.arraycopy(content, 0, newContent, 0, i);
+      newContent[i] = key;
+      newContent[i + 1] = value;
+      System.arraycopy(content, i, newContent, i + 2, oldChildIndex - i);
+      System.arraycopy(
+          content,
+          oldChildIndex + 1,
+          newContent,
+          oldChildIndex + 2,
+          content.length - oldChildIndex - 1);
+      return update(owner, entryMap | bit, childMap ^ bit, newContent);
+    }
+
+    @Override
+    int entryCount() {
+      return Integer.bitCount(entryMap);
+    }
+
+    @Override
+    Object key(int index) {
+      return content[2 * index];
+    }
+
+    @Override
+    Object value(int index) {
+      return content[2 * index + 1];
+    }
+
+    @Override
+    int childCount() {
+      return Integer.bitCount(childMap);
+    }
+
+    @Override
+    Node child(int index) {
+      return (Node) content[2 * entryCount() + index];
+    }
+  }
+
+  /**
+   * A node below the last level of {@link BitmapNode}s, holding entries whose keys have identical
+   * smeared hashes. Its {@code content} holds their keys and values, interleaved.
+   */
+  static final class CollisionNode extends Node {
+    final int hash;
+    Object[] content;
+
+    CollisionNode(@CheckForNull Object owner, int hash, Object[] content) {
+      super(owner);
+      this.hash = hash;
+      this.content = content;
+    }
+
+    private int indexOf(Object key) {
+      for (int i = 0; i < content.length; i += 2) {
+        if (key.equals(content[i])) {
+          return i;
+        }
+      }
+      return -1;
+    }
+
+    @Override
+    @CheckForNull
+    Object get(Object key, int hash, int shift) {
+      int i = indexOf(key);
+      return (i < 0) ? null : content[i + 1];
+    }
+
+    @Override
+    Node put(
+        @CheckForNull Object owner, Object key, Object value, int hash, int shift, Change change) {
+      int i = indexOf(key);
+      Object[] newContent;
+      if (i >= 0) {
+        if (content[i + 1] == value) {
+          return this;
+        }
+        newContent = content.clone();
+        newContent[i + 1] = value;
+      } else {
+        change.sizeChange = 1;
+        newContent = new Object[content.length + 2];
+        System.arraycopy(content, 0, newContent, 0, content.length);
+        newContent[content.length] = key;
+        newContent[content.length + 1] = value;
+      }
+      change.modified = true;
+      return update(owner, newContent);
+    }
+
+    @Override
+    Node remove(@CheckForNull Object owner, Object key, int hash, int shift, Change change) {
+      int i = indexOf(key);
+      if (i < 0) {
+        return this;
+      }
+      change.modified = true;
+      change.sizeChange = -1;
+      Object[] newContent = new Object[content.length - 2];
+      System.arraycopy(content, 0, newContent, 0, i);
+      System.arraycopy(content, i + 2, newContent, i, content.length - i - 2);
+      return update(owner, newContent);
+    }
+
+    private CollisionNode update(@CheckForNull Object owner, Object[] content) {
+      if (isEditableBy(owner)) {
+        this.content = content;
+        return this;
+      }
+      return new CollisionNode(owner, hash, content);
+    }
+
+    @Override
+    int entryCount() {
+      return content.length / 2;
+    }
+
+    @Override
+    Object key(int index) {
+      return content[2 * index];
+    }
+
+    @Override
+    Object value(int index) {
+      return content[2 * index + 1];
+    }
+
+    @Override
+    int childCount() {
+      return 0;
+    }
+
+    @Override
+    Node child(int index) {
+      throw new AssertionError();
+    }
+  }
+
+  /** An iterator over the entries of a trie, visiting each node's entries before its children. */
+  private abstract static class TrieIterator<T> extends UnmodifiableIterator<T> {
+    private final Node[] path = new Node[MAX_DEPTH];
+    private final int[] nextChild = new int[MAX_DEPTH];
+    private int depth;
+    private Node current;
+    private int nextEntry;
+
+    TrieIterator(Node root) {
+      path[0] = root;
+      current = root;
+    }
+
+    abstract T output(Object key, Object value);
+
+    @Override
+    public boolean hasNext() {
+      while (nextEntry >= current.entryCount()) {
+        if (!advanceNode()) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    /** Moves {@code current} to the next node in depth-first order, if there is one. */
+    private boolean advanceNode() {
+      while (depth >= 0) {
+        Node node = path[depth];
+        if (nextChild[depth] < node.childCount()) {
+          current = node.child(nextChild[depth]++);
+          nextEntry = 0;
+          depth++;
+          path[depth] = current;
+          nextChild[depth] = 0;
+          return true;
+        }
+        depth--;
+      }
+      return false;
+    }
+
+    @Override
+    public T next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      int i = nextEntry++;
+      return output(current.key(i), current.value(i));
+    }
+  }
+
+  @SuppressWarnings("unused") // for serialization
+  private void readObject(ObjectInputStream stream) throws InvalidObjectException {
+    throw new InvalidObjectException("Use SerializedForm");
+  }
+
+  Object writeReplace() {
+    return new SerializedForm(this);
+  }
+
+  /** Serialized form of the map, which stores its keys and values in two arrays. */
+  private static final class SerializedForm implements Serializable {
+    private final Object[] keys;
+    private final Object[] values;
+
+    SerializedForm(PersistentHashMap<?, ?> map) {
+      keys = new Object[map.size()];
+      values = new Object[map.size()];
+      int i = 0;
+      for (Entry<?, ?> entry : map.entrySet()) {
+        keys[i] = entry.getKey();
+        values[i] = entry.getValue();
+        i++;
+      }
+    }
+
+    Object readResolve() {
+      Builder<Object, Object> builder = builder();
+      for (int i = 0; i < keys.length; i++) {
+        builder.put(keys[i], values[i]);
+      }
+      return builder.build();
+    }
+
+    private static final long serialVersionUID = 0;
+  }
+
+  private static final long serialVersionUID = 0;
+}
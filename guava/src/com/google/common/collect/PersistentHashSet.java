@@ -0,0 +1,329 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.common.collect;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.annotations.GwtIncompatible;
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import com.google.errorprone.annotations.DoNotCall;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.function.Predicate;
+import javax.annotation.CheckForNull;
+
+/**
+ * An immutable hash set whose {@link #with} and {@link #without} methods return updated copies in
+ * O(log n) time, sharing most of their structure with the original set. The set is a {@link
+ * PersistentHashMap} from its elements to {@code Boolean.TRUE}; see there for details.
+ *
+ * <p>Unlike {@link ImmutableSet}, this set iterates in an unspecified order that depends on its
+ * elements' hash codes. Null elements are not permitted. Instances are safe to share between
+ * threads; builders are not.
+ *
+ * @since NEXT
+ */
+@GwtIncompatible
+@ElementTypesAreNonnullByDefault
+public final class PersistentHashSet<E> extends AbstractSet<E> implements Serializable {
+
+  private static final PersistentHashSet<Object> EMPTY =
+      new PersistentHashSet<>(PersistentHashMap.of());
+
+  /** Returns the empty set. */
+  @SuppressWarnings("unchecked") // the empty set contains no Es
+  public static <E> PersistentHashSet<E> of() {
+    return (PersistentHashSet<E>) EMPTY;
+  }
+
+  /**
+   * Returns a set containing the given elements, without duplicates. Returns {@code elements}
+   * itself if it is already a {@code PersistentHashSet}.
+   *
+   * @throws NullPointerException if any element is null
+   */
+  public static <E> PersistentHashSet<E> copyOf(Iterable<? extends E> elements) {
+    if (elements instanceof PersistentHashSet) {
+      @SuppressWarnings("unchecked") // safe because the set can't be modified
+      PersistentHashSet<E> result = (PersistentHashSet<E>) elements;
+      return result;
+    }
+    return PersistentHashSet.<E>builder().addAll(elements).build();
+  }
+
+  /** Returns a new builder for an initially empty set. */
+  public static <E> Builder<E> builder() {
+    return new Builder<>(PersistentHashMap.<E, Boolean>builder());
+  }
+
+  private final transient PersistentHashMap<E, Boolean> map;
+
+  private PersistentHashSet(PersistentHashMap<E, Boolean> map) {
+    this.map = map;
+  }
+
+  @Override
+  public boolean contains(@CheckForNull Object object) {
+    return map.containsKey(object);
+  }
+
+  @Override
+  public int size() {
+    return map.size();
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return map.isEmpty();
+  }
+
+  @Override
+  public UnmodifiableIterator<E> iterator() {
+    return map.keyIterator();
+  }
+
+  /**
+   * Returns a set with the elements of this one and {@code element}. Returns this set if it
+   * already contains {@code element}.
+   *
+   * @throws NullPointerException if {@code element} is null
+   */
+  public PersistentHashSet<E> with(E element) {
+    return wrap(map.with(element, true));
+  }
+
+  /**
+   * Returns a set with the elements of this one except {@code element}. Returns this set if it
+   * doesn't contain {@code element}.
+   */
+  public PersistentHashSet<E> without(@CheckForNull Object element) {
+    return wrap(map.without(element));
+  }
+
+  private PersistentHashSet<E> wrap(PersistentHashMap<E, Boolean> newMap) {
+    if (newMap == map) {
+      return this;
+    }
+    return newMap.isEmpty() ? PersistentHashSet.<E>of() : new PersistentHashSet<>(newMap);
+  }
+
+  /**
+   * Returns a new builder initialized with the elements of this set. This takes constant time; the
+   * builder copies the parts of the set that it modifies as it goes.
+   */
+  public Builder<E> toBuilder() {
+    return new Builder<>(map.toBuilder());
+  }
+
+  /**
+   * Guaranteed to throw an exception and leave the set unmodified.
+   *
+   * @throws UnsupportedOperationException always
+   * @deprecated Unsupported operation. Use {@link #with} instead.
+   */
+  @CanIgnoreReturnValue
+  @Deprecated
+  @Override
+  @DoNotCall("Always throws UnsupportedOperationException")
+  public boolean add(E e) {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Guaranteed to throw an exception and leave the set unmodified.
+   *
+   * @throws UnsupportedOperationException always
+   * @deprecated Unsupported operation. Use {@link #without} instead.
+   */
+  @CanIgnoreReturnValue
+  @Deprecated
+  @Override
+  @DoNotCall("Always throws UnsupportedOperationException")
+  public boolean remove(@CheckForNull Object object) {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Guaranteed to throw an exception and leave the set unmodified.
+   *
+   * @throws UnsupportedOperationException always
+   * @deprecated Unsupported operation. Use {@link #toBuilder} instead.
+   */
+  @CanIgnoreReturnValue
+  @Deprecated
+  @Override
+  @DoNotCall("Always throws UnsupportedOperationException")
+  public boolean addAll(Collection<? extends E> newElements) {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Guaranteed to throw an exception and leave the set unmodified.
+   *
+   * @throws UnsupportedOperationException always
+   * @deprecated Unsupported operation. Use {@link #toBuilder} instead.
+   */
+  @CanIgnoreReturnValue
+  @Deprecated
+  @Override
+  @DoNotCall("Always throws UnsupportedOperationException")
+  public boolean removeAll(Collection<?> oldElements) {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Guaranteed to throw an exception and leave the set unmodified.
+   *
+   * @throws UnsupportedOperationException always
+   * @deprecated Unsupported operation. Use {@link #toBuilder} instead.
+   */
+  @CanIgnoreReturnValue
+  @Deprecated
+  @Override
+  @DoNotCall("Always throws UnsupportedOperationException")
+  public boolean removeIf(Predicate<? super E> filter) {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Guaranteed to throw an exception and leave the set unmodified.
+   *
+   * @throws UnsupportedOperationException always
+   * @deprecated Unsupported operation. Use {@link #toBuilder} instead.
+   */
+  @CanIgnoreReturnValue
+  @Deprecated
+  @Override
+  @DoNotCall("Always throws UnsupportedOperationException")
+  public boolean retainAll(Collection<?> elementsToKeep) {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Guaranteed to throw an exception and leave the set unmodified.
+   *
+   * @throws UnsupportedOperationException always
+   * @deprecated Unsupported operation. Use {@link #of} instead.
+   */
+  @Deprecated
+  @Override
+  @DoNotCall("Always throws UnsupportedOperationException")
+  public void clear() {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * A builder for {@link PersistentHashSet} instances, which acts like a mutable set and whose
+   * {@link #build} method takes constant time.
+   *
+   * @since NEXT
+   */
+  public static final class Builder<E> {
+    private final PersistentHashMap.Builder<E, Boolean> map;
+
+    Builder(PersistentHashMap.Builder<E, Boolean> map) {
+      this.map = map;
+    }
+
+    /**
+     * Adds {@code element} to the set, if it isn't already present.
+     *
+     * @throws NullPointerException if {@code element} is null
+     */
+    @CanIgnoreReturnValue
+    public Builder<E> add(E element) {
+      map.put(element, true);
+      return this;
+    }
+
+    /**
+     * Adds each of {@code elements} to the set, if it isn't already present.
+     *
+     * @throws NullPointerException if any element is null
+     */
+    @CanIgnoreReturnValue
+    public Builder<E> addAll(Iterable<? extends E> elements) {
+      for (E element : elements) {
+        map.put(element, true);
+      }
+      return this;
+    }
+
+    /**
+     * Adds each of {@code elements} to the set, if it isn't already present.
+     *
+     * @throws NullPointerException if any element is null
+     */
+    @CanIgnoreReturnValue
+    public Builder<E> addAll(Iterator<? extends E> elements) {
+      while (elements.hasNext()) {
+        map.put(elements.next(), true);
+      }
+      return this;
+    }
+
+    /** Removes {@code element} from the set, if it is present. */
+    @CanIgnoreReturnValue
+    public Builder<E> remove(@CheckForNull Object element) {
+      map.remove(element);
+      return this;
+    }
+
+    /** Returns the number of elements that the built set would contain. */
+    public int size() {
+      return map.size();
+    }
+
+    /**
+     * Returns a set of the elements added so far, in constant time. The builder remains usable,
+     * and later updates to it don't affect the returned set.
+     */
+    public PersistentHashSet<E> build() {
+      PersistentHashMap<E, Boolean> built = map.build();
+      return built.isEmpty() ? PersistentHashSet.<E>of() : new PersistentHashSet<>(built);
+    }
+  }
+
+  @SuppressWarnings("unused") // for serialization
+  private void readObject(ObjectInputStream stream) throws InvalidObjectException {
+    throw new InvalidObjectException("Use SerializedForm");
+  }
+
+  Object writeReplace() {
+    return new SerializedForm(toArray());
+  }
+
+  /** Serialized form of the set, which stores its elements in an array. */
+  private static final class SerializedForm implements Serializable {
+    private final Object[] elements;
+
+    SerializedForm(Object[] elements) {
+      this.elements = checkNotNull(elements);
+    }
+
+    Object readResolve() {
+      return PersistentHashSet.builder().addAll(Arrays.asList(elements)).build();
+    }
+
+    private static final long serialVersionUID = 0;
+  }
+
+  private static final long serialVersionUID = 0;
+}
@@ -0,0 +1,638 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.common.collect;
+
+import static com.google.common.base.Preconditions.checkElementIndex;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.annotations.GwtIncompatible;
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import com.google.errorprone.annotations.DoNotCall;
+import com.google.errorprone.annotations.concurrent.LazyInit;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.function.Consumer;
+import javax.annotation.CheckForNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * An immutable list whose {@link #with}, {@link #append} and {@link #withoutLast} methods return
+ * updated copies in O(log n) time, sharing all but O(log n) of their structure with the original
+ * list. Use it in place of {@link ImmutableList} when a list is updated often and each update must
+ * leave the previous version intact.
+ *
+ * <p>The list is a trie of arrays of 32 elements, in which the element at index {@code i} is found
+ * by taking five bits of {@code i} at a time, most significant first, as the index into each level.
+ * Lookups therefore visit at most seven levels, and usually two or three. The last, partial array
+ * of elements is kept outside the trie, so that appending copies only that array until it fills
+ * up. An update copies only the arrays on the path to the changed index.
+ *
+ * <p>A {@link Builder} appends and replaces elements in place, mutating the arrays that it created
+ * itself rather than copying them. {@link Builder#build} takes constant time.
+ *
+ * <p>{@link #asImmutableList} views the list as an {@code ImmutableList} in constant time. Null
+ * elements are not permitted. Instances are safe to share between threads; builders are not.
+ *
+ * @since NEXT
+ */
+@GwtIncompatible
+@ElementTypesAreNonnullByDefault
+public final class PersistentList<E> extends AbstractList<E>
+    implements RandomAccess, Serializable {
+
+  /** The number of index bits consumed by each level of the trie. */
+  private static final int BITS_PER_LEVEL = 5;
+
+  /** The number of slots of each array in the trie. */
+  private static final int WIDTH = 1 << BITS_PER_LEVEL;
+
+  private static final int MASK = WIDTH - 1;
+
+  private static final Node EMPTY_NODE = new Node(null, new Object[WIDTH]);
+
+  private static final PersistentList<Object> EMPTY =
+      new PersistentList<>(0, BITS_PER_LEVEL, EMPTY_NODE, new Object[0]);
+
+  /** Returns the empty list. */
+  @SuppressWarnings("unchecked") // the empty list contains no Es
+  public static <E> PersistentList<E> of() {
+    return (PersistentList<E>) EMPTY;
+  }
+
+  /**
+   * Returns a list containing the given elements, in order. Returns {@code elements} itself if it
+   * is already a {@code PersistentList}.
+   *
+   * @throws NullPointerException if any element is null
+   */
+  public static <E> PersistentList<E> copyOf(Iterable<? extends E> elements) {
+    if (elements instanceof PersistentList) {
+      @SuppressWarnings("unchecked") // safe because the list can't be modified
+      PersistentList<E> result = (PersistentList<E>) elements;
+      return result;
+    }
+    return PersistentList.<E>builder().addAll(elements).build();
+  }
+
+  /** Returns a new builder for an initially empty list. */
+  public static <E> Builder<E> builder() {
+    return new Builder<>(of());
+  }
+
+  private final transient int size;
+
+  /** The number of index bits consumed below the root: a multiple of five, at least five. */
+  private final transient int shift;
+
+  /** The root of the trie, which holds every element but those in {@link #tail}. */
+  private final transient Node root;
+
+  /** The last 1 to 32 elements of the list, or no elements if the list is empty. */
+  private final transient Object[] tail;
+
+  @LazyInit @CheckForNull private transient ImmutableList<E> asImmutableList;
+
+  private PersistentList(int size, int shift, Node root, Object[] tail) {
+    this.size = size;
+    this.shift = shift;
+    this.root = root;
+    this.tail = tail;
+  }
+
+  /**
+   * A node of the trie: an array of 32 child nodes, or of 32 elements at the lowest level. A node
+   * may be modified in place only by the builder whose token it records as its {@code owner}; a
+   * null owner means that no builder may modify it.
+   */
+  private static final class Node {
+    @CheckForNull final Object owner;
+    final @Nullable Object[] array;
+
+    Node(@CheckForNull Object owner, @Nullable Object[] array) {
+      this.owner = owner;
+      this.array = array;
+    }
+
+    Node editableCopy(@CheckForNull Object owner) {
+      return (owner != null && owner == this.owner) ? this : new Node(owner, array.clone());
+    }
+  }
+
+  /** Returns the index of the first element of the tail of a list of {@code size} elements. */
+  private static int tailOffset(int size) {
+    return (size < WIDTH) ? 0 : ((size - 1) >>> BITS_PER_LEVEL) << BITS_PER_LEVEL;
+  }
+
+  /** Returns the array of 32 elements that holds the element at {@code index}. */
+  private @Nullable Object[] arrayFor(int index) {
+    if (index >= tailOffset(size)) {
+      return tail;
+    }
+    Node node = root;
+    for (int level = shift; level > 0; level -= BITS_PER_LEVEL) {
+      node = (Node) requireNonNull(node.array[(index >>> level) & MASK]);
+    }
+    return node.array;
+  }
+
+  @Override
+  public E get(int index) {
+    checkElementIndex(index, size);
+    @SuppressWarnings("unchecked") // we only store Es as elements
+    E element = (E) arrayFor(index)[index & MASK];
+    return requireNonNull(element);
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public UnmodifiableIterator<E> iterator() {
+    return new UnmodifiableIterator<E>() {
+      private int index;
+      private @Nullable Object[] array = tail;
+
+      @Override
+      public boolean hasNext() {
+        return index < size;
+      }
+
+      @Override
+      public E next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        if ((index & MASK) == 0) {
+          array = arrayFor(index);
+        }
+        @SuppressWarnings("unchecked") // we only store Es as elements
+        E element = (E) array[index++ & MASK];
+        return requireNonNull(element);
+      }
+    };
+  }
+
+  @Override
+  public void forEach(Consumer<? super E> action) {
+    checkNotNull(action);
+    for (int start = 0; start < size; start += WIDTH) {
+      @Nullable Object[] array = arrayFor(start);
+      int end = Math.min(WIDTH, size - start);
+      for (int i = 0; i < end; i++) {
+        @SuppressWarnings("unchecked") // we only store Es as elements
+        E element = (E) requireNonNull(array[i]);
+        action.accept(element);
+      }
+    }
+  }
+
+  /**
+   * Returns a list with the same elements as this one, except that {@code element} is at {@code
+   * index}.
+   *
+   * @throws IndexOutOfBoundsException if {@code index} is negative or not less than {@link #size}
+   * @throws NullPointerException if {@code element} is null
+   */
+  public PersistentList<E> with(int index, E element) {
+    checkElementIndex(index, size);
+    checkNotNull(element);
+    if (index >= tailOffset(size)) {
+      Object[] newTail = tail.clone();
+      newTail[index & MASK] = element;
+      return new PersistentList<>(size, shift, root, newTail);
+    }
+    return new PersistentList<>(size, shift, replace(null, shift, root, index, element), tail);
+  }
+
+  /**
+   * Returns a list with the elements of this one followed by {@code element}.
+   *
+   * @throws NullPointerException if {@code element} is null
+   */
+  public PersistentList<E> append(E element) {
+    checkNotNull(element);
+    int tailLength = size - tailOffset(size);
+    if (tailLength < WIDTH) {
+      Object[] newTail = Arrays.copyOf(tail, tailLength + 1);
+      newTail[tailLength] = element;
+      return new PersistentList<>(size + 1, shift, root, newTail);
+    }
+    Node tailNode = new Node(null, tail);
+    int newShift = shift;
+    Node newRoot;
+    if ((size >>> BITS_PER_LEVEL) > (1 << shift)) {
+      newRoot = new Node(null, new Object[WIDTH]);
+      newRoot.array[0] = root;
+      newRoot.array[1] = newPath(null, shift, tailNode);
+      newShift += BITS_PER_LEVEL;
+    } else {
+      newRoot = pushTail(null, size, shift, root, tailNode);
+    }
+    return new PersistentList<>(size + 1, newShift, newRoot, new Object[] {element});
+  }
+
+  /**
+   * Returns a list with the elements of this one except the last.
+   *
+   * @throws NoSuchElementException if this list is empty
+   */
+  public PersistentList<E> withoutLast() {
+    if (size == 0) {
+      throw new NoSuchElementException();
+    } else if (size == 1) {
+      return of();
+    }
+    int tailLength = size - tailOffset(size);
+    if (tailLength > 1) {
+      return new PersistentList<>(size - 1, shift, root, Arrays.copyOf(tail, tailLength - 1));
+    }
+    Object[] newTail = arrayFor(size - 2);
+    Node newRoot = popTail(size, shift, root);
+    int newShift = shift;
+    if (newRoot == null) {
+      newRoot = EMPTY_NODE;
+    } else if (shift > BITS_PER_LEVEL && newRoot.array[1] == null) {
+      newRoot = (Node) requireNonNull(newRoot.array[0]);
+      newShift -= BITS_PER_LEVEL;
+    }
+    return new PersistentList<>(size - 1, newShift, newRoot, newTail);
+  }
+
+  /** Returns {@code node} with the element at {@code index} replaced by {@code element}. */
+  private static Node replace(
+      @CheckForNull Object owner, int level, Node node, int index, Object element) {
+    Node result = node.editableCopy(owner);
+    if (level == 0) {
+      result.array[index & MASK] = element;
+    } else {
+      int subIndex = (index >>> level) & MASK;
+      Node child = (Node) requireNonNull(node.array[subIndex]);
+      result.array[subIndex] = replace(owner, level - BITS_PER_LEVEL, child, index, element);
+    }
+    return result;
+  }
+
+  /** Returns a chain of nodes down to {@code level} 0, with {@code node} at the bottom. */
+  private static Node newPath(@CheckForNull Object owner, int level, Node node) {
+    if (level == 0) {
+      return node;
+    }
+    Node result = new Node(owner, new Object[WIDTH]);
+    result.array[0] = newPath(owner, level - BITS_PER_LEVEL, node);
+    return result;
+  }
+
+  /**
+   * Returns {@code parent} with {@code tailNode} added as the leaf for the elements just before
+   * index {@code size}, where {@code parent} has room for it.
+   */
+  private static Node pushTail(
+      @CheckForNull Object owner, int size, int level, Node parent, Node tailNode) {
+    int subIndex = ((size - 1) >>> level) & MASK;
+    Node result = parent.editableCopy(owner);
+    Node child = (Node) parent.array[subIndex];
+    if (level == BITS_PER_LEVEL) {
+      result.array[subIndex] = tailNode;
+    } else if (child != null) {
+      result.array[subIndex] = pushTail(owner, size, level - BITS_PER_LEVEL, child, tailNode);
+    } else {
+      result.array[subIndex] = newPath(owner, level - BITS_PER_LEVEL, tailNode);
+    }
+    return result;
+  }
+
+  /**
+   * Returns {@code node} without the leaf holding the element at index {@code size - 2}, or null if
+   * that leaves it empty.
+   */
+  @CheckForNull
+  private static Node popTail(int size, int level, Node node) {
+    int subIndex = ((size - 2) >>> level) & MASK;
+    if (level > BITS_PER_LEVEL) {
+      Node newChild =
+          popTail(size, level - BITS_PER_LEVEL, (Node) requireNonNull(node.array[subIndex]));
+      if (newChild == null && subIndex == 0) {
+        return null;
+      }
+      Node result = node.editableCopy(null);
+      result.array[subIndex] = newChild;
+      return result;
+    } else if (subIndex == 0) {
+      return null;
+    }
+    Node result = node.editableCopy(null);
+    result.array[subIndex] = null;
+    return result;
+  }
+
+  /**
+   * Returns a new builder initialized with the elements of this list. The builder copies the parts
+   * of the trie that it modifies as it goes.
+   */
+  public Builder<E> toBuilder() {
+    return new Builder<>(this);
+  }
+
+  /**
+   * Returns an {@code ImmutableList} view of this list, in constant time. As this list can't
+   * change, the view is genuinely immutable, and {@link ImmutableList#copyOf(Collection)} returns
+   * it without copying.
+   */
+  public ImmutableList<E> asImmutableList() {
+    ImmutableList<E> result = asImmutableList;
+    return (result == null) ? asImmutableList = new ImmutableView<>(this) : result;
+  }
+
+  @SuppressWarnings("serial") // uses writeReplace(), not default serialization
+  private static final class ImmutableView<E> extends ImmutableList<E> {
+    private final PersistentList<E> list;
+
+    ImmutableView(PersistentList<E> list) {
+      this.list = list;
+    }
+
+    @Override
+    public E get(int index) {
+      return list.get(index);
+    }
+
+    @Override
+    public int size() {
+      return list.size();
+    }
+
+    @Override
+    public void forEach(Consumer<? super E> action) {
+      list.forEach(action);
+    }
+
+    @Override
+    boolean isPartialView() {
+      return false;
+    }
+  }
+
+  /**
+   * Guaranteed to throw an exception and leave the list unmodified.
+   *
+   * @throws UnsupportedOperationException always
+   * @deprecated Unsupported operation. Use {@link #append} instead.
+   */
+  @CanIgnoreReturnValue
+  @Deprecated
+  @Override
+  @DoNotCall("Always throws UnsupportedOperationException")
+  public boolean add(E e) {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Guaranteed to throw an exception and leave the list unmodified.
+   *
+   * @throws UnsupportedOperationException always
+   * @deprecated Unsupported operation. Use {@link #toBuilder} instead.
+   */
+  @Deprecated
+  @Override
+  @DoNotCall("Always throws UnsupportedOperationException")
+  public void add(int index, E element) {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Guaranteed to throw an exception and leave the list unmodified.
+   *
+   * @throws UnsupportedOperationException always
+   * @deprecated Unsupported operation. Use {@link #with} instead.
+   */
+  @CanIgnoreReturnValue
+  @Deprecated
+  @Override
+  @DoNotCall("Always throws UnsupportedOperationException")
+  public E set(int index, E element) {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Guaranteed to throw an exception and leave the list unmodified.
+   *
+   * @throws UnsupportedOperationException always
+   * @deprecated Unsupported operation. Use {@link #withoutLast} instead.
+   */
+  @CanIgnoreReturnValue
+  @Deprecated
+  @Override
+  @DoNotCall("Always throws UnsupportedOperationException")
+  public E remove(int index) {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Guaranteed to throw an exception and leave the list unmodified.
+   *
+   * @throws UnsupportedOperationException always
+   * @deprecated Unsupported operation. Use {@link #toBuilder} instead.
+   */
+  @CanIgnoreReturnValue
+  @Deprecated
+  @Override
+  @DoNotCall("Always throws UnsupportedOperationException")
+  public boolean remove(@CheckForNull Object object) {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Guaranteed to throw an exception and leave the list unmodified.
+   *
+   * @throws UnsupportedOperationException always
+   * @deprecated Unsupported operation. Use {@link #toBuilder} instead.
+   */
+  @CanIgnoreReturnValue
+  @Deprecated
+  @Override
+  @DoNotCall("Always throws UnsupportedOperationException")
+  public boolean addAll(Collection<? extends E> newElements) {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Guaranteed to throw an exception and leave the list unmodified.
+   *
+   * @throws UnsupportedOperationException always
+   * @deprecated Unsupported operation. Use {@link #of} instead.
+   */
+  @Deprecated
+  @Override
+  @DoNotCall("Always throws UnsupportedOperationException")
+  public void clear() {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * A builder for {@link PersistentList} instances, which appends and replaces elements in place
+   * and whose {@link #build} method takes constant time.
+   *
+   * @since NEXT
+   */
+  public static final class Builder<E> {
+    /**
+     * The token identifying the nodes that this builder may modify in place. Every node that the
+     * builder creates records the token, and {@link #build} replaces it so that the built list's
+     * nodes are copied, not modified, by later updates.
+     */
+    private Object owner = new Object();
+
+    private int size;
+    private int shift;
+    private Node root;
+
+    /** The elements after the trie, in an array of 32 slots that this builder owns. */
+    private @Nullable Object[] tail;
+
+    Builder(PersistentList<E> list) {
+      this.size = list.size;
+      this.shift = list.shift;
+      this.root = list.root;
+      this.tail = Arrays.copyOf(list.tail, WIDTH);
+    }
+
+    /**
+     * Appends {@code element} to the list.
+     *
+     * @throws NullPointerException if {@code element} is null
+     */
+    @CanIgnoreReturnValue
+    public Builder<E> add(E element) {
+      checkNotNull(element);
+      int tailLength = size - tailOffset(size);
+      if (tailLength == WIDTH) {
+        Node tailNode = new Node(owner, tail);
+        if ((size >>> BITS_PER_LEVEL) > (1 << shift)) {
+          Node newRoot = new Node(owner, new Object[WIDTH]);
+          newRoot.array[0] = root;
+          newRoot.array[1] = newPath(owner, shift, tailNode);
+          root = newRoot;
+          shift += BITS_PER_LEVEL;
+        } else {
+          root = pushTail(owner, size, shift, root, tailNode);
+        }
+        tail = new Object[WIDTH];
+        tailLength = 0;
+      }
+      tail[tailLength] = element;
+      size++;
+      return this;
+    }
+
+    /**
+     * Appends each of {@code elements} to the list.
+     *
+     * @throws NullPointerException if any element is null
+     */
+    @CanIgnoreReturnValue
+    public Builder<E> addAll(Iterable<? extends E> elements) {
+      for (E element : elements) {
+        add(element);
+      }
+      return this;
+    }
+
+    /**
+     * Appends each of {@code elements} to the list.
+     *
+     * @throws NullPointerException if any element is null
+     */
+    @CanIgnoreReturnValue
+    public Builder<E> addAll(Iterator<? extends E> elements) {
+      while (elements.hasNext()) {
+        add(elements.next());
+      }
+      return this;
+    }
+
+    /**
+     * Replaces the element at {@code index} with {@code element}.
+     *
+     * @throws IndexOutOfBoundsException if {@code index} is negative or not less than {@link
+     *     #size}
+     * @throws NullPointerException if {@code element} is null
+     */
+    @CanIgnoreReturnValue
+    public Builder<E> set(int index, E element) {
+      checkElementIndex(index, size);
+      checkNotNull(element);
+      if (index >= tailOffset(size)) {
+        tail[index & MASK] = element;
+      } else {
+        root = replace(owner, shift, root, index, element);
+      }
+      return this;
+    }
+
+    /** Returns the number of elements that the built list would contain. */
+    public int size() {
+      return size;
+    }
+
+    /**
+     * Returns a list of the elements added so far, in constant time. The builder remains usable,
+     * and later updates to it don't affect the returned list.
+     */
+    public PersistentList<E> build() {
+      if (size == 0) {
+        return of();
+      }
+      owner = new Object();
+      Object[] builtTail = Arrays.copyOf(tail, size - tailOffset(size));
+      return new PersistentList<>(size, shift, root, builtTail);
+    }
+  }
+
+  @SuppressWarnings("unused") // for serialization
+  private void readObject(ObjectInputStream stream) throws InvalidObjectException {
+    throw new InvalidObjectException("Use SerializedForm");
+  }
+
+  Object writeReplace() {
+    return new SerializedForm(toArray());
+  }
+
+  /** Serialized form of the list, which stores its elements in an array. */
+  private static final class SerializedForm implements Serializable {
+    private final Object[] elements;
+
+    SerializedForm(Object[] elements) {
+      this.elements = checkNotNull(elements);
+    }
+
+    Object readResolve() {
+      return PersistentList.builder().addAll(Arrays.asList(elements)).build();
+    }
+
+    private static final long serialVersionUID = 0;
+  }
+
+  private static final long serialVersionUID = 0;
+}
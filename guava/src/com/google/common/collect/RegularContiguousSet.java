@@ -26,6 +26,7 @@ import java.io.InvalidObjectException;
 import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.Collection;
+import java.util.Spliterator;
 import javax.annotation.CheckForNull;
 
 /**
@@ -148,6 +149,17 @@ final class RegularContiguousSet<C extends Comparable> extends ContiguousSet<C>
     }
   }
 
+  @Override
+  public Spliterator<C> spliterator() {
+    if (domain.supportsFastOffset && domain.distance(first(), last()) < Integer.MAX_VALUE) {
+      // Compute each element from its index, so that the spliterator splits evenly.
+      C first = first();
+      return CollectSpliterators.indexed(
+          size(), SPLITERATOR_CHARACTERISTICS, i -> domain.offset(first, i), comparator());
+    }
+    return super.spliterator();
+  }
+
   @Override
   public int size() {
     long distance = domain.distance(first(), last());
@@ -91,6 +91,9 @@ final class RegularImmutableMap<K, V> extends ImmutableMap<K, V> {
       return empty;
     }
     try {
+      if (n >= CompactImmutableMap.MIN_SIZE) {
+        return CompactImmutableMap.create(n, entryArray, throwIfDuplicateKeys);
+      }
       return fromEntryArrayCheckingBucketOverflow(n, entryArray, throwIfDuplicateKeys);
     } catch (BucketOverflowException e) {
       // probable hash flooding attack, fall back to j.u.HM based implementation and use its
@@ -46,6 +46,7 @@ import java.util.NavigableSet;
 import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.SortedSet;
+import java.util.Spliterator;
 import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
@@ -1434,6 +1435,14 @@ public final class Sets {
       return delegate;
     }
 
+    @Override
+    public Spliterator<List<E>> spliterator() {
+      return CollectSpliterators.indexed(
+          delegate.size(),
+          Spliterator.DISTINCT | Spliterator.NONNULL | Spliterator.IMMUTABLE,
+          delegate::get);
+    }
+
     @Override
     public boolean contains(@CheckForNull Object object) {
       if (!(object instanceof List)) {
@@ -1589,6 +1598,14 @@ public final class Sets {
       };
     }
 
+    @Override
+    public Spliterator<Set<E>> spliterator() {
+      return CollectSpliterators.indexed(
+          size(),
+          Spliterator.DISTINCT | Spliterator.NONNULL | Spliterator.IMMUTABLE,
+          setBits -> new SubSet<E>(inputSet, setBits));
+    }
+
     @Override
     public boolean contains(@CheckForNull Object obj) {
       if (obj instanceof Set) {
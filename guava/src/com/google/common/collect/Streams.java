@@ -23,16 +23,23 @@ import static java.util.Objects.requireNonNull;
 
 import com.google.common.annotations.Beta;
 import com.google.common.annotations.GwtCompatible;
+import com.google.common.collect.SortedLists.KeyAbsentBehavior;
+import com.google.common.collect.SortedLists.KeyPresentBehavior;
 import com.google.common.math.LongMath;
 import com.google.errorprone.annotations.InlineMe;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.Deque;
 import java.util.Iterator;
+import java.util.List;
 import java.util.OptionalDouble;
 import java.util.OptionalInt;
 import java.util.OptionalLong;
 import java.util.PrimitiveIterator;
+import java.util.RandomAccess;
 import java.util.Spliterator;
 import java.util.Spliterators;
 import java.util.Spliterators.AbstractSpliterator;
@@ -288,6 +295,183 @@ public final class Streams {
         .onClose(() -> closeAll(streams));
   }
 
+  /**
+   * Returns a stream over the merged contents of {@code streams}, each of which must already be
+   * sorted by {@code comparator}. Equivalent elements are not de-duplicated; they appear in the
+   * order of the streams they come from. Closing the returned stream closes all of {@code
+   * streams}.
+   *
+   * <p>The merge is a loser-tree tournament, as in {@link Iterators#mergeSorted}, so each element
+   * costs about log2(k) comparisons for k streams. It is sequential; to merge in parallel, collect
+   * the inputs to lists and use {@link #mergeSortedLists}.
+   *
+   * @since NEXT
+   */
+  public static <T extends @Nullable Object> Stream<T> mergeSorted(
+      Iterable<? extends Stream<? extends T>> streams, Comparator<? super T> comparator) {
+    checkNotNull(comparator);
+    List<Stream<? extends T>> streamList = Lists.newArrayList(streams);
+    BaseStream<?, ?>[] toClose = streamList.toArray(new BaseStream<?, ?>[0]);
+    boolean isSized = true;
+    long estimatedSize = 0L;
+    List<Iterator<? extends T>> iterators = new ArrayList<>(streamList.size());
+    for (Stream<? extends T> stream : streamList) {
+      Spliterator<? extends T> splitr = stream.spliterator();
+      isSized &= splitr.hasCharacteristics(Spliterator.SIZED);
+      estimatedSize = LongMath.saturatedAdd(estimatedSize, splitr.estimateSize());
+      iterators.add(Spliterators.iterator(splitr));
+    }
+    Iterator<T> merged = new Iterators.MergingIterator<T>(iterators, comparator);
+    return StreamSupport.stream(
+            isSized
+                ? Spliterators.spliterator(merged, estimatedSize, Spliterator.ORDERED)
+                : Spliterators.spliteratorUnknownSize(merged, Spliterator.ORDERED),
+            false)
+        .onClose(() -> closeAll(toClose));
+  }
+
+  /**
+   * Returns a stream over the merged contents of {@code sortedLists}, each of which must already be
+   * sorted by {@code comparator}. Equivalent elements are not de-duplicated; they appear in the
+   * order of the lists they come from. The lists must not be modified while the stream is in use.
+   *
+   * <p>Unlike {@link #mergeSorted}, the result splits efficiently, so the merge runs in parallel
+   * across the fork-join workers of a {@linkplain Stream#parallel parallel} stream. Each split
+   * picks the middle element of the longest remaining list as a pivot, binary-searches every list
+   * for it, and hands the elements before it in all of the lists to a separate worker, which merges
+   * that key range on its own. Lists that don't implement {@link RandomAccess} are first copied.
+   *
+   * @since NEXT
+   */
+  public static <T extends @Nullable Object> Stream<T> mergeSortedLists(
+      Iterable<? extends List<? extends T>> sortedLists, Comparator<? super T> comparator) {
+    checkNotNull(comparator);
+    List<List<? extends T>> lists = new ArrayList<>();
+    for (List<? extends T> list : sortedLists) {
+      lists.add((list instanceof RandomAccess) ? list : new ArrayList<T>(list));
+    }
+    int[] from = new int[lists.size()];
+    int[] to = new int[lists.size()];
+    for (int i = 0; i < lists.size(); i++) {
+      to[i] = lists.get(i).size();
+    }
+    return StreamSupport.stream(new MergeSortedSpliterator<T>(lists, from, to, comparator), false);
+  }
+
+  /**
+   * The spliterator of {@link #mergeSortedLists}, which merges the elements of each list {@code i}
+   * from index {@code from[i]} to {@code to[i]}.
+   */
+  private static final class MergeSortedSpliterator<T extends @Nullable Object>
+      implements Spliterator<T> {
+    private final List<List<? extends T>> lists;
+    private final int[] from;
+    private final int[] to;
+    private final Comparator<? super T> comparator;
+    private long remaining;
+    @CheckForNull private Iterator<T> merged;
+
+    MergeSortedSpliterator(
+        List<List<? extends T>> lists, int[] from, int[] to, Comparator<? super T> comparator) {
+      this.lists = lists;
+      this.from = from;
+      this.to = to;
+      this.comparator = comparator;
+      for (int i = 0; i < lists.size(); i++) {
+        remaining += to[i] - from[i];
+      }
+    }
+
+    private Iterator<T> merged() {
+      Iterator<T> result = merged;
+      if (result == null) {
+        List<Iterator<? extends T>> iterators = new ArrayList<>(lists.size());
+        for (int i = 0; i < lists.size(); i++) {
+          iterators.add(lists.get(i).subList(from[i], to[i]).iterator());
+        }
+        result = merged = new Iterators.MergingIterator<T>(iterators, comparator);
+      }
+      return result;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+      Iterator<T> merged = merged();
+      if (merged.hasNext()) {
+        remaining--;
+        action.accept(merged.next());
+        return true;
+      }
+      return false;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super T> action) {
+      merged().forEachRemaining(action);
+      remaining = 0;
+    }
+
+    @Override
+    @CheckForNull
+    public Spliterator<T> trySplit() {
+      if (merged != null || remaining < 2) {
+        return null;
+      }
+      int longest = 0;
+      for (int i = 1; i < lists.size(); i++) {
+        if (to[i] - from[i] > to[longest] - from[longest]) {
+          longest = i;
+        }
+      }
+      T pivot = lists.get(longest).get((from[longest] + to[longest]) >>> 1);
+      // Split off the elements less than the pivot, or if there are none, those equal to it.
+      int[] split = splitPoints(pivot, KeyPresentBehavior.FIRST_PRESENT);
+      long prefixSize = sizeBefore(split);
+      if (prefixSize == 0) {
+        split = splitPoints(pivot, KeyPresentBehavior.FIRST_AFTER);
+        prefixSize = sizeBefore(split);
+        if (prefixSize == remaining) {
+          return null; // all the elements are equivalent
+        }
+      }
+      Spliterator<T> prefix =
+          new MergeSortedSpliterator<T>(lists, from.clone(), split, comparator);
+      System.arraycopy(split, 0, from, 0, from.length);
+      remaining -= prefixSize;
+      return prefix;
+    }
+
+    private int[] splitPoints(@ParametricNullness T pivot, KeyPresentBehavior presentBehavior) {
+      int[] split = new int[lists.size()];
+      for (int i = 0; i < split.length; i++) {
+        List<? extends T> range = lists.get(i).subList(from[i], to[i]);
+        split[i] =
+            from[i]
+                + SortedLists.binarySearch(
+                    range, pivot, comparator, presentBehavior, KeyAbsentBehavior.NEXT_HIGHER);
+      }
+      return split;
+    }
+
+    private long sizeBefore(int[] split) {
+      long size = 0;
+      for (int i = 0; i < split.length; i++) {
+        size += split[i] - from[i];
+      }
+      return size;
+    }
+
+    @Override
+    public long estimateSize() {
+      return remaining;
+    }
+
+    @Override
+    public int characteristics() {
+      return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+    }
+  }
+
   /**
    * Returns a stream in which each element is the result of passing the corresponding element of
    * each of {@code streamA} and {@code streamB} to {@code function}.
@@ -309,9 +493,12 @@ public final class Streams {
    * <p>Note that if you are calling {@link Stream#forEach} on the resulting stream, you might want
    * to consider using {@link #forEachPair} instead of this method.
    *
-   * <p><b>Performance note:</b> The resulting stream is not <a
-   * href="http://gee.cs.oswego.edu/dl/html/StreamParallelGuidance.html">efficiently splittable</a>.
-   * This may harm parallel performance.
+   * <p><b>Performance note:</b> The resulting stream is <a
+   * href="http://gee.cs.oswego.edu/dl/html/StreamParallelGuidance.html">efficiently splittable</a>
+   * only if both streams' spliterators report {@link Spliterator#SIZED}. Each split then splits
+   * both inputs, and if their halves differ in size, it copies the shorter half, plus the elements
+   * needed to line it up with the other, to an array. Sources that split evenly, such as arrays,
+   * lists and ranges of the same length, are never copied.
    */
   @Beta
   public static <A extends @Nullable Object, B extends @Nullable Object, R extends @Nullable Object>
@@ -323,6 +510,12 @@ public final class Streams {
     boolean isParallel = streamA.isParallel() || streamB.isParallel(); // same as Stream.concat
     Spliterator<A> splitrA = streamA.spliterator();
     Spliterator<B> splitrB = streamB.spliterator();
+    if (splitrA.hasCharacteristics(Spliterator.SIZED)
+        && splitrB.hasCharacteristics(Spliterator.SIZED)) {
+      return StreamSupport.stream(new ZipSpliterator<>(splitrA, splitrB, function), isParallel)
+          .onClose(streamA::close)
+          .onClose(streamB::close);
+    }
     int characteristics =
         splitrA.characteristics()
             & splitrB.characteristics()
@@ -346,6 +539,110 @@ public final class Streams {
         .onClose(streamB::close);
   }
 
+  /**
+   * The spliterator of {@link #zip} over finite sources, which splits both of them at the same
+   * position.
+   */
+  private static final class ZipSpliterator<
+          A extends @Nullable Object, B extends @Nullable Object, R extends @Nullable Object>
+      implements Spliterator<R> {
+    private final Spliterator<A> splitrA;
+    private final Spliterator<B> splitrB;
+    private final BiFunction<? super A, ? super B, R> function;
+    @CheckForNull private A heldA;
+    @CheckForNull private B heldB;
+    private final Consumer<A> holderA = a -> heldA = a;
+    private final Consumer<B> holderB = b -> heldB = b;
+
+    ZipSpliterator(
+        Spliterator<A> splitrA,
+        Spliterator<B> splitrB,
+        BiFunction<? super A, ? super B, R> function) {
+      this.splitrA = splitrA;
+      this.splitrB = splitrB;
+      this.function = function;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super R> action) {
+      if (splitrA.tryAdvance(holderA) && splitrB.tryAdvance(holderB)) {
+        try {
+          // The casts are safe because tryAdvance put an A into heldA and a B into heldB.
+          action.accept(
+              function.apply(uncheckedCastNullableTToT(heldA), uncheckedCastNullableTToT(heldB)));
+          return true;
+        } finally {
+          heldA = null;
+          heldB = null;
+        }
+      }
+      heldA = null;
+      return false;
+    }
+
+    @Override
+    @CheckForNull
+    public Spliterator<R> trySplit() {
+      Spliterator<A> prefixA = splitrA.trySplit();
+      if (prefixA == null) {
+        return null;
+      }
+      Spliterator<B> prefixB = splitrB.trySplit();
+      if (prefixB == null) {
+        prefixB = Spliterators.emptySpliterator();
+      }
+      if (prefixA.getExactSizeIfKnown() < 0) {
+        prefixA = copyToSpliterator(prefixA);
+      }
+      if (prefixB.getExactSizeIfKnown() < 0) {
+        prefixB = copyToSpliterator(prefixB);
+      }
+      // Line the prefixes up by extending the shorter one with the elements that follow it.
+      long sizeA = prefixA.getExactSizeIfKnown();
+      long sizeB = prefixB.getExactSizeIfKnown();
+      if (sizeA < sizeB) {
+        prefixA = copyToSpliterator(prefixA, splitrA, sizeB - sizeA);
+      } else if (sizeB < sizeA) {
+        prefixB = copyToSpliterator(prefixB, splitrB, sizeA - sizeB);
+      }
+      return new ZipSpliterator<>(prefixA, prefixB, function);
+    }
+
+    @Override
+    public long estimateSize() {
+      return min(splitrA.estimateSize(), splitrB.estimateSize());
+    }
+
+    @Override
+    public int characteristics() {
+      return splitrA.characteristics()
+          & splitrB.characteristics()
+          & (Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED);
+    }
+  }
+
+  /** Returns a sized spliterator over the remaining elements of {@code from}, copied to a list. */
+  private static <T extends @Nullable Object> Spliterator<T> copyToSpliterator(
+      Spliterator<T> from) {
+    return copyToSpliterator(from, Spliterators.emptySpliterator(), 0);
+  }
+
+  /**
+   * Returns a sized spliterator over the remaining elements of {@code from} followed by up to
+   * {@code extra} elements taken from {@code next}, copied to a list.
+   */
+  private static <T extends @Nullable Object> Spliterator<T> copyToSpliterator(
+      Spliterator<T> from, Spliterator<T> next, long extra) {
+    ArrayList<T> list = new ArrayList<>();
+    from.forEachRemaining(list::add);
+    for (long i = 0; i < extra; i++) {
+      if (!next.tryAdvance(list::add)) {
+        break;
+      }
+    }
+    return list.spliterator();
+  }
+
   /**
    * Invokes {@code consumer} once for each pair of <i>corresponding</i> elements in {@code streamA}
    * and {@code streamB}. If one stream is longer than the other, the extra elements are silently
@@ -418,9 +715,10 @@ public final class Streams {
    * <p>The resulting stream is <a
    * href="http://gee.cs.oswego.edu/dl/html/StreamParallelGuidance.html">efficiently splittable</a>
    * if and only if {@code stream} was efficiently splittable and its underlying spliterator
-   * reported {@link Spliterator#SUBSIZED}. This is generally the case if the underlying stream
-   * comes from a data structure supporting efficient indexed random access, typically an array or
-   * list.
+   * reported {@link Spliterator#SIZED}. Splitting is cheapest when it also reported {@link
+   * Spliterator#SUBSIZED}, which is generally the case if the underlying stream comes from a data
+   * structure supporting efficient indexed random access, typically an array or list. Otherwise,
+   * each split whose size is unknown is copied to an array to learn its size.
    *
    * <p>The order of the resulting stream is defined if and only if the order of the original stream
    * was defined.
@@ -432,7 +730,7 @@ public final class Streams {
     boolean isParallel = stream.isParallel();
     Spliterator<T> fromSpliterator = stream.spliterator();
 
-    if (!fromSpliterator.hasCharacteristics(Spliterator.SUBSIZED)) {
+    if (!fromSpliterator.hasCharacteristics(Spliterator.SIZED)) {
       Iterator<T> fromIterator = Spliterators.iterator(fromSpliterator);
       return StreamSupport.stream(
               new AbstractSpliterator<R>(
@@ -482,6 +780,11 @@ public final class Streams {
       Splitr createSplit(Spliterator<T> from, long i) {
         return new Splitr(from, i);
       }
+
+      @Override
+      Spliterator<T> copy(Spliterator<T> from) {
+        return copyToSpliterator(from);
+      }
     }
     return StreamSupport.stream(new Splitr(fromSpliterator, 0), isParallel).onClose(stream::close);
   }
@@ -501,9 +804,10 @@ public final class Streams {
    * <p>The resulting stream is <a
    * href="http://gee.cs.oswego.edu/dl/html/StreamParallelGuidance.html">efficiently splittable</a>
    * if and only if {@code stream} was efficiently splittable and its underlying spliterator
-   * reported {@link Spliterator#SUBSIZED}. This is generally the case if the underlying stream
-   * comes from a data structure supporting efficient indexed random access, typically an array or
-   * list.
+   * reported {@link Spliterator#SIZED}. Splitting is cheapest when it also reported {@link
+   * Spliterator#SUBSIZED}, which is generally the case if the underlying stream comes from a data
+   * structure supporting efficient indexed random access, typically an array or list. Otherwise,
+   * each split whose size is unknown is copied to an array to learn its size.
    *
    * <p>The order of the resulting stream is defined if and only if the order of the original stream
    * was defined.
@@ -515,7 +819,7 @@ public final class Streams {
     boolean isParallel = stream.isParallel();
     Spliterator.OfInt fromSpliterator = stream.spliterator();
 
-    if (!fromSpliterator.hasCharacteristics(Spliterator.SUBSIZED)) {
+    if (!fromSpliterator.hasCharacteristics(Spliterator.SIZED)) {
       PrimitiveIterator.OfInt fromIterator = Spliterators.iterator(fromSpliterator);
       return StreamSupport.stream(
               new AbstractSpliterator<R>(
@@ -561,6 +865,11 @@ public final class Streams {
       Splitr createSplit(Spliterator.OfInt from, long i) {
         return new Splitr(from, i);
       }
+
+      @Override
+      Spliterator.OfInt copy(Spliterator.OfInt from) {
+        return Arrays.spliterator(StreamSupport.intStream(from, false).toArray());
+      }
     }
     return StreamSupport.stream(new Splitr(fromSpliterator, 0), isParallel).onClose(stream::close);
   }
@@ -580,9 +889,10 @@ public final class Streams {
    * <p>The resulting stream is <a
    * href="http://gee.cs.oswego.edu/dl/html/StreamParallelGuidance.html">efficiently splittable</a>
    * if and only if {@code stream} was efficiently splittable and its underlying spliterator
-   * reported {@link Spliterator#SUBSIZED}. This is generally the case if the underlying stream
-   * comes from a data structure supporting efficient indexed random access, typically an array or
-   * list.
+   * reported {@link Spliterator#SIZED}. Splitting is cheapest when it also reported {@link
+   * Spliterator#SUBSIZED}, which is generally the case if the underlying stream comes from a data
+   * structure supporting efficient indexed random access, typically an array or list. Otherwise,
+   * each split whose size is unknown is copied to an array to learn its size.
    *
    * <p>The order of the resulting stream is defined if and only if the order of the original stream
    * was defined.
@@ -594,7 +904,7 @@ public final class Streams {
     boolean isParallel = stream.isParallel();
     Spliterator.OfLong fromSpliterator = stream.spliterator();
 
-    if (!fromSpliterator.hasCharacteristics(Spliterator.SUBSIZED)) {
+    if (!fromSpliterator.hasCharacteristics(Spliterator.SIZED)) {
       PrimitiveIterator.OfLong fromIterator = Spliterators.iterator(fromSpliterator);
       return StreamSupport.stream(
               new AbstractSpliterator<R>(
@@ -640,6 +950,11 @@ public final class Streams {
       Splitr createSplit(Spliterator.OfLong from, long i) {
         return new Splitr(from, i);
       }
+
+      @Override
+      Spliterator.OfLong copy(Spliterator.OfLong from) {
+        return Arrays.spliterator(StreamSupport.longStream(from, false).toArray());
+      }
     }
     return StreamSupport.stream(new Splitr(fromSpliterator, 0), isParallel).onClose(stream::close);
   }
@@ -659,9 +974,10 @@ public final class Streams {
    * <p>The resulting stream is <a
    * href="http://gee.cs.oswego.edu/dl/html/StreamParallelGuidance.html">efficiently splittable</a>
    * if and only if {@code stream} was efficiently splittable and its underlying spliterator
-   * reported {@link Spliterator#SUBSIZED}. This is generally the case if the underlying stream
-   * comes from a data structure supporting efficient indexed random access, typically an array or
-   * list.
+   * reported {@link Spliterator#SIZED}. Splitting is cheapest when it also reported {@link
+   * Spliterator#SUBSIZED}, which is generally the case if the underlying stream comes from a data
+   * structure supporting efficient indexed random access, typically an array or list. Otherwise,
+   * each split whose size is unknown is copied to an array to learn its size.
    *
    * <p>The order of the resulting stream is defined if and only if the order of the original stream
    * was defined.
@@ -673,7 +989,7 @@ public final class Streams {
     boolean isParallel = stream.isParallel();
     Spliterator.OfDouble fromSpliterator = stream.spliterator();
 
-    if (!fromSpliterator.hasCharacteristics(Spliterator.SUBSIZED)) {
+    if (!fromSpliterator.hasCharacteristics(Spliterator.SIZED)) {
       PrimitiveIterator.OfDouble fromIterator = Spliterators.iterator(fromSpliterator);
       return StreamSupport.stream(
               new AbstractSpliterator<R>(
@@ -719,6 +1035,11 @@ public final class Streams {
       Splitr createSplit(Spliterator.OfDouble from, long i) {
         return new Splitr(from, i);
       }
+
+      @Override
+      Spliterator.OfDouble copy(Spliterator.OfDouble from) {
+        return Arrays.spliterator(StreamSupport.doubleStream(from, false).toArray());
+      }
     }
     return StreamSupport.stream(new Splitr(fromSpliterator, 0), isParallel).onClose(stream::close);
   }
@@ -752,6 +1073,9 @@ public final class Streams {
 
     abstract S createSplit(F from, long i);
 
+    /** Returns a sized spliterator over the remaining elements of {@code from}. */
+    abstract F copy(F from);
+
     @Override
     @CheckForNull
     public S trySplit() {
@@ -761,8 +1085,14 @@ public final class Streams {
       }
       @SuppressWarnings("unchecked")
       F split = (F) splitOrNull;
+      long splitSize = split.getExactSizeIfKnown();
+      if (splitSize < 0) {
+        // We only split spliterators over finite sources, so we can count the split by copying it.
+        split = copy(split);
+        splitSize = split.getExactSizeIfKnown();
+      }
       S result = createSplit(split, index);
-      this.index += split.getExactSizeIfKnown();
+      this.index += splitSize;
       return result;
     }
 
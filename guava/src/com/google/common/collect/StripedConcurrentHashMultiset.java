@@ -0,0 +1,591 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.common.collect;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.collect.CollectPreconditions.checkNonnegative;
+
+import com.google.common.annotations.GwtIncompatible;
+import com.google.common.collect.Serialization.FieldSetter;
+import com.google.common.primitives.Ints;
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import com.google.j2objc.annotations.WeakOuter;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.CheckForNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A multiset that supports concurrent modifications and that is tuned for workloads dominated by
+ * increments of a few hot elements. Null elements are not supported.
+ *
+ * <p>Where {@link ConcurrentHashMultiset} keeps a single {@code AtomicInteger} per element and
+ * retries a compare-and-set whenever two threads touch the same element, this class keeps a
+ * {@link LongAdder} per element, which spreads contended updates across striped cells. Calls to
+ * {@link #increment(Object, int)} on the same element therefore scale with the number of threads
+ * instead of serializing on one memory location. The trade-offs are:
+ *
+ * <ul>
+ *   <li>Reads are approximate: {@link #count}, {@link #size} and iteration sum each element's
+ *       cells without blocking writers, so they may miss increments that are in progress.
+ *   <li>{@link #add(Object, int)} has to sum the cells to report the previous count and to check
+ *       for overflow, which costs more than {@link #increment(Object, int)} under contention.
+ *   <li>Operations that decrease counts ({@code remove}, {@code removeExactly} and {@code
+ *       setCount}) take a lock on the element's counter, so they are atomic with respect to one
+ *       another but not cheaper than in {@link ConcurrentHashMultiset}. Concurrent increments may
+ *       take effect on either side of them.
+ * </ul>
+ *
+ * <p>Use {@link #snapshot} to copy the contents into an {@link ImmutableMultiset}. Each count in
+ * the copy is the exact total of that element's increments and removals that completed before the
+ * count was read, so the snapshot is exact once writers are quiescent, but it is not an atomic
+ * view of the whole multiset while they are running.
+ *
+ * <p>See the Guava User Guide article on <a href=
+ * "https://github.com/google/guava/wiki/NewCollectionTypesExplained#multiset">{@code Multiset}</a>.
+ *
+ * @since NEXT
+ */
+@GwtIncompatible
+@ElementTypesAreNonnullByDefault
+public final class StripedConcurrentHashMultiset<E> extends AbstractMultiset<E>
+    implements Serializable {
+
+  /*
+   * Increments never lock: they add to the element's LongAdder and then read the counter's state.
+   * Anything that decreases a count runs under the counter's monitor and subtracts at most the sum
+   * it observed, so the sum of a counter is never negative. When a count reaches zero, the remover
+   * marks the counter RETIRING and sums it again; if it is still zero, the counter is marked DEAD
+   * and removed from the map, and otherwise it goes back to LIVE. Because the state and the cells
+   * are both volatile, an increment that reads LIVE after adding is included in every later
+   * retiring sum, so it is never lost. An increment that reads another state takes the monitor and,
+   * if the counter died, moves whatever was added to it after its final sum (possibly including the
+   * increment itself) over to the element's current counter.
+   */
+
+  private static final int LIVE = 0;
+  private static final int RETIRING = 1;
+  private static final int DEAD = 2;
+
+  /** A striped counter for one element. Its monitor guards every decrease of the count. */
+  private static final class Counter {
+    final LongAdder cells = new LongAdder();
+    volatile int state = LIVE;
+
+    /** Returns the current count, saturated to {@link Integer#MAX_VALUE}. */
+    int get() {
+      return Ints.saturatedCast(cells.sum());
+    }
+  }
+
+  /** The counter of each element. */
+  private final transient ConcurrentHashMap<E, Counter> countMap;
+
+  // This constant allows the deserialization code to set a final field. This holder class
+  // makes sure it is not initialized unless an instance is deserialized.
+  private static class FieldSettersHolder {
+    static final FieldSetter<StripedConcurrentHashMultiset> COUNT_MAP_FIELD_SETTER =
+        Serialization.getFieldSetter(StripedConcurrentHashMultiset.class, "countMap");
+  }
+
+  /** Creates a new, empty {@code StripedConcurrentHashMultiset}. */
+  public static <E> StripedConcurrentHashMultiset<E> create() {
+    return new StripedConcurrentHashMultiset<>();
+  }
+
+  /**
+   * Creates a new {@code StripedConcurrentHashMultiset} containing the specified elements.
+   *
+   * @param elements the elements that the multiset should contain
+   */
+  public static <E> StripedConcurrentHashMultiset<E> create(Iterable<? extends E> elements) {
+    StripedConcurrentHashMultiset<E> multiset = create();
+    Iterables.addAll(multiset, elements);
+    return multiset;
+  }
+
+  private StripedConcurrentHashMultiset() {
+    this.countMap = new ConcurrentHashMap<>();
+  }
+
+  // Query Operations
+
+  /**
+   * Returns the number of occurrences of {@code element} in this multiset.
+   *
+   * <p>The result may not reflect increments that are running concurrently with this method.
+   *
+   * @param element the element to look for
+   * @return the nonnegative number of occurrences of the element
+   */
+  @Override
+  public int count(@CheckForNull Object element) {
+    Counter counter = Maps.safeGet(countMap, element);
+    return (counter == null) ? 0 : counter.get();
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>If the data in the multiset is modified by any other threads during this method, it is
+   * undefined which (if any) of these modifications will be reflected in the result.
+   */
+  @Override
+  public int size() {
+    long sum = 0L;
+    for (Counter counter : countMap.values()) {
+      sum += counter.get();
+    }
+    return Ints.saturatedCast(sum);
+  }
+
+  /*
+   * Note: the superclass toArray() methods assume that size() gives a correct
+   * answer, which ours does not.
+   */
+
+  @Override
+  public Object[] toArray() {
+    return snapshot().toArray();
+  }
+
+  @Override
+  @SuppressWarnings("nullness") // b/192354773 in our checker affects toArray declarations
+  public <T extends @Nullable Object> T[] toArray(T[] array) {
+    return snapshot().toArray(array);
+  }
+
+  /**
+   * Returns an immutable copy of this multiset. See the class documentation for the guarantees
+   * this makes while other threads are modifying the multiset.
+   */
+  public ImmutableMultiset<E> snapshot() {
+    ImmutableMultiset.Builder<E> builder = ImmutableMultiset.builder();
+    for (Map.Entry<E, Counter> entry : countMap.entrySet()) {
+      builder.addCopies(entry.getKey(), entry.getValue().get());
+    }
+    return builder.build();
+  }
+
+  // Modification Operations
+
+  /**
+   * Adds {@code occurrences} occurrences of {@code element} without computing the previous count.
+   * Under contention this is considerably cheaper than {@link #add(Object, int)}.
+   *
+   * <p>Unlike {@code add}, this method does not check for overflow: counts are kept as {@code
+   * long} values, and a count that exceeds {@link Integer#MAX_VALUE} is reported as {@code
+   * Integer.MAX_VALUE} until enough occurrences are removed.
+   *
+   * @param element the element to add
+   * @param occurrences the number of occurrences to add
+   * @throws IllegalArgumentException if {@code occurrences} is negative
+   */
+  public void increment(E element, int occurrences) {
+    checkNotNull(element);
+    if (occurrences == 0) {
+      return;
+    }
+    CollectPreconditions.checkPositive(occurrences, "occurrences");
+    addToLiveCounter(element, occurrences);
+  }
+
+  /**
+   * Adds a number of occurrences of the specified element to this multiset.
+   *
+   * <p>The returned count is exact when no other thread is modifying {@code element}; otherwise it
+   * may include some of their changes.
+   *
+   * @param element the element to add
+   * @param occurrences the number of occurrences to add
+   * @return the previous count of the element before the operation; possibly zero
+   * @throws IllegalArgumentException if {@code occurrences} is negative, or if the resulting amount
+   *     would exceed {@link Integer#MAX_VALUE}
+   */
+  @CanIgnoreReturnValue
+  @Override
+  public int add(E element, int occurrences) {
+    checkNotNull(element);
+    if (occurrences == 0) {
+      return count(element);
+    }
+    CollectPreconditions.checkPositive(occurrences, "occurrences");
+    Counter counter = addToLiveCounter(element, occurrences);
+    long newCount = counter.cells.sum();
+    if (newCount > Integer.MAX_VALUE) {
+      undoOverflow(element, counter, occurrences);
+    }
+    return (int) Math.max(0L, newCount - occurrences);
+  }
+
+  /**
+   * Adds {@code occurrences} to the live counter of {@code element}, creating it if needed, and
+   * returns the counter that the occurrences were added to.
+   */
+  private Counter addToLiveCounter(E element, long occurrences) {
+    while (true) {
+      Counter counter = countMap.get(element);
+      if (counter == null) {
+        counter = countMap.computeIfAbsent(element, unused -> new Counter());
+      }
+      counter.cells.add(occurrences);
+      if (counter.state == LIVE) {
+        return counter;
+      }
+      // The counter is being retired; wait for the remover to decide its fate. If the counter
+      // died, our occurrences may or may not have been counted before it did, but everything that
+      // wasn't is still in its cells, so move that to the new counter.
+      synchronized (counter) {
+        if (counter.state == LIVE) {
+          return counter;
+        }
+        occurrences = counter.cells.sum();
+        counter.cells.add(-occurrences);
+      }
+      if (occurrences == 0) {
+        return counter;
+      }
+    }
+  }
+
+  private void undoOverflow(E element, Counter counter, int occurrences) {
+    long oldCount;
+    synchronized (counter) {
+      if (counter.state != DEAD) {
+        counter.cells.add(-occurrences);
+        retireIfZero(element, counter);
+      }
+      oldCount = counter.cells.sum();
+    }
+    throw new IllegalArgumentException(
+        "Overflow adding " + occurrences + " occurrences to a count of " + oldCount);
+  }
+
+  /**
+   * Removes a number of occurrences of the specified element from this multiset. If the multiset
+   * contains fewer than this number of occurrences to begin with, all occurrences will be removed.
+   *
+   * @param element the element whose occurrences should be removed
+   * @param occurrences the number of occurrences of the element to remove
+   * @return the count of the element before the operation; possibly zero
+   * @throws IllegalArgumentException if {@code occurrences} is negative
+   */
+  @CanIgnoreReturnValue
+  @Override
+  public int remove(@CheckForNull Object element, int occurrences) {
+    if (occurrences == 0) {
+      return count(element);
+    }
+    CollectPreconditions.checkPositive(occurrences, "occurrences");
+
+    while (true) {
+      Counter counter = Maps.safeGet(countMap, element);
+      if (counter == null) {
+        return 0;
+      }
+      synchronized (counter) {
+        if (counter.state == DEAD) {
+          continue;
+        }
+        int oldValue = counter.get();
+        counter.cells.add(-Math.min(oldValue, occurrences));
+        if (oldValue <= occurrences) {
+          retireIfZero(element, counter);
+        }
+        return oldValue;
+      }
+    }
+  }
+
+  /**
+   * Removes exactly the specified number of occurrences of {@code element}, or makes no change if
+   * this is not possible.
+   *
+   * <p>This method, in contrast to {@link #remove(Object, int)}, has no effect when the element
+   * count is smaller than {@code occurrences}.
+   *
+   * @param element the element to remove
+   * @param occurrences the number of occurrences of {@code element} to remove
+   * @return {@code true} if the removal was possible (including if {@code occurrences} is zero)
+   * @throws IllegalArgumentException if {@code occurrences} is negative
+   */
+  @CanIgnoreReturnValue
+  public boolean removeExactly(@CheckForNull Object element, int occurrences) {
+    if (occurrences == 0) {
+      return true;
+    }
+    CollectPreconditions.checkPositive(occurrences, "occurrences");
+
+    while (true) {
+      Counter counter = Maps.safeGet(countMap, element);
+      if (counter == null) {
+        return false;
+      }
+      synchronized (counter) {
+        if (counter.state == DEAD) {
+          continue;
+        }
+        int oldValue = counter.get();
+        if (oldValue < occurrences) {
+          return false;
+        }
+        counter.cells.add(-occurrences);
+        if (oldValue == occurrences) {
+          retireIfZero(element, counter);
+        }
+        return true;
+      }
+    }
+  }
+
+  /**
+   * Adds or removes occurrences of {@code element} such that the {@link #count} of the element
+   * becomes {@code count}.
+   *
+   * @return the count of {@code element} in the multiset before this call
+   * @throws IllegalArgumentException if {@code count} is negative
+   */
+  @CanIgnoreReturnValue
+  @Override
+  public int setCount(E element, int count) {
+    checkNotNull(element);
+    checkNonnegative(count, "count");
+    while (true) {
+      Counter counter = countMap.get(element);
+      if (counter == null) {
+        if (count == 0) {
+          return 0;
+        }
+        counter = countMap.computeIfAbsent(element, unused -> new Counter());
+      }
+      synchronized (counter) {
+        if (counter.state == DEAD) {
+          continue;
+        }
+        long oldValue = counter.cells.sum();
+        counter.cells.add(count - oldValue);
+        if (count == 0) {
+          retireIfZero(element, counter);
+        }
+        return Ints.saturatedCast(oldValue);
+      }
+    }
+  }
+
+  /**
+   * Sets the number of occurrences of {@code element} to {@code newCount}, but only if the count is
+   * currently {@code expectedOldCount}. If {@code element} does not appear in the multiset exactly
+   * {@code expectedOldCount} times, no changes will be made.
+   *
+   * @return {@code true} if the change was successful. This usually indicates that the multiset has
+   *     been modified, but not always: in the case that {@code expectedOldCount == newCount}, the
+   *     method will return {@code true} if the condition was met.
+   * @throws IllegalArgumentException if {@code expectedOldCount} or {@code newCount} is negative
+   */
+  @CanIgnoreReturnValue
+  @Override
+  public boolean setCount(E element, int expectedOldCount, int newCount) {
+    checkNotNull(element);
+    checkNonnegative(expectedOldCount, "oldCount");
+    checkNonnegative(newCount, "newCount");
+    while (true) {
+      Counter counter = countMap.get(element);
+      if (counter == null) {
+        if (expectedOldCount != 0) {
+          return false;
+        } else if (newCount == 0) {
+          return true;
+        }
+        counter = countMap.computeIfAbsent(element, unused -> new Counter());
+      }
+      synchronized (counter) {
+        if (counter.state == DEAD) {
+          continue;
+        }
+        long oldValue = counter.cells.sum();
+        if (oldValue != expectedOldCount) {
+          return false;
+        }
+        counter.cells.add(newCount - oldValue);
+        if (newCount == 0) {
+          retireIfZero(element, counter);
+        }
+        return true;
+      }
+    }
+  }
+
+  /**
+   * Removes {@code counter} from the map if its count is zero. The caller must hold the monitor of
+   * {@code counter}.
+   */
+  private void retireIfZero(@CheckForNull Object element, Counter counter) {
+    counter.state = RETIRING;
+    if (counter.cells.sum() == 0) {
+      counter.state = DEAD;
+      countMap.remove(element, counter);
+    } else {
+      counter.state = LIVE;
+    }
+  }
+
+  // Views
+
+  @Override
+  Iterator<E> elementIterator() {
+    return Multisets.elementIterator(entryIterator());
+  }
+
+  /** @deprecated Internal method, use {@link #entrySet()}. */
+  @Deprecated
+  @Override
+  public Set<Multiset.Entry<E>> createEntrySet() {
+    return new EntrySet();
+  }
+
+  @Override
+  int distinctElements() {
+    return countMap.size();
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return countMap.isEmpty();
+  }
+
+  @Override
+  Iterator<Entry<E>> entryIterator() {
+    // AbstractIterator makes this fairly clean, but it doesn't support remove(). To support
+    // remove(), we create an AbstractIterator, and then use ForwardingIterator to delegate to it.
+    Iterator<Entry<E>> readOnlyIterator =
+        new AbstractIterator<Entry<E>>() {
+          private final Iterator<Map.Entry<E, Counter>> mapEntries =
+              countMap.entrySet().iterator();
+
+          @Override
+          @CheckForNull
+          protected Entry<E> computeNext() {
+            while (true) {
+              if (!mapEntries.hasNext()) {
+                return endOfData();
+              }
+              Map.Entry<E, Counter> mapEntry = mapEntries.next();
+              int count = mapEntry.getValue().get();
+              if (count != 0) {
+                return Multisets.immutableEntry(mapEntry.getKey(), count);
+              }
+            }
+          }
+        };
+
+    return new ForwardingIterator<Entry<E>>() {
+      @CheckForNull private Entry<E> last;
+
+      @Override
+      protected Iterator<Entry<E>> delegate() {
+        return readOnlyIterator;
+      }
+
+      @Override
+      public Entry<E> next() {
+        last = super.next();
+        return last;
+      }
+
+      @Override
+      public void remove() {
+        checkState(last != null, "no calls to next() since the last call to remove()");
+        StripedConcurrentHashMultiset.this.setCount(last.getElement(), 0);
+        last = null;
+      }
+    };
+  }
+
+  @Override
+  public Iterator<E> iterator() {
+    return Multisets.iteratorImpl(this);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>Each element is removed atomically, but elements added by other threads during this method
+   * may or may not be removed.
+   */
+  @Override
+  public void clear() {
+    for (E element : countMap.keySet()) {
+      setCount(element, 0);
+    }
+  }
+
+  @WeakOuter
+  private class EntrySet extends AbstractMultiset<E>.EntrySet {
+    @Override
+    StripedConcurrentHashMultiset<E> multiset() {
+      return StripedConcurrentHashMultiset.this;
+    }
+
+    /*
+     * Note: the superclass toArray() methods assume that size() gives a correct
+     * answer, which ours does not.
+     */
+
+    @Override
+    public Object[] toArray() {
+      return snapshot().toArray();
+    }
+
+    @Override
+    @SuppressWarnings("nullness") // b/192354773 in our checker affects toArray declarations
+    public <T extends @Nullable Object> T[] toArray(T[] array) {
+      return snapshot().toArray(array);
+    }
+
+    private List<Multiset.Entry<E>> snapshot() {
+      List<Multiset.Entry<E>> list = Lists.newArrayListWithExpectedSize(size());
+      // Not Iterables.addAll(list, this), because that'll forward right back here.
+      Iterators.addAll(list, iterator());
+      return list;
+    }
+  }
+
+  /** @serialData an {@link ImmutableMultiset} snapshot of the contents. */
+  private void writeObject(ObjectOutputStream stream) throws IOException {
+    stream.defaultWriteObject();
+    stream.writeObject(snapshot());
+  }
+
+  private void readObject(ObjectInputStream stream) throws IOException, ClassNotFoundException {
+    stream.defaultReadObject();
+    FieldSettersHolder.COUNT_MAP_FIELD_SETTER.set(this, new ConcurrentHashMap<E, Counter>());
+    @SuppressWarnings("unchecked") // reading data stored by writeObject
+    Multiset<E> contents = (Multiset<E>) stream.readObject();
+    for (Entry<E> entry : contents.entrySet()) {
+      add(entry.getElement(), entry.getCount());
+    }
+  }
+
+  private static final long serialVersionUID = 1;
+}
@@ -22,6 +22,7 @@ import static com.google.common.collect.NullnessCasts.uncheckedCastNullableTToT;
 
 import com.google.common.annotations.GwtCompatible;
 import com.google.common.math.IntMath;
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import java.math.RoundingMode;
 import java.util.Arrays;
 import java.util.Collections;
@@ -48,14 +49,21 @@ import org.checkerframework.checker.nullness.qual.Nullable;
  * k). In benchmarks, this implementation performs at least as well as either implementation, and
  * degrades more gracefully for worst-case input.
  *
+ * <p>Selectors that were filled separately, for example on different threads, can be merged with
+ * {@link #combine}, which takes O(k) time. For {@code int}, {@code long} and {@code double} values,
+ * {@link com.google.common.primitives.IntTopKSelector} and its siblings avoid boxing.
+ *
  * <p>The implementation does not necessarily use a <i>stable</i> sorting algorithm; when multiple
  * equivalent elements are added to it, it is undefined which will come first in the output.
  *
+ * <p>This class is not thread-safe.
+ *
  * @author Louis Wasserman
+ * @since NEXT
  */
 @GwtCompatible
 @ElementTypesAreNonnullByDefault
-final class TopKSelector<
+public final class TopKSelector<
     T extends @Nullable Object> {
 
   /**
@@ -232,9 +240,41 @@ final class TopKSelector<
     buffer[j] = tmp;
   }
 
-  TopKSelector<T> combine(TopKSelector<T> other) {
-    for (int i = 0; i < other.bufferSize; i++) {
-      this.offer(uncheckedCastNullableTToT(other.buffer[i]));
+  /**
+   * Adds the candidates of {@code other}, which must use the same comparator and direction as this
+   * selector, to this selector, and returns this selector. {@code other} is not modified. This is
+   * the combiner to use when selectors are filled in parallel, and it takes O(k) amortized time.
+   *
+   * @throws IllegalArgumentException if the selectors have different values of k
+   */
+  @CanIgnoreReturnValue
+  public TopKSelector<T> combine(TopKSelector<T> other) {
+    checkArgument(other.k == k, "cannot combine selectors with k = %s and %s", k, other.k);
+    if (k == 0) {
+      return this;
+    }
+    // Copies other's candidates in blocks rather than offering them one at a time. A block may
+    // include elements that can't make the top k; the next trim() drops them.
+    int copied = 0;
+    while (copied < other.bufferSize) {
+      int length = Math.min(other.bufferSize - copied, buffer.length - bufferSize);
+      System.arraycopy(other.buffer, copied, buffer, bufferSize, length);
+      copied += length;
+      /*
+       * Every element in either buffer is at most its threshold, so the greater threshold remains
+       * an upper bound, which is all that offer() and trim() need. The casts are safe because both
+       * buffers are nonempty whenever either threshold is used.
+       */
+      if (bufferSize == 0
+          || comparator.compare(
+                  uncheckedCastNullableTToT(other.threshold), uncheckedCastNullableTToT(threshold))
+              > 0) {
+        threshold = other.threshold;
+      }
+      bufferSize += length;
+      if (bufferSize == buffer.length) {
+        trim();
+      }
     }
     return this;
   }
@@ -239,6 +239,75 @@ public final class TreeMultiset<E extends @Nullable Object> extends AbstractSort
     return (node == null) ? 0 : node.distinctElements;
   }
 
+  /**
+   * Returns the number of elements of this multiset, counting multiple occurrences, that are
+   * strictly less than {@code element}, which need not be present. If {@code select(i)} is {@code
+   * element}, then {@code rank(element) <= i < rank(element) + count(element)}.
+   *
+   * <p>This method takes O(log n) time, using the subtree sizes that the tree already maintains,
+   * rather than the O(n) time of {@code headMultiset(element, OPEN).size()}.
+   *
+   * @since NEXT
+   */
+  public long rank(@ParametricNullness E element) {
+    if (range.tooLow(element)) {
+      return 0;
+    } else if (range.tooHigh(element)) {
+      return aggregateForEntries(Aggregate.SIZE);
+    }
+    AvlNode<E> root = rootReference.get();
+    long rank = 0;
+    for (AvlNode<E> node = root; node != null; ) {
+      if (comparator().compare(element, node.getElement()) <= 0) {
+        node = node.left;
+      } else {
+        rank += Aggregate.SIZE.treeAggregate(node.left) + node.elemCount;
+        node = node.right;
+      }
+    }
+    if (range.hasLowerBound()) {
+      rank -= aggregateBelowRange(Aggregate.SIZE, root);
+    }
+    return rank;
+  }
+
+  /**
+   * Returns the element at position {@code index} of this multiset, in the order of its iterator
+   * that repeats each element as many times as it occurs. That is, returns the element {@code e}
+   * such that {@code rank(e) <= index < rank(e) + count(e)}.
+   *
+   * <p>This method takes O(log n) time, using the subtree sizes that the tree already maintains.
+   *
+   * @throws IndexOutOfBoundsException if {@code index} is negative or at least the total number of
+   *     occurrences in this multiset, which {@link #size} may report as only {@code
+   *     Integer.MAX_VALUE}
+   * @since NEXT
+   */
+  @ParametricNullness
+  public E select(long index) {
+    long size = aggregateForEntries(Aggregate.SIZE);
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("index (" + index + ") must be in [0, " + size + ")");
+    }
+    // The index is in range, so the tree is nonempty and the search never falls off a leaf.
+    AvlNode<E> node = requireNonNull(rootReference.get());
+    long remaining = index;
+    if (range.hasLowerBound()) {
+      remaining += aggregateBelowRange(Aggregate.SIZE, node);
+    }
+    while (true) {
+      long leftSize = Aggregate.SIZE.treeAggregate(node.left);
+      if (remaining < leftSize) {
+        node = requireNonNull(node.left);
+      } else if (remaining < leftSize + node.elemCount) {
+        return node.getElement();
+      } else {
+        remaining -= leftSize + node.elemCount;
+        node = requireNonNull(node.right);
+      }
+    }
+  }
+
   @Override
   public int count(@CheckForNull Object element) {
     try {
@@ -0,0 +1,501 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.common.primitives;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkElementIndex;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkPositionIndex;
+import static com.google.common.base.Preconditions.checkPositionIndexes;
+
+import com.google.common.annotations.GwtCompatible;
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.function.DoubleConsumer;
+import java.util.stream.DoubleStream;
+import javax.annotation.CheckForNull;
+
+/**
+ * A mutable, growable list of {@code double} values, backed by a {@code double[]}. It stores 8
+ * bytes per value, where an {@code ArrayList<Double>} stores a reference and usually a boxed {@code
+ * Double}.
+ *
+ * <p>Two views avoid copying the values:
+ *
+ * <ul>
+ *   <li>{@link #asList} is a live, modifiable {@code List<Double>} view, which boxes values on
+ *       demand.
+ *   <li>{@link #toImmutableArray} returns an {@link ImmutableDoubleArray} that shares this list's
+ *       backing array. The array is copied only if this list later overwrites any of the shared
+ *       values; appending values never copies it.
+ * </ul>
+ *
+ * <p>This class is not thread-safe.
+ *
+ * @since NEXT
+ */
+@GwtCompatible
+@ElementTypesAreNonnullByDefault
+public final class DoubleArrayList {
+  private static final int DEFAULT_CAPACITY = 10;
+
+  /** Creates an empty list with a default initial capacity. */
+  public static DoubleArrayList create() {
+    return new DoubleArrayList(new double[DEFAULT_CAPACITY], 0);
+  }
+
+  /**
+   * Creates an empty list that can hold {@code expectedSize} values before it needs to grow.
+   *
+   * @throws IllegalArgumentException if {@code expectedSize} is negative
+   */
+  public static DoubleArrayList createWithExpectedSize(int expectedSize) {
+    checkArgument(expectedSize >= 0, "expectedSize cannot be negative but was: %s", expectedSize);
+    return new DoubleArrayList(new double[expectedSize], 0);
+  }
+
+  /** Creates a list containing {@code values}, in order. */
+  public static DoubleArrayList copyOf(double... values) {
+    return new DoubleArrayList(values.clone(), values.length);
+  }
+
+  private double[] array;
+  private int size; // <= array.length
+
+  /**
+   * The length of the prefix of {@link #array} that is shared with immutable arrays returned by
+   * {@link #toImmutableArray}. That prefix must be copied before any of it is overwritten.
+   */
+  private int sharedLength;
+
+  private DoubleArrayList(double[] array, int size) {
+    this.array = array;
+    this.size = size;
+  }
+
+  /** Returns the number of values in this list. */
+  public int size() {
+    return size;
+  }
+
+  /** Returns {@code true} if this list contains no values. */
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Returns the value at {@code index}.
+   *
+   * @throws IndexOutOfBoundsException if {@code index} is negative, or greater than or equal to
+   *     {@link #size}
+   */
+  public double get(int index) {
+    checkElementIndex(index, size);
+    return array[index];
+  }
+
+  /**
+   * Replaces the value at {@code index} with {@code value}, and returns the value it replaced.
+   *
+   * @throws IndexOutOfBoundsException if {@code index} is negative, or greater than or equal to
+   *     {@link #size}
+   */
+  @CanIgnoreReturnValue
+  public double set(int index, double value) {
+    checkElementIndex(index, size);
+    prepareToWrite(index);
+    double oldValue = array[index];
+    array[index] = value;
+    return oldValue;
+  }
+
+  /** Appends {@code value} to the end of this list. */
+  public void add(double value) {
+    ensureRoomFor(1);
+    array[size++] = value;
+  }
+
+  /**
+   * Inserts {@code value} at {@code index}, shifting the value at that index, if any, and all later
+   * values one position to the right.
+   *
+   * @throws IndexOutOfBoundsException if {@code index} is negative, or greater than {@link #size}
+   */
+  public void insert(int index, double value) {
+    checkPositionIndex(index, size);
+    ensureRoomFor(1);
+    prepareToWrite(index);
+    System.arraycopy(array, index, array, index + 1, size - index);
+    array[index] = value;
+    size++;
+  }
+
+  /** Appends {@code values}, in order, to the end of this list. */
+  public void addAll(double[] values) {
+    ensureRoomFor(values.length);
+    System.arraycopy(values, 0, array, size, values.length);
+    size += values.length;
+  }
+
+  /** Appends {@code values}, in order, to the end of this list. */
+  public void addAll(ImmutableDoubleArray values) {
+    int length = values.length();
+    ensureRoomFor(length);
+    for (int i = 0; i < length; i++) {
+      array[size++] = values.get(i);
+    }
+  }
+
+  /** Appends {@code values}, in order, to the end of this list. */
+  public void addAll(DoubleArrayList values) {
+    int length = values.size; // values may be this list
+    ensureRoomFor(length);
+    System.arraycopy(values.array, 0, array, size, length);
+    size += length;
+  }
+
+  /** Appends all values from {@code stream}, in order, to the end of this list. */
+  public void addAll(DoubleStream stream) {
+    Spliterator.OfDouble spliterator = stream.spliterator();
+    long size = spliterator.getExactSizeIfKnown();
+    if (size > 0) { // known *and* nonempty
+      ensureRoomFor(Ints.saturatedCast(size));
+    }
+    spliterator.forEachRemaining((DoubleConsumer) this::add);
+  }
+
+  /**
+   * Removes the value at {@code index}, shifting all later values one position to the left, and
+   * returns the removed value.
+   *
+   * @throws IndexOutOfBoundsException if {@code index} is negative, or greater than or equal to
+   *     {@link #size}
+   */
+  @CanIgnoreReturnValue
+  public double removeAt(int index) {
+    checkElementIndex(index, size);
+    double oldValue = array[index];
+    removeRange(index, index + 1);
+    return oldValue;
+  }
+
+  /**
+   * Removes the values from {@code fromIndex}, inclusive, to {@code toIndex}, exclusive, shifting
+   * all later values to the left.
+   *
+   * @throws IndexOutOfBoundsException if {@code fromIndex} or {@code toIndex} is negative or
+   *     greater than {@link #size}, or if {@code toIndex} is less than {@code fromIndex}
+   */
+  public void removeRange(int fromIndex, int toIndex) {
+    checkPositionIndexes(fromIndex, toIndex, size);
+    if (fromIndex == toIndex) {
+      return;
+    }
+    prepareToWrite(fromIndex);
+    System.arraycopy(array, toIndex, array, fromIndex, size - toIndex);
+    size -= toIndex - fromIndex;
+  }
+
+  /** Removes all values from this list, keeping its capacity. */
+  public void clear() {
+    size = 0;
+  }
+
+  /**
+   * Returns the smallest index at which {@code target} occurs in this list, or {@code -1} if there
+   * is none. Values are compared as if by {@link Double#equals}.
+   */
+  public int indexOf(double target) {
+    for (int i = 0; i < size; i++) {
+      if (areEqual(array[i], target)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Returns the largest index at which {@code target} occurs in this list, or {@code -1} if there
+   * is none. Values are compared as if by {@link Double#equals}.
+   */
+  public int lastIndexOf(double target) {
+    for (int i = size - 1; i >= 0; i--) {
+      if (areEqual(array[i], target)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Returns {@code true} if {@code target} is present at any index in this list. Values are
+   * compared as if by {@link Double#equals}.
+   */
+  public boolean contains(double target) {
+    return indexOf(target) >= 0;
+  }
+
+  /**
+   * Sorts this list into ascending order, as defined by {@link Double#compare}: {@code -0.0}
+   * before {@code 0.0}, and {@code NaN} after all other values.
+   */
+  public void sort() {
+    sort(0, size);
+  }
+
+  /**
+   * Sorts the values from {@code fromIndex}, inclusive, to {@code toIndex}, exclusive, into
+   * ascending order.
+   *
+   * @throws IndexOutOfBoundsException if {@code fromIndex} or {@code toIndex} is negative or
+   *     greater than {@link #size}, or if {@code toIndex} is less than {@code fromIndex}
+   */
+  public void sort(int fromIndex, int toIndex) {
+    checkPositionIndexes(fromIndex, toIndex, size);
+    if (toIndex - fromIndex > 1) {
+      prepareToWrite(fromIndex);
+      Arrays.sort(array, fromIndex, toIndex);
+    }
+  }
+
+  /**
+   * Searches this list, which must be sorted into ascending order, for {@code key}. Returns the
+   * index of {@code key} if it is present, and otherwise {@code (-(insertion point) - 1)}, exactly
+   * like {@link Arrays#binarySearch(double[], double)}.
+   */
+  public int binarySearch(double key) {
+    return Arrays.binarySearch(array, 0, size, key);
+  }
+
+  /** Invokes {@code consumer} for each value in this list, in order. */
+  public void forEach(DoubleConsumer consumer) {
+    checkNotNull(consumer);
+    for (int i = 0; i < size; i++) {
+      consumer.accept(array[i]);
+    }
+  }
+
+  /**
+   * Returns a stream over the values in this list, in order. The list must not be modified while
+   * the stream is in use.
+   */
+  public DoubleStream stream() {
+    return Arrays.stream(array, 0, size);
+  }
+
+  /** Returns a new array containing the values in this list, in order. */
+  public double[] toArray() {
+    return Arrays.copyOf(array, size);
+  }
+
+  /**
+   * Returns an immutable array containing the values currently in this list.
+   *
+   * <p><b>Performance note:</b> the returned array is backed by the same array as this list, so no
+   * data is copied as part of this step. If this list later overwrites or removes any of those
+   * values, it first moves to a copy of its backing array. To copy the data to a right-sized
+   * backing array instead, use {@code toImmutableArray().trimmed()}.
+   */
+  public ImmutableDoubleArray toImmutableArray() {
+    sharedLength = Math.max(sharedLength, size);
+    return ImmutableDoubleArray.wrap(array, 0, size);
+  }
+
+  /**
+   * Returns a modifiable <i>view</i> of this list as a {@code List<Double>}. Changes to either are
+   * visible in the other. Values are boxed into {@link Double} instances on demand.
+   */
+  public List<Double> asList() {
+    return new AsList(this);
+  }
+
+  /** Increases the capacity of this list, if needed, so that it can hold {@code minCapacity}. */
+  public void ensureCapacity(int minCapacity) {
+    if (minCapacity > array.length) {
+      array = Arrays.copyOf(array, expandedCapacity(array.length, minCapacity));
+      sharedLength = 0;
+    }
+  }
+
+  /** Reduces the capacity of this list to its size. */
+  public void trimToSize() {
+    if (size < array.length) {
+      array = Arrays.copyOf(array, size);
+      sharedLength = 0;
+    }
+  }
+
+  /** Makes room to append {@code numberToAdd} values without disturbing any snapshot. */
+  private void ensureRoomFor(int numberToAdd) {
+    int newSize = size + numberToAdd;
+    if (newSize > array.length || newSize < 0) {
+      array = Arrays.copyOf(array, expandedCapacity(array.length, newSize));
+      sharedLength = 0;
+    }
+    prepareToWrite(size);
+  }
+
+  /** Copies the backing array first if writing at {@code index} would be visible to a snapshot. */
+  private void prepareToWrite(int index) {
+    if (index < sharedLength) {
+      array = array.clone();
+      sharedLength = 0;
+    }
+  }
+
+  // Match the behavior of Double.equals()
+  private static boolean areEqual(double a, double b) {
+    return Double.doubleToLongBits(a) == Double.doubleToLongBits(b);
+  }
+
+  // Unfortunately this is pasted from ImmutableCollection.Builder.
+  private static int expandedCapacity(int oldCapacity, int minCapacity) {
+    if (minCapacity < 0) {
+      throw new AssertionError("cannot store more than MAX_VALUE elements");
+    }
+    // careful of overflow!
+    int newCapacity = oldCapacity + (oldCapacity >> 1) + 1;
+    if (newCapacity < minCapacity) {
+      newCapacity = Integer.highestOneBit(minCapacity - 1) << 1;
+    }
+    if (newCapacity < 0) {
+      newCapacity = Integer.MAX_VALUE; // guaranteed to be >= newCapacity
+    }
+    return newCapacity;
+  }
+
+  private static final class AsList extends AbstractList<Double> implements RandomAccess {
+    private final DoubleArrayList parent;
+
+    private AsList(DoubleArrayList parent) {
+      this.parent = parent;
+    }
+
+    @Override
+    public int size() {
+      return parent.size;
+    }
+
+    @Override
+    public Double get(int index) {
+      return parent.get(index);
+    }
+
+    @Override
+    public Double set(int index, Double element) {
+      // checkNotNull for GWT (do not optimize)
+      return parent.set(index, checkNotNull(element));
+    }
+
+    @Override
+    public void add(int index, Double element) {
+      // checkNotNull for GWT (do not optimize)
+      parent.insert(index, checkNotNull(element));
+      modCount++;
+    }
+
+    @Override
+    public Double remove(int index) {
+      double oldValue = parent.removeAt(index);
+      modCount++;
+      return oldValue;
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+      parent.removeRange(fromIndex, toIndex);
+      modCount++;
+    }
+
+    @Override
+    public void clear() {
+      parent.clear();
+      modCount++;
+    }
+
+    @Override
+    public boolean contains(@CheckForNull Object target) {
+      return indexOf(target) >= 0;
+    }
+
+    @Override
+    public int indexOf(@CheckForNull Object target) {
+      // Overridden to prevent a ton of boxing
+      return (target instanceof Double) ? parent.indexOf((Double) target) : -1;
+    }
+
+    @Override
+    public int lastIndexOf(@CheckForNull Object target) {
+      // Overridden to prevent a ton of boxing
+      return (target instanceof Double) ? parent.lastIndexOf((Double) target) : -1;
+    }
+  }
+
+  /**
+   * Returns {@code true} if {@code object} is a {@code DoubleArrayList} containing the same values
+   * as this one, in the same order. Values are compared as if by {@link Double#equals}.
+   */
+  @Override
+  public boolean equals(@CheckForNull Object object) {
+    if (object == this) {
+      return true;
+    }
+    if (!(object instanceof DoubleArrayList)) {
+      return false;
+    }
+    DoubleArrayList that = (DoubleArrayList) object;
+    if (this.size != that.size) {
+      return false;
+    }
+    for (int i = 0; i < size; i++) {
+      if (!areEqual(this.array[i], that.array[i])) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** Returns a hash code for the contents of this list, the same as that of {@link #asList}. */
+  @Override
+  public int hashCode() {
+    int hash = 1;
+    for (int i = 0; i < size; i++) {
+      hash *= 31;
+      hash += Doubles.hashCode(array[i]);
+    }
+    return hash;
+  }
+
+  /**
+   * Returns a string representation of this list in the same form as {@link
+   * Arrays#toString(double[])}, for example {@code "[1, 2, 3]"}.
+   */
+  @Override
+  public String toString() {
+    if (isEmpty()) {
+      return "[]";
+    }
+    StringBuilder builder = new StringBuilder(size * 12); // rough estimate is fine
+    builder.append('[').append(array[0]);
+    for (int i = 1; i < size; i++) {
+      builder.append(", ").append(array[i]);
+    }
+    return builder.append(']').toString();
+  }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.common.primitives;
+
+import com.google.common.annotations.GwtCompatible;
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+
+/**
+ * An accumulator that selects the least or greatest {@code k} {@code double} values offered to it,
+ * without boxing them. Values are ordered as by {@link Double#compare}: {@code -0.0} is less than
+ * {@code 0.0}, and {@code NaN} is greater than every other value, including positive infinity.
+ * Every {@code NaN} offered comes back as {@link Double#NaN}.
+ *
+ * <p>This works like {@link LongTopKSelector}, and has the same performance. Selectors filled
+ * separately can be merged with {@link #combine}, so a selector can collect a parallel {@link
+ * java.util.stream.DoubleStream}:
+ *
+ * <pre>{@code
+ * ImmutableDoubleArray top =
+ *     scores.parallel()
+ *         .collect(() -> DoubleTopKSelector.greatest(k), DoubleTopKSelector::offer,
+ *             DoubleTopKSelector::combine)
+ *         .topK();
+ * }</pre>
+ *
+ * <p>This class is not thread-safe.
+ *
+ * @since NEXT
+ */
+@GwtCompatible
+@ElementTypesAreNonnullByDefault
+public final class DoubleTopKSelector {
+  /**
+   * Returns a selector that collects the least {@code k} values offered to it, and returns them via
+   * {@link #topK} in ascending order.
+   *
+   * @throws IllegalArgumentException if {@code k < 0} or {@code k > Integer.MAX_VALUE / 2}
+   */
+  public static DoubleTopKSelector least(int k) {
+    return new DoubleTopKSelector(LongTopKSelector.least(k));
+  }
+
+  /**
+   * Returns a selector that collects the greatest {@code k} values offered to it, and returns them
+   * via {@link #topK} in descending order.
+   *
+   * @throws IllegalArgumentException if {@code k < 0} or {@code k > Integer.MAX_VALUE / 2}
+   */
+  public static DoubleTopKSelector greatest(int k) {
+    return new DoubleTopKSelector(LongTopKSelector.greatest(k));
+  }
+
+  /** Selects the keys of the values, which compare as signed longs the way the values compare. */
+  private final LongTopKSelector keys;
+
+  private DoubleTopKSelector(LongTopKSelector keys) {
+    this.keys = keys;
+  }
+
+  /**
+   * Returns a key that orders like {@code value} under {@link Double#compare}. Flipping all but the
+   * sign bit of a negative value makes more negative values have lesser keys. This function is its
+   * own inverse, apart from mapping every {@code NaN} to the canonical one.
+   */
+  private static long key(double value) {
+    long bits = Double.doubleToLongBits(value);
+    return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+  }
+
+  private static double value(long key) {
+    return Double.longBitsToDouble(key ^ ((key >> 63) & Long.MAX_VALUE));
+  }
+
+  /** Adds {@code value} as a candidate for the top k values. This takes amortized O(1) time. */
+  public void offer(double value) {
+    keys.offer(key(value));
+  }
+
+  /** Adds each of {@code values} as a candidate for the top k values. */
+  public void offerAll(double... values) {
+    for (double value : values) {
+      offer(value);
+    }
+  }
+
+  /**
+   * Adds the candidates of {@code other} to this selector, and returns this selector. {@code other}
+   * is not modified. This takes O(k) amortized time.
+   *
+   * @throws IllegalArgumentException if the selectors have different values of k, or if one
+   *     selector selects the least values and the other the greatest
+   */
+  @CanIgnoreReturnValue
+  public DoubleTopKSelector combine(DoubleTopKSelector other) {
+    keys.combine(other.keys);
+    return this;
+  }
+
+  /**
+   * Returns the top k values offered to this selector, or all of them if fewer than k were offered,
+   * in ascending order for {@link #least} and descending order for {@link #greatest}. The result is
+   * not affected by further changes to this selector. This takes O(k log k) time.
+   */
+  public ImmutableDoubleArray topK() {
+    ImmutableLongArray topKeys = keys.topK();
+    double[] result = new double[topKeys.length()];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = value(topKeys.get(i));
+    }
+    return ImmutableDoubleArray.wrap(result, 0, result.length);
+  }
+}
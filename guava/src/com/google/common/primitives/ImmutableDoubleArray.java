@@ -358,6 +358,16 @@ public final class ImmutableDoubleArray implements Serializable {
     this.end = end;
   }
 
+  /**
+   * Returns an immutable array of the values of {@code array} from {@code start}, inclusive, to
+   * {@code end}, exclusive, without copying them. The caller must never modify that range of {@code
+   * array} afterwards.
+   */
+  static ImmutableDoubleArray wrap(double[] array, int start, int end) {
+    checkNotNull(array);
+    return (start == end) ? EMPTY : new ImmutableDoubleArray(array, start, end);
+  }
+
   /** Returns the number of values in this array. */
   public int length() {
     return end - start;
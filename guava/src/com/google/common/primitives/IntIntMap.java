@@ -0,0 +1,452 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.common.primitives;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.primitives.PrimitiveHashing.DEFAULT_LOAD_FACTOR;
+import static com.google.common.primitives.PrimitiveHashing.DEFAULT_TABLE_SIZE;
+import static com.google.common.primitives.PrimitiveHashing.MAX_TABLE_SIZE;
+import static com.google.common.primitives.PrimitiveHashing.checkLoadFactor;
+import static com.google.common.primitives.PrimitiveHashing.closedTableSize;
+import static com.google.common.primitives.PrimitiveHashing.maxEntries;
+import static com.google.common.primitives.PrimitiveHashing.smear;
+
+import com.google.common.annotations.GwtCompatible;
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import javax.annotation.CheckForNull;
+
+/**
+ * A mutable hash map from {@code int} keys to {@code int} values, which stores both unboxed.
+ *
+ * <p>The map is an open-addressed hash table with linear probing, kept in two parallel arrays. It
+ * grows by doubling whenever its size would exceed its load factor, and never shrinks except on
+ * {@link #clear}. Removal shifts later entries of the probe sequence back rather than leaving
+ * tombstones behind, so lookups stay fast however many entries have been removed.
+ *
+ * <p>The API follows {@code com.google.common.util.concurrent.AtomicLongMap}: a key that is absent
+ * behaves as though it were mapped to zero in {@link #get}, {@link #put} and {@link #remove}, which
+ * makes the map a natural counter. Use {@link #containsKey} to tell an absent key from one that is
+ * mapped to zero.
+ *
+ * <p>Entries are visited with a {@link Cursor}, which reads keys and values straight from the
+ * table without boxing or allocating per entry. The iteration order is unspecified.
+ *
+ * <p>This class is not thread-safe.
+ *
+ * @since NEXT
+ */
+@GwtCompatible
+@ElementTypesAreNonnullByDefault
+public final class IntIntMap {
+
+  /** Creates an empty map with the default initial capacity and load factor. */
+  public static IntIntMap create() {
+    return new IntIntMap(DEFAULT_TABLE_SIZE, DEFAULT_LOAD_FACTOR);
+  }
+
+  /**
+   * Creates an empty map that can hold {@code expectedSize} entries without growing, using the
+   * default load factor.
+   *
+   * @throws IllegalArgumentException if {@code expectedSize} is negative
+   */
+  public static IntIntMap createWithExpectedSize(int expectedSize) {
+    return createWithExpectedSize(expectedSize, DEFAULT_LOAD_FACTOR);
+  }
+
+  /**
+   * Creates an empty map that can hold {@code expectedSize} entries without growing, and that
+   * keeps at most {@code loadFactor} of its slots occupied. Lower load factors make lookups
+   * faster, at the cost of memory.
+   *
+   * @throws IllegalArgumentException if {@code expectedSize} is negative, or if {@code loadFactor}
+   *     is not strictly between 0 and 1
+   */
+  public static IntIntMap createWithExpectedSize(int expectedSize, float loadFactor) {
+    checkArgument(expectedSize >= 0, "expectedSize cannot be negative but was: %s", expectedSize);
+    checkLoadFactor(loadFactor);
+    return new IntIntMap(closedTableSize(expectedSize, loadFactor), loadFactor);
+  }
+
+  private final float loadFactor;
+
+  /**
+   * The keys, in a table of a power-of-two number of slots followed by one extra slot. An empty
+   * slot holds 0; the key 0 itself is kept in the extra slot, when {@link #hasZeroKey} is set.
+   */
+  private int[] keys;
+
+  private int[] values;
+
+  private boolean hasZeroKey;
+
+  /** The number of entries, including any entry for the key 0. */
+  private int size;
+
+  /** The number of entries that the table may hold before it must grow. */
+  private int maxSize;
+
+  /** Incremented on every structural modification, so that cursors can fail fast. */
+  private int modCount;
+
+  private IntIntMap(int tableSize, float loadFactor) {
+    this.loadFactor = loadFactor;
+    allocate(tableSize);
+  }
+
+  private void allocate(int tableSize) {
+    keys = new int[tableSize + 1];
+    values = new int[tableSize + 1];
+    maxSize = maxEntries(tableSize, loadFactor);
+  }
+
+  /** Returns the number of entries in this map. */
+  public int size() {
+    return size;
+  }
+
+  /** Returns {@code true} if this map contains no entries. */
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /** Returns {@code true} if this map contains an entry for {@code key}. */
+  public boolean containsKey(int key) {
+    return (key == 0) ? hasZeroKey : indexOf(key) >= 0;
+  }
+
+  /** Returns the value for {@code key}, or zero if there is no entry for {@code key}. */
+  public int get(int key) {
+    return getOrDefault(key, 0);
+  }
+
+  /** Returns the value for {@code key}, or {@code defaultValue} if there is no entry for it. */
+  public int getOrDefault(int key, int defaultValue) {
+    if (key == 0) {
+      return hasZeroKey ? values[zeroSlot()] : defaultValue;
+    }
+    int index = indexOf(key);
+    return (index >= 0) ? values[index] : defaultValue;
+  }
+
+  /**
+   * Associates {@code value} with {@code key}, and returns the value previously associated with
+   * {@code key}, or zero if there was none.
+   */
+  @CanIgnoreReturnValue
+  public int put(int key, int value) {
+    int index = insertionIndex(key);
+    int oldValue = values[index];
+    values[index] = value;
+    return oldValue;
+  }
+
+  /**
+   * Adds {@code delta} to the value for {@code key}, treating an absent key as mapped to zero, and
+   * returns the new value.
+   */
+  @CanIgnoreReturnValue
+  public int addAndGet(int key, int delta) {
+    int index = insertionIndex(key);
+    return values[index] += delta;
+  }
+
+  /**
+   * Adds {@code delta} to the value for {@code key}, treating an absent key as mapped to zero, and
+   * returns the old value.
+   */
+  @CanIgnoreReturnValue
+  public int getAndAdd(int key, int delta) {
+    int index = insertionIndex(key);
+    int oldValue = values[index];
+    values[index] = oldValue + delta;
+    return oldValue;
+  }
+
+  /**
+   * Removes the entry for {@code key}, if any, and returns the value it was associated with, or
+   * zero if there was none.
+   */
+  @CanIgnoreReturnValue
+  public int remove(int key) {
+    if (key == 0) {
+      if (!hasZeroKey) {
+        return 0;
+      }
+      hasZeroKey = false;
+      int oldValue = values[zeroSlot()];
+      values[zeroSlot()] = 0;
+      size--;
+      modCount++;
+      return oldValue;
+    }
+    int index = indexOf(key);
+    if (index < 0) {
+      return 0;
+    }
+    int oldValue = values[index];
+    shiftConflictingKeys(index);
+    size--;
+    modCount++;
+    return oldValue;
+  }
+
+  /** Removes all entries from this map, and shrinks its table back to the default capacity. */
+  public void clear() {
+    if (size == 0) {
+      return;
+    }
+    if (zeroSlot() > DEFAULT_TABLE_SIZE) {
+      allocate(DEFAULT_TABLE_SIZE);
+    } else {
+      Arrays.fill(keys, 0);
+      Arrays.fill(values, 0);
+    }
+    hasZeroKey = false;
+    size = 0;
+    modCount++;
+  }
+
+  /**
+   * Returns a cursor over the entries of this map. The cursor starts before the first entry; call
+   * {@link Cursor#advance} to move it onto each entry in turn.
+   */
+  public Cursor cursor() {
+    return new Cursor();
+  }
+
+  /**
+   * A cursor over the entries of an {@link IntIntMap}, which reads each entry in place.
+   *
+   * <p>A typical loop looks like:
+   *
+   * <pre>{@code
+   * for (IntIntMap.Cursor cursor = map.cursor(); cursor.advance(); ) {
+   *   process(cursor.key(), cursor.value());
+   * }
+   * }</pre>
+   *
+   * <p>Values may be changed with {@link #setValue} while iterating, but adding or removing an
+   * entry through the map makes the cursor throw {@link ConcurrentModificationException}.
+   *
+   * @since NEXT
+   */
+  public final class Cursor {
+    private int index = -1;
+    private int expectedModCount = modCount;
+
+    private Cursor() {}
+
+    /**
+     * Moves this cursor to the next entry, and returns {@code true}, or returns {@code false} if
+     * there are no more entries.
+     */
+    public boolean advance() {
+      if (modCount != expectedModCount) {
+        throw new ConcurrentModificationException();
+      }
+      int zeroSlot = zeroSlot();
+      while (index < zeroSlot) {
+        index++;
+        if ((index < zeroSlot) ? keys[index] != 0 : hasZeroKey) {
+          return true;
+        }
+      }
+      index = zeroSlot + 1;
+      return false;
+    }
+
+    /** Returns the key of the current entry. */
+    public int key() {
+      checkCurrent();
+      return keys[index];
+    }
+
+    /** Returns the value of the current entry. */
+    public int value() {
+      checkCurrent();
+      return values[index];
+    }
+
+    /** Replaces the value of the current entry. */
+    public void setValue(int value) {
+      checkCurrent();
+      values[index] = value;
+    }
+
+    private void checkCurrent() {
+      if (modCount != expectedModCount) {
+        throw new ConcurrentModificationException();
+      }
+      if (index < 0 || index > zeroSlot()) {
+        throw new NoSuchElementException();
+      }
+    }
+  }
+
+  /**
+   * Returns {@code true} if {@code object} is an {@code IntIntMap} with the same entries as this
+   * map.
+   */
+  @Override
+  public boolean equals(@CheckForNull Object object) {
+    if (object == this) {
+      return true;
+    }
+    if (!(object instanceof IntIntMap)) {
+      return false;
+    }
+    IntIntMap that = (IntIntMap) object;
+    if (size != that.size) {
+      return false;
+    }
+    for (Cursor cursor = cursor(); cursor.advance(); ) {
+      int key = cursor.key();
+      if (!that.containsKey(key) || that.get(key) != cursor.value()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns a hash code for this map, which is the same as that of a {@code Map<Integer, Integer>}
+   * with the same entries.
+   */
+  @Override
+  public int hashCode() {
+    int hash = 0;
+    for (Cursor cursor = cursor(); cursor.advance(); ) {
+      hash += cursor.key() ^ cursor.value();
+    }
+    return hash;
+  }
+
+  /** Returns a string representation of this map, in the same format as {@link java.util.Map}. */
+  @Override
+  public String toString() {
+    StringBuilder builder = new StringBuilder(size * 8).append('{');
+    for (Cursor cursor = cursor(); cursor.advance(); ) {
+      if (builder.length() > 1) {
+        builder.append(", ");
+      }
+      builder.append(cursor.key()).append('=').append(cursor.value());
+    }
+    return builder.append('}').toString();
+  }
+
+  private int zeroSlot() {
+    return keys.length - 1;
+  }
+
+  /** Returns the slot of {@code key}, which must not be 0, or -1 if it is absent. */
+  private int indexOf(int key) {
+    int[] keys = this.keys;
+    int mask = keys.length - 2;
+    for (int index = smear(key) & mask; ; index = (index + 1) & mask) {
+      int existing = keys[index];
+      if (existing == key) {
+        return index;
+      } else if (existing == 0) {
+        return -1;
+      }
+    }
+  }
+
+  /** Returns the slot of {@code key}, first adding an entry with a value of zero if needed. */
+  private int insertionIndex(int key) {
+    if (key == 0) {
+      if (!hasZeroKey) {
+        hasZeroKey = true;
+        size++;
+        modCount++;
+      }
+      return zeroSlot();
+    }
+    while (true) {
+      int[] keys = this.keys;
+      int mask = keys.length - 2;
+      for (int index = smear(key) & mask; ; index = (index + 1) & mask) {
+        int existing = keys[index];
+        if (existing == key) {
+          return index;
+        } else if (existing == 0) {
+          if (size - (hasZeroKey ? 1 : 0) >= maxSize) {
+            break; // grow, then probe again
+          }
+          keys[index] = key;
+          size++;
+          modCount++;
+          return index;
+        }
+      }
+      grow();
+    }
+  }
+
+  private void grow() {
+    int tableSize = keys.length - 1;
+    checkState(tableSize < MAX_TABLE_SIZE, "IntIntMap cannot hold more than %s entries", maxSize);
+    int[] oldKeys = keys;
+    int[] oldValues = values;
+    allocate(tableSize * 2);
+    int[] keys = this.keys;
+    int[] values = this.values;
+    int mask = keys.length - 2;
+    for (int i = 0; i < tableSize; i++) {
+      int key = oldKeys[i];
+      if (key != 0) {
+        int index = smear(key) & mask;
+        while (keys[index] != 0) {
+          index = (index + 1) & mask;
+        }
+        keys[index] = key;
+        values[index] = oldValues[i];
+      }
+    }
+    values[tableSize * 2] = oldValues[tableSize];
+  }
+
+  /**
+   * Empties slot {@code gap}, moving back any later entry of its probe sequence that could no
+   * longer be found once the slot is empty.
+   */
+  private void shiftConflictingKeys(int gap) {
+    int[] keys = this.keys;
+    int[] values = this.values;
+    int mask = keys.length - 2;
+    for (int distance = 1; ; distance++) {
+      int slot = (gap + distance) & mask;
+      int existing = keys[slot];
+      if (existing == 0) {
+        break;
+      }
+      int shift = (slot - smear(existing)) & mask;
+      if (shift >= distance) {
+        // the entry's probe sequence passes through the gap, so move it there
+        keys[gap] = existing;
+        values[gap] = values[slot];
+        gap = slot;
+        distance = 0;
+      }
+    }
+    keys[gap] = 0;
+    values[gap] = 0;
+  }
+}
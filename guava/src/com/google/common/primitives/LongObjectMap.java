@@ -0,0 +1,457 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.common.primitives;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.primitives.PrimitiveHashing.DEFAULT_LOAD_FACTOR;
+import static com.google.common.primitives.PrimitiveHashing.DEFAULT_TABLE_SIZE;
+import static com.google.common.primitives.PrimitiveHashing.MAX_TABLE_SIZE;
+import static com.google.common.primitives.PrimitiveHashing.checkLoadFactor;
+import static com.google.common.primitives.PrimitiveHashing.closedTableSize;
+import static com.google.common.primitives.PrimitiveHashing.maxEntries;
+import static com.google.common.primitives.PrimitiveHashing.smear;
+
+import com.google.common.annotations.GwtCompatible;
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.function.LongFunction;
+import javax.annotation.CheckForNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A mutable hash map from {@code long} keys to non-null object values, which stores its keys
+ * unboxed.
+ *
+ * <p>The map is an open-addressed hash table with linear probing, kept in two parallel arrays. It
+ * grows by doubling whenever its size would exceed its load factor, and never shrinks except on
+ * {@link #clear}. Removal shifts later entries of the probe sequence back rather than leaving
+ * tombstones behind, so lookups stay fast however many entries have been removed.
+ *
+ * <p>Entries are visited with a {@link Cursor}, which reads keys and values straight from the
+ * table without boxing or allocating per entry. The iteration order is unspecified.
+ *
+ * <p>This class is not thread-safe.
+ *
+ * @param <V> the type of the map's values, which are not permitted to be null
+ * @since NEXT
+ */
+@GwtCompatible
+@ElementTypesAreNonnullByDefault
+public final class LongObjectMap<V> {
+
+  /** Creates an empty map with the default initial capacity and load factor. */
+  public static <V> LongObjectMap<V> create() {
+    return new LongObjectMap<>(DEFAULT_TABLE_SIZE, DEFAULT_LOAD_FACTOR);
+  }
+
+  /**
+   * Creates an empty map that can hold {@code expectedSize} entries without growing, using the
+   * default load factor.
+   *
+   * @throws IllegalArgumentException if {@code expectedSize} is negative
+   */
+  public static <V> LongObjectMap<V> createWithExpectedSize(int expectedSize) {
+    return createWithExpectedSize(expectedSize, DEFAULT_LOAD_FACTOR);
+  }
+
+  /**
+   * Creates an empty map that can hold {@code expectedSize} entries without growing, and that
+   * keeps at most {@code loadFactor} of its slots occupied. Lower load factors make lookups
+   * faster, at the cost of memory.
+   *
+   * @throws IllegalArgumentException if {@code expectedSize} is negative, or if {@code loadFactor}
+   *     is not strictly between 0 and 1
+   */
+  public static <V> LongObjectMap<V> createWithExpectedSize(int expectedSize, float loadFactor) {
+    checkArgument(expectedSize >= 0, "expectedSize cannot be negative but was: %s", expectedSize);
+    checkLoadFactor(loadFactor);
+    return new LongObjectMap<>(closedTableSize(expectedSize, loadFactor), loadFactor);
+  }
+
+  private final float loadFactor;
+
+  /**
+   * The keys, in a table of a power-of-two number of slots followed by one extra slot. An empty
+   * slot holds 0; the key 0 itself is kept in the extra slot, whose value is null unless the key 0
+   * is present.
+   */
+  private long[] keys;
+
+  private @Nullable Object[] values;
+
+  /** The number of entries, including any entry for the key 0. */
+  private int size;
+
+  /** The number of entries that the table may hold before it must grow. */
+  private int maxSize;
+
+  /** Incremented on every structural modification, so that cursors can fail fast. */
+  private int modCount;
+
+  private LongObjectMap(int tableSize, float loadFactor) {
+    this.loadFactor = loadFactor;
+    allocate(tableSize);
+  }
+
+  private void allocate(int tableSize) {
+    keys = new long[tableSize + 1];
+    values = new Object[tableSize + 1];
+    maxSize = maxEntries(tableSize, loadFactor);
+  }
+
+  /** Returns the number of entries in this map. */
+  public int size() {
+    return size;
+  }
+
+  /** Returns {@code true} if this map contains no entries. */
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /** Returns {@code true} if this map contains an entry for {@code key}. */
+  public boolean containsKey(long key) {
+    return get(key) != null;
+  }
+
+  /** Returns the value for {@code key}, or {@code null} if there is no entry for {@code key}. */
+  @CheckForNull
+  public V get(long key) {
+    if (key == 0) {
+      return valueAt(zeroSlot());
+    }
+    int index = indexOf(key);
+    return (index >= 0) ? valueAt(index) : null;
+  }
+
+  /** Returns the value for {@code key}, or {@code defaultValue} if there is no entry for it. */
+  @CheckForNull
+  public V getOrDefault(long key, @CheckForNull V defaultValue) {
+    V value = get(key);
+    return (value != null) ? value : defaultValue;
+  }
+
+  /**
+   * Associates {@code value} with {@code key}, and returns the value previously associated with
+   * {@code key}, or {@code null} if there was none.
+   */
+  @CanIgnoreReturnValue
+  @CheckForNull
+  public V put(long key, V value) {
+    checkNotNull(value);
+    int index = insertionIndex(key);
+    V oldValue = valueAt(index);
+    if (oldValue == null) {
+      size++;
+      modCount++;
+    }
+    values[index] = value;
+    return oldValue;
+  }
+
+  /**
+   * Returns the value for {@code key}, first computing it with {@code mappingFunction} and adding
+   * it to this map if there is no entry for {@code key}.
+   *
+   * @throws NullPointerException if {@code mappingFunction} returns null
+   */
+  public V computeIfAbsent(long key, LongFunction<? extends V> mappingFunction) {
+    checkNotNull(mappingFunction);
+    V value = get(key);
+    if (value == null) {
+      value = checkNotNull(mappingFunction.apply(key), "mappingFunction returned null");
+      // the function may have modified this map, so probe again
+      put(key, value);
+    }
+    return value;
+  }
+
+  /**
+   * Removes the entry for {@code key}, if any, and returns the value it was associated with, or
+   * {@code null} if there was none.
+   */
+  @CanIgnoreReturnValue
+  @CheckForNull
+  public V remove(long key) {
+    int index = (key == 0) ? zeroSlot() : indexOf(key);
+    if (index < 0) {
+      return null;
+    }
+    V oldValue = valueAt(index);
+    if (oldValue == null) {
+      return null;
+    }
+    if (key == 0) {
+      values[index] = null;
+    } else {
+      shiftConflictingKeys(index);
+    }
+    size--;
+    modCount++;
+    return oldValue;
+  }
+
+  /** Removes all entries from this map, and shrinks its table back to the default capacity. */
+  public void clear() {
+    if (size == 0) {
+      return;
+    }
+    if (zeroSlot() > DEFAULT_TABLE_SIZE) {
+      allocate(DEFAULT_TABLE_SIZE);
+    } else {
+      Arrays.fill(keys, 0);
+      Arrays.fill(values, null);
+    }
+    size = 0;
+    modCount++;
+  }
+
+  /**
+   * Returns a cursor over the entries of this map. The cursor starts before the first entry; call
+   * {@link Cursor#advance} to move it onto each entry in turn.
+   */
+  public Cursor cursor() {
+    return new Cursor();
+  }
+
+  /**
+   * A cursor over the entries of a {@link LongObjectMap}, which reads each entry in place.
+   *
+   * <p>A typical loop looks like:
+   *
+   * <pre>{@code
+   * for (LongObjectMap<Foo>.Cursor cursor = map.cursor(); cursor.advance(); ) {
+   *   process(cursor.key(), cursor.value());
+   * }
+   * }</pre>
+   *
+   * <p>Values may be changed with {@link #setValue} while iterating, but adding or removing an
+   * entry through the map makes the cursor throw {@link ConcurrentModificationException}.
+   *
+   * @since NEXT
+   */
+  public final class Cursor {
+    private int index = -1;
+    private int expectedModCount = modCount;
+
+    private Cursor() {}
+
+    /**
+     * Moves this cursor to the next entry, and returns {@code true}, or returns {@code false} if
+     * there are no more entries.
+     */
+    public boolean advance() {
+      checkModCount();
+      int zeroSlot = zeroSlot();
+      while (index < zeroSlot) {
+        index++;
+        if (values[index] != null) {
+          return true;
+        }
+      }
+      index = zeroSlot + 1;
+      return false;
+    }
+
+    /** Returns the key of the current entry. */
+    public long key() {
+      checkCurrent();
+      return keys[index];
+    }
+
+    /** Returns the value of the current entry. */
+    public V value() {
+      checkCurrent();
+      return checkNotNull(valueAt(index));
+    }
+
+    /** Replaces the value of the current entry. */
+    public void setValue(V value) {
+      checkNotNull(value);
+      checkCurrent();
+      values[index] = value;
+    }
+
+    private void checkModCount() {
+      if (modCount != expectedModCount) {
+        throw new ConcurrentModificationException();
+      }
+    }
+
+    private void checkCurrent() {
+      checkModCount();
+      if (index < 0 || index > zeroSlot()) {
+        throw new NoSuchElementException();
+      }
+    }
+  }
+
+  /**
+   * Returns {@code true} if {@code object} is a {@code LongObjectMap} with the same entries as this
+   * map, comparing values with {@link Object#equals}.
+   */
+  @Override
+  public boolean equals(@CheckForNull Object object) {
+    if (object == this) {
+      return true;
+    }
+    if (!(object instanceof LongObjectMap)) {
+      return false;
+    }
+    LongObjectMap<?> that = (LongObjectMap<?>) object;
+    if (size != that.size) {
+      return false;
+    }
+    for (Cursor cursor = cursor(); cursor.advance(); ) {
+      if (!cursor.value().equals(that.get(cursor.key()))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns a hash code for this map, which is the same as that of a {@code Map<Long, V>} with the
+   * same entries.
+   */
+  @Override
+  public int hashCode() {
+    int hash = 0;
+    for (Cursor cursor = cursor(); cursor.advance(); ) {
+      hash += Longs.hashCode(cursor.key()) ^ cursor.value().hashCode();
+    }
+    return hash;
+  }
+
+  /** Returns a string representation of this map, in the same format as {@link java.util.Map}. */
+  @Override
+  public String toString() {
+    StringBuilder builder = new StringBuilder(size * 16).append('{');
+    for (Cursor cursor = cursor(); cursor.advance(); ) {
+      if (builder.length() > 1) {
+        builder.append(", ");
+      }
+      V value = cursor.value();
+      builder.append(cursor.key()).append('=').append(value == this ? "(this Map)" : value);
+    }
+    return builder.append('}').toString();
+  }
+
+  private int zeroSlot() {
+    return keys.length - 1;
+  }
+
+  @SuppressWarnings("unchecked") // we only put Vs into values
+  @CheckForNull
+  private V valueAt(int index) {
+    return (V) values[index];
+  }
+
+  /** Returns the slot of {@code key}, which must not be 0, or -1 if it is absent. */
+  private int indexOf(long key) {
+    long[] keys = this.keys;
+    int mask = keys.length - 2;
+    for (int index = smear(key) & mask; ; index = (index + 1) & mask) {
+      long existing = keys[index];
+      if (existing == key) {
+        return index;
+      } else if (existing == 0) {
+        return -1;
+      }
+    }
+  }
+
+  /**
+   * Returns the slot of {@code key}, first claiming a slot for it if needed. A newly claimed slot
+   * still has a null value, and is only counted towards the size once {@link #put} fills it.
+   */
+  private int insertionIndex(long key) {
+    if (key == 0) {
+      return zeroSlot();
+    }
+    while (true) {
+      long[] keys = this.keys;
+      int mask = keys.length - 2;
+      for (int index = smear(key) & mask; ; index = (index + 1) & mask) {
+        long existing = keys[index];
+        if (existing == key) {
+          return index;
+        } else if (existing == 0) {
+          if (size - (values[zeroSlot()] != null ? 1 : 0) >= maxSize) {
+            break; // grow, then probe again
+          }
+          keys[index] = key;
+          return index;
+        }
+      }
+      grow();
+    }
+  }
+
+  private void grow() {
+    int tableSize = keys.length - 1;
+    checkState(
+        tableSize < MAX_TABLE_SIZE, "LongObjectMap cannot hold more than %s entries", maxSize);
+    long[] oldKeys = keys;
+    @Nullable Object[] oldValues = values;
+    allocate(tableSize * 2);
+    long[] keys = this.keys;
+    @Nullable Object[] values = this.values;
+    int mask = keys.length - 2;
+    for (int i = 0; i < tableSize; i++) {
+      long key = oldKeys[i];
+      if (key != 0) {
+        int index = smear(key) & mask;
+        while (keys[index] != 0) {
+          index = (index + 1) & mask;
+        }
+        keys[index] = key;
+        values[index] = oldValues[i];
+      }
+    }
+    values[tableSize * 2] = oldValues[tableSize];
+  }
+
+  /**
+   * Empties slot {@code gap}, moving back any later entry of its probe sequence that could no
+   * longer be found once the slot is empty.
+   */
+  private void shiftConflictingKeys(int gap) {
+    long[] keys = this.keys;
+    @Nullable Object[] values = this.values;
+    int mask = keys.length - 2;
+    for (int distance = 1; ; distance++) {
+      int slot = (gap + distance) & mask;
+      long existing = keys[slot];
+      if (existing == 0) {
+        break;
+      }
+      int shift = (slot - smear(existing)) & mask;
+      if (shift >= distance) {
+        // the entry's probe sequence passes through the gap, so move it there
+        keys[gap] = existing;
+        values[gap] = values[slot];
+        gap = slot;
+        distance = 0;
+      }
+    }
+    keys[gap] = 0;
+    values[gap] = null;
+  }
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.common.primitives;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.annotations.GwtCompatible;
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import java.util.Arrays;
+
+/**
+ * An accumulator that selects the least or greatest {@code k} {@code long} values offered to it,
+ * without boxing them. It works like {@link com.google.common.collect.TopKSelector}: expected O(n +
+ * k log k) time (worst case O(n log k)) for n offers and a call to {@link #topK}, with O(k) memory.
+ *
+ * <p>Selectors filled separately can be merged with {@link #combine} in O(k) time, so a selector
+ * can collect a parallel {@link java.util.stream.LongStream}:
+ *
+ * <pre>{@code
+ * ImmutableLongArray top =
+ *     scores.parallel()
+ *         .collect(() -> LongTopKSelector.greatest(k), LongTopKSelector::offer,
+ *             LongTopKSelector::combine)
+ *         .topK();
+ * }</pre>
+ *
+ * <p>This class is not thread-safe.
+ *
+ * @since NEXT
+ */
+@GwtCompatible
+@ElementTypesAreNonnullByDefault
+public final class LongTopKSelector {
+  /**
+   * Returns a selector that collects the least {@code k} values offered to it, and returns them via
+   * {@link #topK} in ascending order.
+   *
+   * @throws IllegalArgumentException if {@code k < 0} or {@code k > Integer.MAX_VALUE / 2}
+   */
+  public static LongTopKSelector least(int k) {
+    return new LongTopKSelector(k, false);
+  }
+
+  /**
+   * Returns a selector that collects the greatest {@code k} values offered to it, and returns them
+   * via {@link #topK} in descending order.
+   *
+   * @throws IllegalArgumentException if {@code k < 0} or {@code k > Integer.MAX_VALUE / 2}
+   */
+  public static LongTopKSelector greatest(int k) {
+    return new LongTopKSelector(k, true);
+  }
+
+  private final int k;
+
+  /**
+   * Whether this selects the greatest values. The buffer always selects the least keys; for the
+   * greatest values, it stores each value's complement, which reverses the order exactly.
+   */
+  private final boolean greatest;
+
+  /*
+   * The keys in buffer in the range [0, bufferSize) are the candidates for the top k. Whenever the
+   * buffer is filled, we quickselect the least k keys to the range [0, k) and drop the rest.
+   */
+  private final long[] buffer;
+  private int bufferSize;
+
+  /**
+   * An upper bound of the keys in the buffer. Once bufferSize ≥ k, keys that are not less than this
+   * cannot make the top k. It starts at the least key, so a selector with k = 0 accepts nothing.
+   */
+  private long threshold = Long.MIN_VALUE;
+
+  private LongTopKSelector(int k, boolean greatest) {
+    checkArgument(k >= 0, "k (%s) must be >= 0", k);
+    checkArgument(k <= Integer.MAX_VALUE / 2, "k (%s) must be <= Integer.MAX_VALUE / 2", k);
+    this.k = k;
+    this.greatest = greatest;
+    this.buffer = new long[2 * k];
+  }
+
+  /** Adds {@code value} as a candidate for the top k values. This takes amortized O(1) time. */
+  public void offer(long value) {
+    long key = greatest ? ~value : value;
+    if (bufferSize < k) {
+      buffer[bufferSize++] = key;
+      threshold = Math.max(threshold, key);
+    } else if (key < threshold) {
+      buffer[bufferSize++] = key;
+      if (bufferSize == buffer.length) {
+        trim();
+      }
+    }
+  }
+
+  /** Adds each of {@code values} as a candidate for the top k values. */
+  public void offerAll(long... values) {
+    for (long value : values) {
+      offer(value);
+    }
+  }
+
+  /**
+   * Adds the candidates of {@code other} to this selector, and returns this selector. {@code other}
+   * is not modified. This takes O(k) amortized time.
+   *
+   * @throws IllegalArgumentException if the selectors have different values of k, or if one
+   *     selector selects the least values and the other the greatest
+   */
+  @CanIgnoreReturnValue
+  public LongTopKSelector combine(LongTopKSelector other) {
+    checkArgument(
+        greatest == other.greatest, "cannot combine selectors of the least and greatest values");
+    checkArgument(other.k == k, "cannot combine selectors with k = %s and %s", k, other.k);
+    if (k == 0) {
+      return this;
+    }
+    // Copies other's keys in blocks; the next trim() drops any that can't make the top k.
+    int copied = 0;
+    while (copied < other.bufferSize) {
+      int length = Math.min(other.bufferSize - copied, buffer.length - bufferSize);
+      System.arraycopy(other.buffer, copied, buffer, bufferSize, length);
+      copied += length;
+      bufferSize += length;
+      threshold = Math.max(threshold, other.threshold);
+      if (bufferSize == buffer.length) {
+        trim();
+      }
+    }
+    return this;
+  }
+
+  /**
+   * Returns the top k values offered to this selector, or all of them if fewer than k were offered,
+   * in ascending order for {@link #least} and descending order for {@link #greatest}. The result is
+   * not affected by further changes to this selector. This takes O(k log k) time.
+   */
+  public ImmutableLongArray topK() {
+    Arrays.sort(buffer, 0, bufferSize);
+    if (bufferSize > k) {
+      bufferSize = k;
+      threshold = buffer[k - 1];
+    }
+    long[] result = Arrays.copyOf(buffer, bufferSize);
+    if (greatest) {
+      for (int i = 0; i < result.length; i++) {
+        result[i] = ~result[i];
+      }
+    }
+    return ImmutableLongArray.wrap(result, 0, result.length);
+  }
+
+  /**
+   * Quickselects the least k keys from the 2k keys in the buffer. O(k) expected time, O(k log k)
+   * worst case.
+   */
+  private void trim() {
+    int left = 0;
+    int right = 2 * k - 1;
+
+    // The leftmost position at which the new threshold, the greatest of the least k keys, might be.
+    int minThresholdPosition = 0;
+
+    int iterations = 0;
+    int maxIterations = 3 * (Integer.SIZE - Integer.numberOfLeadingZeros(right - left - 1));
+    while (left < right) {
+      int pivotIndex = (left + right + 1) >>> 1;
+      int pivotNewIndex = partition(left, right, pivotIndex);
+      if (pivotNewIndex > k) {
+        right = pivotNewIndex - 1;
+      } else if (pivotNewIndex < k) {
+        left = Math.max(pivotNewIndex, left + 1);
+        minThresholdPosition = pivotNewIndex;
+      } else {
+        break;
+      }
+      if (++iterations >= maxIterations) {
+        // We've already taken O(k log k); make sure we don't take longer than that.
+        Arrays.sort(buffer, left, right + 1);
+        break;
+      }
+    }
+    bufferSize = k;
+
+    threshold = buffer[minThresholdPosition];
+    for (int i = minThresholdPosition + 1; i < k; i++) {
+      threshold = Math.max(threshold, buffer[i]);
+    }
+  }
+
+  /**
+   * Partitions the buffer in the range [left, right] around the key at pivotIndex. Returns the new
+   * index of the pivot, so that everything in [left, pivotNewIndex] is ≤ the pivot and everything
+   * in (pivotNewIndex, right] is greater.
+   */
+  private int partition(int left, int right, int pivotIndex) {
+    long[] buffer = this.buffer;
+    long pivotValue = buffer[pivotIndex];
+    buffer[pivotIndex] = buffer[right];
+
+    int pivotNewIndex = left;
+    for (int i = left; i < right; i++) {
+      if (buffer[i] < pivotValue) {
+        long tmp = buffer[pivotNewIndex];
+        buffer[pivotNewIndex] = buffer[i];
+        buffer[i] = tmp;
+        pivotNewIndex++;
+      }
+    }
+    buffer[right] = buffer[pivotNewIndex];
+    buffer[pivotNewIndex] = pivotValue;
+    return pivotNewIndex;
+  }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.common.primitives;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.annotations.GwtCompatible;
+
+/**
+ * Hashing and sizing helpers for the open-addressed tables of {@link IntIntMap}, {@link
+ * LongObjectMap} and {@link ObjectIntMap}. These mirror the helpers that {@code
+ * com.google.common.collect} uses for its own hash tables, but accept any load factor.
+ */
+@GwtCompatible
+@ElementTypesAreNonnullByDefault
+final class PrimitiveHashing {
+  private PrimitiveHashing() {}
+
+  /** The load factor of a map that was created without one. */
+  static final float DEFAULT_LOAD_FACTOR = 0.75f;
+
+  /** The number of slots of a map that was created without an expected size. */
+  static final int DEFAULT_TABLE_SIZE = 8;
+
+  static final int MAX_TABLE_SIZE = Ints.MAX_POWER_OF_TWO;
+
+  /*
+   * These should be ints, but we need to use longs to force GWT to do the multiplications with
+   * enough precision.
+   */
+  private static final long C1 = 0xcc9e2d51;
+  private static final long C2 = 0x1b873593;
+
+  /*
+   * This method was rewritten in Java from an intermediate step of the Murmur hash function in
+   * http://code.google.com/p/smhasher/source/browse/trunk/MurmurHash3.cpp, which contained the
+   * following header:
+   *
+   * MurmurHash3 was written by Austin Appleby, and is placed in the public domain. The author
+   * hereby disclaims copyright to this source code.
+   */
+  static int smear(int hashCode) {
+    return (int) (C2 * Integer.rotateLeft((int) (hashCode * C1), 15));
+  }
+
+  static int smear(long key) {
+    return smear(Longs.hashCode(key));
+  }
+
+  static float checkLoadFactor(float loadFactor) {
+    checkArgument(
+        loadFactor > 0 && loadFactor < 1, "loadFactor must be in (0, 1), but was %s", loadFactor);
+    return loadFactor;
+  }
+
+  /**
+   * Returns the power-of-two number of slots for a table that must hold {@code expectedEntries}
+   * entries without exceeding {@code loadFactor}.
+   */
+  static int closedTableSize(int expectedEntries, float loadFactor) {
+    expectedEntries = Math.max(expectedEntries, 2);
+    int tableSize = Integer.highestOneBit(expectedEntries);
+    while (expectedEntries > maxEntries(tableSize, loadFactor) && tableSize < MAX_TABLE_SIZE) {
+      tableSize <<= 1;
+    }
+    return tableSize;
+  }
+
+  /**
+   * Returns the number of entries that a table of {@code tableSize} slots may hold. This is always
+   * positive, and always leaves at least one slot free so that every probe terminates.
+   */
+  static int maxEntries(int tableSize, float loadFactor) {
+    return (int) Math.min(tableSize - 1, Math.max(1, (long) Math.ceil(tableSize * loadFactor)));
+  }
+}
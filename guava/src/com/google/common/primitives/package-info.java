@@ -59,6 +59,20 @@
  *   <li>{@link com.google.common.primitives.UnsignedInteger}
  *   <li>{@link com.google.common.primitives.UnsignedLong}
  * </ul>
+ *
+ * <h3>Mutable collections</h3>
+ *
+ * <ul>
+ *   <li>{@link com.google.common.primitives.IntArrayList}
+ *   <li>{@link com.google.common.primitives.LongArrayList}
+ *   <li>{@link com.google.common.primitives.DoubleArrayList}
+ *   <li>{@link com.google.common.primitives.IntIntMap}
+ *   <li>{@link com.google.common.primitives.LongObjectMap}
+ *   <li>{@link com.google.common.primitives.ObjectIntMap}
+ *   <li>{@link com.google.common.primitives.IntTopKSelector}
+ *   <li>{@link com.google.common.primitives.LongTopKSelector}
+ *   <li>{@link com.google.common.primitives.DoubleTopKSelector}
+ * </ul>
  */
 @ParametersAreNonnullByDefault
 @CheckReturnValue